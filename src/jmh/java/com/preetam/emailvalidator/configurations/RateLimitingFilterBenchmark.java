@@ -0,0 +1,105 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.configurations;
+
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Measures the per-request cost of the {@link RateLimitingFilter} with many
+ * distinct clients, half IPv4 and half IPv6, against the unbounded map of
+ * address strings it used before.
+ *
+ * <p>Run with {@code ./gradlew jmh}. The retained size of the keys of both
+ * stores is printed once per fork, measured with JOL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("PMD")
+public class RateLimitingFilterBenchmark {
+
+  /** A limit no client reaches during a run. */
+  private static final String UNREACHABLE = "1000000000/1m";
+
+  /** Number of distinct clients. */
+  @Param({"100000"})
+  public int clients;
+
+  private RateLimitingFilter filter;
+
+  private Map<String, Bucket> stringMap;
+
+  private String[] addresses;
+
+  private int next;
+
+  /** Builds both stores with a bucket for every client. */
+  @Setup(Level.Trial)
+  public void setup() {
+    addresses = new String[clients];
+    for (int i = 0; i < clients; i++) {
+      addresses[i] =
+          i % 2 == 0
+              ? "10." + (i >> 16 & 0xFF) + "." + (i >> 8 & 0xFF) + "." + (i & 0xFF)
+              : "2001:db8::" + Integer.toHexString(i >> 16) + ":" + Integer.toHexString(i & 0xFFFF);
+    }
+    filter = new RateLimitingFilter(new SimpleMeterRegistry(), UNREACHABLE, "", clients * 2L);
+    stringMap = new ConcurrentHashMap<>();
+    ClientKey[] keys = new ClientKey[clients];
+    for (int i = 0; i < clients; i++) {
+      filter.resolveBucket(null, addresses[i]);
+      stringMap.computeIfAbsent(addresses[i], address -> newBucket());
+      keys[i] = ClientKey.of(addresses[i]);
+    }
+
+    System.out.printf(
+        "%nretained key bytes: clientKeys=%d strings=%d%n",
+        GraphLayout.parseInstance((Object[]) keys).totalSize(),
+        GraphLayout.parseInstance((Object[]) addresses).totalSize());
+  }
+
+  private static Bucket newBucket() {
+    return RateLimitTiers.Limit.parse(UNREACHABLE).newBucket();
+  }
+
+  private String nextAddress() {
+    next = next + 1 == addresses.length ? 0 : next + 1;
+    return addresses[next];
+  }
+
+  /**
+   * Admits a request through the filter's bounded store.
+   *
+   * @return whether the request was admitted
+   */
+  @Benchmark
+  public boolean boundedStore() {
+    return filter.resolveBucket(null, nextAddress()).tryConsume(1);
+  }
+
+  /**
+   * Admits a request through an unbounded map keyed by address strings.
+   *
+   * @return whether the request was admitted
+   */
+  @Benchmark
+  public boolean stringMap() {
+    return stringMap.computeIfAbsent(nextAddress(), address -> newBucket()).tryConsume(1);
+  }
+}
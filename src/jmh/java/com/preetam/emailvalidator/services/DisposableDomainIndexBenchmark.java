@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Compares {@link DisposableDomainIndex} with a {@link HashSet} of the same
+ * domains, probed for every parent of the queried domain as the index does.
+ *
+ * <p>Run with {@code ./gradlew jmh}. The retained size of both structures is
+ * printed once per fork, measured with JOL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("PMD")
+public class DisposableDomainIndexBenchmark {
+
+  private static final String[] TLDS = {"com", "net", "org", "io", "co.uk", "xyz", "ru", "de"};
+
+  /** Number of domains listed. */
+  @Param({"100000"})
+  public int size;
+
+  private DisposableDomainIndex index;
+
+  private Set<String> hashSet;
+
+  private String[] queries;
+
+  private int next;
+
+  /** Builds both structures from the same synthetic list. */
+  @Setup(Level.Trial)
+  public void setup() {
+    SplittableRandom random = new SplittableRandom(42);
+    List<String> domains = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      domains.add(label(random) + "." + TLDS[random.nextInt(TLDS.length)]);
+    }
+    index = DisposableDomainIndex.of(domains);
+    hashSet = new HashSet<>(domains);
+
+    // Half hits on a subdomain of a listed domain, half misses.
+    queries = new String[1024];
+    for (int i = 0; i < queries.length; i++) {
+      queries[i] =
+          i % 2 == 0
+              ? "mx." + domains.get(random.nextInt(size))
+              : "mx." + label(random) + ".example.com";
+    }
+
+    System.out.printf(
+        "%nretained bytes: index=%d hashSet=%d%n",
+        GraphLayout.parseInstance(index).totalSize(),
+        GraphLayout.parseInstance(hashSet).totalSize());
+  }
+
+  private static String label(SplittableRandom random) {
+    StringBuilder label = new StringBuilder();
+    int length = 6 + random.nextInt(10);
+    for (int i = 0; i < length; i++) {
+      label.append((char) ('a' + random.nextInt(26)));
+    }
+    return label.toString();
+  }
+
+  private String nextQuery() {
+    next = (next + 1) & (queries.length - 1);
+    return queries[next];
+  }
+
+  /**
+   * Looks up a domain in the index.
+   *
+   * @return whether the domain is listed
+   */
+  @Benchmark
+  public boolean index() {
+    return index.contains(nextQuery());
+  }
+
+  /**
+   * Looks up a domain and each of its parents in the hash set.
+   *
+   * @return whether the domain is listed
+   */
+  @Benchmark
+  public boolean hashSet() {
+    String domain = nextQuery();
+    boolean found = hashSet.contains(domain);
+    for (int dot = domain.indexOf('.'); !found && dot >= 0; dot = domain.indexOf('.', dot + 1)) {
+      found = hashSet.contains(domain.substring(dot + 1));
+    }
+    return found;
+  }
+}
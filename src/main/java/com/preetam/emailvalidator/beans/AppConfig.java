@@ -4,8 +4,15 @@
 
 package com.preetam.emailvalidator.beans;
 
+import com.preetam.emailvalidator.configurations.OutboundBulkhead;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -17,13 +24,69 @@ import org.springframework.web.client.RestTemplate;
 @SuppressWarnings("PMD.AtLeastOneConstructor")
 public class AppConfig {
 
+  /**
+   * Bean definition for the HTTP client behind outbound reputation calls.
+   *
+   * <p>The JDK client negotiates HTTP/2, keeps idle connections pooled for
+   * reuse and resumes TLS sessions, so repeated calls to the same provider skip
+   * the TCP and TLS handshakes.
+   *
+   * @param connectTimeout maximum time to establish a connection
+   * @return an HTTP client closed with the application context
+   */
+  @Bean
+  public HttpClient outboundHttpClient(
+      @Value("${email.validator.http.connect-timeout:2s}") final Duration connectTimeout) {
+    return HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_2)
+        .connectTimeout(connectTimeout)
+        .followRedirects(HttpClient.Redirect.NEVER)
+        .build();
+  }
+
   /**
    * Bean definition for RestTemplate to perform REST operations.
    *
-   * @return a new instance of RestTemplate
+   * <p>Requests go through the pooled {@code outboundHttpClient}, fail once no
+   * response has arrived within the read timeout, and pass the
+   * {@link OutboundBulkhead} that bounds how many are in flight.
+   *
+   * @param httpClient the pooled HTTP client
+   * @param bulkhead interceptor bounding and timing outbound calls
+   * @param readTimeout maximum time to wait for a response
+   * @return a RestTemplate for outbound reputation calls
    */
   @Bean
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
+  public RestTemplate restTemplate(
+      final HttpClient httpClient,
+      final OutboundBulkhead bulkhead,
+      @Value("${email.validator.http.read-timeout:5s}") final Duration readTimeout) {
+    final JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+    requestFactory.setReadTimeout(readTimeout);
+    final RestTemplate restTemplate = new RestTemplate(requestFactory);
+    restTemplate.getInterceptors().add(bulkhead);
+    return restTemplate;
+  }
+
+  /**
+   * Bean definition for the executor that sends batched Safe Browsing requests.
+   *
+   * <p>Validations wait on these checks from request and async threads, so
+   * batches are sent on a pool of their own. When
+   * {@code spring.threads.virtual.enabled} is set, each request runs on its own
+   * virtual thread and the thread count no longer applies.
+   *
+   * @param threads number of worker threads in the platform-thread pool
+   * @param virtualThreads whether to run each request on its own virtual thread
+   * @return an executor service shut down with the application context
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService safeBrowsingExecutor(
+      @Value("${google.safebrowsing.batch.threads:8}") final int threads,
+      @Value("${spring.threads.virtual.enabled:false}") final boolean virtualThreads) {
+    return virtualThreads
+        ? Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("safe-browsing-", 0).factory())
+        : Executors.newFixedThreadPool(threads);
   }
 }
@@ -4,8 +4,15 @@
 
 package com.preetam.emailvalidator.beans;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
@@ -19,16 +26,90 @@ public class CacheConfig {
   /**
    * Configures a Caffeine-backed CacheManager bean for email validation caching.
    *
+   * <p>Two caches are defined: {@code emailValidationCache} holds complete
+   * per-address responses, and {@code domainVerdictCache} holds the MX, Safe
+   * Browsing and disposable verdicts shared by every address on a domain.
+   * Each entry expires according to the TTLs of the lookups behind it.
+   *
+   * <p>When a verdict store is configured, both caches are backed by it, so
+   * that their entries survive restarts; see {@link TieredCaffeineCache}.
+   *
+   * @param verdictExpiry the per-entry expiry policy
+   * @param verdictStore the second-level store, if enabled
    * @return a CacheManager instance with custom Caffeine settings
    */
   @Bean
-  public CacheManager cacheManager() {
-    final CaffeineCacheManager cacheManager = new CaffeineCacheManager("emailValidationCache");
+  public CacheManager cacheManager(
+      final VerdictExpiry verdictExpiry, final Optional<MappedVerdictStore> verdictStore) {
+    final CaffeineCacheManager cacheManager =
+        verdictStore
+            .<CaffeineCacheManager>map(store -> new TieredCacheManager(store, verdictExpiry))
+            .orElseGet(CaffeineCacheManager::new);
     cacheManager.setCaffeine(
-        Caffeine.newBuilder()
-            .expireAfterWrite(30, TimeUnit.MINUTES)
-            .maximumSize(10_000)
-            .recordStats());
+        Caffeine.newBuilder().expireAfter(verdictExpiry).maximumSize(10_000).recordStats());
+    // Set last, so that the caches are created once the manager is fully configured.
+    cacheManager.setCacheNames(List.of("emailValidationCache", "domainVerdictCache"));
     return cacheManager;
   }
+
+  /**
+   * Opens the off-heap store backing the validation caches.
+   *
+   * @param file the file holding the store, shared by every instance on the host
+   * @param capacity the number of entries the store holds
+   * @return the store
+   * @throws IOException if the file cannot be created or mapped
+   */
+  @Bean(destroyMethod = "close")
+  @ConditionalOnProperty(name = "email.validator.cache.l2.enabled", havingValue = "true")
+  public MappedVerdictStore verdictStore(
+      @Value("${email.validator.cache.l2.file:cache/verdicts.l2}") final String file,
+      @Value("${email.validator.cache.l2.capacity:2097152}") final int capacity)
+      throws IOException {
+    return new MappedVerdictStore(Paths.get(file), capacity);
+  }
+
+  /**
+   * Configures the per-entry expiry policy shared by the validation caches.
+   *
+   * @param minTtl shortest time any entry is kept
+   * @param maxTtl longest time any entry is kept
+   * @param defaultTtl time kept for entries without a TTL of their own
+   * @return the expiry policy
+   */
+  @Bean
+  public VerdictExpiry verdictExpiry(
+      @Value("${email.validator.cache.min-ttl:1m}") final Duration minTtl,
+      @Value("${email.validator.cache.max-ttl:6h}") final Duration maxTtl,
+      @Value("${email.validator.cache.default-ttl:30m}") final Duration defaultTtl) {
+    return new VerdictExpiry(minTtl, maxTtl, defaultTtl);
+  }
+
+  /** Caffeine cache manager creating {@link TieredCaffeineCache} instances. */
+  static class TieredCacheManager extends CaffeineCacheManager {
+
+    /** The second-level store shared by the caches. */
+    private final MappedVerdictStore store;
+
+    /** The per-entry expiry policy. */
+    private final VerdictExpiry expiry;
+
+    /**
+     * Constructs a TieredCacheManager.
+     *
+     * @param store the second-level store shared by the caches
+     * @param expiry the per-entry expiry policy
+     */
+    TieredCacheManager(final MappedVerdictStore store, final VerdictExpiry expiry) {
+      super();
+      this.store = store;
+      this.expiry = expiry;
+    }
+
+    @Override
+    protected org.springframework.cache.Cache adaptCaffeineCache(
+        final String name, final Cache<Object, Object> cache) {
+      return new TieredCaffeineCache(name, cache, isAllowNullValues(), store, expiry);
+    }
+  }
 }
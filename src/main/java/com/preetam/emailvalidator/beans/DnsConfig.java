@@ -4,10 +4,10 @@
 
 package com.preetam.emailvalidator.beans;
 
-import com.preetam.emailvalidator.services.LookupFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.xbill.DNS.Lookup;
+import org.xbill.DNS.Resolver;
 
 /** Configuration class for DNS-related beans used in email validation. */
 @Configuration
@@ -15,12 +15,12 @@ import org.xbill.DNS.Lookup;
 public class DnsConfig {
 
   /**
-   * Defines a bean for the LookupFactory, which supplies DNS lookup instances.
+   * Defines a bean for the DNS resolver used for direct queries.
    *
-   * @return a LookupFactory using default Lookup instantiation
+   * @return the system-configured default resolver
    */
   @Bean
-  public LookupFactory lookupFactory() {
-    return Lookup::new;
+  public Resolver dnsResolver() {
+    return Lookup.getDefaultResolver();
   }
 }
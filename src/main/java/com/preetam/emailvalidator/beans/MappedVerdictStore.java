@@ -0,0 +1,406 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.beans;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Fixed-size hash table of packed verdicts, stored off-heap in a memory-mapped
+ * file so that it survives restarts and can be shared by every JVM on the host.
+ *
+ * <p>Each slot holds a 128-bit fingerprint of its key, the absolute expiry time
+ * and a 64-bit value; the key itself is not stored. A key is looked up in up
+ * to {@value #MAX_PROBES} consecutive slots. When they are all taken, a write
+ * replaces the entry closest to expiry, so the table never grows.
+ *
+ * <p>Slots are guarded by a sequence counter: a writer makes it odd while it
+ * updates the slot and even again afterwards, and readers retry or skip a slot
+ * whose counter moved under them. The counter is updated with atomic
+ * instructions on the shared mapping, so concurrent readers and writers in
+ * other processes see either the old or the new entry, never a mix. Writers
+ * only take a slot whose counter still has the value they read it at, so no
+ * write overwrites an entry it has not seen. A writer finding its key's own
+ * slot mid-update waits for it rather than writing the key to another slot,
+ * and drops its write if the slot stays busy. A slot whose writer died
+ * mid-update stays odd and is skipped from then on.
+ */
+public class MappedVerdictStore {
+
+  /** Largest capacity whose file can be mapped as a single buffer. */
+  public static final int MAX_CAPACITY = (Integer.MAX_VALUE - 64) / 40;
+
+  /** Identifies a verdict store file: {@code "EVL2"} followed by a format version. */
+  private static final long MAGIC = 0x45564c3200000001L;
+
+  /** Bytes reserved for the header at the start of the file. */
+  private static final int HEADER_BYTES = 64;
+
+  /** Bytes per slot: sequence, fingerprint (two longs), expiry and value. */
+  private static final int SLOT_BYTES = 40;
+
+  /** Number of slots a key may occupy, starting at its home slot. */
+  private static final int MAX_PROBES = 8;
+
+  /** Attempts at reading a slot consistently before it is skipped. */
+  private static final int READ_ATTEMPTS = 4;
+
+  /** Attempts at reading a busy slot of the key being written before the write is dropped. */
+  private static final int BUSY_WAITS = 1000;
+
+  /** Longs read from a slot: the fingerprint halves, the expiry and the value. */
+  private static final int SLOT_LONGS = 4;
+
+  /** Returned by {@link #read} for a slot that could not be read; sequences read are even. */
+  private static final long BUSY = -1;
+
+  /** Offset of the capacity in the header. */
+  private static final int CAPACITY_OFFSET = 8;
+
+  /** Offset of the slot size in the header. */
+  private static final int SLOT_SIZE_OFFSET = 16;
+
+  /** Offset of the first fingerprint half within a slot. */
+  private static final int FINGERPRINT_OFFSET = 8;
+
+  /** Offset of the expiry, in epoch milliseconds, within a slot. */
+  private static final int EXPIRY_OFFSET = 24;
+
+  /** Offset of the value within a slot. */
+  private static final int VALUE_OFFSET = 32;
+
+  /** SHA-256 digest of the calling thread, reused across fingerprints. */
+  private static final ThreadLocal<MessageDigest> SHA_256 =
+      ThreadLocal.withInitial(MappedVerdictStore::sha256);
+
+  /** Aligned atomic access to the longs of the mapping. */
+  private static final VarHandle LONG =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  /** The mapped file, header included. */
+  private final ByteBuffer buffer;
+
+  /** Number of slots. */
+  private final int capacity;
+
+  /** Clock deciding which entries have expired. */
+  private final Clock clock;
+
+  /**
+   * An entry read from the store.
+   *
+   * @param value the stored value
+   * @param expiresAtMillis when the entry expires, in epoch milliseconds
+   */
+  public record Entry(long value, long expiresAtMillis) {}
+
+  /**
+   * Opens the store in the given file, creating it if it does not exist.
+   *
+   * @param file the file holding the store
+   * @param capacity the number of slots; must match the file's if it exists
+   * @throws IOException if the file cannot be created or mapped
+   * @throws IllegalArgumentException if the capacity is out of range
+   * @throws IllegalStateException if the file holds another store
+   */
+  public MappedVerdictStore(final Path file, final int capacity) throws IOException {
+    this(file, capacity, Clock.systemUTC());
+  }
+
+  /**
+   * Opens the store in the given file with the given clock.
+   *
+   * @param file the file holding the store
+   * @param capacity the number of slots; must match the file's if it exists
+   * @param clock the clock deciding which entries have expired
+   * @throws IOException if the file cannot be created or mapped
+   */
+  MappedVerdictStore(final Path file, final int capacity, final Clock clock) throws IOException {
+    if (capacity < MAX_PROBES || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException(
+          "Verdict store capacity must be between " + MAX_PROBES + " and " + MAX_CAPACITY);
+    }
+    this.capacity = capacity;
+    this.clock = clock;
+    this.buffer = map(file, capacity);
+  }
+
+  @SuppressWarnings("PMD.AvoidSynchronizedStatement")
+  private static MappedByteBuffer map(final Path file, final int capacity) throws IOException {
+    final long size = HEADER_BYTES + (long) capacity * SLOT_BYTES;
+    final Path parent = file.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    // File locks are held per process: serialize openings within this JVM, then across JVMs.
+    synchronized (MappedVerdictStore.class) {
+      try (FileChannel channel =
+              FileChannel.open(
+                  file,
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.READ,
+                  StandardOpenOption.WRITE);
+          FileLock lock = channel.lock()) {
+        final long existing = channel.size();
+        if (existing != 0 && existing != size) {
+          throw mismatch(file, capacity);
+        }
+        final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        mapped.order(ByteOrder.nativeOrder());
+        final long magic = mapped.getLong(0);
+        if (magic == 0) {
+          // A new file, or one whose creator died before finishing the header.
+          mapped.putLong(CAPACITY_OFFSET, capacity);
+          mapped.putInt(SLOT_SIZE_OFFSET, SLOT_BYTES);
+          mapped.putLong(0, MAGIC);
+          mapped.force();
+        } else if (magic != MAGIC
+            || mapped.getLong(CAPACITY_OFFSET) != capacity
+            || mapped.getInt(SLOT_SIZE_OFFSET) != SLOT_BYTES) {
+          throw mismatch(file, capacity);
+        }
+        return mapped;
+      }
+    }
+  }
+
+  private static IllegalStateException mismatch(final Path file, final int capacity) {
+    return new IllegalStateException(
+        "Verdict store " + file + " was not created with " + capacity
+            + " slots; delete it or restore the capacity it was created with");
+  }
+
+  /**
+   * Returns the number of slots.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Looks up a key.
+   *
+   * @param key the key
+   * @return the key's entry, or {@code null} if it is absent or expired
+   */
+  public Entry get(final String key) {
+    final long[] fingerprint = fingerprint(key);
+    final long now = clock.millis();
+    final long[] slot = new long[SLOT_LONGS];
+    Entry found = null;
+    for (int probe = 0; probe < MAX_PROBES && found == null; probe++) {
+      if (read(offset(fingerprint, probe), slot) != BUSY) {
+        if (slot[0] == 0) {
+          // Writes fill the first free slot, so the key cannot be further along.
+          break;
+        }
+        if (matches(slot, fingerprint) && slot[2] > now) {
+          found = new Entry(slot[3], slot[2]);
+        }
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Stores an entry, replacing the key's previous entry. The write is dropped
+   * if another writer changes the slot it needs at the same time, or keeps the
+   * key's own slot busy.
+   *
+   * @param key the key
+   * @param value the value
+   * @param expiresAtMillis when the entry expires, in epoch milliseconds
+   */
+  public void put(final String key, final long value, final long expiresAtMillis) {
+    final long[] fingerprint = fingerprint(key);
+    final long now = clock.millis();
+    final long[] slot = new long[SLOT_LONGS];
+    int target = -1;
+    long targetSequence = BUSY;
+    // Failing a slot of the key's own, the write takes a free or expired one, else the soonest
+    // to expire; empty slots have expired at 0.
+    long targetExpiry = Long.MAX_VALUE;
+    boolean matched = false;
+    for (int probe = 0; probe < MAX_PROBES && !matched; probe++) {
+      final int offset = offset(fingerprint, probe);
+      long sequence = read(offset, slot);
+      for (int wait = 0;
+          sequence == BUSY && wait < BUSY_WAITS && claimedBy(offset, fingerprint);
+          wait++) {
+        Thread.onSpinWait();
+        sequence = read(offset, slot);
+      }
+      if (sequence != BUSY) {
+        matched = matches(slot, fingerprint);
+        final long expiry = slot[2] <= now ? Long.MIN_VALUE : slot[2];
+        if (matched || expiry < targetExpiry) {
+          target = offset;
+          targetSequence = sequence;
+          targetExpiry = expiry;
+        }
+        if (slot[0] == 0) {
+          break;
+        }
+      } else if (claimedBy(offset, fingerprint)) {
+        // The key's own slot is still busy: writing to another would hold the key twice.
+        matched = true;
+        target = -1;
+      }
+    }
+    if (target >= 0) {
+      write(target, targetSequence, fingerprint[0], fingerprint[1], expiresAtMillis, value);
+    }
+  }
+
+  /**
+   * Removes a key.
+   *
+   * @param key the key
+   * @return whether an unexpired entry was found
+   */
+  public boolean remove(final String key) {
+    final long[] fingerprint = fingerprint(key);
+    final long now = clock.millis();
+    final long[] slot = new long[SLOT_LONGS];
+    boolean removed = false;
+    for (int probe = 0; probe < MAX_PROBES; probe++) {
+      final int offset = offset(fingerprint, probe);
+      final long sequence = read(offset, slot);
+      if (sequence != BUSY && matches(slot, fingerprint) && slot[2] > now) {
+        // The fingerprint stays behind so that later keys on the chain are still found.
+        write(offset, sequence, slot[0], slot[1], 0, 0);
+        removed = true;
+      }
+    }
+    return removed;
+  }
+
+  /**
+   * Removes every unexpired entry whose value matches a predicate.
+   *
+   * @param filter selects the values to remove
+   * @return the number of entries removed
+   */
+  public int removeIf(final LongPredicate filter) {
+    final long now = clock.millis();
+    final long[] slot = new long[SLOT_LONGS];
+    int removed = 0;
+    for (int index = 0; index < capacity; index++) {
+      final int offset = HEADER_BYTES + index * SLOT_BYTES;
+      final long sequence = read(offset, slot);
+      if (sequence != BUSY
+          && slot[2] > now
+          && filter.test(slot[3])
+          && write(offset, sequence, slot[0], slot[1], 0, 0)) {
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  /** Flushes the mapping to disk; the entries stay readable. */
+  public void close() {
+    ((MappedByteBuffer) buffer).force();
+  }
+
+  /**
+   * Reads a slot's fingerprint, expiry and value into {@code slot}.
+   *
+   * @return the slot's sequence, or {@link #BUSY} if it kept changing or being written
+   */
+  private long read(final int offset, final long[] slot) {
+    long sequence = BUSY;
+    for (int attempt = 0; attempt < READ_ATTEMPTS && sequence == BUSY; attempt++) {
+      final long before = (long) LONG.getAcquire(buffer, offset);
+      slot[0] = (long) LONG.get(buffer, offset + FINGERPRINT_OFFSET);
+      slot[1] = (long) LONG.get(buffer, offset + FINGERPRINT_OFFSET + Long.BYTES);
+      slot[2] = (long) LONG.get(buffer, offset + EXPIRY_OFFSET);
+      slot[3] = (long) LONG.get(buffer, offset + VALUE_OFFSET);
+      VarHandle.loadLoadFence();
+      // An odd sequence, a write in progress, never equals its even neighbour.
+      if ((long) LONG.get(buffer, offset) == (before & ~1L)) {
+        sequence = before;
+      }
+    }
+    return sequence;
+  }
+
+  /**
+   * Writes a slot if it is still at the sequence it was read at.
+   *
+   * @return whether the slot was written
+   */
+  private boolean write(
+      final int offset,
+      final long sequence,
+      final long fingerprintHigh,
+      final long fingerprintLow,
+      final long expiresAtMillis,
+      final long value) {
+    final boolean locked = LONG.compareAndSet(buffer, offset, sequence, sequence + 1);
+    if (locked) {
+      LONG.set(buffer, offset + FINGERPRINT_OFFSET, fingerprintHigh);
+      LONG.set(buffer, offset + FINGERPRINT_OFFSET + Long.BYTES, fingerprintLow);
+      LONG.set(buffer, offset + EXPIRY_OFFSET, expiresAtMillis);
+      LONG.set(buffer, offset + VALUE_OFFSET, value);
+      LONG.setRelease(buffer, offset, sequence + 2);
+    }
+    return locked;
+  }
+
+  /**
+   * Tells whether a slot that could not be read holds the given fingerprint.
+   * Fingerprints only change when a slot is given to another key, so a slot
+   * being written for the same key shows it throughout.
+   */
+  private boolean claimedBy(final int offset, final long[] fingerprint) {
+    return (long) LONG.getOpaque(buffer, offset + FINGERPRINT_OFFSET) == fingerprint[0]
+        && (long) LONG.getOpaque(buffer, offset + FINGERPRINT_OFFSET + Long.BYTES)
+            == fingerprint[1];
+  }
+
+  private static boolean matches(final long[] slot, final long[] fingerprint) {
+    return Arrays.equals(slot, 0, 2, fingerprint, 0, 2);
+  }
+
+  private int offset(final long[] fingerprint, final int probe) {
+    final int home = (int) Long.remainderUnsigned(fingerprint[1], capacity);
+    return HEADER_BYTES + (home + probe) % capacity * SLOT_BYTES;
+  }
+
+  /**
+   * Returns the first 128 bits of the key's SHA-256. A cryptographic hash keeps
+   * submitted addresses from being crafted to collide with another key's slot.
+   */
+  private static long[] fingerprint(final String key) {
+    final byte[] hash = SHA_256.get().digest(key.getBytes(StandardCharsets.UTF_8));
+    final ByteBuffer bytes = ByteBuffer.wrap(hash);
+    // The lowest bit is set so that no fingerprint looks like an empty slot.
+    return new long[] {bytes.getLong() | 1, bytes.getLong()};
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.beans;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import java.time.Clock;
+import java.util.concurrent.Callable;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Caffeine cache backed by a {@link MappedVerdictStore}: the in-heap cache is
+ * the first level, and the store, which outlives the process, the second.
+ *
+ * <p>Writes go to both levels. A miss in the first level is looked up in the
+ * store before the value is computed, and a value found there is copied into
+ * the first level with the lifetime it has left. Values the store cannot hold,
+ * see {@link VerdictCodec}, are kept in the first level only.
+ */
+public class TieredCaffeineCache extends CaffeineCache {
+
+  /** Milliseconds per second. */
+  private static final long MILLIS_PER_SECOND = 1000;
+
+  /** The second level, shared with the other caches. */
+  private final MappedVerdictStore store;
+
+  /** Lifetime policy of the cached values, applied to both levels. */
+  private final VerdictExpiry expiry;
+
+  /** Clock giving the absolute expiry of stored entries. */
+  private final Clock clock;
+
+  /** Tag marking this cache's entries in the shared store, in the bits above the verdict. */
+  private final long namespace;
+
+  /**
+   * Constructs a TieredCaffeineCache.
+   *
+   * @param name the cache name
+   * @param cache the first-level Caffeine cache
+   * @param allowNullValues whether {@code null} values may be cached
+   * @param store the second-level store
+   * @param expiry the lifetime policy of cached values
+   */
+  public TieredCaffeineCache(
+      final String name,
+      final Cache<Object, Object> cache,
+      final boolean allowNullValues,
+      final MappedVerdictStore store,
+      final VerdictExpiry expiry) {
+    this(name, cache, allowNullValues, store, expiry, Clock.systemUTC());
+  }
+
+  /**
+   * Constructs a TieredCaffeineCache with the given clock.
+   *
+   * @param name the cache name
+   * @param cache the first-level Caffeine cache
+   * @param allowNullValues whether {@code null} values may be cached
+   * @param store the second-level store
+   * @param expiry the lifetime policy of cached values
+   * @param clock the clock giving the absolute expiry of stored entries
+   */
+  TieredCaffeineCache(
+      final String name,
+      final Cache<Object, Object> cache,
+      final boolean allowNullValues,
+      final MappedVerdictStore store,
+      final VerdictExpiry expiry,
+      final Clock clock) {
+    super(name, cache, allowNullValues);
+    this.store = store;
+    this.expiry = expiry;
+    this.clock = clock;
+    this.namespace = (long) name.hashCode() << Integer.SIZE;
+  }
+
+  @Override
+  protected Object lookup(final Object key) {
+    Object value = super.lookup(key);
+    if (value == null) {
+      value = load(key);
+      if (value != null) {
+        super.put(key, value);
+      }
+    }
+    return value;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> T get(final Object key, final Callable<T> valueLoader) {
+    return super.get(
+        key,
+        () -> {
+          T value = (T) load(key);
+          if (value == null) {
+            value = valueLoader.call();
+            save(key, value);
+          }
+          return value;
+        });
+  }
+
+  @Override
+  public void put(final Object key, final Object value) {
+    super.put(key, value);
+    save(key, value);
+  }
+
+  @Override
+  public ValueWrapper putIfAbsent(final Object key, final Object value) {
+    final ValueWrapper existing = super.putIfAbsent(key, value);
+    if (existing == null) {
+      save(key, value);
+    }
+    return existing;
+  }
+
+  @Override
+  public void evict(final Object key) {
+    super.evict(key);
+    remove(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(final Object key) {
+    final boolean cached = super.evictIfPresent(key);
+    final boolean stored = remove(key);
+    return cached || stored;
+  }
+
+  @Override
+  public void clear() {
+    super.clear();
+    removeAll();
+  }
+
+  @Override
+  public boolean invalidate() {
+    final boolean cached = super.invalidate();
+    final boolean stored = removeAll();
+    return cached || stored;
+  }
+
+  /** Reads a value from the store; a value with less than a second left counts as absent. */
+  private Object load(final Object key) {
+    Object value = null;
+    if (key instanceof String name) {
+      final MappedVerdictStore.Entry entry = store.get(storeKey(name));
+      if (entry != null) {
+        final long ttlSeconds = (entry.expiresAtMillis() - clock.millis()) / MILLIS_PER_SECOND;
+        if (ttlSeconds > 0) {
+          value = VerdictCodec.decode(name, entry.value(), ttlSeconds);
+        }
+      }
+    }
+    return value;
+  }
+
+  private void save(final Object key, final Object value) {
+    if (key instanceof String name) {
+      final long packed = VerdictCodec.encode(name, value);
+      if (packed != VerdictCodec.UNENCODABLE) {
+        final long expiresAt = clock.millis() + expiry.lifetimeOf(value).toMillis();
+        store.put(storeKey(name), packed | namespace, expiresAt);
+      }
+    }
+  }
+
+  private boolean remove(final Object key) {
+    return key instanceof String name && store.remove(storeKey(name));
+  }
+
+  private boolean removeAll() {
+    return store.removeIf(value -> (value & ~VerdictCodec.VERDICT_MASK) == namespace) > 0;
+  }
+
+  /** Prefixes a key with the cache name, so that the caches sharing the store cannot clash. */
+  private String storeKey(final String key) {
+    return getName() + ':' + key;
+  }
+}
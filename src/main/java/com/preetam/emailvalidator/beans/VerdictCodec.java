@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.beans;
+
+import com.preetam.emailvalidator.models.DomainVerdict;
+import com.preetam.emailvalidator.models.EmailResponse;
+import com.preetam.emailvalidator.models.MxResponse;
+import com.preetam.emailvalidator.services.DomainVerdictService;
+import com.preetam.emailvalidator.services.EmailAddressParser;
+import com.preetam.emailvalidator.services.EmailValidatorService;
+
+/**
+ * Packs cached verdicts into the low 32 bits of a {@code long} for
+ * {@link MappedVerdictStore}, and unpacks them again.
+ *
+ * <p>Only the verdict itself is packed: the domain or address is the cache key
+ * it is stored under, MX failure reasons are stored as the code of their
+ * message, and the TTL is rebuilt from the entry's remaining lifetime. Values
+ * that cannot be rebuilt exactly, such as an MX failure reason naming another
+ * domain, are not packed at all.
+ */
+final class VerdictCodec {
+
+  /** Returned by {@link #encode} for values that cannot be packed. */
+  static final long UNENCODABLE = 0;
+
+  /** Mask of the bits holding a packed verdict. */
+  static final long VERDICT_MASK = 0xFFFF_FFFFL;
+
+  /** Kind of a packed {@link DomainVerdict}. */
+  private static final int DOMAIN_VERDICT = 1;
+
+  /** Kind of a packed {@link EmailResponse}. */
+  private static final int EMAIL_RESPONSE = 2;
+
+  /** Mask of the kind, in the lowest bits. */
+  private static final int KIND_MASK = 0b111;
+
+  /** Position of {@code validSyntax}. */
+  private static final int VALID_SYNTAX_SHIFT = 3;
+
+  /** Position of {@code isSafe}. */
+  private static final int SAFE_SHIFT = 5;
+
+  /** Position of {@code isDisposable}. */
+  private static final int DISPOSABLE_SHIFT = 7;
+
+  /** Position of {@code mxResponse.hasMx}. */
+  private static final int HAS_MX_SHIFT = 9;
+
+  /** Set when the value has an {@code mxResponse}. */
+  private static final int MX_RESPONSE_BIT = 1 << 11;
+
+  /** Position of the MX failure reason code. */
+  private static final int REASON_SHIFT = 12;
+
+  /** Mask of a three-state {@link Boolean}: 0 for null, 1 for false, 2 for true. */
+  private static final int TRI_STATE_MASK = 0b11;
+
+  /** Mask of the MX failure reason code. */
+  private static final int REASON_MASK = 0b111;
+
+  /** Reason code of {@link EmailValidatorService#DOMAIN_NOT_EXTRACTED_REASON}. */
+  private static final int DOMAIN_NOT_EXTRACTED = 4;
+
+  /** MX failure reasons followed by the domain, by code; code 0 means no reason. */
+  private static final String[] DOMAIN_REASONS = {
+    null,
+    DomainVerdictService.NO_MX_RECORDS_REASON,
+    DomainVerdictService.MX_LOOKUP_FAILED_REASON,
+    DomainVerdictService.DOMAIN_PARSE_ERROR_REASON
+  };
+
+  private VerdictCodec() {}
+
+  /**
+   * Packs a cached value stored under the given key.
+   *
+   * @param key the cache key: the verdict's domain or the response's address
+   * @param value the cached value
+   * @return the packed verdict, or {@link #UNENCODABLE}
+   */
+  static long encode(final String key, final Object value) {
+    long packed = UNENCODABLE;
+    if (value instanceof DomainVerdict verdict && key.equals(verdict.getDomain())) {
+      packed =
+          pack(DOMAIN_VERDICT, null, verdict.getIsSafe(), verdict.getIsDisposable())
+              | packMx(verdict.getMxResponse(), key);
+    } else if (value instanceof EmailResponse response && key.equals(response.getEmail())) {
+      packed =
+          pack(
+                  EMAIL_RESPONSE,
+                  response.getValidSyntax(),
+                  response.getIsSafe(),
+                  response.getIsDisposable())
+              | packMx(response.getMxResponse(), domainOf(key));
+    }
+    // A reason that could not be coded leaves the kind bits set and the reason bits full.
+    return (packed >>> REASON_SHIFT & REASON_MASK) == REASON_MASK ? UNENCODABLE : packed;
+  }
+
+  /**
+   * Unpacks a verdict stored under the given key.
+   *
+   * @param key the cache key the verdict was stored under
+   * @param packed the packed verdict, possibly with other bits set above {@link #VERDICT_MASK}
+   * @param ttlSeconds the TTL to give the value
+   * @return the value, or {@code null} if {@code packed} holds no verdict
+   */
+  static Object decode(final String key, final long packed, final long ttlSeconds) {
+    final int bits = (int) (packed & VERDICT_MASK);
+    Object value = null;
+    if ((bits & KIND_MASK) == DOMAIN_VERDICT) {
+      final DomainVerdict verdict = new DomainVerdict();
+      verdict.setDomain(key);
+      verdict.setIsSafe(unpack(bits, SAFE_SHIFT));
+      verdict.setMxResponse(unpackMx(bits, key));
+      verdict.setIsDisposable(unpack(bits, DISPOSABLE_SHIFT));
+      verdict.setTtlSeconds(ttlSeconds);
+      value = verdict;
+    } else if ((bits & KIND_MASK) == EMAIL_RESPONSE) {
+      final EmailResponse response = new EmailResponse();
+      response.setEmail(key);
+      response.setValidSyntax(unpack(bits, VALID_SYNTAX_SHIFT));
+      response.setIsSafe(unpack(bits, SAFE_SHIFT));
+      response.setMxResponse(unpackMx(bits, domainOf(key)));
+      response.setIsDisposable(unpack(bits, DISPOSABLE_SHIFT));
+      response.setTtlSeconds(ttlSeconds);
+      value = response;
+    }
+    return value;
+  }
+
+  private static long pack(
+      final int kind, final Boolean validSyntax, final Boolean safe, final Boolean disposable) {
+    return kind
+        | triState(validSyntax) << VALID_SYNTAX_SHIFT
+        | triState(safe) << SAFE_SHIFT
+        | triState(disposable) << DISPOSABLE_SHIFT;
+  }
+
+  private static long packMx(final MxResponse mxResponse, final String domain) {
+    long packed = 0;
+    if (mxResponse != null) {
+      packed =
+          MX_RESPONSE_BIT
+              | triState(mxResponse.getHasMx()) << HAS_MX_SHIFT
+              | (long) reasonCode(mxResponse.getMxFailureReason(), domain) << REASON_SHIFT;
+    }
+    return packed;
+  }
+
+  /** Returns the code of a reason, or {@link #REASON_MASK} if it has none. */
+  private static int reasonCode(final String reason, final String domain) {
+    int code = reason == null ? 0 : REASON_MASK;
+    if (EmailValidatorService.DOMAIN_NOT_EXTRACTED_REASON.equals(reason)) {
+      code = DOMAIN_NOT_EXTRACTED;
+    } else if (reason != null && domain != null) {
+      for (int candidate = 1; candidate < DOMAIN_REASONS.length; candidate++) {
+        if (reason.equals(DOMAIN_REASONS[candidate] + domain)) {
+          code = candidate;
+        }
+      }
+    }
+    return code;
+  }
+
+  private static MxResponse unpackMx(final int bits, final String domain) {
+    MxResponse mxResponse = null;
+    if ((bits & MX_RESPONSE_BIT) != 0) {
+      mxResponse = new MxResponse();
+      mxResponse.setHasMx(unpack(bits, HAS_MX_SHIFT));
+      final int code = bits >>> REASON_SHIFT & REASON_MASK;
+      if (code == DOMAIN_NOT_EXTRACTED) {
+        mxResponse.setMxFailureReason(EmailValidatorService.DOMAIN_NOT_EXTRACTED_REASON);
+      } else if (code != 0) {
+        mxResponse.setMxFailureReason(DOMAIN_REASONS[code] + domain);
+      }
+    }
+    return mxResponse;
+  }
+
+  private static long triState(final Boolean value) {
+    long state = 0;
+    if (value != null) {
+      state = value ? 2 : 1;
+    }
+    return state;
+  }
+
+  private static Boolean unpack(final int bits, final int shift) {
+    final int state = bits >>> shift & TRI_STATE_MASK;
+    return state == 0 ? null : state == 2;
+  }
+
+  private static String domainOf(final String email) {
+    return EmailAddressParser.domain(email, EmailAddressParser.parse(email));
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.beans;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.preetam.emailvalidator.models.DomainVerdict;
+import com.preetam.emailvalidator.models.EmailResponse;
+import java.time.Duration;
+
+/**
+ * Caffeine expiry policy that keeps each cached verdict for as long as the
+ * lookups behind it allow.
+ *
+ * <p>The TTL carried by a {@link DomainVerdict} or {@link EmailResponse} is
+ * clamped to {@code [minTtl, maxTtl]}; values without a TTL use the default.
+ */
+public class VerdictExpiry implements Expiry<Object, Object> {
+
+  /** Lower bound on any entry's lifetime. */
+  private final Duration minTtl;
+
+  /** Upper bound on any entry's lifetime. */
+  private final Duration maxTtl;
+
+  /** Lifetime of entries that carry no TTL. */
+  private final Duration defaultTtl;
+
+  /**
+   * Constructs a VerdictExpiry with the given bounds.
+   *
+   * @param minTtl lower bound on any entry's lifetime
+   * @param maxTtl upper bound on any entry's lifetime
+   * @param defaultTtl lifetime of entries that carry no TTL
+   */
+  public VerdictExpiry(final Duration minTtl, final Duration maxTtl, final Duration defaultTtl) {
+    this.minTtl = minTtl;
+    this.maxTtl = maxTtl;
+    this.defaultTtl = defaultTtl;
+  }
+
+  @Override
+  public long expireAfterCreate(final Object key, final Object value, final long currentTime) {
+    return lifetimeOf(value).toNanos();
+  }
+
+  @Override
+  public long expireAfterUpdate(
+      final Object key, final Object value, final long currentTime, final long currentDuration) {
+    return lifetimeOf(value).toNanos();
+  }
+
+  @Override
+  public long expireAfterRead(
+      final Object key, final Object value, final long currentTime, final long currentDuration) {
+    return currentDuration;
+  }
+
+  /**
+   * Returns how long the given cache value should live.
+   *
+   * @param value the cached value
+   * @return the clamped lifetime of the value
+   */
+  public Duration lifetimeOf(final Object value) {
+    Long ttlSeconds = null;
+    if (value instanceof DomainVerdict verdict) {
+      ttlSeconds = verdict.getTtlSeconds();
+    } else if (value instanceof EmailResponse response) {
+      ttlSeconds = response.getTtlSeconds();
+    }
+
+    Duration lifetime = defaultTtl;
+    if (ttlSeconds != null) {
+      lifetime = Duration.ofSeconds(Math.min(ttlSeconds, maxTtl.toSeconds()));
+    }
+    if (lifetime.compareTo(minTtl) < 0) {
+      lifetime = minTtl;
+    }
+    return lifetime.compareTo(maxTtl) > 0 ? maxTtl : lifetime;
+  }
+}
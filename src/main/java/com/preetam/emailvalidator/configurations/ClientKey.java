@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.configurations;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * A client address as a 128-bit number, so that rate-limit buckets are keyed
+ * by two longs rather than by the address text.
+ *
+ * <p>IPv4 addresses are mapped into IPv6 as {@code ::ffff:a.b.c.d}, so both
+ * families share one key space and CIDR match. Remote addresses that are not
+ * IP literals, which servlet containers do not normally report, are keyed by
+ * their name-based UUID instead.
+ *
+ * @param high the upper 64 bits of the address
+ * @param low the lower 64 bits of the address
+ */
+record ClientKey(long high, long low) {
+
+  /** Lower 64 bits of {@code ::ffff:0.0.0.0}, the IPv4-mapped prefix. */
+  private static final long IPV4_MAPPED = 0xFFFF_0000_0000L;
+
+  /** Mask of the unsigned value of an int. */
+  private static final long UNSIGNED_INT = 0xFFFF_FFFFL;
+
+  /** Largest value of an IPv4 octet. */
+  private static final int MAX_OCTET = 255;
+
+  /** Number of dots in a dotted-quad IPv4 address. */
+  private static final int IPV4_DOTS = 3;
+
+  /** Number of bits in one half of the key. */
+  private static final int HALF = Long.SIZE;
+
+  /**
+   * Text that {@link InetAddress#getByName} can only parse as an IPv6 literal:
+   * hex digits, colons and dots, bracketed or followed by a zone. Anything else
+   * would be looked up in DNS.
+   */
+  private static final Pattern IPV6_LITERAL =
+      Pattern.compile("\\[[0-9A-Fa-f:.]+]|[0-9A-Fa-f:][0-9A-Fa-f:.]*(%[0-9A-Za-z_.-]+)?");
+
+  /**
+   * Returns the key of a remote address.
+   *
+   * @param address the remote address, normally an IPv4 or IPv6 literal
+   * @return the key of the address
+   */
+  static ClientKey of(final String address) {
+    final ClientKey key = parse(address);
+    return key == null ? fallback(address) : key;
+  }
+
+  /**
+   * Parses an IPv4 or IPv6 literal.
+   *
+   * @param address the address
+   * @return the key of the address, or {@code null} if it is not an IP literal
+   */
+  static ClientKey parse(final String address) {
+    ClientKey key = null;
+    final long ipv4 = parseIpv4(address);
+    if (ipv4 >= 0) {
+      key = new ClientKey(0, IPV4_MAPPED | ipv4);
+    } else if (address.indexOf(':') >= 0 && IPV6_LITERAL.matcher(address).matches()) {
+      try {
+        // Only IPv6 literals get here, so getByName parses the text and never resolves it.
+        key = fromBytes(InetAddress.getByName(address).getAddress());
+      } catch (UnknownHostException e) {
+        key = null;
+      }
+    }
+    return key;
+  }
+
+  /** Parses a dotted-quad IPv4 address, returning {@code -1} if it is not one. */
+  private static long parseIpv4(final String address) {
+    long value = 0;
+    int dots = 0;
+    int octet = -1;
+    boolean valid = true;
+    for (int i = 0; valid && i < address.length(); i++) {
+      final char c = address.charAt(i);
+      if (c >= '0' && c <= '9') {
+        octet = Math.max(octet, 0) * 10 + c - '0';
+        valid = octet <= MAX_OCTET;
+      } else if (c == '.' && octet >= 0 && dots < IPV4_DOTS) {
+        value = value << Byte.SIZE | octet;
+        dots++;
+        octet = -1;
+      } else {
+        valid = false;
+      }
+    }
+    return valid && dots == IPV4_DOTS && octet >= 0 ? value << Byte.SIZE | octet : -1;
+  }
+
+  private static ClientKey fromBytes(final byte[] address) {
+    final ByteBuffer bytes = ByteBuffer.wrap(address);
+    return address.length == Integer.BYTES
+        ? new ClientKey(0, IPV4_MAPPED | bytes.getInt() & UNSIGNED_INT)
+        : new ClientKey(bytes.getLong(), bytes.getLong());
+  }
+
+  private static ClientKey fallback(final String address) {
+    final UUID uuid = UUID.nameUUIDFromBytes(address.getBytes(StandardCharsets.UTF_8));
+    return new ClientKey(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
+  }
+
+  /**
+   * Returns whether this address lies in a network.
+   *
+   * @param network the address of the network
+   * @param prefixLength the number of leading bits shared by the network, out of 128
+   * @return {@code true} if the leading {@code prefixLength} bits of both addresses match
+   */
+  boolean within(final ClientKey network, final int prefixLength) {
+    return ((high ^ network.high) & mask(prefixLength)) == 0
+        && ((low ^ network.low) & mask(prefixLength - HALF)) == 0;
+  }
+
+  /** Returns the mask of the leading {@code bits} bits of a half, clamped to 0 and 64. */
+  private static long mask(final int bits) {
+    final long mask;
+    if (bits <= 0) {
+      mask = 0;
+    } else if (bits >= HALF) {
+      mask = -1L;
+    } else {
+      mask = -1L << HALF - bits;
+    }
+    return mask;
+  }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.configurations;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caps the number of outbound reputation calls in flight and records their
+ * latency.
+ *
+ * <p>A request waits at most {@code email.validator.http.acquire-timeout} for
+ * one of the {@code email.validator.http.max-concurrent} slots, then fails with
+ * an {@link IOException} instead of queueing behind a slow provider. The
+ * {@code email.validator.http.client.in-flight} gauge and
+ * {@code email.validator.http.client.rejected} counter report saturation;
+ * {@code email.validator.http.client.requests} times each call by host and
+ * status. A call holds its slot, and is timed, until its response is closed,
+ * so reading a slow response body counts against the limit.
+ */
+@Component
+public class OutboundBulkhead implements ClientHttpRequestInterceptor {
+
+  /** Name of the timer recording outbound calls. */
+  public static final String REQUESTS_METRIC = "email.validator.http.client.requests";
+
+  /** Name of the gauge reporting calls in flight. */
+  public static final String IN_FLIGHT_METRIC = "email.validator.http.client.in-flight";
+
+  /** Name of the counter reporting calls turned away at the limit. */
+  public static final String REJECTED_METRIC = "email.validator.http.client.rejected";
+
+  /** Slots for calls in flight. */
+  private final Semaphore permits;
+
+  /** Maximum number of calls in flight. */
+  private final int maxConcurrent;
+
+  /** How long a call waits for a free slot. */
+  private final Duration acquireTimeout;
+
+  /** Registry receiving the per-host timers. */
+  private final MeterRegistry registry;
+
+  /** Calls turned away at the limit. */
+  private final Counter rejected;
+
+  /**
+   * Constructs an OutboundBulkhead with the given limits.
+   *
+   * @param registry the registry receiving the metrics
+   * @param maxConcurrent maximum number of outbound calls in flight
+   * @param acquireTimeout how long a call waits for a free slot
+   */
+  public OutboundBulkhead(
+      final MeterRegistry registry,
+      @Value("${email.validator.http.max-concurrent:64}") final int maxConcurrent,
+      @Value("${email.validator.http.acquire-timeout:1s}") final Duration acquireTimeout) {
+    this.permits = new Semaphore(maxConcurrent, true);
+    this.maxConcurrent = maxConcurrent;
+    this.acquireTimeout = acquireTimeout;
+    this.registry = registry;
+    this.rejected =
+        Counter.builder(REJECTED_METRIC)
+            .description("Outbound calls rejected because the concurrency limit was reached")
+            .register(registry);
+    Gauge.builder(IN_FLIGHT_METRIC, this, OutboundBulkhead::inFlight)
+        .description("Outbound calls in flight")
+        .register(registry);
+  }
+
+  /**
+   * Returns the number of calls in flight.
+   *
+   * @return the number of occupied slots
+   */
+  public int inFlight() {
+    return maxConcurrent - permits.availablePermits();
+  }
+
+  @Override
+  public ClientHttpResponse intercept(
+      final HttpRequest request, final byte[] body, final ClientHttpRequestExecution execution)
+      throws IOException {
+    final String host = String.valueOf(request.getURI().getHost());
+    acquire(host);
+    final Timer.Sample sample = Timer.start(registry);
+    ClientHttpResponse response = null;
+    try {
+      response = execution.execute(request, body);
+      final String status = String.valueOf(response.getStatusCode().value());
+      return new SlotHoldingResponse(response, () -> release(sample, host, status));
+    } catch (IOException | RuntimeException e) {
+      if (response != null) {
+        response.close();
+      }
+      release(sample, host, "IO_ERROR");
+      throw e;
+    }
+  }
+
+  /** Frees the slot of a call and records how long it took. */
+  private void release(final Timer.Sample sample, final String host, final String status) {
+    permits.release();
+    sample.stop(
+        Timer.builder(REQUESTS_METRIC)
+            .description("Outbound reputation calls")
+            .tag("host", host)
+            .tag("status", status)
+            .register(registry));
+  }
+
+  private void acquire(final String host) throws IOException {
+    final boolean acquired;
+    try {
+      acquired = permits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw (IOException)
+          new InterruptedIOException("Interrupted waiting for an outbound slot").initCause(e);
+    }
+    if (!acquired) {
+      rejected.increment();
+      throw new IOException(
+          "Outbound call to " + host + " rejected: " + maxConcurrent + " calls already in flight");
+    }
+  }
+
+  /** A response that frees its call's slot once, when it is closed. */
+  private static final class SlotHoldingResponse implements ClientHttpResponse {
+
+    /** The response received. */
+    private final ClientHttpResponse delegate;
+
+    /** Frees the slot of the call. */
+    private final Runnable release;
+
+    /** Whether the response has been closed. */
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SlotHoldingResponse(final ClientHttpResponse delegate, final Runnable release) {
+      this.delegate = delegate;
+      this.release = release;
+    }
+
+    @Override
+    public HttpStatusCode getStatusCode() throws IOException {
+      return delegate.getStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return delegate.getStatusText();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return delegate.getHeaders();
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      return delegate.getBody();
+    }
+
+    @Override
+    public void close() {
+      if (closed.compareAndSet(false, true)) {
+        try {
+          delegate.close();
+        } finally {
+          release.run();
+        }
+      }
+    }
+  }
+}
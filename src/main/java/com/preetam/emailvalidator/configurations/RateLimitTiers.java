@@ -0,0 +1,184 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.configurations;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * The request limits applied by the {@link RateLimitingFilter}.
+ *
+ * <p>A limit is written {@code capacity/period}, such as {@code 10/1m}: a
+ * client may send {@code capacity} requests at once, and is given as many
+ * again every {@code period}. Tiers override the default limit, as
+ * {@code ;}-separated entries of the form {@code key:<api key>=<limit>} or
+ * {@code cidr:<network>/<prefix length>=<limit>}, for example
+ * {@code key:partner-1=1000/1m;cidr:10.0.0.0/8=100/1m;cidr:2001:db8::/32=50/1m}.
+ * An address in several networks gets the tier of the longest prefix.
+ */
+final class RateLimitTiers {
+
+  /** Prefix of an API key tier. */
+  private static final String KEY = "key:";
+
+  /** Prefix of a network tier. */
+  private static final String CIDR = "cidr:";
+
+  /** Bits of an IPv6 address before an IPv4-mapped one. */
+  private static final int IPV4_MAPPED_BITS = 96;
+
+  /** Bits of an IPv6 address. */
+  private static final int IPV6_BITS = 128;
+
+  /**
+   * A limit on the requests of a client.
+   *
+   * @param capacity the number of requests a client may send at once
+   * @param period how often the capacity is given back
+   */
+  record Limit(long capacity, Duration period) {
+
+    /** Parses a limit written {@code capacity/period}. */
+    static Limit parse(final String spec) {
+      final int slash = spec.indexOf('/');
+      if (slash < 0) {
+        throw new IllegalArgumentException("Rate limit without period: " + spec);
+      }
+      return new Limit(
+          Long.parseLong(spec.substring(0, slash).strip()),
+          DurationStyle.detectAndParse(spec.substring(slash + 1).strip()));
+    }
+
+    /**
+     * Creates a full bucket enforcing this limit.
+     *
+     * @return a new bucket
+     */
+    Bucket newBucket() {
+      return Bucket.builder()
+          .addLimit(
+              Bandwidth.builder().capacity(capacity).refillIntervally(capacity, period).build())
+          .build();
+    }
+  }
+
+  /** A limit applying to the addresses of a network. */
+  private record NetworkTier(ClientKey network, int prefixLength, Limit limit) {}
+
+  /** Limit of clients without a tier. */
+  private final Limit defaultLimit;
+
+  /** Limits by API key. */
+  private final Map<String, Limit> byApiKey;
+
+  /** Limits by network, longest prefix first. */
+  private final List<NetworkTier> byNetwork;
+
+  private RateLimitTiers(
+      final Limit defaultLimit,
+      final Map<String, Limit> byApiKey,
+      final List<NetworkTier> byNetwork) {
+    this.defaultLimit = defaultLimit;
+    this.byApiKey = Map.copyOf(byApiKey);
+    this.byNetwork = List.copyOf(byNetwork);
+  }
+
+  /**
+   * Parses the default limit and the tiers.
+   *
+   * @param defaultLimit the limit of clients without a tier
+   * @param tiers the tiers, as described on the class
+   * @return the parsed limits
+   * @throws IllegalArgumentException if a limit or a tier cannot be parsed
+   */
+  static RateLimitTiers parse(final String defaultLimit, final String tiers) {
+    final Map<String, Limit> byApiKey = new HashMap<>();
+    final List<NetworkTier> byNetwork = new ArrayList<>();
+    for (final String entry : tiers.split(";")) {
+      if (!entry.isBlank()) {
+        final int equals = entry.lastIndexOf('=');
+        if (equals < 0) {
+          throw new IllegalArgumentException("Rate limit tier without limit: " + entry);
+        }
+        final String selector = entry.substring(0, equals).strip();
+        final Limit limit = Limit.parse(entry.substring(equals + 1));
+        if (selector.startsWith(KEY)) {
+          byApiKey.put(selector.substring(KEY.length()), limit);
+        } else if (selector.startsWith(CIDR)) {
+          byNetwork.add(network(selector.substring(CIDR.length()), limit));
+        } else {
+          throw new IllegalArgumentException("Unknown rate limit tier: " + entry.strip());
+        }
+      }
+    }
+    byNetwork.sort(Comparator.comparingInt(NetworkTier::prefixLength).reversed());
+    return new RateLimitTiers(Limit.parse(defaultLimit), byApiKey, byNetwork);
+  }
+
+  /** Parses a network written {@code address/prefix length}. */
+  private static NetworkTier network(final String cidr, final Limit limit) {
+    final int slash = cidr.lastIndexOf('/');
+    final ClientKey network = slash < 0 ? null : ClientKey.parse(cidr.substring(0, slash));
+    if (network == null) {
+      throw new IllegalArgumentException("Invalid rate limit network: " + cidr);
+    }
+    final boolean ipv4 = cidr.indexOf(':') < 0;
+    final int prefixLength = Integer.parseInt(cidr.substring(slash + 1));
+    final int bits = ipv4 ? IPV6_BITS - IPV4_MAPPED_BITS : IPV6_BITS;
+    if (prefixLength < 0 || prefixLength > bits) {
+      throw new IllegalArgumentException("Invalid rate limit prefix length: " + cidr);
+    }
+    return new NetworkTier(network, ipv4 ? IPV4_MAPPED_BITS + prefixLength : prefixLength, limit);
+  }
+
+  /**
+   * Returns the API keys that have a tier.
+   *
+   * @return the limits by API key
+   */
+  Map<String, Limit> apiKeys() {
+    return byApiKey;
+  }
+
+  /**
+   * Returns the limit of an address.
+   *
+   * @param client the client address
+   * @return the limit of the longest network holding the address, or the default limit
+   */
+  Limit forAddress(final ClientKey client) {
+    Limit limit = defaultLimit;
+    for (final NetworkTier tier : byNetwork) {
+      if (client.within(tier.network(), tier.prefixLength())) {
+        limit = tier.limit();
+        break;
+      }
+    }
+    return limit;
+  }
+
+  /**
+   * Returns the longest period of the limits applying to addresses, after
+   * which the bucket of an idle address is full again.
+   *
+   * @return the longest period
+   */
+  Duration longestPeriod() {
+    Duration longest = defaultLimit.period();
+    for (final NetworkTier tier : byNetwork) {
+      if (tier.limit().period().compareTo(longest) > 0) {
+        longest = tier.limit().period();
+      }
+    }
+    return longest;
+  }
+}
@@ -4,32 +4,96 @@
 
 package com.preetam.emailvalidator.configurations;
 
-import io.github.bucket4j.Bandwidth;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.preetam.emailvalidator.jfr.RateLimitEvent;
 import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 /**
  * A servlet filter that applies rate limiting using Bucket4j.
  * It ensures that a client identified by their IP address
- * cannot exceed a predefined request rate.
+ * cannot exceed a predefined request rate. Rejected requests are counted in
+ * {@code email.validator.ratelimit.rejected}, and every decision can be
+ * traced with a {@link RateLimitEvent}.
+ *
+ * <p>The limit is {@code email.validator.ratelimit.limit}, overridden per API
+ * key, sent in the {@value #API_KEY_HEADER} header, or per network by
+ * {@code email.validator.ratelimit.tiers}; see {@link RateLimitTiers}. A
+ * request with a known API key draws from the bucket of its key, wherever it
+ * comes from. Other requests draw from the bucket of their address.
+ *
+ * <p>Address buckets are keyed by the 128 bits of the address rather than its
+ * text, and held in a Caffeine cache of at most
+ * {@code email.validator.ratelimit.max-clients} entries, so that a spray of
+ * distinct addresses cannot exhaust the heap. A bucket left idle for the
+ * longest period of the limits is full again, and expires. The cache is
+ * reported as {@code rateLimitBuckets} in the {@code cache.*} metrics.
  */
 @Component
-@SuppressWarnings("PMD.AtLeastOneConstructor")
 public class RateLimitingFilter implements Filter {
 
-  /** Cache for storing rate limit buckets per client IP address. */
-  private final Map<String, Bucket> bucketCache = new ConcurrentHashMap<>();
+  /** Name of the counter reporting rejected requests. */
+  public static final String REJECTED_METRIC = "email.validator.ratelimit.rejected";
+
+  /** Header carrying the API key of a client. */
+  public static final String API_KEY_HEADER = "X-API-Key";
+
+  /** Rate limit buckets per client address. */
+  private final Cache<ClientKey, Bucket> bucketCache;
+
+  /** Rate limit buckets per API key with a tier. */
+  private final Map<String, Bucket> apiKeyBuckets = new HashMap<>();
+
+  /** Limits per API key, network and by default. */
+  private final RateLimitTiers tiers;
+
+  /** Requests rejected with HTTP 429. */
+  private final Counter rejected;
+
+  /**
+   * Constructs a RateLimitingFilter.
+   *
+   * @param registry the registry receiving the rejection counter and cache metrics
+   * @param limit the limit of clients without a tier, written {@code capacity/period}
+   * @param tiers the limits per API key and network, as described on {@link RateLimitTiers}
+   * @param maxClients the maximum number of client addresses tracked at once
+   * @throws IllegalArgumentException if a limit or a tier cannot be parsed
+   */
+  public RateLimitingFilter(
+      final MeterRegistry registry,
+      @Value("${email.validator.ratelimit.limit:10/1m}") final String limit,
+      @Value("${email.validator.ratelimit.tiers:}") final String tiers,
+      @Value("${email.validator.ratelimit.max-clients:100000}") final long maxClients) {
+    this.tiers = RateLimitTiers.parse(limit, tiers);
+    this.bucketCache =
+        Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(this.tiers.longestPeriod())
+            .recordStats()
+            .build();
+    this.tiers.apiKeys().forEach((key, keyLimit) -> apiKeyBuckets.put(key, keyLimit.newBucket()));
+    CaffeineCacheMetrics.monitor(registry, bucketCache, "rateLimitBuckets");
+    this.rejected =
+        Counter.builder(REJECTED_METRIC)
+            .description("Requests rejected by the per-client rate limit")
+            .register(registry);
+  }
 
   /**
    * Resolves or creates a rate limit bucket for the given client key.
@@ -38,16 +102,28 @@ public class RateLimitingFilter implements Filter {
    * @return a Bucket instance managing rate limits for the key
    */
   public Bucket resolveBucket(final String key) {
-    return bucketCache.computeIfAbsent(
-        key,
-        k ->
-            Bucket.builder()
-                .addLimit(
-                    Bandwidth.builder()
-                        .capacity(10)
-                        .refillIntervally(10, Duration.ofMinutes(1))
-                        .build())
-                .build());
+    return bucketCache.get(ClientKey.of(key), client -> tiers.forAddress(client).newBucket());
+  }
+
+  /**
+   * Resolves the bucket a request draws from.
+   *
+   * @param apiKey the API key sent by the client, or {@code null}
+   * @param clientIp the address of the client
+   * @return the bucket of the API key if it has a tier, else that of the address
+   */
+  public Bucket resolveBucket(final String apiKey, final String clientIp) {
+    final Bucket keyBucket = apiKey == null ? null : apiKeyBuckets.get(apiKey);
+    return keyBucket == null ? resolveBucket(clientIp) : keyBucket;
+  }
+
+  /**
+   * Returns the number of client addresses tracked.
+   *
+   * @return the approximate number of address buckets
+   */
+  public long trackedClients() {
+    return bucketCache.estimatedSize();
   }
 
   /** Filters requests with rate limiting; sends HTTP 429 when limit exceeded. */
@@ -60,11 +136,18 @@ public class RateLimitingFilter implements Filter {
     final HttpServletResponse httpRes = (HttpServletResponse) response;
 
     final String clientIp = request.getRemoteAddr();
-    final Bucket bucket = resolveBucket(clientIp);
+    final String apiKey =
+        request instanceof HttpServletRequest httpReq ? httpReq.getHeader(API_KEY_HEADER) : null;
+    final Bucket bucket = resolveBucket(apiKey, clientIp);
+
+    final RateLimitEvent event = new RateLimitEvent(clientIp);
+    final boolean allowed = bucket.tryConsume(1);
+    event.complete(allowed);
 
-    if (bucket.tryConsume(1)) {
+    if (allowed) {
       chain.doFilter(request, response);
     } else {
+      rejected.increment();
       httpRes.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
       httpRes.getWriter().write("Too many requests. Please try again later.");
     }
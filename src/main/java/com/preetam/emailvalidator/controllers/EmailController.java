@@ -4,11 +4,19 @@
 
 package com.preetam.emailvalidator.controllers;
 
+import com.preetam.emailvalidator.models.EmailBatchRequest;
 import com.preetam.emailvalidator.models.EmailRequest;
 import com.preetam.emailvalidator.models.EmailResponse;
+import com.preetam.emailvalidator.services.EmailStreamService;
 import com.preetam.emailvalidator.services.EmailValidatorService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -22,23 +30,66 @@ public class EmailController {
   /** Service for email validation. */
   @Autowired private final EmailValidatorService validatorService;
 
+  /** Service for streaming bulk validation. */
+  private final EmailStreamService streamService;
+
   /**
    * Constructor for {@link EmailController}.
    *
    * @param validatorService the email validator service to be injected
+   * @param streamService the streaming validation service to be injected
    */
-  public EmailController(final EmailValidatorService validatorService) {
+  public EmailController(
+      final EmailValidatorService validatorService, final EmailStreamService streamService) {
     this.validatorService = validatorService;
+    this.streamService = streamService;
   }
 
   /**
    * Validates an email address received in the request body.
    *
+   * <p>The response is produced asynchronously, so the servlet thread is released while
+   * DNS and Safe Browsing lookups are outstanding.
+   *
    * @param request the email validation request containing the email to validate
-   * @return the validation result wrapped in {@link EmailResponse}
+   * @return a future completed with the validation result wrapped in {@link EmailResponse}
    */
   @PostMapping("/validate")
-  public EmailResponse validateEmail(@Valid @RequestBody final EmailRequest request) {
-    return validatorService.validateEmail(request.getEmail());
+  public CompletableFuture<EmailResponse> validateEmail(
+      @Valid @RequestBody final EmailRequest request) {
+    return validatorService.validateEmailAsync(request.getEmail());
+  }
+
+  /**
+   * Validates a batch of email addresses received in the request body.
+   *
+   * <p>The whole batch counts as a single request against the rate limit.
+   *
+   * @param request the batch request containing the emails to validate
+   * @return one {@link EmailResponse} per address, in input order
+   */
+  @PostMapping("/validate/batch")
+  public List<EmailResponse> validateEmails(@Valid @RequestBody final EmailBatchRequest request) {
+    return validatorService.validateEmails(request.getEmails());
+  }
+
+  /**
+   * Validates a newline-delimited stream of addresses, writing one NDJSON result per line.
+   *
+   * <p>Each input line may be a JSON object such as {@code {"email":"a@b.com"}} or a
+   * plain address. Neither the input nor the output is buffered in full.
+   *
+   * @param request the servlet request whose body is read line by line
+   * @param response the servlet response receiving NDJSON results
+   * @throws IOException if the request body cannot be read or the response written
+   */
+  @PostMapping(
+      value = "/validate/stream",
+      consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE},
+      produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public void validateStream(final HttpServletRequest request, final HttpServletResponse response)
+      throws IOException {
+    response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+    streamService.validateStream(request.getInputStream(), response.getOutputStream());
   }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.controllers;
+
+import com.preetam.emailvalidator.models.ValidationJob;
+import com.preetam.emailvalidator.services.ValidationJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.net.URI;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Controller class for submitting and tracking asynchronous bulk validation jobs. */
+@RestController
+@RequestMapping("/api/v1/email/jobs")
+public class ValidationJobController {
+
+  /** Service managing validation jobs. */
+  private final ValidationJobService jobService;
+
+  /**
+   * Constructor for {@link ValidationJobController}.
+   *
+   * @param jobService the job service to be injected
+   */
+  public ValidationJobController(final ValidationJobService jobService) {
+    this.jobService = jobService;
+  }
+
+  /**
+   * Submits a newline-delimited list of addresses as a background job.
+   *
+   * @param request the servlet request whose body holds the addresses
+   * @return the queued job, with its status URL in the {@code Location} header
+   * @throws IOException if the request body cannot be stored
+   */
+  @PostMapping(consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_PLAIN_VALUE})
+  public ResponseEntity<ValidationJob> submit(final HttpServletRequest request)
+      throws IOException {
+    final ValidationJob job = jobService.submit(request.getInputStream());
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/v1/email/jobs/" + job.getId()))
+        .body(job);
+  }
+
+  /**
+   * Returns the progress of a job.
+   *
+   * @param id the job identifier
+   * @return the job's state and counts
+   */
+  @GetMapping("/{id}")
+  public ValidationJob status(@PathVariable final String id) {
+    return jobService.status(id).orElseThrow(() -> notFound(id));
+  }
+
+  /**
+   * Downloads the NDJSON results validated so far, in submission order.
+   *
+   * @param id the job identifier
+   * @return the results file
+   */
+  @GetMapping(value = "/{id}/results", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<Resource> results(@PathVariable final String id) {
+    final Resource resource =
+        jobService.results(id).map(FileSystemResource::new).orElseThrow(() -> notFound(id));
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(resource);
+  }
+
+  private static ResponseStatusException notFound(final String id) {
+    return new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job: " + id);
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.endpoints;
+
+import com.preetam.emailvalidator.services.LatencyProfiler;
+import com.preetam.emailvalidator.services.LatencyProfiler.SlowRequest;
+import com.preetam.emailvalidator.services.StageTimings.Stage;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint, at {@code /actuator/stages}, reporting how long each
+ * stage of a validation takes and which recent validations were the slowest.
+ *
+ * <p>For each stage it reports the number of recordings and the p50, p99,
+ * p99.9 and maximum in milliseconds, over the sliding window kept by the
+ * {@link LatencyProfiler}, so that a slow p99 can be traced to DNS, Google
+ * Safe Browsing or the cache. Slow validations are listed by the domain of
+ * their address only.
+ */
+@Component
+@Endpoint(id = "stages")
+public class StageLatencyEndpoint {
+
+  /** Nanoseconds per millisecond. */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** Profiler holding the stage timers and the slowest validations. */
+  private final LatencyProfiler latencyProfiler;
+
+  /**
+   * Constructs a {@code StageLatencyEndpoint}.
+   *
+   * @param latencyProfiler the profiler holding the stage timers
+   */
+  public StageLatencyEndpoint(final LatencyProfiler latencyProfiler) {
+    this.latencyProfiler = latencyProfiler;
+  }
+
+  /**
+   * Reports the latency of each stage and the slowest validations.
+   *
+   * @return the percentiles per stage, under {@code stages}, and the slowest
+   *     validations of the last logging interval, under {@code slowest}
+   */
+  @ReadOperation
+  public Map<String, Object> stages() {
+    final Map<String, Object> stages = new LinkedHashMap<>();
+    for (final Stage stage : Stage.values()) {
+      stages.put(stage.tag(), summary(latencyProfiler.timer(stage).takeSnapshot()));
+    }
+    final List<Map<String, Object>> slowest = new ArrayList<>();
+    for (final SlowRequest request : latencyProfiler.slowest()) {
+      final Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("domain", request.domain());
+      entry.put("totalMillis", request.totalNanos() / NANOS_PER_MILLI);
+      entry.put("stages", request.stages().millis());
+      slowest.add(entry);
+    }
+    final Map<String, Object> report = new LinkedHashMap<>();
+    report.put("stages", stages);
+    report.put("slowest", slowest);
+    return report;
+  }
+
+  private static Map<String, Object> summary(final HistogramSnapshot snapshot) {
+    final Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("count", snapshot.count());
+    for (final ValueAtPercentile value : snapshot.percentileValues()) {
+      summary.put(label(value.percentile()), value.value(TimeUnit.MILLISECONDS));
+    }
+    summary.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+    return summary;
+  }
+
+  /** Names a percentile in the report: 0.5 is p50 and 0.999 is p999. */
+  private static String label(final double percentile) {
+    return "p"
+        + new BigDecimal(Double.toString(percentile))
+            .movePointRight(2)
+            .stripTrailingZeros()
+            .toPlainString()
+            .replace(".", "");
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.health;
+
+import com.preetam.emailvalidator.services.CacheSnapshotService;
+import java.util.Optional;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator reporting whether the response cache has been warmed from
+ * its snapshot.
+ *
+ * <p>It is part of the readiness group, so that an instance restoring its
+ * cache only receives traffic once enough of it is back. Without snapshots,
+ * it is always up.
+ */
+@Component
+public class CacheWarmupHealthIndicator implements HealthIndicator {
+
+  /** Service restoring the cache, if snapshots are enabled. */
+  private final Optional<CacheSnapshotService> snapshotService;
+
+  /**
+   * Constructs a {@code CacheWarmupHealthIndicator}.
+   *
+   * @param snapshotService the service restoring the cache, if snapshots are enabled
+   */
+  public CacheWarmupHealthIndicator(final Optional<CacheSnapshotService> snapshotService) {
+    this.snapshotService = snapshotService;
+  }
+
+  /**
+   * Reports up once the snapshot is read far enough, and out of service before.
+   *
+   * @return a {@link Health} with the number of snapshot entries read
+   */
+  @Override
+  public Health health() {
+    return snapshotService
+        .map(
+            service ->
+                (service.isWarm() ? Health.up() : Health.outOfService())
+                    .withDetail("loaded", service.loaded())
+                    .withDetail("total", service.total())
+                    .build())
+        .orElseGet(() -> Health.up().withDetail("snapshot", "disabled").build());
+  }
+}
@@ -5,6 +5,7 @@
 package com.preetam.emailvalidator.health;
 
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.boot.health.contributor.Health;
 import org.springframework.boot.health.contributor.HealthIndicator;
 import org.springframework.cache.CacheManager;
@@ -15,7 +16,9 @@ import org.springframework.stereotype.Component;
  * Health indicator for monitoring the Caffeine cache used in the application.
  *
  * <p>This indicator checks whether the cache named "emailValidationCache"
- * is present, and reports its current size as part of the health details.
+ * is present, and reports its current size and hit statistics as part of the
+ * health details. The same statistics are exported continuously as the
+ * {@code cache.*} metrics.
  */
 @Component
 public class CaffeineCacheHealthIndicator implements HealthIndicator {
@@ -43,7 +46,7 @@ public class CaffeineCacheHealthIndicator implements HealthIndicator {
   }
 
   /**Performs the health check by verifying that the cache exists
-   * and reports its size.
+   * and reports its size, hits, misses and evictions.
    *
    * @return a {@link Health} object representing the
    *        current health status of the cache
@@ -56,9 +59,16 @@ public class CaffeineCacheHealthIndicator implements HealthIndicator {
     if (cache instanceof CaffeineCache caffeineCache) {
       final Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
       final long size = nativeCache.estimatedSize();
+      final CacheStats stats = nativeCache.stats();
 
       healthBuilder =
-          Health.up().withDetail("cacheName", "emailValidationCache").withDetail("entries", size);
+          Health.up()
+              .withDetail("cacheName", "emailValidationCache")
+              .withDetail("entries", size)
+              .withDetail("hits", stats.hitCount())
+              .withDetail("misses", stats.missCount())
+              .withDetail("hitRate", stats.hitRate())
+              .withDetail("evictions", stats.evictionCount());
     } else {
       healthBuilder = Health.down().withDetail("cache", "emailValidationCache not found");
     }
@@ -4,30 +4,62 @@
 
 package com.preetam.emailvalidator.health;
 
-import com.preetam.emailvalidator.services.LookupFactory;
+import com.preetam.emailvalidator.services.DnsLookupServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.health.contributor.Health;
-import org.springframework.boot.health.contributor.HealthIndicator;
 import org.springframework.stereotype.Component;
-import org.xbill.DNS.Lookup;
+import org.xbill.DNS.DClass;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.Rcode;
 import org.xbill.DNS.Record;
-import org.xbill.DNS.TextParseException;
+import org.xbill.DNS.Resolver;
+import org.xbill.DNS.Section;
 import org.xbill.DNS.Type;
 
-/** Health indicator that checks DNS MX records for
- *  a known domain to verify DNS service health. */
+/**
+ * Health indicator that checks DNS MX records for
+ * a known domain to verify DNS service health.
+ *
+ * <p>The domain, {@code email.validator.health.dns.target}, is queried in the
+ * background every {@code email.validator.health.dns.interval}; the error rate
+ * reported with it is that of the MX queries made by validations. The query is
+ * sent through the {@link Resolver} used by validations rather than a
+ * {@link org.xbill.DNS.Lookup}, whose cache could keep answering while the
+ * resolver is unreachable.
+ */
 @Component
-public class DnsHealthIndicator implements HealthIndicator {
+public class DnsHealthIndicator extends ProbedHealthIndicator {
+
+  /** Resolver the MX query is sent to. */
+  private final Resolver resolver;
 
-  /** Factory to create DNS lookup instances. */
-  private final LookupFactory lookupFactory;
+  /** Domain whose MX records are queried. */
+  private final String target;
 
   /**
-   * Constructs a DnsHealthIndicator with the given LookupFactory.
+   * Constructs a DnsHealthIndicator with the given Resolver.
    *
-   * @param lookupFactory factory to create DNS lookups
+   * @param resolver resolver the MX query is sent to
+   * @param registry the registry timing the MX queries of validations
+   * @param target domain whose MX records are queried
+   * @param interval delay between two queries
    */
-  public DnsHealthIndicator(final LookupFactory lookupFactory) {
-    this.lookupFactory = lookupFactory;
+  public DnsHealthIndicator(
+      final Resolver resolver,
+      final MeterRegistry registry,
+      @Value("${email.validator.health.dns.target:google.com}") final String target,
+      @Value("${email.validator.health.dns.interval:30s}") final Duration interval) {
+    super(
+        "dns-health-probe",
+        interval,
+        new TrafficErrorRate(registry, DnsLookupServiceImpl.LOOKUP_METRIC, Set.of("error")));
+    this.resolver = resolver;
+    this.target = target;
   }
 
   /**
@@ -36,18 +68,29 @@ public class DnsHealthIndicator implements HealthIndicator {
    * @return Health status indicating up if MX records are found, down otherwise
    */
   @Override
-  public Health health() {
+  protected Health probe() {
     Health health;
     try {
-      final Lookup lookup = lookupFactory.create("google.com", Type.MX);
-      final Record[] records = lookup.run();
+      final Name name = Name.fromString(target, Name.root);
+      final Message response =
+          resolver.send(Message.newQuery(Record.newRecord(name, Type.MX, DClass.IN)));
+      final int rcode = response.getRcode();
+      int records = 0;
+      for (final Record record : response.getSection(Section.ANSWER)) {
+        if (record.getType() == Type.MX) {
+          records++;
+        }
+      }
 
-      if (records == null || records.length == 0) {
+      if (rcode != Rcode.NOERROR) {
+        final String reason = "MX query answered " + Rcode.string(rcode);
+        health = Health.down().withDetail("reason", reason).build();
+      } else if (records == 0) {
         health = Health.down().withDetail("reason", "No MX records found").build();
       } else {
-        health = Health.up().withDetail("recordsFound", records.length).build();
+        health = Health.up().withDetail("recordsFound", records).build();
       }
-    } catch (TextParseException e) {
+    } catch (IOException e) {
       health = Health.down(e).withDetail("error", "DNS lookup failed").build();
     }
     return health;
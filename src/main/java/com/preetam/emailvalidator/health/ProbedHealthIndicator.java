@@ -0,0 +1,135 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.health;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Health indicator whose check runs in the background rather than on every
+ * health request.
+ *
+ * <p>Once the application is ready, {@link #probe()} runs on a dedicated
+ * thread at a fixed delay. {@link #health()} only reads the latest result, so
+ * load-balancer probes neither add load to the dependency nor wait on it. The
+ * result is reported with its age and latency, and with the error rate of live
+ * calls since the previous probe. A result older than three intervals means
+ * the probe itself is stuck, and is reported down.
+ */
+public abstract class ProbedHealthIndicator implements HealthIndicator {
+
+  /** Number of intervals after which the latest result is overdue. */
+  private static final int OVERDUE_INTERVALS = 3;
+
+  /** Nanoseconds per millisecond. */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** Outcome of a probe, with the live traffic seen up to it. */
+  private record Probe(
+      Health health, long completedNanos, long latencyNanos, TrafficErrorRate.Window traffic) {}
+
+  /** Delay between two probes. */
+  private final Duration interval;
+
+  /** Error rate of live calls to the dependency. */
+  private final TrafficErrorRate traffic;
+
+  /** Runs the probes. */
+  private final ScheduledExecutorService scheduler;
+
+  /** Latest probe, or {@code null} before the first one completes. */
+  private volatile Probe latest;
+
+  /**
+   * Constructs a {@code ProbedHealthIndicator}.
+   *
+   * @param name the name of the probe thread
+   * @param interval the delay between two probes
+   * @param traffic the error rate of live calls to the dependency
+   */
+  protected ProbedHealthIndicator(
+      final String name, final Duration interval, final TrafficErrorRate traffic) {
+    this.interval = interval;
+    this.traffic = traffic;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name(name).daemon().factory());
+  }
+
+  /** Starts probing once the application is ready. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    scheduler.scheduleWithFixedDelay(
+        this::refresh, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /** Stops probing. */
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  /**
+   * Checks the dependency.
+   *
+   * @return the health of the dependency; a runtime exception reports it down
+   */
+  protected abstract Health probe();
+
+  /** Runs the probe now and keeps its result. */
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  public void refresh() {
+    final long start = System.nanoTime();
+    Health health;
+    try {
+      health = probe();
+    } catch (RuntimeException ex) {
+      // Report the failure and keep the schedule alive; the next probe retries.
+      health = Health.down(ex).build();
+    }
+    final long end = System.nanoTime();
+    latest = new Probe(health, end, end - start, traffic.sample());
+  }
+
+  /**
+   * Returns the result of the latest probe.
+   *
+   * @return the latest result with its {@code ageMillis}, {@code latencyMillis},
+   *     and the {@code requests}, {@code errors} and {@code errorRate} of live
+   *     calls; unknown before the first probe completes
+   */
+  @Override
+  public Health health() {
+    final Probe probe = latest;
+    final Health health;
+    if (probe == null) {
+      health = Health.unknown().withDetail("reason", "No probe has completed yet").build();
+    } else {
+      final long age = System.nanoTime() - probe.completedNanos();
+      final boolean overdue = age > interval.toNanos() * OVERDUE_INTERVALS;
+      final Health.Builder builder =
+          Health.status(overdue ? Status.DOWN : probe.health().getStatus())
+              .withDetails(probe.health().getDetails())
+              .withDetail("ageMillis", age / NANOS_PER_MILLI)
+              .withDetail("latencyMillis", probe.latencyNanos() / NANOS_PER_MILLI)
+              .withDetail("requests", probe.traffic().requests())
+              .withDetail("errors", probe.traffic().errors())
+              .withDetail("errorRate", probe.traffic().rate());
+      if (overdue) {
+        builder.withDetail("reason", "Probe overdue");
+      }
+      health = builder.build();
+    }
+    return health;
+  }
+}
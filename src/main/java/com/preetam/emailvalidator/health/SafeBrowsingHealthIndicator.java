@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.health;
+
+import com.preetam.emailvalidator.services.GoogleSafeBrowsingService;
+import com.preetam.emailvalidator.services.SafeBrowsingGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator that checks a known domain against Google Safe Browsing.
+ *
+ * <p>The domain, {@code email.validator.health.safebrowsing.target}, is checked
+ * in the background every {@code email.validator.health.safebrowsing.interval},
+ * directly rather than through the {@link SafeBrowsingGuard}, so that the probe
+ * sees the API recover while the guard's circuit is still open, and always with
+ * the Lookup API, so that a ready local threat database does not hide an
+ * unreachable API. The state of the guard's circuit is reported alongside, with
+ * the error rate of the checks made by validations.
+ */
+@Component
+public class SafeBrowsingHealthIndicator extends ProbedHealthIndicator {
+
+  /** Service calling the Safe Browsing API. */
+  private final GoogleSafeBrowsingService googleSafeBrowsingService;
+
+  /** Guard whose circuit state is reported. */
+  private final SafeBrowsingGuard safeBrowsingGuard;
+
+  /** Domain checked. */
+  private final String target;
+
+  /**
+   * Constructs a {@code SafeBrowsingHealthIndicator}.
+   *
+   * @param googleSafeBrowsingService service calling the Safe Browsing API
+   * @param safeBrowsingGuard guard whose circuit state is reported
+   * @param registry the registry timing the checks of validations
+   * @param target domain checked
+   * @param interval delay between two checks
+   */
+  public SafeBrowsingHealthIndicator(
+      final GoogleSafeBrowsingService googleSafeBrowsingService,
+      final SafeBrowsingGuard safeBrowsingGuard,
+      final MeterRegistry registry,
+      @Value("${email.validator.health.safebrowsing.target:google.com}") final String target,
+      @Value("${email.validator.health.safebrowsing.interval:1m}") final Duration interval) {
+    super(
+        "safebrowsing-health-probe",
+        interval,
+        new TrafficErrorRate(
+            registry, SafeBrowsingGuard.CHECK_METRIC, Set.of("timeout", "error")));
+    this.googleSafeBrowsingService = googleSafeBrowsingService;
+    this.safeBrowsingGuard = safeBrowsingGuard;
+    this.target = target;
+  }
+
+  /**
+   * Checks the target domain against Google Safe Browsing.
+   *
+   * @return Health status indicating up if the API answered, whatever the verdict
+   */
+  @Override
+  protected Health probe() {
+    return Health.up()
+        .withDetail("target", target)
+        .withDetail("safe", googleSafeBrowsingService.checkDomainRemotely(target).safe())
+        .withDetail("circuit", safeBrowsingGuard.circuitState())
+        .build();
+  }
+}
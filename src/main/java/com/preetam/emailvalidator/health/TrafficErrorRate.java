@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.health;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Set;
+
+/**
+ * Error rate of live calls, read from a timer tagged with the outcome of each
+ * call.
+ *
+ * <p>Every {@link #sample()} reports the calls made since the previous one, so
+ * that a health probe sampling it on each run reports a rolling rate over its
+ * interval rather than since startup.
+ */
+final class TrafficErrorRate {
+
+  /** Calls made between two samples, and how many of them failed. */
+  record Window(long requests, long errors) {
+
+    /**
+     * Returns the share of calls that failed.
+     *
+     * @return the error rate, or {@code 0.0} without calls
+     */
+    double rate() {
+      return requests == 0 ? 0.0 : (double) errors / requests;
+    }
+  }
+
+  /** Registry holding the timer. */
+  private final MeterRegistry registry;
+
+  /** Name of the timer. */
+  private final String metric;
+
+  /** Values of the {@code outcome} tag counted as errors. */
+  private final Set<String> errorOutcomes;
+
+  /** Calls counted up to the previous sample; guarded by {@code this}. */
+  private long lastRequests;
+
+  /** Errors counted up to the previous sample; guarded by {@code this}. */
+  private long lastErrors;
+
+  /**
+   * Constructs a {@code TrafficErrorRate}.
+   *
+   * @param registry the registry holding the timer
+   * @param metric the name of the timer
+   * @param errorOutcomes the values of the {@code outcome} tag counted as errors
+   */
+  TrafficErrorRate(
+      final MeterRegistry registry, final String metric, final Set<String> errorOutcomes) {
+    this.registry = registry;
+    this.metric = metric;
+    this.errorOutcomes = Set.copyOf(errorOutcomes);
+  }
+
+  /**
+   * Counts the calls made since the previous sample.
+   *
+   * @return the calls and errors since the previous sample
+   */
+  synchronized Window sample() {
+    long requests = 0;
+    long errors = 0;
+    for (final Timer timer : registry.find(metric).timers()) {
+      requests += timer.count();
+      if (errorOutcomes.contains(timer.getId().getTag("outcome"))) {
+        errors += timer.count();
+      }
+    }
+    final Window window = new Window(requests - lastRequests, errors - lastErrors);
+    lastRequests = requests;
+    lastErrors = errors;
+    return window;
+  }
+}
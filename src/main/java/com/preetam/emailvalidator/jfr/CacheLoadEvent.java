@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning the computation of an entry missing from one
+ * of the validation caches.
+ *
+ * <p>Disabled unless a recording enables {@code com.preetam.emailvalidator.CacheLoad}.
+ * Only the domain is recorded, never a full address.
+ */
+@Name("com.preetam.emailvalidator.CacheLoad")
+@Label("Cache Load")
+@Category("Email Validator")
+@Description("Computation of a verdict or response missing from its cache")
+@Enabled(false)
+@StackTrace(false)
+public class CacheLoadEvent extends Event {
+
+  /** Name of the cache the entry is computed for. */
+  @Label("Cache")
+  private String cache;
+
+  /** Domain of the entry. */
+  @Label("Domain")
+  private String domain;
+
+  /** Whether the entry was computed or the computation failed. */
+  @Label("Outcome")
+  private String outcome;
+
+  /**
+   * Starts an event for the computation of an entry, if a recording enables it.
+   *
+   * @param cache the name of the cache
+   * @param domain the domain of the entry
+   */
+  public CacheLoadEvent(final String cache, final String domain) {
+    super();
+    if (isEnabled()) {
+      this.cache = cache;
+      this.domain = domain;
+      begin();
+    }
+  }
+
+  /**
+   * Ends the event and commits it if a recording keeps it.
+   *
+   * @param failure why the computation failed, or {@code null} if it succeeded
+   */
+  public void complete(final Throwable failure) {
+    if (shouldCommit()) {
+      this.outcome = failure == null ? "loaded" : "failed";
+      commit();
+    }
+  }
+
+  /**
+   * Returns the name of the cache.
+   *
+   * @return the cache name, or {@code null} while no recording enables the event
+   */
+  public String getCache() {
+    return cache;
+  }
+
+  /**
+   * Returns the domain of the entry.
+   *
+   * @return the domain, or {@code null} while no recording enables the event
+   */
+  public String getDomain() {
+    return domain;
+  }
+
+  /**
+   * Returns whether the entry was computed.
+   *
+   * @return {@code loaded} or {@code failed}, or {@code null} until the event is completed
+   */
+  public String getOutcome() {
+    return outcome;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning an MX query.
+ *
+ * <p>Disabled unless a recording enables {@code com.preetam.emailvalidator.MxLookup}.
+ */
+@Name("com.preetam.emailvalidator.MxLookup")
+@Label("MX Lookup")
+@Category("Email Validator")
+@Description("MX query for the domain of a validated address")
+@Enabled(false)
+@StackTrace(false)
+public class MxLookupEvent extends Event {
+
+  /** Domain queried. */
+  @Label("Domain")
+  private String domain;
+
+  /** Whether MX records were found, none exist, or the query failed. */
+  @Label("Outcome")
+  private String outcome;
+
+  /**
+   * Starts an event for a query, if a recording enables it.
+   *
+   * @param domain the domain queried
+   */
+  public MxLookupEvent(final String domain) {
+    super();
+    if (isEnabled()) {
+      this.domain = domain;
+      begin();
+    }
+  }
+
+  /**
+   * Ends the event and commits it if a recording keeps it.
+   *
+   * @param outcome {@code found}, {@code none} or {@code error}
+   */
+  public void complete(final String outcome) {
+    if (shouldCommit()) {
+      this.outcome = outcome;
+      commit();
+    }
+  }
+
+  /**
+   * Returns the domain queried.
+   *
+   * @return the domain, or {@code null} while no recording enables the event
+   */
+  public String getDomain() {
+    return domain;
+  }
+
+  /**
+   * Returns the outcome of the query.
+   *
+   * @return the outcome, or {@code null} until the event is completed
+   */
+  public String getOutcome() {
+    return outcome;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning a rate-limit decision.
+ *
+ * <p>Disabled unless a recording enables {@code com.preetam.emailvalidator.RateLimit}.
+ */
+@Name("com.preetam.emailvalidator.RateLimit")
+@Label("Rate Limit")
+@Category("Email Validator")
+@Description("Decision to admit or reject a request under the per-client rate limit")
+@Enabled(false)
+@StackTrace(false)
+public class RateLimitEvent extends Event {
+
+  /** Client the request came from. */
+  @Label("Client")
+  private String client;
+
+  /** Whether the request was admitted. */
+  @Label("Allowed")
+  private boolean allowed;
+
+  /**
+   * Starts an event for a decision, if a recording enables it.
+   *
+   * @param client the client the request came from
+   */
+  public RateLimitEvent(final String client) {
+    super();
+    if (isEnabled()) {
+      this.client = client;
+      begin();
+    }
+  }
+
+  /**
+   * Ends the event and commits it if a recording keeps it.
+   *
+   * @param allowed whether the request was admitted
+   */
+  public void complete(final boolean allowed) {
+    if (shouldCommit()) {
+      this.allowed = allowed;
+      commit();
+    }
+  }
+
+  /**
+   * Returns the client the request came from.
+   *
+   * @return the client address, or {@code null} while no recording enables the event
+   */
+  public String getClient() {
+    return client;
+  }
+
+  /**
+   * Returns whether the request was admitted.
+   *
+   * @return {@code true} if the request was admitted
+   */
+  public boolean isAllowed() {
+    return allowed;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event spanning a Safe Browsing check, from the moment it is
+ * admitted by the guard until it settles. Shed checks are recorded too, with
+ * no duration.
+ *
+ * <p>Disabled unless a recording enables
+ * {@code com.preetam.emailvalidator.SafeBrowsingCheck}.
+ */
+@Name("com.preetam.emailvalidator.SafeBrowsingCheck")
+@Label("Safe Browsing Check")
+@Category("Email Validator")
+@Description("Google Safe Browsing check of the domain of a validated address")
+@Enabled(false)
+@StackTrace(false)
+public class SafeBrowsingCheckEvent extends Event {
+
+  /** Domain checked. */
+  @Label("Domain")
+  private String domain;
+
+  /** How the check ended: its verdict, a failure, or the reason it was shed. */
+  @Label("Outcome")
+  private String outcome;
+
+  /**
+   * Starts an event for a check, if a recording enables it.
+   *
+   * @param domain the domain checked
+   */
+  public SafeBrowsingCheckEvent(final String domain) {
+    super();
+    if (isEnabled()) {
+      this.domain = domain;
+      begin();
+    }
+  }
+
+  /**
+   * Ends the event and commits it if a recording keeps it.
+   *
+   * @param outcome how the check ended
+   */
+  public void complete(final String outcome) {
+    if (shouldCommit()) {
+      this.outcome = outcome;
+      commit();
+    }
+  }
+
+  /**
+   * Returns the domain checked.
+   *
+   * @return the domain, or {@code null} while no recording enables the event
+   */
+  public String getDomain() {
+    return domain;
+  }
+
+  /**
+   * Returns how the check ended.
+   *
+   * @return the outcome, or {@code null} until the event is completed
+   */
+  public String getOutcome() {
+    return outcome;
+  }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * Represents the domain-level part of an email validation: everything that
+ * depends only on the domain and can be shared by all addresses on it.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DomainVerdict {
+
+  /** The domain the verdict applies to, in lowercase. */
+  private String domain;
+
+  /** Indicates if the domain reputation is considered safe. */
+  private Boolean isSafe;
+
+  /** MX record validation results. */
+  private MxResponse mxResponse;
+
+  /** Indicates if the domain is a disposable email provider. */
+  private Boolean isDisposable;
+
+  /** Seconds the verdict may be cached, derived from the DNS and Safe Browsing answers. */
+  private Long ttlSeconds;
+}
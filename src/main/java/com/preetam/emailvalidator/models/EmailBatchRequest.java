@@ -0,0 +1,24 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.models;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.Data;
+
+/** Represents a request containing a batch of email addresses to be validated. */
+@Data
+public class EmailBatchRequest {
+
+  /** Maximum number of addresses accepted in a single batch request. */
+  public static final int MAX_BATCH_SIZE = 10_000;
+
+  /** The email addresses to validate, in the order results should be returned. */
+  @NotEmpty
+  @Size(max = MAX_BATCH_SIZE)
+  private List<@NotBlank String> emails;
+}
@@ -4,7 +4,6 @@
 
 package com.preetam.emailvalidator.models;
 
-import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 
@@ -12,6 +11,9 @@ import lombok.Data;
 @Data
 public class EmailRequest {
 
-  /** The email address to validate, must be a valid non-blank email. */
-  @NotBlank @Email private String email;
+  /**
+   * The email address to validate, must be non-blank. Its syntax is checked by
+   * the validation itself and reported in the response, not rejected here.
+   */
+  @NotBlank private String email;
 }
@@ -4,6 +4,7 @@
 
 package com.preetam.emailvalidator.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
@@ -29,4 +30,7 @@ public class EmailResponse {
 
   /** Indicates if the email belongs to a disposable domain. */
   private Boolean isDisposable;
+
+  /** Seconds the response may be cached; internal, never serialized. */
+  @JsonIgnore private Long ttlSeconds;
 }
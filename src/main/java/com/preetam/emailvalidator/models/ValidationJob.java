@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.models;
+
+import lombok.Data;
+
+/** Represents the progress of an asynchronous bulk validation job. */
+@Data
+public class ValidationJob {
+
+  /** Lifecycle states of a validation job. */
+  public enum State {
+    /** Accepted and waiting for a worker. */
+    QUEUED,
+    /** Currently validating addresses. */
+    RUNNING,
+    /** All addresses have been validated. */
+    COMPLETED,
+    /** Stopped because of an unrecoverable error. */
+    FAILED
+  }
+
+  /** Unique identifier of the job. */
+  private String id;
+
+  /** Current lifecycle state. */
+  private State state;
+
+  /** Number of addresses submitted. */
+  private long total;
+
+  /** Number of addresses validated so far. */
+  private long processed;
+}
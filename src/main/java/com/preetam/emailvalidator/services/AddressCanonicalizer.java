@@ -0,0 +1,151 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maps the spellings of an email address that reach the same mailbox to one
+ * canonical address, used as the response cache key.
+ *
+ * <p>Every valid address has its domain lowercased, and internationalised
+ * domains converted to their ASCII form. Addresses at a configured provider
+ * have their local part further rewritten by that provider's rule, which may
+ * fold its case, strip a subaddress such as {@code +tag} and drop dots. Rules
+ * are given as {@code ;}-separated entries of the form {@code domains:flags},
+ * for example {@code gmail.com|googlemail.com:fold-case,strip-subaddress,strip-dots},
+ * and apply to every domain of their entry. The domain itself is never
+ * rewritten, so each domain keeps its own DNS and reputation verdict. The flags
+ * are {@code fold-case}, {@code strip-dots} and {@code strip-subaddress},
+ * optionally followed by {@code =} and the separator, {@code +} by default.
+ *
+ * <p>Invalid addresses, and local parts with quotes or escapes, are left as
+ * they are apart from the domain, so that canonicalization never changes the
+ * syntax verdict of an address.
+ */
+@Service
+public class AddressCanonicalizer {
+
+  /** Flag folding the local part to lower case. */
+  private static final String FOLD_CASE = "fold-case";
+
+  /** Flag removing dots from the local part. */
+  private static final String STRIP_DOTS = "strip-dots";
+
+  /** Flag removing the subaddress from the local part. */
+  private static final String STRIP_SUBADDRESS = "strip-subaddress";
+
+  /** Rules by the lowercase domains they apply to. */
+  private final Map<String, Rule> rules;
+
+  /**
+   * Constructs an AddressCanonicalizer with the given provider rules.
+   *
+   * @param rules the provider rules, as described on the class
+   * @throws IllegalArgumentException if a rule cannot be parsed
+   */
+  public AddressCanonicalizer(
+      @Value("${email.validator.canonical.rules:}") final String rules) {
+    this.rules = parse(rules);
+  }
+
+  private static Map<String, Rule> parse(final String spec) {
+    final Map<String, Rule> rules = new HashMap<>();
+    for (final String entry : spec.split(";")) {
+      if (!entry.isBlank()) {
+        final int colon = entry.indexOf(':');
+        if (colon < 0) {
+          throw new IllegalArgumentException("Canonicalization rule without flags: " + entry);
+        }
+        final String[] domains =
+            entry.substring(0, colon).toLowerCase(Locale.ROOT).split("\\|");
+        final Rule rule = Rule.of(domains[0].strip(), entry.substring(colon + 1));
+        for (final String domain : domains) {
+          rules.put(domain.strip(), rule);
+        }
+      }
+    }
+    return rules;
+  }
+
+  /**
+   * Returns the canonical form of an email address.
+   *
+   * @param email the address as submitted
+   * @return the canonical address, or {@code email} itself when it has none
+   */
+  public String canonicalize(final String email) {
+    final long parsed = EmailAddressParser.parse(email);
+    String canonical = email;
+    if (EmailAddressParser.isValid(parsed)) {
+      final int at = EmailAddressParser.atIndex(parsed);
+      final String domain = EmailAddressParser.domain(email, parsed);
+      final Rule rule = rules.get(domain);
+      final String local = email.substring(0, at);
+      if (rule != null && local.indexOf('"') < 0 && local.indexOf('\\') < 0) {
+        final String candidate = rule.apply(local) + '@' + domain;
+        // A rewrite that would turn the address invalid, such as "+tag@", is not applied.
+        canonical =
+            EmailAddressParser.isValid(EmailAddressParser.parse(candidate))
+                ? candidate
+                : local + '@' + domain;
+      } else if (!email.endsWith(domain)) {
+        canonical = local + '@' + domain;
+      }
+    }
+    return canonical;
+  }
+
+  /**
+   * How addresses at one provider are rewritten.
+   *
+   * @param foldCase whether the local part is lowercased
+   * @param stripDots whether dots are removed from the local part
+   * @param separator the character starting a subaddress, or {@code 0} to keep subaddresses
+   */
+  record Rule(boolean foldCase, boolean stripDots, char separator) {
+
+    /** Parses the comma-separated flags of a rule. */
+    static Rule of(final String domain, final String flags) {
+      boolean foldCase = false;
+      boolean stripDots = false;
+      char separator = 0;
+      for (final String flag : flags.split(",")) {
+        final String name = flag.strip();
+        if (FOLD_CASE.equals(name)) {
+          foldCase = true;
+        } else if (STRIP_DOTS.equals(name)) {
+          stripDots = true;
+        } else if (STRIP_SUBADDRESS.equals(name)) {
+          separator = '+';
+        } else if (name.startsWith(STRIP_SUBADDRESS + "=")
+            && name.length() == STRIP_SUBADDRESS.length() + 2) {
+          separator = name.charAt(name.length() - 1);
+        } else if (!name.isEmpty()) {
+          throw new IllegalArgumentException(
+              "Unknown canonicalization flag for " + domain + ": " + name);
+        }
+      }
+      return new Rule(foldCase, stripDots, separator);
+    }
+
+    /** Rewrites a local part made of unquoted words. */
+    String apply(final String local) {
+      final int subaddress = separator == 0 ? -1 : local.indexOf(separator);
+      String result = subaddress < 0 ? local : local.substring(0, subaddress);
+      if (stripDots) {
+        result = result.replace(".", "");
+      }
+      if (foldCase) {
+        result = result.toLowerCase(Locale.ROOT);
+      }
+      return result;
+    }
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.preetam.emailvalidator.models.EmailResponse;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BlockingBucket;
+import io.github.bucket4j.Bucket;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Carries the response cache across restarts in a compressed snapshot.
+ *
+ * <p>On shutdown, every response in {@code emailValidationCache} is written
+ * with its absolute expiry to {@code email.validator.cache.snapshot.file}, a
+ * gzipped NDJSON file whose first line counts the entries. Once the
+ * application is ready, the snapshot is read back in the background, at most
+ * {@code email.validator.cache.snapshot.load-rate} entries per second so that
+ * live traffic keeps the CPU. Responses keep the lifetime they had left and
+ * never replace one cached since startup. {@link #isWarm()} reports when
+ * {@code email.validator.cache.snapshot.ready-percent} of the entries are read.
+ */
+@Service
+@ConditionalOnProperty(name = "email.validator.cache.snapshot.enabled", havingValue = "true")
+public class CacheSnapshotService {
+
+  /** Logger for CacheSnapshotService. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(CacheSnapshotService.class);
+
+  /** Milliseconds per second. */
+  private static final long MILLIS_PER_SECOND = 1000;
+
+  /** Cache manager holding the response cache. */
+  private final CacheManager cacheManager;
+
+  /** Mapper reading and writing the snapshot lines. */
+  private final JsonMapper jsonMapper;
+
+  /** File holding the snapshot. */
+  private final Path file;
+
+  /** Maximum number of entries read per second. */
+  private final long loadRate;
+
+  /** Share of the entries, in percent, read before the cache counts as warm. */
+  private final int readyPercent;
+
+  /** Reads the snapshot in the background. */
+  private final ExecutorService loader =
+      Executors.newSingleThreadExecutor(
+          Thread.ofPlatform().name("cache-snapshot-loader").daemon().factory());
+
+  /** Number of entries in the snapshot being read, or -1 until its header is read. */
+  private volatile long total = -1;
+
+  /** Number of entries read so far. */
+  private volatile long loaded;
+
+  /** Whether reading the snapshot is over, successfully or not. */
+  private volatile boolean finished;
+
+  /**
+   * Constructs a CacheSnapshotService with the given settings.
+   *
+   * @param cacheManager cache manager holding the response cache
+   * @param jsonMapper mapper reading and writing the snapshot lines
+   * @param file file holding the snapshot
+   * @param loadRate maximum number of entries read per second
+   * @param readyPercent share of the entries read before the cache counts as warm
+   */
+  public CacheSnapshotService(
+      final CacheManager cacheManager,
+      final JsonMapper jsonMapper,
+      @Value("${email.validator.cache.snapshot.file:cache/email-validation.snapshot.gz}")
+          final String file,
+      @Value("${email.validator.cache.snapshot.load-rate:5000}") final long loadRate,
+      @Value("${email.validator.cache.snapshot.ready-percent:90}") final int readyPercent) {
+    this.cacheManager = cacheManager;
+    this.jsonMapper = jsonMapper;
+    this.file = Paths.get(file);
+    this.loadRate = loadRate;
+    this.readyPercent = readyPercent;
+  }
+
+  /** Starts reading the snapshot once the application is ready. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    loader.execute(this::warmUp);
+  }
+
+  /** Stops reading the snapshot and writes the current cache to it. */
+  @PreDestroy
+  public void shutdown() {
+    loader.shutdownNow();
+    try {
+      final int saved = save();
+      getLogger().info("Saved {} cached responses to {}", saved, file);
+    } catch (IOException ex) {
+      getLogger().warn("Cache snapshot {} could not be written", file, ex);
+    }
+  }
+
+  /**
+   * Returns whether enough of the snapshot has been read to serve traffic.
+   *
+   * @return {@code true} once the configured share of the entries is read, or
+   *     reading is over
+   */
+  public boolean isWarm() {
+    final long entries = total;
+    return finished || entries >= 0 && loaded * 100 >= entries * readyPercent;
+  }
+
+  /**
+   * Returns the number of entries in the snapshot being read.
+   *
+   * @return the number of entries, or -1 if not known yet
+   */
+  public long total() {
+    return total;
+  }
+
+  /**
+   * Returns the number of snapshot entries read so far.
+   *
+   * @return the number of entries read
+   */
+  public long loaded() {
+    return loaded;
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void warmUp() {
+    try {
+      final long restored = load();
+      getLogger().info("Restored {} cached responses from {}", restored, file);
+    } catch (IOException | RuntimeException ex) {
+      // Start cold rather than not at all.
+      getLogger().warn("Cache snapshot {} could not be read", file, ex);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } finally {
+      finished = true;
+    }
+  }
+
+  /**
+   * Reads the snapshot into the response cache, if there is one.
+   *
+   * @return the number of responses added to the cache
+   * @throws IOException if the snapshot cannot be read
+   * @throws InterruptedException if interrupted while waiting for the rate limit
+   */
+  public long load() throws IOException, InterruptedException {
+    long restored = 0;
+    if (Files.exists(file)) {
+      final Cache cache = cacheManager.getCache(EmailValidatorService.CACHE_NAME);
+      final BlockingBucket bucket =
+          Bucket.builder()
+              .addLimit(
+                  Bandwidth.builder()
+                      .capacity(loadRate)
+                      .refillGreedy(loadRate, Duration.ofSeconds(1))
+                      .build())
+              .build()
+              .asBlocking();
+      try (BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(
+                  new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+        total = jsonMapper.readValue(reader.readLine(), Header.class).entries();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+          bucket.consume(1);
+          final Entry entry = jsonMapper.readValue(line, Entry.class);
+          final long ttlSeconds =
+              (entry.expiresAtMillis() - System.currentTimeMillis()) / MILLIS_PER_SECOND;
+          if (ttlSeconds > 0) {
+            entry.value().setTtlSeconds(ttlSeconds);
+            if (cache.putIfAbsent(entry.key(), entry.value()) == null) {
+              restored++;
+            }
+          }
+          loaded++;
+        }
+      }
+    }
+    return restored;
+  }
+
+  /**
+   * Writes the responses in the cache to the snapshot, replacing it.
+   *
+   * @return the number of responses written
+   * @throws IOException if the snapshot cannot be written
+   */
+  public int save() throws IOException {
+    final CaffeineCache cache =
+        (CaffeineCache) cacheManager.getCache(EmailValidatorService.CACHE_NAME);
+    final Policy.VarExpiration<Object, Object> expiration =
+        cache.getNativeCache().policy().expireVariably().orElseThrow();
+    final long now = System.currentTimeMillis();
+    final List<Entry> entries = new ArrayList<>();
+    cache
+        .getNativeCache()
+        .asMap()
+        .forEach(
+            (key, value) -> {
+              if (key instanceof String email && value instanceof EmailResponse response) {
+                expiration
+                    .getExpiresAfter(key, TimeUnit.MILLISECONDS)
+                    .ifPresent(left -> entries.add(new Entry(email, now + left, response)));
+              }
+            });
+
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    final Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    try (BufferedWriter writer =
+        new BufferedWriter(
+            new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+      writer.write(jsonMapper.writeValueAsString(new Header(entries.size())));
+      writer.newLine();
+      for (final Entry entry : entries) {
+        writer.write(jsonMapper.writeValueAsString(entry));
+        writer.newLine();
+      }
+    }
+    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return entries.size();
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+
+  /**
+   * First line of a snapshot.
+   *
+   * @param entries number of entries following it
+   */
+  private record Header(long entries) {}
+
+  /**
+   * A cached response in a snapshot.
+   *
+   * @param key the canonical address the response is cached under
+   * @param expiresAtMillis when the response expires, in epoch milliseconds
+   * @param value the response
+   */
+  private record Entry(String key, long expiresAtMillis, EmailResponse value) {}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stops calling a dependency that keeps failing, then probes it before
+ * letting traffic back.
+ *
+ * <p>The breaker opens after {@code failureThreshold} consecutive failures.
+ * While open, {@link #tryAcquire()} refuses every call until the open duration
+ * has passed; the next call is then let through alone as a half-open probe.
+ * A successful probe closes the breaker, a failed one opens it again.
+ *
+ * <p>The state is reported in the {@code email.validator.circuit.state} gauge
+ * (0 closed, 1 open, 2 half-open), tagged with the breaker name.
+ */
+public class CircuitBreaker {
+
+  /** Name of the gauge reporting the breaker state. */
+  public static final String METRIC_NAME = "email.validator.circuit.state";
+
+  /** States of the breaker. */
+  public enum State {
+    /** Calls go through; failures are counted. */
+    CLOSED,
+    /** Calls are refused until the open duration has passed. */
+    OPEN,
+    /** A single probe call is in flight. */
+    HALF_OPEN
+  }
+
+  /** Consecutive failures that open the breaker. */
+  private final int failureThreshold;
+
+  /** How long the breaker stays open before probing. */
+  private final long openNanos;
+
+  /** Guards the state fields below. */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** Current state. */
+  private State state = State.CLOSED;
+
+  /** Consecutive failures seen while closed. */
+  private int failures;
+
+  /** {@link System#nanoTime()} when the breaker last opened. */
+  private long openedAt;
+
+  /**
+   * Constructs a closed CircuitBreaker.
+   *
+   * @param name the breaker name, used as the {@code name} tag
+   * @param failureThreshold consecutive failures that open the breaker
+   * @param openDuration how long the breaker stays open before probing
+   * @param registry the registry receiving the state gauge
+   */
+  public CircuitBreaker(
+      final String name,
+      final int failureThreshold,
+      final Duration openDuration,
+      final MeterRegistry registry) {
+    this.failureThreshold = Math.max(1, failureThreshold);
+    this.openNanos = openDuration.toNanos();
+    Gauge.builder(METRIC_NAME, this, breaker -> breaker.state().ordinal())
+        .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+        .tag("name", name)
+        .register(registry);
+  }
+
+  /**
+   * Asks for permission to make a call. Each granted call must be followed by
+   * exactly one of {@link #onSuccess()}, {@link #onFailure()} or
+   * {@link #onIgnored()}.
+   *
+   * @return {@code true} if the call may go ahead
+   */
+  public boolean tryAcquire() {
+    lock.lock();
+    try {
+      boolean permitted = state == State.CLOSED;
+      if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+        state = State.HALF_OPEN;
+        permitted = true;
+      }
+      return permitted;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Records a successful call; closes the breaker after a successful probe. */
+  public void onSuccess() {
+    lock.lock();
+    try {
+      if (state != State.OPEN) {
+        state = State.CLOSED;
+        failures = 0;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Records a failed call; opens the breaker at the threshold or after a failed probe. */
+  public void onFailure() {
+    lock.lock();
+    try {
+      failures++;
+      if (state == State.HALF_OPEN || state == State.CLOSED && failures >= failureThreshold) {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Records a call that ended without telling anything about the dependency,
+   * such as a cancelled one. A probe ending this way lets the next call probe.
+   */
+  public void onIgnored() {
+    lock.lock();
+    try {
+      if (state == State.HALF_OPEN) {
+        state = State.OPEN;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the current state.
+   *
+   * @return the breaker state
+   */
+  public State state() {
+    lock.lock();
+    try {
+      return state;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of disposable email domains, matched on the domain itself
+ * and on any of its parents.
+ *
+ * <p>Domains are stored as a trie over their labels read right to left, so
+ * {@code mailinator.com} sits under {@code com} and also covers
+ * {@code x.mailinator.com}. The trie is flattened into arrays: every distinct
+ * label is stored once in a shared byte pool, and each node's children are a
+ * sorted slice of two {@code int} arrays searched by binary search. A lookup
+ * walks one node per label of the queried domain, compares the domain's
+ * characters against the pool in place and allocates nothing.
+ *
+ * <p>Labels are expected in ASCII, as public lists write internationalised
+ * domains in their punycode form.
+ *
+ * <p>{@link #apply(Collection, Collection)} derives an updated index that
+ * shares the arrays: domains already in the trie are listed or unlisted by
+ * flipping a bit, and new domains go to a small overlay. Applying a delta
+ * therefore costs in proportion to the delta, not to the list.
+ */
+public final class DisposableDomainIndex {
+
+  /** Index holding no domains. */
+  private static final DisposableDomainIndex EMPTY = builder().build();
+
+  /** Distinct labels, in ASCII, concatenated. */
+  private final byte[] labelPool;
+
+  /** Start of each label in the pool; label {@code i} ends where label {@code i + 1} starts. */
+  private final int[] labelStart;
+
+  /** Children of node {@code n} are the entries from {@code childStart[n]} to the next node's. */
+  private final int[] childStart;
+
+  /** Label of each child entry; entries of a node are sorted by label. */
+  private final int[] childLabel;
+
+  /** Node each child entry points to. */
+  private final int[] childNode;
+
+  /** Nodes ending a listed domain. */
+  private final BitSet listed;
+
+  /** Listed domains added since the trie was built and missing from it. */
+  private final Set<String> overlay;
+
+  /** Index over {@link #overlay}, or {@code null} when it is empty. */
+  private final DisposableDomainIndex overlayIndex;
+
+  /** Number of domains listed. */
+  private final int size;
+
+  private DisposableDomainIndex(
+      final byte[] labelPool,
+      final int[] labelStart,
+      final int[] childStart,
+      final int[] childLabel,
+      final int[] childNode,
+      final BitSet listed,
+      final Set<String> overlay) {
+    this.labelPool = labelPool;
+    this.labelStart = labelStart;
+    this.childStart = childStart;
+    this.childLabel = childLabel;
+    this.childNode = childNode;
+    this.listed = listed;
+    this.overlay = Set.copyOf(overlay);
+    this.overlayIndex = overlay.isEmpty() ? null : of(overlay);
+    this.size = listed.cardinality() + overlay.size();
+  }
+
+  /**
+   * Returns the index holding no domains.
+   *
+   * @return the empty index
+   */
+  public static DisposableDomainIndex empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Builds an index from the given domains.
+   *
+   * @param domains the domains to list; see {@link Builder#add(String)}
+   * @return the index
+   */
+  public static DisposableDomainIndex of(final Iterable<String> domains) {
+    final Builder builder = builder();
+    for (final String domain : domains) {
+      builder.add(domain);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Builds an index from a list with one domain per line. Blank lines and
+   * lines starting with {@code #} are skipped.
+   *
+   * @param reader the list
+   * @return the index
+   * @throws IOException if the list cannot be read
+   */
+  public static DisposableDomainIndex read(final Reader reader) throws IOException {
+    final Builder builder = builder();
+    final BufferedReader lines = new BufferedReader(reader);
+    for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+      if (isListEntry(line)) {
+        builder.add(line);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns whether a line of a list names a domain, rather than being blank
+   * or a {@code #} comment.
+   *
+   * @param line the line
+   * @return {@code true} if the line names a domain
+   */
+  static boolean isListEntry(final String line) {
+    final String domain = line.strip();
+    return !domain.isEmpty() && domain.charAt(0) != '#';
+  }
+
+  /**
+   * Returns a builder for a new index.
+   *
+   * @return an empty builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Returns the number of domains listed.
+   *
+   * @return the number of domains
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of listed domains held in the overlay rather than the
+   * trie. A large overlay is a sign the index should be rebuilt.
+   *
+   * @return the number of domains in the overlay
+   */
+  public int overlaySize() {
+    return overlay.size();
+  }
+
+  /**
+   * Derives an index with domains removed and added, sharing this index's trie.
+   * Removals are applied first, so a domain in both collections stays listed.
+   *
+   * @param additions the domains to list; see {@link Builder#add(String)}
+   * @param removals the domains to unlist, normalized the same way
+   * @return the updated index
+   */
+  public DisposableDomainIndex apply(
+      final Collection<String> additions, final Collection<String> removals) {
+    final BitSet updated = (BitSet) listed.clone();
+    final Set<String> updatedOverlay = new HashSet<>(overlay);
+    for (final String domain : removals) {
+      final String normalized = normalize(domain);
+      final int node = find(normalized);
+      if (node > 0) {
+        updated.clear(node);
+      }
+      updatedOverlay.remove(normalized);
+    }
+    for (final String domain : additions) {
+      final String normalized = normalize(domain);
+      final int node = find(normalized);
+      if (node > 0) {
+        updated.set(node);
+      } else if (!normalized.isEmpty()) {
+        updatedOverlay.add(normalized);
+      }
+    }
+    return new DisposableDomainIndex(
+        labelPool, labelStart, childStart, childLabel, childNode, updated, updatedOverlay);
+  }
+
+  /**
+   * Checks whether a domain, or one of its parent domains, is listed.
+   * ASCII letters are matched case-insensitively.
+   *
+   * @param domain the domain to check, such as {@code x.mailinator.com}
+   * @return {@code true} if the domain or a parent is listed
+   */
+  public boolean contains(final String domain) {
+    boolean found = false;
+    int node = 0;
+    int end = domain.length();
+    while (node >= 0 && end > 0 && !found) {
+      final int start = domain.lastIndexOf('.', end - 1) + 1;
+      node = child(node, domain, start, end);
+      found = node >= 0 && listed.get(node);
+      end = start - 1;
+    }
+    return found || overlayIndex != null && overlayIndex.contains(domain);
+  }
+
+  /** Returns the trie node of a normalized domain, or -1 if it has none. */
+  private int find(final String domain) {
+    int node = domain.isEmpty() ? -1 : 0;
+    int end = domain.length();
+    while (node >= 0 && end > 0) {
+      final int start = domain.lastIndexOf('.', end - 1) + 1;
+      node = child(node, domain, start, end);
+      end = start - 1;
+    }
+    return node;
+  }
+
+  /** Returns the child of a node labelled {@code domain[start, end)}, or -1. */
+  private int child(final int node, final String domain, final int start, final int end) {
+    int low = childStart[node];
+    int high = childStart[node + 1] - 1;
+    int found = -1;
+    while (low <= high && found < 0) {
+      final int mid = (low + high) >>> 1;
+      final int cmp = compare(childLabel[mid], domain, start, end);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        found = childNode[mid];
+      }
+    }
+    return found;
+  }
+
+  /** Compares a pooled label with {@code domain[start, end)}, lowercasing ASCII letters. */
+  private int compare(final int label, final String domain, final int start, final int end) {
+    final int from = labelStart[label];
+    final int labelLength = labelStart[label + 1] - from;
+    final int length = end - start;
+    final int common = Math.min(labelLength, length);
+    int cmp = 0;
+    for (int i = 0; i < common && cmp == 0; i++) {
+      cmp = (labelPool[from + i] & 0xff) - lowerAscii(domain.charAt(start + i));
+    }
+    return cmp == 0 ? labelLength - length : cmp;
+  }
+
+  private static int lowerAscii(final char c) {
+    return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+  }
+
+  /** Lowercases a domain and drops a leading {@code *.} or {@code .} and a trailing {@code .}. */
+  private static String normalize(final String domain) {
+    String normalized = domain.strip().toLowerCase(Locale.ROOT);
+    if (normalized.startsWith("*.")) {
+      normalized = normalized.substring(2);
+    }
+    if (normalized.startsWith(".")) {
+      normalized = normalized.substring(1);
+    }
+    if (normalized.endsWith(".")) {
+      normalized = normalized.substring(0, normalized.length() - 1);
+    }
+    return normalized;
+  }
+
+  /** Collects domains for a new {@link DisposableDomainIndex}. */
+  public static final class Builder {
+
+    /** Root of the label trie being built. */
+    private final Node root = new Node();
+
+    private Builder() {}
+
+    /**
+     * Adds a domain. It is lowercased, and a leading {@code *.} or {@code .}
+     * and a trailing {@code .} are dropped; a blank domain is ignored.
+     *
+     * @param domain the domain to list
+     * @return this builder
+     */
+    public Builder add(final String domain) {
+      final String normalized = normalize(domain);
+      if (!normalized.isEmpty()) {
+        Node node = root;
+        final String[] labels = normalized.split("\\.", -1);
+        for (int i = labels.length - 1; i >= 0; i--) {
+          node = node.children.computeIfAbsent(labels[i], key -> new Node());
+        }
+        node.listed = true;
+      }
+      return this;
+    }
+
+    /**
+     * Flattens the collected domains into an index.
+     *
+     * @return the index
+     */
+    public DisposableDomainIndex build() {
+      final Map<String, Integer> labelIds = new HashMap<>();
+      final List<String> labels = new ArrayList<>();
+      final List<Node> nodes = new ArrayList<>();
+      final Deque<Node> queue = new ArrayDeque<>();
+      queue.add(root);
+      while (!queue.isEmpty()) {
+        final Node node = queue.poll();
+        node.id = nodes.size();
+        nodes.add(node);
+        for (final Map.Entry<String, Node> child : node.children.entrySet()) {
+          labelIds.computeIfAbsent(
+              child.getKey(),
+              label -> {
+                labels.add(label);
+                return labels.size() - 1;
+              });
+          queue.add(child.getValue());
+        }
+      }
+
+      final int[] labelStart = new int[labels.size() + 1];
+      final byte[][] encoded = new byte[labels.size()][];
+      for (int i = 0; i < labels.size(); i++) {
+        encoded[i] = labels.get(i).getBytes(StandardCharsets.US_ASCII);
+        labelStart[i + 1] = labelStart[i] + encoded[i].length;
+      }
+      final byte[] labelPool = new byte[labelStart[labels.size()]];
+      for (int i = 0; i < encoded.length; i++) {
+        System.arraycopy(encoded[i], 0, labelPool, labelStart[i], encoded[i].length);
+      }
+
+      final int[] childStart = new int[nodes.size() + 1];
+      final int[] childLabel = new int[nodes.size() - 1];
+      final int[] childNode = new int[nodes.size() - 1];
+      final BitSet listed = new BitSet(nodes.size());
+      int entry = 0;
+      for (final Node node : nodes) {
+        childStart[node.id] = entry;
+        listed.set(node.id, node.listed);
+        // TreeMap keeps the children in String order, which matches byte order for ASCII.
+        for (final Map.Entry<String, Node> child : node.children.entrySet()) {
+          childLabel[entry] = labelIds.get(child.getKey());
+          childNode[entry] = child.getValue().id;
+          entry++;
+        }
+      }
+      childStart[nodes.size()] = entry;
+      return new DisposableDomainIndex(
+          labelPool, labelStart, childStart, childLabel, childNode, listed, Set.of());
+    }
+  }
+
+  /** A trie node while the index is being built. */
+  private static final class Node {
+
+    /** Children by label, in label order. */
+    private final Map<String, Node> children = new TreeMap<>();
+
+    /** Whether a listed domain ends here. */
+    private boolean listed;
+
+    /** Position in breadth-first order, assigned when flattening. */
+    private int id;
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers whether a domain belongs to a disposable email provider.
+ *
+ * <p>The list is read at startup from {@code email.validator.disposable.list},
+ * one domain per line, into a {@link DisposableDomainIndex}; a listed domain
+ * also covers its subdomains. {@link DisposableListSync} may later swap in
+ * updated indexes; lookups read whichever index is current and never wait.
+ */
+@Service
+public class DisposableDomainService {
+
+  /** Logger for DisposableDomainService. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(DisposableDomainService.class);
+
+  /** Index of the listed domains; replaced as a whole when the list changes. */
+  private volatile DisposableDomainIndex index;
+
+  /**
+   * Constructs a DisposableDomainService reading the given list.
+   *
+   * @param list the list of disposable domains
+   * @throws IOException if the list cannot be read
+   */
+  public DisposableDomainService(
+      @Value("${email.validator.disposable.list:classpath:disposable-domains.txt}")
+          final Resource list)
+      throws IOException {
+    try (Reader reader = new InputStreamReader(list.getInputStream(), StandardCharsets.UTF_8)) {
+      this.index = DisposableDomainIndex.read(reader);
+    }
+    getLogger().info("Loaded {} disposable domains from {}", index.size(), list);
+  }
+
+  /**
+   * Checks whether a domain, or one of its parent domains, is disposable.
+   *
+   * @param domain the domain to check
+   * @return {@code true} if the domain or a parent is listed
+   */
+  public boolean isDisposable(final String domain) {
+    return index.contains(domain);
+  }
+
+  /**
+   * Returns the current index.
+   *
+   * @return the index answering lookups
+   */
+  public DisposableDomainIndex index() {
+    return index;
+  }
+
+  /**
+   * Swaps in a new index. Lookups already running finish on the previous one.
+   *
+   * @param updated the index answering lookups from now on
+   */
+  public void replace(final DisposableDomainIndex updated) {
+    this.index = updated;
+  }
+
+  /**
+   * Returns the number of domains listed.
+   *
+   * @return the number of domains
+   */
+  public int size() {
+    return index.size();
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffAlgorithm;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.RawText;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.util.FS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Keeps the disposable domain list in sync with a git remote or an archive.
+ *
+ * <p>{@code email.validator.disposable.sync.source} is either a git remote,
+ * cloned bare into {@code email.validator.disposable.sync.work-dir} and
+ * fetched on every run, or the location of a {@code .zip}, {@code .tar},
+ * {@code .tar.gz} or {@code .tgz} archive. The list is read from
+ * {@code email.validator.disposable.sync.path} in the branch or archive.
+ *
+ * <p>The first run loads the whole list. Later runs diff the new list against
+ * the one last applied and apply only the changed lines through
+ * {@link DisposableDomainIndex#apply}, so a refresh costs in proportion to the
+ * change; the index is rebuilt in full only once its overlay outgrows
+ * {@code email.validator.disposable.sync.compact-threshold}. Each update is
+ * swapped into {@link DisposableDomainService} in one step.
+ */
+@Service
+@ConditionalOnProperty(name = "email.validator.disposable.sync.source")
+public class DisposableListSync {
+
+  /** Logger for DisposableListSync. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(DisposableListSync.class);
+
+  /** Service whose index is kept in sync. */
+  private final DisposableDomainService disposableDomainService;
+
+  /** The {@link RestTemplate} used to download archives over HTTP. */
+  private final RestTemplate restTemplate;
+
+  /** Git remote or archive location. */
+  private final String source;
+
+  /** Path of the list in the branch or archive. */
+  private final String path;
+
+  /** Branch holding the list. */
+  private final String branch;
+
+  /** Directory holding the bare clone. */
+  private final Path workDir;
+
+  /** Delay between two runs. */
+  private final Duration interval;
+
+  /** Overlay size past which the index is rebuilt in full. */
+  private final int compactThreshold;
+
+  /** Resolves archive locations other than HTTP. */
+  private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+  /** Runs the periodic updates. */
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("disposable-list-sync").daemon().factory());
+
+  /** Serializes updates. */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** Content of the list last applied, or {@code null} before the first run. */
+  private byte[] synced;
+
+  /** Commit the list was last applied from, in git mode. */
+  private ObjectId syncedCommit;
+
+  /** Commit the list was read from in the current run, in git mode. */
+  private ObjectId fetchedCommit;
+
+  /**
+   * Constructs a DisposableListSync with the given settings.
+   *
+   * @param disposableDomainService service whose index is kept in sync
+   * @param restTemplate REST client used to download archives over HTTP
+   * @param source git remote or archive location
+   * @param path path of the list in the branch or archive
+   * @param branch branch holding the list
+   * @param workDir directory holding the bare clone
+   * @param interval delay between two runs
+   * @param compactThreshold overlay size past which the index is rebuilt in full
+   */
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  public DisposableListSync(
+      final DisposableDomainService disposableDomainService,
+      final RestTemplate restTemplate,
+      @Value("${email.validator.disposable.sync.source}") final String source,
+      @Value("${email.validator.disposable.sync.path:disposable_email_blocklist.conf}")
+          final String path,
+      @Value("${email.validator.disposable.sync.branch:main}") final String branch,
+      @Value("${email.validator.disposable.sync.work-dir:disposable-list}") final Path workDir,
+      @Value("${email.validator.disposable.sync.interval:1h}") final Duration interval,
+      @Value("${email.validator.disposable.sync.compact-threshold:10000}")
+          final int compactThreshold) {
+    this.disposableDomainService = disposableDomainService;
+    this.restTemplate = restTemplate;
+    this.source = source;
+    this.path = path;
+    this.branch = branch;
+    this.workDir = workDir;
+    this.interval = interval;
+    this.compactThreshold = compactThreshold;
+  }
+
+  /** Loads the list once the application is ready, then keeps it up to date. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    scheduler.scheduleWithFixedDelay(
+        this::scheduledUpdate, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /** Stops the periodic updates. */
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void scheduledUpdate() {
+    try {
+      update();
+    } catch (IOException | GitAPIException | RuntimeException ex) {
+      // Keep the schedule alive and the current list in use; the next run retries.
+      getLogger().warn("Disposable domain list sync from {} failed", source, ex);
+    }
+  }
+
+  /**
+   * Fetches the list and applies it if it changed since the last run.
+   *
+   * @return {@code true} if the index was replaced
+   * @throws IOException if the list cannot be downloaded or read
+   * @throws GitAPIException if cloning or fetching the git remote fails
+   */
+  public boolean update() throws IOException, GitAPIException {
+    lock.lock();
+    try {
+      final byte[] content = isArchive() ? readArchive() : readGit();
+      final boolean changed = content != null && !Arrays.equals(content, synced);
+      if (changed) {
+        disposableDomainService.replace(nextIndex(content));
+        synced = content;
+      }
+      syncedCommit = fetchedCommit;
+      return changed;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Builds the index for the new list, from the changed lines when possible. */
+  @SuppressWarnings("PMD.GuardLogStatement")
+  private DisposableDomainIndex nextIndex(final byte[] content) throws IOException {
+    DisposableDomainIndex updated = null;
+    if (synced != null) {
+      final List<String> additions = new ArrayList<>();
+      final List<String> removals = new ArrayList<>();
+      diff(synced, content, additions, removals);
+      updated = disposableDomainService.index().apply(additions, removals);
+      getLogger()
+          .info(
+              "Applied {} additions and {} removals to the disposable domain list",
+              additions.size(),
+              removals.size());
+    }
+    if (updated == null || updated.overlaySize() > compactThreshold) {
+      updated =
+          DisposableDomainIndex.read(
+              new StringReader(new String(content, StandardCharsets.UTF_8)));
+      getLogger().info("Loaded {} disposable domains from {}", updated.size(), source);
+    }
+    return updated;
+  }
+
+  /** Collects the list entries on the lines that differ between two lists. */
+  private static void diff(
+      final byte[] before,
+      final byte[] after,
+      final List<String> additions,
+      final List<String> removals) {
+    final RawText oldText = new RawText(before);
+    final RawText newText = new RawText(after);
+    for (final Edit edit :
+        DiffAlgorithm.getAlgorithm(DiffAlgorithm.SupportedAlgorithm.HISTOGRAM)
+            .diff(RawTextComparator.DEFAULT, oldText, newText)) {
+      collect(oldText, edit.getBeginA(), edit.getEndA(), removals);
+      collect(newText, edit.getBeginB(), edit.getEndB(), additions);
+    }
+  }
+
+  private static void collect(
+      final RawText text, final int begin, final int end, final List<String> entries) {
+    for (int line = begin; line < end; line++) {
+      final String entry = text.getString(line);
+      if (DisposableDomainIndex.isListEntry(entry)) {
+        entries.add(entry);
+      }
+    }
+  }
+
+  private boolean isArchive() {
+    final String location = source.toLowerCase(Locale.ROOT);
+    return location.endsWith(".zip")
+        || location.endsWith(".tar")
+        || location.endsWith(".tar.gz")
+        || location.endsWith(".tgz");
+  }
+
+  /**
+   * Fetches the branch and returns the list, or {@code null} if the branch has
+   * not moved since the list was last applied.
+   */
+  private byte[] readGit() throws IOException, GitAPIException {
+    final String ref = Constants.R_HEADS + branch;
+    final boolean cloned =
+        RepositoryCache.FileKey.isGitRepository(workDir.toFile(), FS.DETECTED);
+    byte[] content = null;
+    try (Git git = cloned ? Git.open(workDir.toFile()) : clone(ref)) {
+      if (cloned) {
+        git.fetch().setRefSpecs(new RefSpec("+" + ref + ":" + ref)).call();
+      }
+      final Repository repository = git.getRepository();
+      // Cloning or fetching fails if the branch is missing, so it resolves here.
+      final ObjectId head = repository.resolve(ref);
+      fetchedCommit = head;
+      if (!head.equals(syncedCommit)) {
+        try (RevWalk walk = new RevWalk(repository);
+            TreeWalk tree = TreeWalk.forPath(repository, path, walk.parseCommit(head).getTree())) {
+          if (tree == null) {
+            throw new IOException(path + " not found on branch " + branch + " of " + source);
+          }
+          content = repository.open(tree.getObjectId(0)).getBytes();
+        }
+      }
+    }
+    return content;
+  }
+
+  private Git clone(final String ref) throws GitAPIException {
+    getLogger().info("Cloning disposable domain list from {} into {}", source, workDir);
+    return Git.cloneRepository()
+        .setURI(source)
+        .setDirectory(workDir.toFile())
+        .setBare(true)
+        .setBranchesToClone(List.of(ref))
+        .setBranch(ref)
+        .call();
+  }
+
+  /** Downloads the archive and returns the list inside it. */
+  private byte[] readArchive() throws IOException {
+    final byte[] content;
+    if (source.startsWith("http://") || source.startsWith("https://")) {
+      content =
+          restTemplate.execute(
+              source, HttpMethod.GET, null, response -> extract(response.getBody()));
+    } else {
+      try (InputStream in = resourceLoader.getResource(source).getInputStream()) {
+        content = extract(in);
+      }
+    }
+    return content;
+  }
+
+  /**
+   * Returns the list from an archive stream. Entries are matched on
+   * {@code path}, also below a top-level directory as in GitHub archives.
+   */
+  private byte[] extract(final InputStream in) throws IOException {
+    final String location = source.toLowerCase(Locale.ROOT);
+    byte[] content = null;
+    try (ArchiveInputStream<? extends ArchiveEntry> archive =
+        location.endsWith(".zip")
+            ? new ZipArchiveInputStream(in)
+            : new TarArchiveInputStream(
+                location.endsWith(".tar") ? in : new GzipCompressorInputStream(in))) {
+      for (ArchiveEntry entry = archive.getNextEntry();
+          entry != null && content == null;
+          entry = archive.getNextEntry()) {
+        final String name = entry.getName();
+        if (!entry.isDirectory() && (name.equals(path) || name.endsWith("/" + path))) {
+          content = archive.readAllBytes();
+        }
+      }
+    }
+    if (content == null) {
+      throw new IOException(path + " not found in " + source);
+    }
+    return content;
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+}
@@ -4,7 +4,7 @@
 
 package com.preetam.emailvalidator.services;
 
-import org.xbill.DNS.Record;
+import java.util.concurrent.CompletableFuture;
 import org.xbill.DNS.TextParseException;
 
 /** Functional interface defining DNS lookup operations. */
@@ -12,11 +12,12 @@ import org.xbill.DNS.TextParseException;
 public interface DnsLookupService {
 
   /**
-   * Looks up MX records for the specified domain.
+   * Looks up MX records for the specified domain without blocking the caller.
    *
    * @param domain the domain name to query MX records for
-   * @return array of DNS MX records
-   * @throws TextParseException if the domain name is invalid
+   * @return a future completed with the records and their TTL, or completed
+   *     exceptionally with {@link TextParseException} if the domain name is invalid
+   *     or with another {@link java.io.IOException} if the query failed
    */
-  Record[] lookupMxRecords(String domain) throws TextParseException;
+  CompletableFuture<MxResult> lookupMxAsync(String domain);
 }
@@ -4,21 +4,187 @@
 
 package com.preetam.emailvalidator.services;
 
+import com.preetam.emailvalidator.jfr.MxLookupEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.xbill.DNS.Lookup;
+import org.xbill.DNS.DClass;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.Rcode;
 import org.xbill.DNS.Record;
+import org.xbill.DNS.Resolver;
+import org.xbill.DNS.SOARecord;
+import org.xbill.DNS.Section;
 import org.xbill.DNS.TextParseException;
 import org.xbill.DNS.Type;
 
 /**
  * Implementation of DnsLookupService that performs DNS MX record
  * lookups using the dnsjava library.
+ *
+ * <p>MX queries are timed in {@code email.validator.dns.lookups}, tagged with
+ * their outcome: {@code found}, {@code none} for a negative answer, or
+ * {@code error} when no answer came back or the server answered with a
+ * response code other than {@code NOERROR} or {@code NXDOMAIN}, such as
+ * {@code SERVFAIL} or {@code REFUSED}. Such failures are reported as an
+ * {@link IOException} rather than as a domain without MX records. Each query
+ * is also spanned by an {@link MxLookupEvent} for Flight Recorder.
  */
 @Service
-@SuppressWarnings("PMD.AtLeastOneConstructor")
 public class DnsLookupServiceImpl implements DnsLookupService {
+
+  /** Logger for DnsLookupServiceImpl. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(DnsLookupServiceImpl.class);
+
+  /** Name of the timer reporting MX queries. */
+  public static final String LOOKUP_METRIC = "email.validator.dns.lookups";
+
+  /** Resolver used for TTL-aware MX queries. */
+  private final Resolver resolver;
+
+  /** TTL in seconds used when a negative answer carries no SOA. */
+  private final long failureTtlSeconds;
+
+  /** Registry receiving the query timers. */
+  private final MeterRegistry registry;
+
+  /**
+   * Constructs a DnsLookupServiceImpl with the given resolver.
+   *
+   * @param resolver resolver used for TTL-aware MX queries
+   * @param failureTtlSeconds TTL used when no TTL can be derived from the answer
+   * @param registry the registry receiving the query timers
+   */
+  public DnsLookupServiceImpl(
+      final Resolver resolver,
+      @Value("${email.validator.dns.failure-ttl-seconds:60}") final long failureTtlSeconds,
+      final MeterRegistry registry) {
+    this.resolver = resolver;
+    this.failureTtlSeconds = failureTtlSeconds;
+    this.registry = registry;
+  }
+
+  /**
+   * Queries MX records through dnsjava's asynchronous resolver, so no thread is
+   * held while waiting for the answer. The answer's TTLs are kept: the smallest
+   * MX record TTL for a positive answer, or the SOA negative-caching TTL
+   * ({@code min(SOA TTL, SOA minimum)}, RFC 2308) for NXDOMAIN and NODATA answers.
+   */
   @Override
-  public Record[] lookupMxRecords(final String domain) throws TextParseException {
-    return new Lookup(domain, Type.MX).run();
+  public CompletableFuture<MxResult> lookupMxAsync(final String domain) {
+    CompletableFuture<MxResult> future;
+    try {
+      final Message query = mxQuery(domain);
+      final Timer.Sample sample = Timer.start(registry);
+      final MxLookupEvent event = new MxLookupEvent(domain);
+      future =
+          resolver
+              .sendAsync(query)
+              .toCompletableFuture()
+              .thenCompose(this::convert)
+              .whenComplete(
+                  (result, ex) -> {
+                    if (ex == null) {
+                      answered(sample, event, result);
+                    } else {
+                      failed(sample, event, domain, ex);
+                    }
+                  });
+    } catch (TextParseException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+    return future;
+  }
+
+  private MxResult answered(
+      final Timer.Sample sample, final MxLookupEvent event, final MxResult result) {
+    stop(sample, event, result.hasRecords() ? "found" : "none");
+    return result;
+  }
+
+  private void failed(
+      final Timer.Sample sample,
+      final MxLookupEvent event,
+      final String domain,
+      final Throwable cause) {
+    getLogger().warn("MX query failed for domain: {}", domain, cause);
+    stop(sample, event, "error");
+  }
+
+  /** Converts a response, failing the future if the server could not answer. */
+  private CompletableFuture<MxResult> convert(final Message response) {
+    CompletableFuture<MxResult> result;
+    try {
+      result = CompletableFuture.completedFuture(toResult(response, failureTtlSeconds));
+    } catch (IOException e) {
+      result = CompletableFuture.failedFuture(e);
+    }
+    return result;
+  }
+
+  private void stop(final Timer.Sample sample, final MxLookupEvent event, final String outcome) {
+    event.complete(outcome);
+    sample.stop(
+        Timer.builder(LOOKUP_METRIC)
+            .description("MX queries sent to the resolver")
+            .tag("outcome", outcome)
+            .register(registry));
+  }
+
+  private static Message mxQuery(final String domain) throws TextParseException {
+    final Name name = Name.fromString(domain, Name.root);
+    return Message.newQuery(Record.newRecord(name, Type.MX, DClass.IN));
+  }
+
+  /**
+   * Converts a DNS response into an {@link MxResult}.
+   *
+   * <p>Only {@code NOERROR} and {@code NXDOMAIN} responses say anything about
+   * the domain; any other response code means the server failed to answer.
+   *
+   * @param response the resolver's response to an MX query
+   * @param fallbackTtlSeconds TTL used when the response carries neither MX records nor an SOA
+   * @return the MX records and their cache lifetime
+   * @throws IOException if the response code is neither {@code NOERROR} nor {@code NXDOMAIN}
+   */
+  static MxResult toResult(final Message response, final long fallbackTtlSeconds)
+      throws IOException {
+    final int rcode = response.getRcode();
+    if (rcode != Rcode.NOERROR && rcode != Rcode.NXDOMAIN) {
+      throw new IOException("MX query answered " + Rcode.string(rcode));
+    }
+    final List<Record> mxRecords = new ArrayList<>();
+    long ttl = Long.MAX_VALUE;
+    for (final Record record : response.getSection(Section.ANSWER)) {
+      if (record.getType() == Type.MX) {
+        mxRecords.add(record);
+        ttl = Math.min(ttl, record.getTTL());
+      }
+    }
+    if (mxRecords.isEmpty()) {
+      ttl = fallbackTtlSeconds;
+      for (final Record record : response.getSection(Section.AUTHORITY)) {
+        if (record instanceof SOARecord soa) {
+          ttl = Math.min(soa.getTTL(), soa.getMinimum());
+        }
+      }
+    }
+    return new MxResult(mxRecords, ttl);
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
   }
 }
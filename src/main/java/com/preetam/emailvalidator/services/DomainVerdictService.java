@@ -0,0 +1,463 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import com.preetam.emailvalidator.jfr.CacheLoadEvent;
+import com.preetam.emailvalidator.models.DomainVerdict;
+import com.preetam.emailvalidator.models.MxResponse;
+import com.preetam.emailvalidator.services.StageTimings.Stage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+import org.xbill.DNS.MXRecord;
+import org.xbill.DNS.Record;
+import org.xbill.DNS.TextParseException;
+
+/**
+ * Computes and caches the domain-level checks of an email validation:
+ * MX records, Google Safe Browsing reputation and disposable status.
+ *
+ * <p>Verdicts are cached per domain, so every address on a popular provider
+ * shares a single DNS query and a single Safe Browsing call. The blocking and
+ * the non-blocking lookups read and fill the cache the same way, so both
+ * refresh hot verdicts ahead of expiry.
+ */
+@Service
+public class DomainVerdictService {
+
+  /** Logger for DomainVerdictService. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(DomainVerdictService.class);
+
+  /** Name of the cache holding domain verdicts. */
+  public static final String CACHE_NAME = "domainVerdictCache";
+
+  /** Name of the timer reporting how long cache entries take to compute, by cache. */
+  public static final String LOAD_METRIC_NAME = "email.validator.cache.loads";
+
+  /** MX failure reason for a domain without MX records, followed by the domain. */
+  public static final String NO_MX_RECORDS_REASON = "No MX records found for domain: ";
+
+  /** MX failure reason for a failed or timed-out lookup, followed by the domain. */
+  public static final String MX_LOOKUP_FAILED_REASON = "MX lookup failed for domain: ";
+
+  /** MX failure reason for a domain name that cannot be parsed, followed by the domain. */
+  public static final String DOMAIN_PARSE_ERROR_REASON = "Error parsing domain: ";
+
+  /** Service for DNS lookup operations. */
+  private final DnsLookupService dnsLookupService;
+
+  /** Runs domain safety checks against the Google Safe Browsing API. */
+  private final SafeBrowsingGuard safeBrowsingGuard;
+
+  /** Index of disposable email domains. */
+  private final DisposableDomainService disposableDomainService;
+
+  /** Cache manager used to read and fill the verdict cache. */
+  private final CacheManager cacheManager;
+
+  /** Deadline for the MX lookup. */
+  private final Duration dnsTimeout;
+
+  /** Seconds a verdict is kept when one of its checks failed or timed out. */
+  private final long failureTtlSeconds;
+
+  /** Coalesces concurrent misses for the same domain into one pair of checks. */
+  private final SingleFlight<String, Computed> flight;
+
+  /** Decides which cache hits refresh their verdict ahead of expiry. */
+  private final RefreshAhead refreshAhead;
+
+  /** Times the computation of each verdict. */
+  private final Timer loads;
+
+  /** Records the time spent in the Safe Browsing, MX and disposable checks. */
+  private final LatencyProfiler latencyProfiler;
+
+  /**
+   * A freshly computed verdict.
+   *
+   * @param verdict the verdict
+   * @param degraded whether a check failed or timed out, leaving part of the verdict unknown
+   */
+  private record Computed(DomainVerdict verdict, boolean degraded) {}
+
+  /**
+   * Constructs a DomainVerdictService with the given dependencies.
+   *
+   * @param dnsLookupService service to perform DNS lookups
+   * @param safeBrowsingGuard guarded runner of domain safety checks
+   * @param disposableDomainService index of disposable email domains
+   * @param cacheManager cache manager holding the verdict cache
+   * @param latencyProfiler recorder of the time spent in each check
+   * @param dnsTimeout deadline for the MX lookup
+   * @param failureTtlSeconds seconds a verdict with a failed check may be cached
+   * @param refreshBeta how early hot verdicts are refreshed; 0 disables refresh-ahead
+   * @param meterRegistry registry receiving the request-coalescing, refresh and load metrics
+   */
+  public DomainVerdictService(
+      final DnsLookupService dnsLookupService,
+      final SafeBrowsingGuard safeBrowsingGuard,
+      final DisposableDomainService disposableDomainService,
+      final CacheManager cacheManager,
+      final LatencyProfiler latencyProfiler,
+      @Value("${email.validator.verdict.dns-timeout:5s}") final Duration dnsTimeout,
+      @Value("${email.validator.dns.failure-ttl-seconds:60}") final long failureTtlSeconds,
+      @Value("${email.validator.cache.refresh-ahead.beta:1.0}") final double refreshBeta,
+      final MeterRegistry meterRegistry) {
+    this.dnsLookupService = dnsLookupService;
+    this.safeBrowsingGuard = safeBrowsingGuard;
+    this.disposableDomainService = disposableDomainService;
+    this.cacheManager = cacheManager;
+    this.latencyProfiler = latencyProfiler;
+    this.dnsTimeout = dnsTimeout;
+    this.failureTtlSeconds = failureTtlSeconds;
+    this.flight = new SingleFlight<>("domain", meterRegistry);
+    this.refreshAhead = new RefreshAhead(CACHE_NAME, refreshBeta, meterRegistry);
+    this.loads = loadTimer(CACHE_NAME, meterRegistry);
+  }
+
+  /**
+   * Registers the timer reporting how long entries of a cache take to compute.
+   *
+   * @param cacheName the name of the cache, used as the {@code cache} tag
+   * @param registry the registry receiving the timer
+   * @return the timer
+   */
+  static Timer loadTimer(final String cacheName, final MeterRegistry registry) {
+    return Timer.builder(LOAD_METRIC_NAME)
+        .description("Time taken to compute an entry missing from the cache")
+        .tag("cache", cacheName)
+        .register(registry);
+  }
+
+  /**
+   * Computes the verdict for a domain, served from the domain cache when present.
+   *
+   * <p>The MX lookup and the Safe Browsing check run concurrently, so a miss
+   * costs the slower of the two rather than their sum. The verdict's TTL is
+   * the shorter of the MX answer's TTL and the Safe Browsing
+   * {@code cacheDuration}, when one is returned. Concurrent misses for the
+   * same domain share a single pair of checks. Blocks until the verdict is
+   * known; hits refresh ahead of expiry like {@link #lookupAsync(String)}.
+   *
+   * @param domain the lowercase domain to check; must not be {@code null}
+   * @return the domain's safety, MX and disposable verdict
+   */
+  public DomainVerdict lookup(final String domain) {
+    return lookup(domain, new StageTimings());
+  }
+
+  /**
+   * Computes the verdict for a domain, served from the domain cache when
+   * present, like {@link #lookup(String)}, adding the time spent in each check
+   * to the given timings.
+   *
+   * @param domain the lowercase domain to check; must not be {@code null}
+   * @param timings the stage timings of the validation needing the verdict
+   * @return the domain's safety, MX and disposable verdict
+   */
+  public DomainVerdict lookup(final String domain, final StageTimings timings) {
+    return lookupAsync(domain, timings).join();
+  }
+
+  /**
+   * Computes the verdict for a domain without blocking the caller.
+   *
+   * <p>Shares the verdict cache with {@link #lookup}. On a miss, the MX query
+   * goes through the non-blocking resolver while the Safe Browsing check is
+   * batched with other domains, and the result is cached once both complete.
+   * Concurrent misses for the same domain, on either path, share those checks.
+   *
+   * <p>A hit may also start a refresh of the verdict in the background, see
+   * {@link RefreshAhead}: the caller still gets the cached verdict at once,
+   * and the fresh one replaces it before it expires, so frequently checked
+   * domains do not wait for DNS or Safe Browsing when their verdict expires.
+   * A refresh that hits a DNS or Safe Browsing failure leaves the cached
+   * verdict in place, to expire as it would have without the refresh.
+   *
+   * @param domain the lowercase domain to check; must not be {@code null}
+   * @return a future completed with the domain's verdict
+   */
+  public CompletableFuture<DomainVerdict> lookupAsync(final String domain) {
+    return lookupAsync(domain, new StageTimings());
+  }
+
+  /**
+   * Computes the verdict for a domain without blocking the caller, like
+   * {@link #lookupAsync(String)}, adding the time spent in each check to the
+   * given timings.
+   *
+   * @param domain the lowercase domain to check; must not be {@code null}
+   * @param timings the stage timings of the validation needing the verdict
+   * @return a future completed with the domain's verdict
+   */
+  public CompletableFuture<DomainVerdict> lookupAsync(
+      final String domain, final StageTimings timings) {
+    final Cache cache = cacheManager.getCache(CACHE_NAME);
+    final DomainVerdict cached = cache.get(domain, DomainVerdict.class);
+    CompletableFuture<DomainVerdict> verdict;
+    if (cached == null) {
+      getLogger().debug("Computing verdict asynchronously for domain: {}", domain);
+      verdict = computeAndCache(cache, domain, timings);
+    } else {
+      if (refreshAhead.isDue(cache, domain)) {
+        getLogger().debug("Refreshing verdict ahead of expiry for domain: {}", domain);
+        refresh(cache, domain);
+      }
+      verdict = CompletableFuture.completedFuture(cached);
+    }
+    return verdict;
+  }
+
+  private CompletableFuture<DomainVerdict> computeAndCache(
+      final Cache cache, final String domain, final StageTimings timings) {
+    return flight
+        .execute(domain, key -> recompute(key, timings))
+        .thenApply(
+            computed -> {
+              cache.put(domain, computed.verdict());
+              return computed.verdict();
+            });
+  }
+
+  /** Recomputes a cached verdict, replacing it only if every check answered. */
+  private void refresh(final Cache cache, final String domain) {
+    flight
+        .execute(domain, key -> recompute(key, new StageTimings()))
+        .thenAccept(
+            computed -> {
+              if (computed.degraded()) {
+                getLogger().debug("Keeping cached verdict after failed refresh: {}", domain);
+              } else {
+                cache.put(domain, computed.verdict());
+              }
+            });
+  }
+
+  /**
+   * Runs both checks, reporting how long they took to {@link #refreshAhead} and
+   * the timer, and spanning them with a {@link CacheLoadEvent}.
+   */
+  private CompletableFuture<Computed> recompute(
+      final String domain, final StageTimings timings) {
+    final long start = System.nanoTime();
+    final CacheLoadEvent event = new CacheLoadEvent(CACHE_NAME, domain);
+    return fanOut(domain, timings)
+        .whenComplete(
+            (verdict, ex) -> {
+              final long elapsed = System.nanoTime() - start;
+              refreshAhead.recordRecompute(elapsed);
+              loads.record(elapsed, TimeUnit.NANOSECONDS);
+              event.complete(ex);
+            });
+  }
+
+  /**
+   * Starts both checks for a domain and completes once each has either
+   * answered, failed or run past its deadline.
+   *
+   * <p>An unparseable domain name fails the MX lookup immediately; the Safe
+   * Browsing check is then cancelled, since the verdict cannot be used.
+   */
+  private CompletableFuture<Computed> fanOut(
+      final String domain, final StageTimings timings) {
+    final long start = System.nanoTime();
+    final CompletableFuture<SafeBrowsingResult> safety = safeBrowsingGuard.check(domain);
+    final CompletableFuture<MxResult> mxResult =
+        dnsLookupService
+            .lookupMxAsync(domain)
+            .orTimeout(dnsTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    mxResult.whenComplete(
+        (result, ex) -> {
+          if (ex instanceof TextParseException) {
+            safety.cancel(true);
+          }
+        });
+
+    return CompletableFuture.allOf(
+            settled(safety, Stage.SAFE_BROWSING, timings, start),
+            settled(mxResult, Stage.MX, timings, start))
+        .thenApply(ignored -> assemble(domain, safety, mxResult, timings));
+  }
+
+  /**
+   * Returns a future completing, whatever the outcome of a check, once the
+   * check is settled and its time recorded.
+   */
+  private CompletableFuture<Void> settled(
+      final CompletableFuture<?> check,
+      final Stage stage,
+      final StageTimings timings,
+      final long start) {
+    return check.handle(
+        (result, ex) -> {
+          latencyProfiler.recordSince(stage, timings, start);
+          return null;
+        });
+  }
+
+  /**
+   * Builds a verdict from the settled checks.
+   *
+   * <p>A failed or timed-out check leaves its part of the verdict unknown and
+   * caps the TTL at the failure TTL, so it is retried soon. A failed or shed
+   * Safe Browsing check reports what the outage policy gives instead, still
+   * under the failure TTL, so outage-time answers never stay cached long.
+   *
+   * @param domain the domain checked
+   * @param safety the settled Safe Browsing check
+   * @param mxResult the settled MX lookup
+   * @param timings the stage timings receiving the disposable check's time
+   * @return the combined verdict, degraded if a check failed or timed out
+   */
+  private Computed assemble(
+      final String domain,
+      final CompletableFuture<SafeBrowsingResult> safety,
+      final CompletableFuture<MxResult> mxResult,
+      final StageTimings timings) {
+    final DomainVerdict verdict = new DomainVerdict();
+    verdict.setDomain(domain);
+
+    final MxResponse mxResponse = new MxResponse();
+    boolean degraded = false;
+    long ttlSeconds;
+    if (mxResult.state() == Future.State.SUCCESS) {
+      final MxResult answer = mxResult.resultNow();
+      if (answer.hasRecords()) {
+        logMxRecords(answer.records(), domain);
+        mxResponse.setHasMx(true);
+      } else {
+        handleNoRecords(domain, mxResponse);
+      }
+      ttlSeconds = answer.ttlSeconds();
+    } else if (mxResult.exceptionNow() instanceof TextParseException) {
+      handleParsingError(domain, mxResponse);
+      // A malformed name stays malformed: let the cache keep it as long as allowed.
+      ttlSeconds = Long.MAX_VALUE;
+    } else {
+      handleLookupFailure(domain, mxResponse, mxResult.exceptionNow());
+      degraded = true;
+      ttlSeconds = failureTtlSeconds;
+    }
+    verdict.setMxResponse(mxResponse);
+
+    if (safety.state() == Future.State.SUCCESS) {
+      final SafeBrowsingResult answer = safety.resultNow();
+      verdict.setIsSafe(answer.safe());
+      if (answer.cacheDuration() != null) {
+        ttlSeconds = Math.min(ttlSeconds, answer.cacheDuration().toSeconds());
+      }
+    } else if (safety.state() == Future.State.FAILED) {
+      final Throwable cause = safety.exceptionNow();
+      if (cause instanceof RejectedExecutionException) {
+        getLogger()
+            .debug("Safe Browsing check shed for domain: {} ({})", domain, cause.getMessage());
+      } else {
+        getLogger().warn("Safe Browsing check failed for domain: {}", domain, cause);
+      }
+      verdict.setIsSafe(safeBrowsingGuard.fallback(domain));
+      degraded = true;
+      ttlSeconds = Math.min(ttlSeconds, failureTtlSeconds);
+    }
+    verdict.setTtlSeconds(ttlSeconds);
+
+    final long disposableStart = System.nanoTime();
+    verdict.setIsDisposable(isDisposable(domain));
+    latencyProfiler.recordSince(Stage.DISPOSABLE, timings, disposableStart);
+    return new Computed(verdict, degraded);
+  }
+
+  private void handleLookupFailure(
+      final String domain, final MxResponse mxResponse, final Throwable cause) {
+    mxResponse.setHasMx(false);
+    mxResponse.setMxFailureReason(MX_LOOKUP_FAILED_REASON + domain);
+    getLogger().warn("MX lookup failed for domain: {}", domain, cause);
+  }
+
+  private void handleNoRecords(final String domain, final MxResponse mxResponse) {
+    mxResponse.setHasMx(false);
+    mxResponse.setMxFailureReason(NO_MX_RECORDS_REASON + domain);
+    getLogger().error("No MX records found for domain: {}", domain);
+  }
+
+  private void handleParsingError(final String domain, final MxResponse mxResponse) {
+    mxResponse.setHasMx(false);
+    mxResponse.setMxFailureReason(DOMAIN_PARSE_ERROR_REASON + domain);
+    getLogger().error("Error parsing domain: {}", domain);
+  }
+
+  @SuppressWarnings("PMD.GuardLogStatement")
+  private void logMxRecords(final List<Record> records, final String domain) {
+    for (final Record record : records) {
+      if (record instanceof MXRecord mxRecord) {
+        getLogger()
+            .debug(
+                "MX: {} | Priority: {} | domain: {}",
+                mxRecord.getTarget(),
+                mxRecord.getPriority(),
+                domain);
+      }
+    }
+  }
+
+  /**
+   * Returns how long a verdict looked up for a domain may still be relied on.
+   *
+   * <p>A verdict's own TTL counts from when it was computed, so a verdict
+   * served from the cache late in its life has less time left. When the cache
+   * reports the time left on the domain's entry, that time is returned instead,
+   * never more than the verdict's TTL; otherwise the TTL is returned as is.
+   *
+   * @param domain the domain the verdict was looked up for
+   * @param verdict the verdict returned by {@link #lookup} or {@link #lookupAsync}
+   * @return the seconds the verdict remains valid, or {@code null} if it has no TTL
+   */
+  public Long remainingTtlSeconds(final String domain, final DomainVerdict verdict) {
+    Long ttlSeconds = verdict.getTtlSeconds();
+    if (ttlSeconds != null
+        && cacheManager.getCache(CACHE_NAME) instanceof CaffeineCache caffeineCache) {
+      final long ttl = ttlSeconds;
+      ttlSeconds =
+          caffeineCache
+              .getNativeCache()
+              .policy()
+              .expireVariably()
+              .map(expiry -> expiry.getExpiresAfter(domain, TimeUnit.SECONDS).orElse(ttl))
+              .map(remaining -> Math.min(remaining, ttl))
+              .orElse(ttl);
+    }
+    return ttlSeconds;
+  }
+
+  /**
+   * Checks if the domain, or one of its parent domains, is a disposable email provider.
+   *
+   * @param domain the domain to check
+   * @return true if the domain is disposable, false otherwise
+   */
+  public Boolean isDisposable(final String domain) {
+    return disposableDomainService.isDisposable(domain);
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.net.IDN;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import org.apache.commons.validator.routines.DomainValidator;
+import org.apache.commons.validator.routines.InetAddressValidator;
+
+/**
+ * Single-pass parser for email addresses.
+ *
+ * <p>One scan yields the syntax verdict, the position of the {@code @}
+ * splitting the local part from the domain, and what is needed to normalize
+ * the domain. The domain is read right to left up to the last {@code @}, then
+ * the local part left to right, so every character is visited once. The
+ * result is packed into a {@code long}; for ASCII addresses, which is nearly
+ * all traffic, parsing allocates nothing. Domains with non-ASCII characters
+ * fall back to commons-validator's {@link DomainValidator}, which checks them
+ * in their IDNA form, and address literals to {@link InetAddressValidator}.
+ *
+ * <p>The grammar is the one commons-validator's
+ * {@code EmailValidator.getInstance(true, true)} accepts, which this parser
+ * replaces:
+ *
+ * <ul>
+ *   <li>The local part is at most 64 characters long and made of words joined
+ *       by dots. A word is either quoted, where a quote may only appear
+ *       escaped with a backslash, or a run of characters other than spaces,
+ *       controls and {@code ()<>@,;:\".[]}, where a backslash escapes the
+ *       next character. It may not contain controls or line terminators.
+ *   <li>The domain is an IPv4 address in brackets, an IPv6 address in
+ *       brackets behind {@code IPv6:}, or a host name of at most 253
+ *       characters made of labels of up to 63 letters, digits and inner
+ *       hyphens. A host name with several labels must end in a top-level
+ *       domain known to commons-validator; a single label is accepted as a
+ *       local host name.
+ *   <li>The address may not end with a dot.
+ * </ul>
+ */
+public final class EmailAddressParser {
+
+  /** Maximum length of the local part. */
+  private static final int MAX_LOCAL_LENGTH = 64;
+
+  /** Maximum length of a host name, in its ASCII form. */
+  private static final int MAX_DOMAIN_LENGTH = 253;
+
+  /** Maximum length of a host name label. */
+  private static final int MAX_LABEL_LENGTH = 63;
+
+  /** Mask of the {@code @} position, stored as an unsigned int; all ones when there is none. */
+  private static final long AT_MASK = 0xFFFF_FFFFL;
+
+  /** The address is syntactically valid. */
+  private static final long VALID = 1L << 32;
+
+  /** The domain has upper-case ASCII letters. */
+  private static final long UPPER = 1L << 33;
+
+  /** The domain has non-ASCII characters. */
+  private static final long NON_ASCII = 1L << 34;
+
+  /** The domain is a well-formed host name, apart from its top-level domain. */
+  private static final long HOST_NAME = 1L << 35;
+
+  /** The domain has several labels. */
+  private static final long MULTI_LABEL = 1L << 36;
+
+  /** Result of parsing {@code null}. */
+  private static final long NO_ADDRESS = AT_MASK;
+
+  /** Local part states, as bits of the set of states the scan may be in. */
+  private static final int WORD_START = 1;
+
+  /** Inside an unquoted word; accepting. */
+  private static final int ATOM = 1 << 1;
+
+  /** After a backslash in an unquoted word. */
+  private static final int ATOM_ESCAPE = 1 << 2;
+
+  /** Inside a quoted word. */
+  private static final int QUOTED = 1 << 3;
+
+  /** After a backslash in a quoted word, which may escape a quote. */
+  private static final int QUOTED_ESCAPE = 1 << 4;
+
+  /** After the closing quote of a quoted word; accepting. */
+  private static final int QUOTED_END = 1 << 5;
+
+  /** States in which the local part may end. */
+  private static final int ACCEPTING = ATOM | QUOTED_END;
+
+  /** ASCII characters allowed unescaped in an unquoted word, as bits of two longs. */
+  private static final long[] ATOM_CHARS = atomChars();
+
+  /** Prefix of an IPv6 address literal, matched ignoring case. */
+  private static final String IPV6_PREFIX = "IPv6:";
+
+  /** Known top-level domains, lowercase and sorted. */
+  private static final String[] TOP_LEVEL_DOMAINS = topLevelDomains();
+
+  /** Checks host names with non-ASCII characters. */
+  private static final DomainValidator DOMAIN_VALIDATOR = DomainValidator.getInstance(true);
+
+  private EmailAddressParser() {}
+
+  private static long[] atomChars() {
+    final long[] chars = new long[2];
+    for (char c = '!'; c < 0x7F; c++) {
+      if ("()<>@,;:\\\".[]".indexOf(c) < 0) {
+        chars[c >> 6] |= 1L << c;
+      }
+    }
+    return chars;
+  }
+
+  private static String[] topLevelDomains() {
+    final List<String> domains = new ArrayList<>();
+    for (final DomainValidator.ArrayType type :
+        List.of(
+            DomainValidator.ArrayType.INFRASTRUCTURE_RO,
+            DomainValidator.ArrayType.GENERIC_RO,
+            DomainValidator.ArrayType.COUNTRY_CODE_RO,
+            DomainValidator.ArrayType.LOCAL_RO)) {
+      Collections.addAll(domains, DomainValidator.getTLDEntries(type));
+    }
+    Collections.sort(domains);
+    return domains.toArray(new String[0]);
+  }
+
+  /**
+   * Parses an email address.
+   *
+   * @param email the address; {@code null} is parsed as an invalid address without {@code @}
+   * @return the packed result, read with {@link #isValid(long)}, {@link #atIndex(long)}
+   *     and {@link #domain(String, long)}
+   */
+  public static long parse(final String email) {
+    long parsed = NO_ADDRESS;
+    if (email != null) {
+      parsed = scanDomain(email);
+      final int at = atIndex(parsed);
+      final int length = email.length();
+      if (at >= 0
+          && at <= MAX_LOCAL_LENGTH
+          && at < length - 1
+          && email.charAt(length - 1) != '.'
+          && isValidLocalPart(email, at)
+          && isValidDomain(email, at + 1, parsed)) {
+        parsed |= VALID;
+      }
+    }
+    return parsed;
+  }
+
+  /**
+   * Returns whether a parsed address is syntactically valid.
+   *
+   * @param parsed the result of {@link #parse(String)}
+   * @return {@code true} if the address is valid
+   */
+  public static boolean isValid(final long parsed) {
+    return (parsed & VALID) != 0;
+  }
+
+  /**
+   * Returns the position of the last {@code @} of a parsed address.
+   *
+   * @param parsed the result of {@link #parse(String)}
+   * @return the position of the {@code @}, or -1 if there is none
+   */
+  public static int atIndex(final long parsed) {
+    return (int) (parsed & AT_MASK);
+  }
+
+  /**
+   * Returns the normalized domain of a parsed address: the text after the
+   * last {@code @}, lowercased, with non-ASCII host names in their ASCII form.
+   *
+   * @param email the address that was parsed
+   * @param parsed the result of {@link #parse(String)}
+   * @return the normalized domain, or {@code null} if the address has no
+   *     {@code @} or nothing follows it
+   */
+  public static String domain(final String email, final long parsed) {
+    final int at = atIndex(parsed);
+    String domain = null;
+    if (at >= 0 && at < email.length() - 1) {
+      domain = email.substring(at + 1);
+      if ((parsed & NON_ASCII) != 0) {
+        domain = toAscii(domain);
+      }
+      if ((parsed & (UPPER | NON_ASCII)) != 0) {
+        domain = domain.toLowerCase(Locale.ROOT);
+      }
+    }
+    return domain;
+  }
+
+  /** Returns the ASCII form of a host name, or the name itself if it has none. */
+  private static String toAscii(final String domain) {
+    String ascii;
+    try {
+      ascii = IDN.toASCII(domain);
+    } catch (IllegalArgumentException ex) {
+      ascii = domain;
+    }
+    return ascii;
+  }
+
+  /**
+   * Reads a domain right to left, from the end of {@code text} to its last
+   * {@code @} or its start, checking its labels on the way.
+   *
+   * @return the position of the {@code @} or -1, and the flags describing the domain
+   */
+  @SuppressWarnings("PMD.CognitiveComplexity")
+  private static long scanDomain(final String text) {
+    final int length = text.length();
+    long flags = HOST_NAME;
+    int labelEnd = length;
+    int at = -1;
+    for (int i = length - 1; i >= 0 && at < 0; i--) {
+      final char c = text.charAt(i);
+      if (c == '@') {
+        at = i;
+      } else if (c == '.') {
+        flags = endLabel(text, i + 1, labelEnd, flags) | MULTI_LABEL;
+        labelEnd = i;
+      } else if (c >= 0x80) {
+        flags = (flags & ~HOST_NAME) | NON_ASCII;
+      } else if (c >= 'A' && c <= 'Z') {
+        flags |= UPPER;
+      } else if (!isAlphanumeric(c) && c != '-') {
+        flags &= ~HOST_NAME;
+      }
+    }
+    flags = endLabel(text, at + 1, labelEnd, flags);
+    return flags | ((long) at & AT_MASK);
+  }
+
+  /** Clears {@link #HOST_NAME} unless {@code text[from, to)} is a well-formed label. */
+  private static long endLabel(final String text, final int from, final int to, final long flags) {
+    final boolean valid =
+        to > from
+            && to - from <= MAX_LABEL_LENGTH
+            && isAlphanumeric(text.charAt(from))
+            && isAlphanumeric(text.charAt(to - 1));
+    return valid ? flags : flags & ~HOST_NAME;
+  }
+
+  private static boolean isAlphanumeric(final char c) {
+    return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9';
+  }
+
+  /** Checks the domain starting at {@code from}, scanned into {@code flags}. */
+  private static boolean isValidDomain(final String email, final int from, final long flags) {
+    final int length = email.length();
+    final boolean valid;
+    if (length - from > 1 && email.charAt(from) == '[' && email.charAt(length - 1) == ']') {
+      valid = isValidAddressLiteral(email.substring(from + 1, length - 1));
+    } else if ((flags & NON_ASCII) == 0) {
+      valid = isValidHostName(email, from, flags);
+    } else {
+      valid = DOMAIN_VALIDATOR.isValid(email.substring(from));
+    }
+    return valid;
+  }
+
+  private static boolean isValidAddressLiteral(final String address) {
+    boolean valid = true;
+    for (int i = 0; i < address.length() && valid; i++) {
+      valid = !isLineTerminator(address.charAt(i));
+    }
+    final InetAddressValidator validator = InetAddressValidator.getInstance();
+    final boolean ipv6 = address.regionMatches(true, 0, IPV6_PREFIX, 0, IPV6_PREFIX.length());
+    return valid
+        && (ipv6
+            ? validator.isValidInet6Address(address.substring(IPV6_PREFIX.length()))
+            : validator.isValidInet4Address(address));
+  }
+
+  /** Checks the ASCII host name running from {@code from} to the end of {@code text}. */
+  private static boolean isValidHostName(final String text, final int from, final long flags) {
+    return (flags & HOST_NAME) != 0
+        && text.length() - from <= MAX_DOMAIN_LENGTH
+        && ((flags & MULTI_LABEL) == 0 || isTopLevelDomain(text, text.lastIndexOf('.') + 1));
+  }
+
+  /** Looks {@code text[from, end)} up among the known top-level domains, ignoring case. */
+  private static boolean isTopLevelDomain(final String text, final int from) {
+    int low = 0;
+    int high = TOP_LEVEL_DOMAINS.length - 1;
+    boolean found = false;
+    while (low <= high && !found) {
+      final int mid = (low + high) >>> 1;
+      final int cmp = compare(TOP_LEVEL_DOMAINS[mid], text, from);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        found = true;
+      }
+    }
+    return found;
+  }
+
+  /** Compares a lowercase name with {@code text[from, end)}, lowercasing ASCII letters. */
+  private static int compare(final String name, final String text, final int from) {
+    final int length = text.length() - from;
+    final int common = Math.min(name.length(), length);
+    int cmp = 0;
+    for (int i = 0; i < common && cmp == 0; i++) {
+      final char c = text.charAt(from + i);
+      cmp = name.charAt(i) - (c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c);
+    }
+    return cmp == 0 ? name.length() - length : cmp;
+  }
+
+  /**
+   * Checks the local part {@code email[0, at)}, following every way the
+   * quoted-word grammar can read it at once.
+   */
+  @SuppressWarnings("PMD.CognitiveComplexity")
+  private static boolean isValidLocalPart(final String email, final int at) {
+    int states = WORD_START;
+    for (int i = 0; i < at && states != 0; i++) {
+      final char c = email.charAt(i);
+      // Line terminators are not allowed anywhere in the local part, even quoted.
+      final int current = isLineTerminator(c) ? 0 : states;
+      int next = 0;
+      if ((current & (WORD_START | ATOM)) != 0) {
+        if (c == '\\') {
+          next |= ATOM_ESCAPE;
+        } else if (isAtomChar(c)) {
+          next |= ATOM;
+        }
+      }
+      if ((current & WORD_START) != 0 && c == '"') {
+        next |= QUOTED;
+      }
+      if ((current & (ATOM | QUOTED_END)) != 0 && c == '.') {
+        next |= WORD_START;
+      }
+      if ((current & ATOM_ESCAPE) != 0 && !isControl(c)) {
+        next |= ATOM;
+      }
+      if ((current & QUOTED) != 0) {
+        if (c == '"') {
+          next |= QUOTED_END;
+        } else if (c == '\\') {
+          next |= QUOTED | QUOTED_ESCAPE;
+        } else if (!isControl(c)) {
+          next |= QUOTED;
+        }
+      }
+      if ((current & QUOTED_ESCAPE) != 0 && c == '"') {
+        next |= QUOTED;
+      }
+      states = next;
+    }
+    return (states & ACCEPTING) != 0;
+  }
+
+  private static boolean isAtomChar(final char c) {
+    return c < 0x80 ? (ATOM_CHARS[c >> 6] & 1L << c) != 0 : !isControl(c);
+  }
+
+  /** Returns whether a character is a control: U+0000 to U+001F or U+007F to U+009F. */
+  private static boolean isControl(final char c) {
+    return c <= 0x1F || c >= 0x7F && c <= 0x9F;
+  }
+
+  private static boolean isLineTerminator(final char c) {
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import com.preetam.emailvalidator.models.EmailRequest;
+import com.preetam.emailvalidator.models.EmailResponse;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Validates newline-delimited streams of email addresses.
+ *
+ * <p>Each input line is either a JSON object shaped like {@link EmailRequest}
+ * or a plain address. Results are written as one JSON {@link EmailResponse}
+ * per line, in input order. At most {@code windowSize} lines are in flight at
+ * once: when the window is full, reading stops until the oldest line has been
+ * written, so a slow client or slow DNS pushes back on the upload instead of
+ * queueing unbounded work.
+ *
+ * <p>The input is read on a virtual thread of its own while the calling thread
+ * writes results, so a result is written as soon as it and every line before it
+ * are resolved, even while the client pauses its upload. Validations run
+ * through {@link EmailValidatorService#validateEmailAsync}, so lines in flight
+ * hold no thread while they wait. A line longer than {@code maxLineLength}
+ * characters, or whose validation fails, gets an error line such as
+ * {@code {"email":"a@b.com","error":"Validation failed"}} in its place.
+ */
+@Service
+public class EmailStreamService {
+
+  /** Logger for EmailStreamService. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(EmailStreamService.class);
+
+  /** Error reported for a line whose validation failed. */
+  public static final String VALIDATION_FAILED = "Validation failed";
+
+  /** Marks the end of the input in the window. */
+  private static final CompletableFuture<?> END = CompletableFuture.completedFuture(null);
+
+  /** Service performing the per-address validation. */
+  private final EmailValidatorService validatorService;
+
+  /** Mapper used to parse JSON input lines and serialize responses. */
+  private final JsonMapper jsonMapper;
+
+  /** Maximum number of lines validated concurrently per stream. */
+  private final int windowSize;
+
+  /** Maximum number of characters kept of an input line. */
+  private final int maxLineLength;
+
+  /**
+   * Constructs an EmailStreamService with the given dependencies.
+   *
+   * @param validatorService service to validate individual addresses
+   * @param jsonMapper mapper for JSON lines
+   * @param windowSize maximum number of in-flight lines per stream
+   * @param maxLineLength maximum number of characters of an input line
+   */
+  public EmailStreamService(
+      final EmailValidatorService validatorService,
+      final JsonMapper jsonMapper,
+      @Value("${email.validator.stream.window:64}") final int windowSize,
+      @Value("${email.validator.stream.max-line-length:4096}") final int maxLineLength) {
+    this.validatorService = validatorService;
+    this.jsonMapper = jsonMapper;
+    this.windowSize = windowSize;
+    this.maxLineLength = maxLineLength;
+  }
+
+  /**
+   * Reads addresses from {@code input} and writes one response line per address to
+   * {@code output} as soon as it, and every line before it, has been resolved.
+   *
+   * @param input the newline-delimited request body
+   * @param output the response body receiving NDJSON results
+   * @throws IOException if reading the input or writing the output fails
+   */
+  public void validateStream(final InputStream input, final OutputStream output)
+      throws IOException {
+    validateStream(
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)), output);
+  }
+
+  /**
+   * Validates the remaining lines of {@code reader}, writing results to {@code output}.
+   *
+   * <p>The output is flushed only after complete response lines, whenever the
+   * next line is not resolved yet, so a flush observed by {@code output} always
+   * marks a line boundary. Lines read before the input fails are still written.
+   *
+   * @param reader reader positioned at the first line to validate
+   * @param output the stream receiving NDJSON results
+   * @throws IOException if reading the input or writing the output fails
+   */
+  public void validateStream(final BufferedReader reader, final OutputStream output)
+      throws IOException {
+    final Writer writer =
+        new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    final BlockingQueue<CompletableFuture<?>> window = new LinkedBlockingQueue<>();
+    final Semaphore slots = new Semaphore(windowSize);
+    final FutureTask<Void> reading = new FutureTask<>(() -> readInto(reader, window, slots));
+    final Thread readerThread = Thread.ofVirtual().name("email-stream-reader").start(reading);
+    try {
+      for (CompletableFuture<?> next = window.take(); next != END; next = window.take()) {
+        writeResponse(next, writer);
+        slots.release();
+        final CompletableFuture<?> following = window.peek();
+        if (following == null || !following.isDone()) {
+          writer.flush();
+        }
+      }
+      writer.flush();
+      reading.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Stream validation interrupted");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException readError) {
+        throw readError;
+      }
+      throw new IllegalStateException("Stream validation failed", e.getCause());
+    } finally {
+      // Stops a reader still waiting for a slot once the writer gives up.
+      readerThread.interrupt();
+    }
+  }
+
+  /**
+   * Reads the lines of {@code reader} into the window, then marks its end.
+   * Each line waits for a free slot before its validation starts.
+   *
+   * @return {@code null}
+   */
+  private Void readInto(
+      final BufferedReader reader,
+      final BlockingQueue<CompletableFuture<?>> window,
+      final Semaphore slots)
+      throws IOException, InterruptedException {
+    try {
+      for (String line = readLine(reader); line != null; line = readLine(reader)) {
+        final boolean tooLong = isTooLong(line);
+        final String email = tooLong ? null : extractAddress(line);
+        if (tooLong || email != null) {
+          slots.acquire();
+          window.add(
+              tooLong
+                  ? CompletableFuture.completedFuture(
+                      errorLine(null, "Line longer than " + maxLineLength + " characters"))
+                  : validate(email));
+        }
+      }
+    } finally {
+      window.add(END);
+    }
+    return null;
+  }
+
+  private CompletableFuture<?> validate(final String email) {
+    return CompletableFuture.completedFuture(email)
+        .thenCompose(validatorService::validateEmailAsync)
+        .handle(
+            (response, ex) -> {
+              Object line = response;
+              if (ex != null) {
+                getLogger().warn("Validation of a streamed address failed", ex);
+                line = errorLine(email, VALIDATION_FAILED);
+              }
+              return line;
+            });
+  }
+
+  private static Map<String, String> errorLine(final String email, final String error) {
+    final Map<String, String> line = new LinkedHashMap<>();
+    if (email != null) {
+      line.put("email", email);
+    }
+    line.put("error", error);
+    return line;
+  }
+
+  /**
+   * Reads the next line, keeping no more of it than needed to tell it is too long.
+   *
+   * <p>Characters past {@code maxLineLength + 1} are read and dropped, so a
+   * line without a newline costs bounded memory.
+   *
+   * @param reader the reader to read from
+   * @return the line without its {@code \n}, cut after {@code maxLineLength + 1}
+   *     characters; {@code null} at the end of the input
+   * @throws IOException if reading fails
+   */
+  public String readLine(final BufferedReader reader) throws IOException {
+    final StringBuilder line = new StringBuilder();
+    int c = reader.read();
+    final boolean end = c < 0;
+    while (c >= 0 && c != '\n') {
+      if (line.length() <= maxLineLength) {
+        line.append((char) c);
+      }
+      c = reader.read();
+    }
+    return end ? null : line.toString();
+  }
+
+  /**
+   * Indicates whether a line returned by {@link #readLine} was cut.
+   *
+   * @param line the line
+   * @return {@code true} if the line is longer than {@code maxLineLength}
+   */
+  public boolean isTooLong(final String line) {
+    return line.length() > maxLineLength;
+  }
+
+  /**
+   * Extracts the address from a single input line.
+   *
+   * @param line a JSON object with an {@code email} field, or a plain address
+   * @return the trimmed address, or {@code null} if the line carries none
+   */
+  public String extractAddress(final String line) {
+    String email = line.strip();
+    if (!email.isEmpty() && email.charAt(0) == '{') {
+      email = parseJsonAddress(email);
+    }
+    return email == null || email.isBlank() ? null : email;
+  }
+
+  private String parseJsonAddress(final String line) {
+    String email;
+    try {
+      email = jsonMapper.readValue(line, EmailRequest.class).getEmail();
+    } catch (JacksonException e) {
+      // Not valid JSON: validate the raw line so the caller sees it rejected.
+      email = line;
+    }
+    return email;
+  }
+
+  /** Writes the object a line resolved to, either its response or its error line. */
+  private void writeResponse(final CompletableFuture<?> line, final Writer writer)
+      throws IOException, InterruptedException, ExecutionException {
+    writer.write(jsonMapper.writeValueAsString(line.get()));
+    writer.write('\n');
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+}
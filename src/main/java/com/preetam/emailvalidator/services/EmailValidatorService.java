@@ -4,25 +4,37 @@
 
 package com.preetam.emailvalidator.services;
 
+import com.preetam.emailvalidator.jfr.CacheLoadEvent;
+import com.preetam.emailvalidator.models.DomainVerdict;
 import com.preetam.emailvalidator.models.EmailResponse;
 import com.preetam.emailvalidator.models.MxResponse;
-import java.util.Arrays;
+import com.preetam.emailvalidator.services.StageTimings.Stage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
-import org.apache.commons.validator.routines.EmailValidator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
-import org.xbill.DNS.MXRecord;
-import org.xbill.DNS.Record;
-import org.xbill.DNS.TextParseException;
 
 /**
  * This class provides email validation services including
  * syntax validation, MX record checks,
  * disposable email detection, and domain safety verification
  * via Google Safe Browsing API.
+ *
+ * <p>Domain-level checks are delegated to {@link DomainVerdictService}, which
+ * caches them per domain; this service adds the per-address syntax check and
+ * composes the final response.
  */
 @Service
 public class EmailValidatorService {
@@ -30,164 +42,311 @@ public class EmailValidatorService {
   /** Logger for EmailValidatorService. */
   public static final Logger LOGGER = LoggerFactory.getLogger(EmailValidatorService.class);
 
-  // can be replaced with
-  // https://github.com/ZliIO/zliio-disposable?tab=readme-ov-file
-  // https://github.com/disposable/disposable?tab=readme-ov-file
-  /** List of known disposable email domains. */
-  private static final List<String> DISP_DOMAINS =
-      Arrays.asList("mailinator.com", "10minutemail.com", "guerrillamail.com", "yopmail.com");
+  /** Name of the cache holding per-address responses. */
+  public static final String CACHE_NAME = "emailValidationCache";
 
-  /** Service for DNS lookup operations. */
-  private final DnsLookupService dnsLookupService;
+  /** MX failure reason for an address whose domain could not be extracted. */
+  public static final String DOMAIN_NOT_EXTRACTED_REASON = "Failure in extracting domain";
 
-  /** Service to check domain safety using Google Safe Browsing API. */
-  private final GoogleSafeBrowsingService googleService;
+  /** Name of the counter reporting response cache lookups by outcome. */
+  public static final String LOOKUP_METRIC_NAME = "email.validator.cache.lookups";
+
+  /** Service computing and caching per-domain verdicts. */
+  private final DomainVerdictService domainVerdictService;
+
+  /** Maps each address to the canonical address keying the response cache. */
+  private final AddressCanonicalizer canonicalizer;
+
+  /** Cache manager used to read and fill the response cache. */
+  private final CacheManager cacheManager;
+
+  /** Coalesces concurrent misses for the same address into one validation. */
+  private final SingleFlight<String, EmailResponse> flight;
+
+  /** Lookups answered from the cache under the address as submitted. */
+  private final Counter hits;
+
+  /** Lookups answered from the cache only because the address was canonicalized. */
+  private final Counter canonicalHits;
+
+  /** Lookups that missed the cache. */
+  private final Counter misses;
+
+  /** Times the computation of each response. */
+  private final Timer loads;
+
+  /** Records the time spent in each stage of a validation. */
+  private final LatencyProfiler latencyProfiler;
 
   /**
    * Constructs an EmailValidatorService with the given dependencies.
    *
-   * @param dnsLookupService service to perform DNS lookups
-   * @param googleService service to check domain safety
+   * @param domainVerdictService service providing per-domain verdicts
+   * @param canonicalizer maps addresses to their canonical cache key
+   * @param cacheManager cache manager holding the response cache
+   * @param latencyProfiler recorder of the time spent in each stage of a validation
+   * @param meterRegistry registry receiving the request-coalescing, cache lookup and load metrics
    */
   public EmailValidatorService(
-      final DnsLookupService dnsLookupService, final GoogleSafeBrowsingService googleService) {
-    this.dnsLookupService = dnsLookupService;
-    this.googleService = googleService;
+      final DomainVerdictService domainVerdictService,
+      final AddressCanonicalizer canonicalizer,
+      final CacheManager cacheManager,
+      final LatencyProfiler latencyProfiler,
+      final MeterRegistry meterRegistry) {
+    this.domainVerdictService = domainVerdictService;
+    this.canonicalizer = canonicalizer;
+    this.cacheManager = cacheManager;
+    this.latencyProfiler = latencyProfiler;
+    this.flight = new SingleFlight<>("email", meterRegistry);
+    this.hits = lookupCounter("hit", meterRegistry);
+    this.canonicalHits = lookupCounter("canonical_hit", meterRegistry);
+    this.misses = lookupCounter("miss", meterRegistry);
+    this.loads = DomainVerdictService.loadTimer(CACHE_NAME, meterRegistry);
+  }
+
+  private static Counter lookupCounter(final String outcome, final MeterRegistry registry) {
+    return Counter.builder(LOOKUP_METRIC_NAME)
+        .description("Response cache lookups, with hits owed to canonicalization counted apart")
+        .tag("outcome", outcome)
+        .register(registry);
   }
 
   /**
    * Validates an email address on multiple criteria.
    *
+   * <p>Responses are cached under the canonical address, so spellings of the
+   * same mailbox share one validation; the response still echoes the address
+   * as submitted. Concurrent misses for the same address share a single
+   * validation. The time spent in each stage is reported to the
+   * {@link LatencyProfiler}.
+   *
    * @param email the email to validate
    * @return response containing validation results
    */
-  @Cacheable(value = "emailValidationCache", key = "#email")
   public EmailResponse validateEmail(final String email) {
-
-    getLogger().info("Validating email: {}", email);
-    final EmailResponse response = new EmailResponse();
-    response.setEmail(email);
-
-    final Boolean syntaxValid = isEmailSyntaxValid(email);
-    getLogger().debug("Syntax valid: {}", syntaxValid);
-    response.setValidSyntax(syntaxValid);
-
-    final String domain = extractDomain(email);
-    if (syntaxValid) {
-      response.setIsSafe(googleService.isDomainSafe(domain));
+    final long start = System.nanoTime();
+    final StageTimings timings = new StageTimings();
+    final String key = canonicalizer.canonicalize(email);
+    final Cache cache = cacheManager.getCache(CACHE_NAME);
+    EmailResponse response = lookup(cache, email, key, timings);
+    if (response == null) {
+      getLogger().info("Validating email: {}", email);
+      response =
+          flight
+              .execute(
+                  key,
+                  canonical ->
+                      load(
+                          canonical,
+                          () ->
+                              CompletableFuture.completedFuture(
+                                  buildResponse(
+                                      canonical,
+                                      domain -> domainVerdictService.lookup(domain, timings),
+                                      timings))))
+              .join();
+      cache.put(key, response);
     }
+    latencyProfiler.finish(email, timings, start);
+    return echo(response, email);
+  }
 
-    final MxResponse mxRecord = mxRecord(email, domain);
-    response.setMxResponse(mxRecord);
+  /**
+   * Validates an email address without blocking the caller on DNS or Safe Browsing.
+   *
+   * <p>Shares the response cache with {@link #validateEmail}, and concurrent
+   * misses for the same address, on either path, share a single validation.
+   *
+   * @param email the email to validate
+   * @return a future completed with the validation results
+   */
+  public CompletableFuture<EmailResponse> validateEmailAsync(final String email) {
+    final long start = System.nanoTime();
+    final StageTimings timings = new StageTimings();
+    final String key = canonicalizer.canonicalize(email);
+    final Cache cache = cacheManager.getCache(CACHE_NAME);
+    final EmailResponse cached = lookup(cache, email, key, timings);
+    CompletableFuture<EmailResponse> response;
+    if (cached == null) {
+      getLogger().info("Validating email asynchronously: {}", email);
+      response =
+          flight
+              .execute(key, canonical -> load(canonical, () -> composeAsync(canonical, timings)))
+              .thenApply(
+                  computed -> {
+                    cache.put(key, computed);
+                    latencyProfiler.finish(email, timings, start);
+                    return echo(computed, email);
+                  });
+    } else {
+      latencyProfiler.finish(email, timings, start);
+      response = CompletableFuture.completedFuture(echo(cached, email));
+    }
+    return response;
+  }
 
-    final Boolean disposable = isDisposable(email);
-    getLogger().debug("Is disposable: {}", disposable);
-    response.setIsDisposable(disposable);
+  /** Reads the response cached under {@code key} and counts the lookup's outcome. */
+  private EmailResponse lookup(
+      final Cache cache, final String email, final String key, final StageTimings timings) {
+    final long start = System.nanoTime();
+    final EmailResponse cached = cache.get(key, EmailResponse.class);
+    latencyProfiler.recordSince(Stage.CACHE, timings, start);
+    if (cached == null) {
+      misses.increment();
+    } else if (key.equals(email)) {
+      hits.increment();
+    } else {
+      canonicalHits.increment();
+    }
+    return cached;
+  }
 
-    return response;
+  /**
+   * Returns a response reporting the address as submitted.
+   *
+   * @param response the response computed for the canonical address
+   * @param email the address as submitted
+   * @return {@code response} itself if it already reports {@code email}, else a copy that does
+   */
+  private static EmailResponse echo(final EmailResponse response, final String email) {
+    EmailResponse echoed = response;
+    if (!email.equals(response.getEmail())) {
+      echoed = new EmailResponse();
+      echoed.setEmail(email);
+      echoed.setValidSyntax(response.getValidSyntax());
+      echoed.setIsSafe(response.getIsSafe());
+      echoed.setMxResponse(response.getMxResponse());
+      echoed.setIsDisposable(response.getIsDisposable());
+      echoed.setTtlSeconds(response.getTtlSeconds());
+    }
+    return echoed;
   }
 
   /**
-   * Checks if the given email has valid syntax.
+   * Computes the response for an address missing from the cache, timing the
+   * computation and spanning it with a {@link CacheLoadEvent} that records the
+   * address's domain only.
    *
-   * @param email email address to validate
-   * @return true if syntax is valid, false otherwise
+   * @param key the canonical address
+   * @param computation starts the computation
+   * @return a future completed with the response
    */
-  public Boolean isEmailSyntaxValid(final String email) {
-    final EmailValidator validator = EmailValidator.getInstance(true, true);
-    return validator.isValid(email);
+  private CompletableFuture<EmailResponse> load(
+      final String key, final Supplier<CompletableFuture<EmailResponse>> computation) {
+    final long start = System.nanoTime();
+    final CacheLoadEvent event = new CacheLoadEvent(CACHE_NAME, extractDomain(key));
+    return computation
+        .get()
+        .whenComplete(
+            (response, ex) -> {
+              loads.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+              event.complete(ex);
+            });
+  }
+
+  private CompletableFuture<EmailResponse> composeAsync(
+      final String email, final StageTimings timings) {
+    final String domain = extractDomain(email);
+    final CompletableFuture<DomainVerdict> verdict =
+        domain == null
+            ? CompletableFuture.completedFuture(null)
+            : domainVerdictService.lookupAsync(domain, timings);
+    return verdict.thenApply(resolved -> buildResponse(email, ignored -> resolved, timings));
   }
 
   /**
-   * Checks MX records for the given email and domain.
+   * Validates a batch of email addresses, returning results in input order.
+   *
+   * <p>Addresses are grouped by their extracted domain so that each distinct
+   * domain costs exactly one MX lookup and one Safe Browsing check per batch.
+   * The lookups for all distinct domains are started together, so their Safe
+   * Browsing checks share multi-entry requests.
    *
-   * @param email the email address being checked
-   * @param domain the domain extracted from the email
-   * @return MxResponse with MX check results
+   * @param emails the email addresses to validate
+   * @return one response per input address, in the same order
    */
-  public MxResponse mxRecord(final String email, final String domain) {
-    getLogger().debug("Checking MX records for email: {}", email);
+  public List<EmailResponse> validateEmails(final List<String> emails) {
+    getLogger().info("Validating batch of {} emails", emails.size());
+    final Map<String, CompletableFuture<DomainVerdict>> verdictByDomain = new HashMap<>();
+    for (final String email : emails) {
+      final String domain = extractDomain(email);
+      if (domain != null) {
+        verdictByDomain.computeIfAbsent(domain, domainVerdictService::lookupAsync);
+      }
+    }
 
-    final MxResponse mxResponse = new MxResponse();
+    final List<EmailResponse> responses = new ArrayList<>(emails.size());
+    for (final String email : emails) {
+      responses.add(
+          buildResponse(email, domain -> verdictByDomain.get(domain).join(), new StageTimings()));
+    }
+    return responses;
+  }
+
+  private EmailResponse buildResponse(
+      final String email,
+      final Function<String, DomainVerdict> verdictLookup,
+      final StageTimings timings) {
+    final EmailResponse response = new EmailResponse();
+    response.setEmail(email);
 
+    // One scan gives both the syntax verdict and the domain.
+    final long syntaxStart = System.nanoTime();
+    final long parsed = EmailAddressParser.parse(email);
+    final boolean syntaxValid = EmailAddressParser.isValid(parsed);
+    latencyProfiler.recordSince(Stage.SYNTAX, timings, syntaxStart);
+    getLogger().debug("Syntax valid: {}", syntaxValid);
+    response.setValidSyntax(syntaxValid);
+
+    final long domainStart = System.nanoTime();
+    final String domain = EmailAddressParser.domain(email, parsed);
+    latencyProfiler.recordSince(Stage.DOMAIN, timings, domainStart);
     if (domain == null) {
-      handleDomainNull(email, mxResponse);
+      response.setMxResponse(domainNotExtracted(email));
+      response.setIsDisposable(false);
     } else {
-
-      try {
-        final Record[] records = dnsLookupService.lookupMxRecords(domain);
-        if (records == null) {
-          handleNoRecords(domain, email, mxResponse);
-        } else {
-          logMxRecords(records, email);
-          mxResponse.setHasMx(true);
-        }
-      } catch (TextParseException e) {
-        handleParsingError(domain, email, mxResponse);
+      final DomainVerdict verdict = verdictLookup.apply(domain);
+      if (syntaxValid) {
+        response.setIsSafe(verdict.getIsSafe());
       }
+      response.setMxResponse(verdict.getMxResponse());
+      response.setIsDisposable(verdict.getIsDisposable());
+      response.setTtlSeconds(domainVerdictService.remainingTtlSeconds(domain, verdict));
     }
-    return mxResponse;
-  }
+    getLogger().debug("Is disposable: {}", response.getIsDisposable());
 
-  private void handleDomainNull(final String email, final MxResponse mxResponse) {
-    mxResponse.setHasMx(false);
-    mxResponse.setMxFailureReason("Failure in extracting domain");
-    getLogger().error("Failure in extracting domain for email: {}", email);
+    return response;
   }
 
-  private void handleNoRecords(
-      final String domain, final String email, final MxResponse mxResponse) {
-    mxResponse.setHasMx(false);
-    mxResponse.setMxFailureReason("No MX records found for domain: " + domain);
-    getLogger().error("No MX records found for domain: {} for email: {}", domain, email);
+  /**
+   * Checks if the given email has valid syntax.
+   *
+   * <p>Accepts the same addresses as commons-validator's
+   * {@code EmailValidator.getInstance(true, true)}; see {@link EmailAddressParser}.
+   *
+   * @param email email address to validate
+   * @return true if syntax is valid, false otherwise
+   */
+  public Boolean isEmailSyntaxValid(final String email) {
+    return EmailAddressParser.isValid(EmailAddressParser.parse(email));
   }
 
-  private void handleParsingError(
-      final String domain, final String email, final MxResponse mxResponse) {
+  private MxResponse domainNotExtracted(final String email) {
+    final MxResponse mxResponse = new MxResponse();
     mxResponse.setHasMx(false);
-    mxResponse.setMxFailureReason("Error parsing domain: " + domain);
-    getLogger().error("Error parsing domain: {} for email: {}", domain, email);
-  }
-
-  @SuppressWarnings("PMD.GuardLogStatement")
-  private void logMxRecords(final Record[] records, final String email) {
-    for (final Record record : records) {
-      if (record instanceof MXRecord mxRecord) {
-        getLogger()
-            .debug(
-                "MX: {} | Priority: {} | email: {}",
-                mxRecord.getTarget(),
-                mxRecord.getPriority(),
-                email);
-      }
-    }
+    mxResponse.setMxFailureReason(DOMAIN_NOT_EXTRACTED_REASON);
+    getLogger().error("Failure in extracting domain for email: {}", email);
+    return mxResponse;
   }
 
   /**Extracts the domain part from the given email address.
    *
    * @param email the email address to extract the domain from
-   * @return the domain in lowercase if present;
+   * @return the domain in lowercase, internationalised domains in their ASCII form, if present;
    *        {@code null} if the email does not contain a valid domain
   */
   public String extractDomain(final String email) {
-    final int atIndex = email.lastIndexOf('@');
-    String domain = null;
-
-    if (atIndex != -1 && atIndex < email.length() - 1) {
-      domain = email.substring(atIndex + 1).toLowerCase(Locale.ROOT);
-    }
-    return domain;
-  }
-
-  /**
-   * Checks if the email belongs to a disposable domain.
-   *
-   * @param email the email to check
-   * @return true if email domain is disposable, false otherwise
-   */
-  public Boolean isDisposable(final String email) {
-    final String domain = email.substring(email.indexOf('@') + 1);
-    return DISP_DOMAINS.contains(domain);
+    return EmailAddressParser.domain(email, EmailAddressParser.parse(email));
   }
 
   /**
@@ -4,8 +4,13 @@
 
 package com.preetam.emailvalidator.services;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,24 +30,61 @@ public class GoogleSafeBrowsingService {
   /** Logger for logging API interaction details. */
   public static final Logger LOGGER = LoggerFactory.getLogger(GoogleSafeBrowsingService.class);
 
-  /** Base URL template for the Google Safe Browsing API. */
-  private static final String API_URL =
-      "https://safebrowsing.googleapis.com/v4/threatMatches:find?key=%s";
+  /** Maximum number of threat entries the API accepts in one request. */
+  public static final int MAX_ENTRIES_PER_REQUEST = 500;
+
+  /** Client section of every request body. */
+  static final Map<String, Object> CLIENT =
+      Map.of(
+          "clientId", "email-validator",
+          "clientVersion", "1.0");
+
+  /** Threat types checked for every domain. */
+  static final List<String> THREAT_TYPES =
+      List.of(
+          "MALWARE", "SOCIAL_ENGINEERING", "UNWANTED_SOFTWARE", "POTENTIALLY_HARMFUL_APPLICATION");
+
+  /** Threat criteria shared by every request; only the entries change per call. */
+  static final Map<String, Object> THREAT_CRITERIA =
+      Map.of(
+          "threatTypes", THREAT_TYPES,
+          "platformTypes", List.of("ANY_PLATFORM"),
+          "threatEntryTypes", List.of("URL"));
+
+  /** Result reported for a domain without matches. */
+  static final SafeBrowsingResult SAFE = new SafeBrowsingResult(true, null);
 
   /** The {@link RestTemplate} used to make HTTP requests. */
   private final RestTemplate restTemplate;
 
-  /** The Google Safe Browsing API key, injected from application properties. */
-  @Value("${google.safebrowsing.api.key}")
-  public String apiKey;
+  /** The request URL, including the API key. */
+  private final String url;
+
+  /** Headers sent with every request. */
+  private final HttpHeaders headers;
+
+  /** Local copy of the threat lists, present when {@code google.safebrowsing.mode=local}. */
+  private final Optional<LocalThreatDatabase> localDatabase;
 
   /**
    * Constructs a GoogleSafeBrowsingService with the given RestTemplate.
    *
    * @param restTemplate REST client used for API calls
+   * @param apiKey the Google Safe Browsing API key
+   * @param baseUrl base URL of the Safe Browsing API
+   * @param localDatabase local threat lists answering checks once downloaded, if enabled
    */
-  public GoogleSafeBrowsingService(final RestTemplate restTemplate) {
+  public GoogleSafeBrowsingService(
+      final RestTemplate restTemplate,
+      @Value("${google.safebrowsing.api.key}") final String apiKey,
+      @Value("${google.safebrowsing.base-url:https://safebrowsing.googleapis.com}")
+          final String baseUrl,
+      final Optional<LocalThreatDatabase> localDatabase) {
     this.restTemplate = restTemplate;
+    this.url = baseUrl + "/v4/threatMatches:find?key=" + apiKey;
+    this.localDatabase = localDatabase;
+    this.headers = new HttpHeaders();
+    this.headers.setContentType(MediaType.APPLICATION_JSON);
   }
 
   /**
@@ -50,49 +92,172 @@ public class GoogleSafeBrowsingService {
    *
    * @param domain the domain name to check
    * @return {@code true} if the domain is safe; {@code false} otherwise
+   * @throws org.springframework.web.client.RestClientException if the API call fails
    */
   public boolean isDomainSafe(final String domain) {
-    final String url = String.format(API_URL, apiKey);
-
-    final Map<String, Object> requestBody =
-        Map.of(
-            "client",
-                Map.of(
-                    "clientId", "email-validator",
-                    "clientVersion", "1.0"),
-            "threatInfo",
-                Map.of(
-                    "threatTypes",
-                        List.of(
-                            "MALWARE",
-                            "SOCIAL_ENGINEERING",
-                            "UNWANTED_SOFTWARE",
-                            "POTENTIALLY_HARMFUL_APPLICATION"),
-                    "platformTypes", List.of("ANY_PLATFORM"),
-                    "threatEntryTypes", List.of("URL"),
-                    "threatEntries", List.of(Map.of("url", "http://" + domain))));
-
-    boolean isSafe;
+    return checkDomain(domain).safe();
+  }
+
+  /**
+   * Checks a domain against Google Safe Browsing and reports how long the
+   * answer may be cached.
+   *
+   * <p>With a ready local database, the domain is checked against the local
+   * threat lists and the API is only called to confirm a prefix match.
+   *
+   * @param domain the domain name to check
+   * @return the verdict and, for matches, the shortest {@code cacheDuration} returned
+   * @throws org.springframework.web.client.RestClientException if the API call fails;
+   *     an error is not a verdict, so it is left to the caller to decide what to report
+   */
+  public SafeBrowsingResult checkDomain(final String domain) {
+    SafeBrowsingResult result;
+    try {
+      final Optional<LocalThreatDatabase> local = readyDatabase();
+      if (local.isPresent()) {
+        result = local.get().check(List.of(domain)).get(domain);
+      } else {
+        result = lookup(domain);
+      }
+    } catch (HttpClientErrorException | HttpServerErrorException ex) {
+      logApiError(ex);
+      throw ex;
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks a domain with the Lookup API, even when a local database is ready.
+   *
+   * <p>Used by the health probe: a ready local database answers most checks
+   * without calling the API, so it would hide an unreachable API.
+   *
+   * @param domain the domain name to check
+   * @return the verdict and, for matches, the shortest {@code cacheDuration} returned
+   * @throws org.springframework.web.client.RestClientException if the API call fails
+   */
+  public SafeBrowsingResult checkDomainRemotely(final String domain) {
+    final SafeBrowsingResult result;
+    try {
+      result = lookup(domain);
+    } catch (HttpClientErrorException | HttpServerErrorException ex) {
+      logApiError(ex);
+      throw ex;
+    }
+    return result;
+  }
+
+  /**
+   * Checks several domains against Google Safe Browsing in a single request.
+   *
+   * <p>Matches are attributed to domains through their {@code threat.url}.
+   *
+   * @param domains the domain names to check; at most {@link #MAX_ENTRIES_PER_REQUEST}
+   * @return the result for each domain, keyed by domain
+   * @throws org.springframework.web.client.RestClientException if the API call fails
+   */
+  public Map<String, SafeBrowsingResult> checkDomains(final Collection<String> domains) {
+    final Map<String, SafeBrowsingResult> results = new HashMap<>();
     try {
+      final Optional<LocalThreatDatabase> local = readyDatabase();
+      if (local.isPresent()) {
+        results.putAll(local.get().check(domains));
+      } else {
+        final Map<String, List<Object>> matchesByUrl = matchesByUrl(find(domains));
+        for (final String domain : domains) {
+          final List<Object> matches = matchesByUrl.get(entryUrl(domain));
+          results.put(
+              domain,
+              matches == null
+                  ? SAFE
+                  : new SafeBrowsingResult(false, shortestCacheDuration(matches)));
+        }
+      }
+    } catch (HttpClientErrorException | HttpServerErrorException ex) {
+      logApiError(ex);
+      throw ex;
+    }
+    return results;
+  }
 
-      final HttpHeaders headers = new HttpHeaders();
+  private Optional<LocalThreatDatabase> readyDatabase() {
+    return localDatabase.filter(LocalThreatDatabase::isReady);
+  }
 
-      headers.setContentType(MediaType.APPLICATION_JSON);
+  private SafeBrowsingResult lookup(final String domain) {
+    final Map<?, ?> body = find(List.of(domain));
+    final boolean isSafe = body == null || body.isEmpty();
+    return isSafe ? SAFE : new SafeBrowsingResult(false, shortestCacheDuration(body));
+  }
 
-      final HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+  private Map<?, ?> find(final Collection<String> domains) {
+    final List<Map<String, String>> entries = new ArrayList<>(domains.size());
+    for (final String domain : domains) {
+      entries.add(Map.of("url", entryUrl(domain)));
+    }
+    final Map<String, Object> threatInfo = new HashMap<>(THREAT_CRITERIA);
+    threatInfo.put("threatEntries", entries);
+    final Map<String, Object> requestBody = Map.of("client", CLIENT, "threatInfo", threatInfo);
 
-      final ResponseEntity<Map> response = restTemplate.postForEntity(url, entity, Map.class);
+    final HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+    final ResponseEntity<Map> response = restTemplate.postForEntity(url, entity, Map.class);
+    return response.getBody();
+  }
 
-      final Map<?, ?> body = response.getBody();
-      isSafe = (body == null || body.isEmpty());
-    } catch (HttpClientErrorException | HttpServerErrorException ex) {
-      if (getLogger().isWarnEnabled()) {
-        getLogger().warn("Safe Browsing API returned error", ex);
+  private static String entryUrl(final String domain) {
+    return "http://" + domain;
+  }
+
+  private void logApiError(final RuntimeException ex) {
+    if (getLogger().isWarnEnabled()) {
+      getLogger().warn("Safe Browsing API returned error", ex);
+    }
+  }
+
+  private static Map<String, List<Object>> matchesByUrl(final Map<?, ?> body) {
+    final Map<String, List<Object>> matchesByUrl = new HashMap<>();
+    if (body != null && body.get("matches") instanceof List<?> matches) {
+      for (final Object match : matches) {
+        if (match instanceof Map<?, ?> fields
+            && fields.get("threat") instanceof Map<?, ?> threat
+            && threat.get("url") instanceof String threatUrl) {
+          matchesByUrl.computeIfAbsent(threatUrl, key -> new ArrayList<>()).add(match);
+        }
+      }
+    }
+    return matchesByUrl;
+  }
+
+  /**
+   * Returns the shortest {@code cacheDuration} among the matches of a
+   * {@code threatMatches:find} response, such as {@code "300s"}.
+   *
+   * @param body the response body
+   * @return the shortest duration, or {@code null} if none is present
+   */
+  static Duration shortestCacheDuration(final Map<?, ?> body) {
+    return body.get("matches") instanceof List<?> matches ? shortestCacheDuration(matches) : null;
+  }
+
+  private static Duration shortestCacheDuration(final List<?> matches) {
+    Duration shortest = null;
+    for (final Object match : matches) {
+      if (match instanceof Map<?, ?> fields
+          && fields.get("cacheDuration") instanceof String value
+          && value.endsWith("s")) {
+        final Duration duration = parseSeconds(value);
+        if (shortest == null || duration.compareTo(shortest) < 0) {
+          shortest = duration;
+        }
       }
-      isSafe = false;
     }
+    return shortest;
+  }
 
-    return isSafe;
+  static Duration parseSeconds(final String value) {
+    final double seconds = Double.parseDouble(value.substring(0, value.length() - 1));
+    return Duration.ofMillis((long) (seconds * 1000));
   }
 
   /**
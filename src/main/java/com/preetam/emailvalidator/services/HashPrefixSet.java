@@ -0,0 +1,214 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Immutable, sorted set of Safe Browsing hash prefixes for one threat list.
+ *
+ * <p>Nearly every prefix on the lists is 4 bytes long. Those are packed into a
+ * sorted {@code int[]} with the sign bit flipped, so signed order matches the
+ * unsigned byte order the Update API uses. The few longer prefixes are kept
+ * apart in a sorted array. Together they cost about 4 bytes per prefix, and a
+ * lookup is a binary search.
+ */
+public final class HashPrefixSet {
+
+  /** Length of the prefixes kept in the packed array. */
+  public static final int SHORT_PREFIX_BYTES = 4;
+
+  /** Set holding no prefixes. */
+  private static final HashPrefixSet EMPTY = new HashPrefixSet(new int[0], new byte[0][]);
+
+  /** 4-byte prefixes, big-endian with the sign bit flipped, in ascending order. */
+  private final int[] shortPrefixes;
+
+  /** Prefixes longer than 4 bytes, in unsigned lexicographic order. */
+  private final byte[][] longPrefixes;
+
+  private HashPrefixSet(final int[] shortPrefixes, final byte[][] longPrefixes) {
+    this.shortPrefixes = shortPrefixes;
+    this.longPrefixes = longPrefixes;
+  }
+
+  /**
+   * Returns the set holding no prefixes.
+   *
+   * @return the empty set
+   */
+  public static HashPrefixSet empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Returns the number of prefixes in the set.
+   *
+   * @return the number of prefixes
+   */
+  public int size() {
+    return shortPrefixes.length + longPrefixes.length;
+  }
+
+  /**
+   * Returns the prefix in this set that the given full hash starts with, if any.
+   *
+   * @param fullHash a 32-byte SHA-256 hash
+   * @return the matching prefix, or {@code null} if none matches
+   */
+  public byte[] matchingPrefix(final byte[] fullHash) {
+    byte[] match = null;
+    if (Arrays.binarySearch(shortPrefixes, pack(fullHash, 0)) >= 0) {
+      match = Arrays.copyOf(fullHash, SHORT_PREFIX_BYTES);
+    } else {
+      for (final byte[] prefix : longPrefixes) {
+        if (Arrays.equals(prefix, 0, prefix.length, fullHash, 0, prefix.length)) {
+          match = prefix.clone();
+          break;
+        }
+      }
+    }
+    return match;
+  }
+
+  /**
+   * Returns a new set with an update applied: removals first, then additions.
+   *
+   * @param removalIndices indices, into this set's sorted order, of prefixes to remove
+   * @param additions prefixes to add
+   * @return the updated set
+   */
+  public HashPrefixSet apply(final int[] removalIndices, final List<byte[]> additions) {
+    final BitSet removed = new BitSet(size());
+    for (final int index : removalIndices) {
+      removed.set(index);
+    }
+
+    final List<byte[]> kept = new ArrayList<>(size() - removed.cardinality() + additions.size());
+    final int[] index = {0};
+    forEachSorted(
+        prefix -> {
+          if (!removed.get(index[0])) {
+            kept.add(prefix);
+          }
+          index[0]++;
+        });
+    kept.addAll(additions);
+    return of(kept);
+  }
+
+  /**
+   * Computes the SHA-256 of all prefixes concatenated in sorted order, as
+   * reported in the Update API's {@code checksum}.
+   *
+   * @return the checksum
+   */
+  public byte[] checksum() {
+    final MessageDigest digest = sha256();
+    forEachSorted(digest::update);
+    return digest.digest();
+  }
+
+  /**
+   * Builds a set from the given prefixes.
+   *
+   * @param prefixes prefixes of at least 4 bytes each, in any order
+   * @return the set
+   */
+  public static HashPrefixSet of(final List<byte[]> prefixes) {
+    int shortCount = 0;
+    for (final byte[] prefix : prefixes) {
+      if (prefix.length == SHORT_PREFIX_BYTES) {
+        shortCount++;
+      }
+    }
+    final int[] shorts = new int[shortCount];
+    final byte[][] longs = new byte[prefixes.size() - shortCount][];
+    int shortIndex = 0;
+    int longIndex = 0;
+    for (final byte[] prefix : prefixes) {
+      if (prefix.length == SHORT_PREFIX_BYTES) {
+        shorts[shortIndex++] = pack(prefix, 0);
+      } else {
+        longs[longIndex++] = prefix;
+      }
+    }
+    Arrays.sort(shorts);
+    Arrays.sort(longs, Arrays::compareUnsigned);
+    return new HashPrefixSet(shorts, longs);
+  }
+
+  /**
+   * Splits a {@code rawHashes} blob into prefixes of the given size.
+   *
+   * @param rawHashes concatenated prefixes
+   * @param prefixSize length of each prefix in bytes
+   * @return the prefixes
+   */
+  public static List<byte[]> split(final byte[] rawHashes, final int prefixSize) {
+    final List<byte[]> prefixes = new ArrayList<>(rawHashes.length / prefixSize);
+    for (int offset = 0; offset + prefixSize <= rawHashes.length; offset += prefixSize) {
+      prefixes.add(Arrays.copyOfRange(rawHashes, offset, offset + prefixSize));
+    }
+    return prefixes;
+  }
+
+  /**
+   * Computes the SHA-256 of a value, as used for Safe Browsing URL expressions.
+   *
+   * @param value the bytes to hash
+   * @return the 32-byte hash
+   */
+  public static byte[] sha256(final byte[] value) {
+    return sha256().digest(value);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  /** Visits every prefix in unsigned lexicographic order, merging both arrays. */
+  private void forEachSorted(final Consumer<byte[]> visitor) {
+    int shortIndex = 0;
+    int longIndex = 0;
+    while (shortIndex < shortPrefixes.length || longIndex < longPrefixes.length) {
+      final boolean takeShort =
+          longIndex == longPrefixes.length
+              || shortIndex < shortPrefixes.length
+                  // A 4-byte prefix sorts before any longer prefix it starts.
+                  && shortPrefixes[shortIndex] <= pack(longPrefixes[longIndex], 0);
+      if (takeShort) {
+        visitor.accept(unpack(shortPrefixes[shortIndex++]));
+      } else {
+        visitor.accept(longPrefixes[longIndex++]);
+      }
+    }
+  }
+
+  private static int pack(final byte[] bytes, final int offset) {
+    final int value =
+        (bytes[offset] & 0xff) << 24
+            | (bytes[offset + 1] & 0xff) << 16
+            | (bytes[offset + 2] & 0xff) << 8
+            | bytes[offset + 3] & 0xff;
+    return value ^ Integer.MIN_VALUE;
+  }
+
+  private static byte[] unpack(final int packed) {
+    final int value = packed ^ Integer.MIN_VALUE;
+    return new byte[] {(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8),
+        (byte) value};
+  }
+}
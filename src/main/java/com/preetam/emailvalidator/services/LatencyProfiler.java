@@ -0,0 +1,227 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import com.preetam.emailvalidator.services.StageTimings.Stage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records how long each stage of a validation takes, and which validations
+ * were the slowest.
+ *
+ * <p>Every stage is timed in {@code email.validator.stage.duration}, tagged
+ * with the stage, whose p50, p99 and p99.9 are computed client-side from
+ * Micrometer's HdrHistogram-backed percentile histograms over a sliding
+ * window of a few minutes.
+ *
+ * <p>Validations taking at least {@code email.validator.latency.slow-threshold}
+ * are candidates for the slow-request log: the
+ * {@code email.validator.latency.slow-sample-size} slowest of them are kept,
+ * and logged with their stage breakdown every
+ * {@code email.validator.latency.slow-log-interval}. Faster validations only
+ * cost a comparison. A kept validation records only the domain of its
+ * address, so the log and the actuator endpoint never show whose address it
+ * was.
+ */
+@Service
+public class LatencyProfiler {
+
+  /** Logger for LatencyProfiler. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(LatencyProfiler.class);
+
+  /** Name of the timer reporting the time spent per stage. */
+  public static final String METRIC_NAME = "email.validator.stage.duration";
+
+  /** Percentiles published for each stage. */
+  private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+  /** Nanoseconds per millisecond. */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /**
+   * A validation slow enough to be logged.
+   *
+   * @param domain the domain of the address validated, or {@code null} if it has none
+   * @param totalNanos how long the validation took
+   * @param stages the validation's stage timings
+   */
+  public record SlowRequest(String domain, long totalNanos, StageTimings stages) {}
+
+  /** Timer per stage. */
+  private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+
+  /** Validations at least this slow, in nanoseconds, are candidates for the log. */
+  private final long thresholdNanos;
+
+  /** Number of slow validations kept per interval. */
+  private final int sampleSize;
+
+  /** How often the slowest validations are logged. */
+  private final Duration logInterval;
+
+  /** Slowest validations of the current interval, fastest first; guarded by {@code this}. */
+  private final PriorityQueue<SlowRequest> window =
+      new PriorityQueue<>(Comparator.comparingLong(SlowRequest::totalNanos));
+
+  /** Slowest validations of the last interval, slowest first. */
+  private volatile List<SlowRequest> slowest = List.of();
+
+  /** Logs the slowest validations in the background. */
+  private final ScheduledExecutorService flusher =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("slow-request-log").daemon().factory());
+
+  /**
+   * Constructs a LatencyProfiler with the given settings.
+   *
+   * @param registry the registry receiving the stage timers
+   * @param slowThreshold validations at least this slow are candidates for the log
+   * @param sampleSize number of slow validations logged per interval
+   * @param logInterval how often the slowest validations are logged
+   */
+  public LatencyProfiler(
+      final MeterRegistry registry,
+      @Value("${email.validator.latency.slow-threshold:500ms}") final Duration slowThreshold,
+      @Value("${email.validator.latency.slow-sample-size:5}") final int sampleSize,
+      @Value("${email.validator.latency.slow-log-interval:1m}") final Duration logInterval) {
+    for (final Stage stage : Stage.values()) {
+      timers.put(
+          stage,
+          Timer.builder(METRIC_NAME)
+              .description("Time spent in each stage of a validation")
+              .tag("stage", stage.tag())
+              .publishPercentiles(PERCENTILES)
+              .register(registry));
+    }
+    this.thresholdNanos = slowThreshold.toNanos();
+    this.sampleSize = sampleSize;
+    this.logInterval = logInterval;
+  }
+
+  /** Starts logging the slowest validations once the application is ready. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    flusher.scheduleWithFixedDelay(
+        this::flush, logInterval.toNanos(), logInterval.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /** Stops logging the slowest validations. */
+  @PreDestroy
+  public void shutdown() {
+    flusher.shutdownNow();
+  }
+
+  /**
+   * Records the time spent in a stage since it started.
+   *
+   * @param stage the stage
+   * @param timings the timings of the validation going through the stage
+   * @param startNanos when the stage started, from {@link System#nanoTime()}
+   */
+  public void recordSince(final Stage stage, final StageTimings timings, final long startNanos) {
+    final long elapsed = System.nanoTime() - startNanos;
+    timers.get(stage).record(elapsed, TimeUnit.NANOSECONDS);
+    timings.add(stage, elapsed);
+  }
+
+  /**
+   * Records a finished validation, keeping it for the slow-request log if it
+   * is among the slowest of the interval. Only the domain of the address is kept.
+   *
+   * @param email the address validated
+   * @param timings the validation's stage timings
+   * @param startNanos when the validation started, from {@link System#nanoTime()}
+   */
+  public void finish(final String email, final StageTimings timings, final long startNanos) {
+    final long total = System.nanoTime() - startNanos;
+    if (total >= thresholdNanos) {
+      keep(new SlowRequest(domainOf(email), total, timings));
+    }
+  }
+
+  /** Returns the part of an address after its last {@code @}, or {@code null}. */
+  private static String domainOf(final String email) {
+    final int at = email == null ? -1 : email.lastIndexOf('@');
+    return at < 0 ? null : email.substring(at + 1);
+  }
+
+  private synchronized void keep(final SlowRequest request) {
+    if (window.size() < sampleSize) {
+      window.add(request);
+    } else if (!window.isEmpty() && window.peek().totalNanos() < request.totalNanos()) {
+      window.poll();
+      window.add(request);
+    }
+  }
+
+  /**
+   * Logs the slowest validations of the interval, and starts a new one.
+   *
+   * @return the validations logged, slowest first
+   */
+  public List<SlowRequest> flush() {
+    final List<SlowRequest> drained;
+    synchronized (this) {
+      drained = new ArrayList<>(window);
+      window.clear();
+    }
+    drained.sort(Comparator.comparingLong(SlowRequest::totalNanos).reversed());
+    for (final SlowRequest request : drained) {
+      getLogger()
+          .warn(
+              "Slow validation for domain {} took {} ms: {}",
+              request.domain(),
+              request.totalNanos() / NANOS_PER_MILLI,
+              request.stages());
+    }
+    slowest = List.copyOf(drained);
+    return slowest;
+  }
+
+  /**
+   * Returns the slowest validations of the last interval.
+   *
+   * @return the validations logged last, slowest first
+   */
+  public List<SlowRequest> slowest() {
+    return slowest;
+  }
+
+  /**
+   * Returns the timer of a stage.
+   *
+   * @param stage the stage
+   * @return the stage's timer
+   */
+  public Timer timer(final Stage stage) {
+    return timers.get(stage);
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+}
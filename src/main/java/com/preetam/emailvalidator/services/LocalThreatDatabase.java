@@ -0,0 +1,464 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Local copy of the Safe Browsing threat lists, kept in sync through the
+ * Update API ({@code threatListUpdates:fetch}).
+ *
+ * <p>Each list is held as a {@link HashPrefixSet}. A domain is hashed into its
+ * host-suffix expressions and checked against the prefixes locally; only when
+ * a prefix matches is {@code fullHashes:find} called to confirm the match, so
+ * almost every domain is cleared without a network call. Full hashes confirmed
+ * unsafe are cached for their {@code cacheDuration}, and prefixes that matched
+ * no full hash for the response's {@code negativeCacheDuration}, so repeated
+ * checks of a listed domain do not repeat the request.
+ *
+ * <p>Enabled with {@code google.safebrowsing.mode=local}. Until every list has
+ * been downloaded, {@link #isReady()} is {@code false} and
+ * {@link GoogleSafeBrowsingService} keeps using the Lookup API.
+ */
+@Service
+@ConditionalOnProperty(name = "google.safebrowsing.mode", havingValue = "local")
+public class LocalThreatDatabase {
+
+  /** Logger for LocalThreatDatabase. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(LocalThreatDatabase.class);
+
+  /** Platform type of every list kept. */
+  private static final String PLATFORM_TYPE = "ANY_PLATFORM";
+
+  /** Threat entry type of every list kept. */
+  private static final String THREAT_ENTRY_TYPE = "URL";
+
+  /** Maximum number of host suffixes checked besides the exact host. */
+  private static final int MAX_HOST_SUFFIXES = 4;
+
+  /** Maximum number of full hashes and of prefixes kept in each cache. */
+  private static final int FULL_HASH_CACHE_SIZE = 10_000;
+
+  /** The {@link RestTemplate} used to make HTTP requests. */
+  private final RestTemplate restTemplate;
+
+  /** The {@code threatListUpdates:fetch} URL, including the API key. */
+  private final String updateUrl;
+
+  /** The {@code fullHashes:find} URL, including the API key. */
+  private final String fullHashesUrl;
+
+  /** Delay between two updates when the API asks for no longer wait. */
+  private final Duration updateInterval;
+
+  /** Headers sent with every request. */
+  private final HttpHeaders headers;
+
+  /** Runs the periodic updates. */
+  private final ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("safe-browsing-update").daemon().factory());
+
+  /** Current lists by threat type; replaced as a whole on every update. */
+  private volatile Map<String, ThreatList> lists;
+
+  /** Full hashes confirmed unsafe, each kept for the cache duration of its match. */
+  private final Cache<String, Duration> confirmedHashes = durationCache();
+
+  /** Prefixes whose full hashes matched nothing, kept for the negative cache duration. */
+  private final Cache<String, Duration> clearedPrefixes = durationCache();
+
+  /**
+   * Constructs a LocalThreatDatabase with the given settings.
+   *
+   * @param restTemplate REST client used for API calls
+   * @param apiKey the Google Safe Browsing API key
+   * @param baseUrl base URL of the Safe Browsing API
+   * @param updateInterval delay between two updates, unless the API asks for a longer one
+   */
+  public LocalThreatDatabase(
+      final RestTemplate restTemplate,
+      @Value("${google.safebrowsing.api.key}") final String apiKey,
+      @Value("${google.safebrowsing.base-url:https://safebrowsing.googleapis.com}")
+          final String baseUrl,
+      @Value("${google.safebrowsing.update-interval:30m}") final Duration updateInterval) {
+    this.restTemplate = restTemplate;
+    this.updateUrl = baseUrl + "/v4/threatListUpdates:fetch?key=" + apiKey;
+    this.fullHashesUrl = baseUrl + "/v4/fullHashes:find?key=" + apiKey;
+    this.updateInterval = updateInterval;
+    this.headers = new HttpHeaders();
+    this.headers.setContentType(MediaType.APPLICATION_JSON);
+    final Map<String, ThreatList> empty = new LinkedHashMap<>();
+    for (final String threatType : GoogleSafeBrowsingService.THREAT_TYPES) {
+      empty.put(threatType, ThreatList.EMPTY);
+    }
+    this.lists = empty;
+  }
+
+  private static Cache<String, Duration> durationCache() {
+    return Caffeine.newBuilder()
+        .maximumSize(FULL_HASH_CACHE_SIZE)
+        .expireAfter(Expiry.<String, Duration>writing((key, duration) -> duration))
+        .build();
+  }
+
+  /** Downloads the lists once the application is ready, then keeps them up to date. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    scheduler.execute(this::scheduledUpdate);
+  }
+
+  /** Stops the periodic updates. */
+  @PreDestroy
+  public void shutdown() {
+    scheduler.shutdownNow();
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void scheduledUpdate() {
+    Duration next = updateInterval;
+    try {
+      final Duration minimumWait = update();
+      if (minimumWait != null && minimumWait.compareTo(next) > 0) {
+        next = minimumWait;
+      }
+    } catch (RuntimeException ex) {
+      // Keep the schedule alive whatever went wrong; the next run starts over.
+      if (getLogger().isWarnEnabled()) {
+        getLogger().warn("Safe Browsing list update failed", ex);
+      }
+    }
+    scheduler.schedule(this::scheduledUpdate, next.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Returns whether every list has been downloaded.
+   *
+   * @return {@code true} once the lists can answer checks
+   */
+  public boolean isReady() {
+    boolean ready = true;
+    for (final ThreatList list : lists.values()) {
+      ready &= !list.state().isEmpty();
+    }
+    return ready;
+  }
+
+  /**
+   * Fetches and applies the latest updates for every list.
+   *
+   * <p>A list whose checksum does not match after the update keeps its last
+   * good copy, and the next update asks for it in full.
+   *
+   * @return the {@code minimumWaitDuration} requested by the API, or {@code null}
+   * @throws RestClientException if the update request fails
+   */
+  public Duration update() {
+    final Map<String, ThreatList> current = lists;
+    final List<Map<String, Object>> requests = new ArrayList<>(current.size());
+    current.forEach(
+        (threatType, list) ->
+            requests.add(
+                Map.of(
+                    "threatType", threatType,
+                    "platformType", PLATFORM_TYPE,
+                    "threatEntryType", THREAT_ENTRY_TYPE,
+                    "state", list.resetPending() ? "" : list.state(),
+                    "constraints", Map.of("supportedCompressions", List.of("RAW")))));
+    final Map<?, ?> body =
+        post(
+            updateUrl,
+            Map.of("client", GoogleSafeBrowsingService.CLIENT, "listUpdateRequests", requests));
+
+    final Map<String, ThreatList> updated = new LinkedHashMap<>(current);
+    if (body != null && body.get("listUpdateResponses") instanceof List<?> responses) {
+      for (final Object response : responses) {
+        if (response instanceof Map<?, ?> fields
+            && fields.get("threatType") instanceof String threatType
+            && updated.containsKey(threatType)) {
+          updated.put(threatType, applyUpdate(threatType, updated.get(threatType), fields));
+        }
+      }
+    }
+    lists = updated;
+    return body != null && body.get("minimumWaitDuration") instanceof String wait
+        ? GoogleSafeBrowsingService.parseSeconds(wait)
+        : null;
+  }
+
+  private ThreatList applyUpdate(
+      final String threatType, final ThreatList list, final Map<?, ?> response) {
+    final HashPrefixSet base =
+        "FULL_UPDATE".equals(response.get("responseType"))
+            ? HashPrefixSet.empty()
+            : list.prefixes();
+    final HashPrefixSet prefixes = base.apply(removals(response), additions(response));
+
+    ThreatList result;
+    if (response.get("checksum") instanceof Map<?, ?> checksum
+        && checksum.get("sha256") instanceof String expected
+        && !Arrays.equals(Base64.getDecoder().decode(expected), prefixes.checksum())) {
+      if (getLogger().isWarnEnabled()) {
+        getLogger()
+            .warn(
+                "Checksum mismatch for Safe Browsing list {}, keeping the last good copy until a"
+                    + " full update",
+                threatType);
+      }
+      result = new ThreatList(list.prefixes(), list.state(), true);
+    } else {
+      final Object newState = response.get("newClientState");
+      result =
+          new ThreatList(
+              prefixes, newState instanceof String state ? state : list.state(), false);
+      getLogger().debug("Safe Browsing list {} holds {} prefixes", threatType, prefixes.size());
+    }
+    return result;
+  }
+
+  private static int[] removals(final Map<?, ?> response) {
+    final List<Integer> indices = new ArrayList<>();
+    if (response.get("removals") instanceof List<?> removals) {
+      for (final Object removal : removals) {
+        if (removal instanceof Map<?, ?> fields
+            && fields.get("rawIndices") instanceof Map<?, ?> raw
+            && raw.get("indices") instanceof List<?> values) {
+          for (final Object value : values) {
+            indices.add(((Number) value).intValue());
+          }
+        }
+      }
+    }
+    return indices.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static List<byte[]> additions(final Map<?, ?> response) {
+    final List<byte[]> prefixes = new ArrayList<>();
+    if (response.get("additions") instanceof List<?> additions) {
+      for (final Object addition : additions) {
+        if (addition instanceof Map<?, ?> fields
+            && fields.get("rawHashes") instanceof Map<?, ?> raw
+            && raw.get("rawHashes") instanceof String hashes) {
+          final int prefixSize = ((Number) raw.get("prefixSize")).intValue();
+          prefixes.addAll(HashPrefixSet.split(Base64.getDecoder().decode(hashes), prefixSize));
+        }
+      }
+    }
+    return prefixes;
+  }
+
+  /**
+   * Checks domains against the local lists, confirming prefix matches with a
+   * single {@code fullHashes:find} request. Prefixes whose answer is still
+   * cached are not requested again.
+   *
+   * @param domains the domain names to check
+   * @return the result for each domain, keyed by domain
+   * @throws RestClientException if a prefix matched and the full hash request fails
+   */
+  public Map<String, SafeBrowsingResult> check(final Collection<String> domains) {
+    final Map<String, ThreatList> current = lists;
+    final Map<String, List<byte[]>> hashesByDomain = new HashMap<>();
+    final Map<String, byte[]> uncachedPrefixes = new LinkedHashMap<>();
+    final Map<String, Duration> unsafeHashes = new HashMap<>();
+    for (final String domain : domains) {
+      final List<byte[]> hashes = new ArrayList<>();
+      for (final String expression : expressions(domain)) {
+        final byte[] hash = HashPrefixSet.sha256(expression.getBytes(StandardCharsets.UTF_8));
+        for (final ThreatList list : current.values()) {
+          final byte[] prefix = list.prefixes().matchingPrefix(hash);
+          if (prefix != null) {
+            hashes.add(hash);
+            final String encodedHash = Base64.getEncoder().encodeToString(hash);
+            final String encodedPrefix = Base64.getEncoder().encodeToString(prefix);
+            final Optional<Duration> confirmed = cachedDuration(confirmedHashes, encodedHash);
+            if (confirmed.isPresent()) {
+              unsafeHashes.put(encodedHash, confirmed.get());
+            } else if (clearedPrefixes.getIfPresent(encodedPrefix) == null) {
+              uncachedPrefixes.put(encodedPrefix, prefix);
+            }
+          }
+        }
+      }
+      hashesByDomain.put(domain, hashes);
+    }
+
+    if (!uncachedPrefixes.isEmpty()) {
+      unsafeHashes.putAll(findFullHashes(current, uncachedPrefixes));
+    }
+    final Map<String, SafeBrowsingResult> results = new HashMap<>();
+    for (final String domain : domains) {
+      results.put(domain, result(hashesByDomain.get(domain), unsafeHashes));
+    }
+    return results;
+  }
+
+  private static SafeBrowsingResult result(
+      final List<byte[]> hashes, final Map<String, Duration> unsafeHashes) {
+    boolean safe = true;
+    Duration shortest = null;
+    for (final byte[] hash : hashes) {
+      final String key = Base64.getEncoder().encodeToString(hash);
+      if (unsafeHashes.containsKey(key)) {
+        safe = false;
+        final Duration duration = unsafeHashes.get(key);
+        if (shortest == null || duration != null && duration.compareTo(shortest) < 0) {
+          shortest = duration;
+        }
+      }
+    }
+    return safe ? GoogleSafeBrowsingService.SAFE : new SafeBrowsingResult(false, shortest);
+  }
+
+  /** Returns the time left before a cached entry expires, or empty if it is not cached. */
+  private static Optional<Duration> cachedDuration(
+      final Cache<String, Duration> cache, final String key) {
+    return cache.policy().expireVariably().flatMap(expiry -> expiry.getExpiresAfter(key));
+  }
+
+  /**
+   * Returns the full hashes confirmed unsafe, with their cache durations, and
+   * caches the answer: each match for its {@code cacheDuration}, and each
+   * prefix without a match for the {@code negativeCacheDuration}.
+   */
+  private Map<String, Duration> findFullHashes(
+      final Map<String, ThreatList> current, final Map<String, byte[]> prefixes) {
+    final List<String> states = new ArrayList<>(current.size());
+    current.values().forEach(list -> states.add(list.state()));
+    final List<Map<String, String>> entries = new ArrayList<>(prefixes.size());
+    prefixes.keySet().forEach(prefix -> entries.add(Map.of("hash", prefix)));
+    final Map<?, ?> body =
+        post(
+            fullHashesUrl,
+            Map.of(
+                "client", GoogleSafeBrowsingService.CLIENT,
+                "clientStates", states,
+                "threatInfo",
+                    Map.of(
+                        "threatTypes", List.copyOf(current.keySet()),
+                        "platformTypes", List.of(PLATFORM_TYPE),
+                        "threatEntryTypes", List.of(THREAT_ENTRY_TYPE),
+                        "threatEntries", entries)));
+
+    final Map<String, Duration> unsafe = new HashMap<>();
+    if (body != null && body.get("matches") instanceof List<?> matches) {
+      for (final Object match : matches) {
+        if (match instanceof Map<?, ?> fields
+            && fields.get("threat") instanceof Map<?, ?> threat
+            && threat.get("hash") instanceof String hash) {
+          final Duration duration =
+              fields.get("cacheDuration") instanceof String value
+                  ? GoogleSafeBrowsingService.parseSeconds(value)
+                  : null;
+          unsafe.put(hash, duration);
+          if (duration != null) {
+            confirmedHashes.put(hash, duration);
+          }
+        }
+      }
+    }
+    if (body != null && body.get("negativeCacheDuration") instanceof String value) {
+      final Duration negative = GoogleSafeBrowsingService.parseSeconds(value);
+      prefixes.forEach(
+          (encoded, prefix) -> {
+            if (!matchesAny(prefix, unsafe.keySet())) {
+              clearedPrefixes.put(encoded, negative);
+            }
+          });
+    }
+    return unsafe;
+  }
+
+  /** Returns whether any of the Base64-encoded full hashes starts with the prefix. */
+  private static boolean matchesAny(final byte[] prefix, final Set<String> hashes) {
+    boolean matched = false;
+    for (final String hash : hashes) {
+      // A longer array starting with the prefix first differs from it right after its end.
+      matched |= Arrays.mismatch(Base64.getDecoder().decode(hash), prefix) == prefix.length;
+    }
+    return matched;
+  }
+
+  /**
+   * Returns the URL expressions looked up for a domain: the host itself and up
+   * to four suffixes built from its last five components, each with the root
+   * path. The top-level domain alone is never checked.
+   *
+   * @param domain the domain name
+   * @return the expressions, such as {@code a.b.example.com/} and {@code example.com/}
+   */
+  static Set<String> expressions(final String domain) {
+    final String host = domain.toLowerCase(Locale.ROOT);
+    final Set<String> expressions = new HashSet<>();
+    expressions.add(host + "/");
+    final String[] labels = host.split("\\.");
+    final int first = Math.max(1, labels.length - MAX_HOST_SUFFIXES - 1);
+    for (int start = first; start < labels.length - 1; start++) {
+      expressions.add(String.join(".", Arrays.copyOfRange(labels, start, labels.length)) + "/");
+    }
+    return expressions;
+  }
+
+  private Map<?, ?> post(final String url, final Map<String, Object> body) {
+    final ResponseEntity<Map> response =
+        restTemplate.postForEntity(url, new HttpEntity<>(body, headers), Map.class);
+    return response.getBody();
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+
+  /**
+   * One threat list: its prefixes and the client state returned with them.
+   *
+   * @param prefixes the hash prefixes on the list
+   * @param state the opaque client state, empty until the list is first downloaded
+   * @param resetPending whether the last update failed its checksum, so the next
+   *     one asks for the whole list while these prefixes keep answering checks
+   */
+  private record ThreatList(HashPrefixSet prefixes, String state, boolean resetPending) {
+
+    /** A list not downloaded yet. */
+    private static final ThreatList EMPTY = new ThreatList(HashPrefixSet.empty(), "", false);
+  }
+}
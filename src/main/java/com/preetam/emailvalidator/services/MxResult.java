@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.util.List;
+import org.xbill.DNS.Record;
+
+/**
+ * Result of an MX query together with how long it may be cached.
+ *
+ * @param records the MX records found; empty for a negative answer
+ * @param ttlSeconds seconds the answer stays valid: the smallest MX record TTL for a
+ *     positive answer, or the SOA negative-caching TTL for a negative one
+ */
+public record MxResult(List<Record> records, long ttlSeconds) {
+
+  /**
+   * Creates an MxResult holding an immutable copy of the records.
+   *
+   * @param records the MX records found; empty for a negative answer
+   * @param ttlSeconds seconds the answer stays valid
+   */
+  public MxResult {
+    records = List.copyOf(records);
+  }
+
+  /**
+   * Indicates whether any MX record was found.
+   *
+   * @return {@code true} for a positive answer
+   */
+  public boolean hasRecords() {
+    return !records.isEmpty();
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+/**
+ * Decides when a cache hit should refresh its entry ahead of expiry, using
+ * probabilistic early expiration (XFetch).
+ *
+ * <p>A hit on an entry with {@code remaining} time to live is due for a
+ * refresh when {@code delta * beta * -ln(rand) >= remaining}, where
+ * {@code delta} is how long recomputing an entry takes and {@code rand} is
+ * uniform in (0, 1]. The chance grows as the entry nears expiry and every hit
+ * draws again, so frequently read entries are refreshed shortly before they
+ * expire while rarely read ones are left to expire. The random draw spreads
+ * the refreshes of different keys, and of different nodes, over time. A
+ * {@code beta} above 1 refreshes earlier; 0 disables refresh-ahead.
+ *
+ * <p>{@code delta} is a moving average of the times reported to
+ * {@link #recordRecompute(long)}. Refreshes are counted in
+ * {@code email.validator.cache.refreshes}, tagged with the cache name.
+ */
+public class RefreshAhead {
+
+  /** Name of the counter reporting refreshes ahead of expiry. */
+  public static final String METRIC_NAME = "email.validator.cache.refreshes";
+
+  /** Weight of the latest recomputation in the moving average, as a shift: 1/8. */
+  private static final int SMOOTHING_SHIFT = 3;
+
+  /** How early entries are refreshed, as a multiple of the recomputation time. */
+  private final double beta;
+
+  /** Uniform draws in [0, 1). */
+  private final DoubleSupplier random;
+
+  /** Refreshes found due. */
+  private final Counter refreshes;
+
+  /** Moving average of recomputation times in nanoseconds, 0 until one is recorded. */
+  private final AtomicLong deltaNanos = new AtomicLong();
+
+  /**
+   * Constructs a RefreshAhead registering its counter under the given cache name.
+   *
+   * @param cacheName the name of the refreshed cache, used as the {@code cache} tag
+   * @param beta how early entries are refreshed; 0 disables refresh-ahead
+   * @param registry the registry receiving the refresh counter
+   */
+  public RefreshAhead(final String cacheName, final double beta, final MeterRegistry registry) {
+    this(cacheName, beta, registry, () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  /**
+   * Constructs a RefreshAhead drawing from the given source.
+   *
+   * @param cacheName the name of the refreshed cache, used as the {@code cache} tag
+   * @param beta how early entries are refreshed; 0 disables refresh-ahead
+   * @param registry the registry receiving the refresh counter
+   * @param random uniform draws in [0, 1)
+   */
+  RefreshAhead(
+      final String cacheName,
+      final double beta,
+      final MeterRegistry registry,
+      final DoubleSupplier random) {
+    this.beta = beta;
+    this.random = random;
+    this.refreshes =
+        Counter.builder(METRIC_NAME)
+            .description("Cache hits that refreshed their entry ahead of expiry")
+            .tag("cache", cacheName)
+            .register(registry);
+  }
+
+  /**
+   * Records how long recomputing an entry took.
+   *
+   * @param nanos the recomputation time in nanoseconds
+   */
+  public void recordRecompute(final long nanos) {
+    deltaNanos.accumulateAndGet(
+        nanos,
+        (average, latest) ->
+            average == 0 ? latest : average + (latest - average >> SMOOTHING_SHIFT));
+  }
+
+  /**
+   * Returns the moving average of recomputation times.
+   *
+   * @return the average in nanoseconds, or 0 if none was recorded
+   */
+  public long deltaNanos() {
+    return deltaNanos.get();
+  }
+
+  /**
+   * Decides whether a hit on a key should refresh its entry. Only Caffeine
+   * caches with per-entry expiry report the time an entry has left; entries of
+   * other caches are never refreshed early.
+   *
+   * @param cache the cache the key was found in
+   * @param key the key hit
+   * @return {@code true} if the entry should be refreshed now
+   */
+  public boolean isDue(final Cache cache, final Object key) {
+    boolean due = false;
+    if (cache instanceof CaffeineCache caffeineCache) {
+      final long remaining =
+          caffeineCache
+              .getNativeCache()
+              .policy()
+              .expireVariably()
+              .map(expiry -> expiry.getExpiresAfter(key, TimeUnit.NANOSECONDS).orElse(0))
+              .orElse(0L);
+      // -ln of a draw in (0, 1] is exponentially distributed with mean 1.
+      due =
+          remaining > 0
+              && deltaNanos.get() * beta * -Math.log(1 - random.getAsDouble()) >= remaining;
+      if (due) {
+        refreshes.increment();
+      }
+    }
+    return due;
+  }
+}
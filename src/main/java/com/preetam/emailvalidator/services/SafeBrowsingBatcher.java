@@ -0,0 +1,219 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Groups Safe Browsing checks from concurrent callers into multi-entry
+ * {@code threatMatches:find} requests.
+ *
+ * <p>The first domain submitted opens a batch, which is sent once the
+ * collection window has passed or once it reaches the size limit, whichever
+ * comes first. Each caller's future is completed from the shared response.
+ * A batch holding a single domain is sent as a plain single-entry check.
+ *
+ * <p>A caller that gives up before its batch is sent withdraws the domain,
+ * unless another caller is still waiting for it. Once sent, a batch is
+ * shared and runs to completion.
+ *
+ * <p>Window timers fire on a thread of their own, and batches are sent on the
+ * dedicated {@code safeBrowsingExecutor}, so neither step depends on the
+ * threads of the validations waiting on a check.
+ */
+@Service
+public class SafeBrowsingBatcher {
+
+  /** Logger for SafeBrowsingBatcher. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(SafeBrowsingBatcher.class);
+
+  /** Service sending the Safe Browsing requests. */
+  private final GoogleSafeBrowsingService googleService;
+
+  /** Executor running the blocking Safe Browsing requests. */
+  private final ExecutorService executor;
+
+  /** Fires the window timer of each batch, then hands the batch to {@link #executor}. */
+  private final ScheduledExecutorService windowTimer =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("safe-browsing-batch-window").daemon().factory());
+
+  /** How long a batch collects domains before it is sent. */
+  private final Duration window;
+
+  /** Maximum number of domains sent in one request. */
+  private final int maxBatchSize;
+
+  /** Guards {@link #pending} and the waiter counts of its entries. */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /** Domains collected for the next request, in submission order. */
+  private Map<String, Entry> pending = new LinkedHashMap<>();
+
+  /**
+   * Constructs a SafeBrowsingBatcher with the given settings.
+   *
+   * @param googleService service sending the Safe Browsing requests
+   * @param executor executor running the blocking requests
+   * @param window how long a batch collects domains before it is sent
+   * @param maxBatchSize maximum number of domains per request, capped at
+   *     {@link GoogleSafeBrowsingService#MAX_ENTRIES_PER_REQUEST}
+   */
+  public SafeBrowsingBatcher(
+      final GoogleSafeBrowsingService googleService,
+      @Qualifier("safeBrowsingExecutor") final ExecutorService executor,
+      @Value("${google.safebrowsing.batch.window:20ms}") final Duration window,
+      @Value("${google.safebrowsing.batch.max-size:500}") final int maxBatchSize) {
+    this.googleService = googleService;
+    this.executor = executor;
+    this.window = window;
+    this.maxBatchSize =
+        Math.clamp(maxBatchSize, 1, GoogleSafeBrowsingService.MAX_ENTRIES_PER_REQUEST);
+  }
+
+  /** Stops the window timer; batches still collecting are not sent. */
+  @PreDestroy
+  public void shutdown() {
+    windowTimer.shutdownNow();
+  }
+
+  /**
+   * Queues a domain for the next batch.
+   *
+   * @param domain the domain to check
+   * @return a future completed with the domain's result once its batch returns;
+   *     cancelling it, or timing it out, withdraws the domain if no other caller
+   *     is waiting for it
+   */
+  public CompletableFuture<SafeBrowsingResult> check(final String domain) {
+    final CompletableFuture<SafeBrowsingResult> view;
+    Map<String, Entry> full = null;
+    lock.lock();
+    try {
+      final Map<String, Entry> batch = pending;
+      if (batch.isEmpty()) {
+        windowTimer.schedule(
+            () -> send(takeIfPending(batch)), window.toNanos(), TimeUnit.NANOSECONDS);
+      }
+      final Entry entry = batch.computeIfAbsent(domain, key -> new Entry());
+      entry.waiters++;
+      view = entry.result.copy();
+      view.whenComplete((result, ex) -> withdrawIfAbandoned(view, batch, domain, entry));
+      if (batch.size() >= maxBatchSize) {
+        full = batch;
+        pending = new LinkedHashMap<>();
+      }
+    } finally {
+      lock.unlock();
+    }
+    send(full);
+    return view;
+  }
+
+  private Map<String, Entry> takeIfPending(final Map<String, Entry> batch) {
+    lock.lock();
+    try {
+      Map<String, Entry> taken = null;
+      if (pending == batch) {
+        taken = batch;
+        pending = new LinkedHashMap<>();
+      }
+      return taken;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void withdrawIfAbandoned(
+      final CompletableFuture<SafeBrowsingResult> view,
+      final Map<String, Entry> batch,
+      final String domain,
+      final Entry entry) {
+    // A view fails on its own only when its caller cancels it or times it out.
+    if (view.isCompletedExceptionally() && !entry.result.isDone()) {
+      lock.lock();
+      try {
+        entry.waiters--;
+        if (entry.waiters == 0 && pending == batch) {
+          batch.remove(domain);
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Sends a batch, or does nothing if it is {@code null} or every domain in it
+   * was withdrawn.
+   */
+  private void send(final Map<String, Entry> batch) {
+    if (batch != null && !batch.isEmpty()) {
+      executor.execute(() -> dispatch(batch));
+    }
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void dispatch(final Map<String, Entry> batch) {
+    getLogger().debug("Sending Safe Browsing batch of {} domains", batch.size());
+    try {
+      if (batch.size() == 1) {
+        final Map.Entry<String, Entry> only = batch.entrySet().iterator().next();
+        only.getValue().result.complete(googleService.checkDomain(only.getKey()));
+      } else {
+        final Map<String, SafeBrowsingResult> results = googleService.checkDomains(batch.keySet());
+        batch.forEach((domain, entry) -> settle(domain, entry, results.get(domain)));
+      }
+    } catch (RuntimeException e) {
+      batch.values().forEach(entry -> entry.result.completeExceptionally(e));
+    }
+  }
+
+  /**
+   * Completes a batched domain with its result, or fails it when the answer
+   * left the domain out, so callers never see a {@code null} result.
+   */
+  private static void settle(
+      final String domain, final Entry entry, final SafeBrowsingResult result) {
+    if (result == null) {
+      entry.result.completeExceptionally(
+          new IllegalStateException("Safe Browsing answer has no result for " + domain));
+    } else {
+      entry.result.complete(result);
+    }
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+
+  /** A domain waiting in a batch, shared by every caller that submitted it. */
+  private static final class Entry {
+
+    /** Completed with the domain's result once the batch returns. */
+    private final CompletableFuture<SafeBrowsingResult> result = new CompletableFuture<>();
+
+    /** Callers still waiting for the result; guarded by the batcher's lock. */
+    private int waiters;
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.preetam.emailvalidator.jfr.SafeBrowsingCheckEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Protects verdict lookups from a slow or failing Safe Browsing API.
+ *
+ * <p>Each check is bounded by a deadline, counted against a bulkhead of
+ * pending checks and guarded by a {@link CircuitBreaker}. Timeouts and API
+ * errors trip the breaker; while it is open, or while the bulkhead is full,
+ * checks fail immediately with a {@link RejectedExecutionException} instead of
+ * waiting on the API. Shed checks are counted in
+ * {@code email.validator.safebrowsing.shed}, tagged with the reason; checks
+ * that go through are timed in {@code email.validator.safebrowsing.checks},
+ * tagged with their outcome. Every check, shed or not, is also recorded as a
+ * {@link SafeBrowsingCheckEvent} for Flight Recorder.
+ *
+ * <p>What a failed or shed check reports is set by
+ * {@code google.safebrowsing.outage-policy}; see {@link #fallback(String)}.
+ */
+@Service
+public class SafeBrowsingGuard {
+
+  /** Name of the counter reporting shed checks. */
+  public static final String SHED_METRIC = "email.validator.safebrowsing.shed";
+
+  /** Name of the timer reporting checks that went through. */
+  public static final String CHECK_METRIC = "email.validator.safebrowsing.checks";
+
+  /** What {@code isSafe} reports when a check fails or is shed. */
+  public enum OutagePolicy {
+    /** Report the domain's safety as unknown. */
+    UNKNOWN,
+    /** Report the domain's last successful result, or unknown if there is none. */
+    LAST_KNOWN,
+    /** Report the domain as safe. */
+    ASSUME_SAFE
+  }
+
+  /** Batches the checks that go through. */
+  private final SafeBrowsingBatcher batcher;
+
+  /** Deadline for each check. */
+  private final Duration timeout;
+
+  /** Breaker tripped by failed and timed-out checks. */
+  private final CircuitBreaker breaker;
+
+  /** Slots for pending checks. */
+  private final Semaphore bulkhead;
+
+  /** What failed or shed checks report. */
+  private final OutagePolicy outagePolicy;
+
+  /** Last successful result per domain; only filled under {@link OutagePolicy#LAST_KNOWN}. */
+  private final Cache<String, Boolean> lastKnown;
+
+  /** Checks shed because the breaker was open. */
+  private final Counter shedOpen;
+
+  /** Checks shed because the bulkhead was full. */
+  private final Counter shedFull;
+
+  /** Registry receiving the check timers. */
+  private final MeterRegistry registry;
+
+  /**
+   * Constructs a SafeBrowsingGuard with the given settings.
+   *
+   * @param batcher batcher sending the checks
+   * @param timeout deadline for each check
+   * @param failureThreshold consecutive failures that open the breaker
+   * @param openDuration how long the breaker stays open before probing
+   * @param maxPending maximum number of checks pending at once
+   * @param outagePolicy what failed or shed checks report
+   * @param lastKnownSize maximum number of domains whose last result is kept
+   * @param registry the registry receiving the metrics
+   */
+  @SuppressWarnings("PMD.ExcessiveParameterList")
+  public SafeBrowsingGuard(
+      final SafeBrowsingBatcher batcher,
+      @Value("${email.validator.verdict.safe-browsing-timeout:5s}") final Duration timeout,
+      @Value("${google.safebrowsing.circuit.failure-threshold:5}") final int failureThreshold,
+      @Value("${google.safebrowsing.circuit.open-duration:30s}") final Duration openDuration,
+      @Value("${google.safebrowsing.bulkhead.max-pending:1000}") final int maxPending,
+      @Value("${google.safebrowsing.outage-policy:UNKNOWN}") final OutagePolicy outagePolicy,
+      @Value("${google.safebrowsing.last-known.max-size:100000}") final long lastKnownSize,
+      final MeterRegistry registry) {
+    this.batcher = batcher;
+    this.timeout = timeout;
+    this.breaker = new CircuitBreaker("safebrowsing", failureThreshold, openDuration, registry);
+    this.bulkhead = new Semaphore(maxPending);
+    this.outagePolicy = outagePolicy;
+    this.lastKnown = Caffeine.newBuilder().maximumSize(lastKnownSize).build();
+    this.shedOpen = shedCounter("circuit-open", registry);
+    this.shedFull = shedCounter("bulkhead-full", registry);
+    this.registry = registry;
+  }
+
+  private static Counter shedCounter(final String reason, final MeterRegistry registry) {
+    return Counter.builder(SHED_METRIC)
+        .description("Safe Browsing checks failed fast instead of calling the API")
+        .tag("reason", reason)
+        .register(registry);
+  }
+
+  /**
+   * Checks a domain unless the API is known to be failing or overloaded.
+   *
+   * @param domain the domain to check
+   * @return a future completed with the domain's result; it fails with a
+   *     {@link RejectedExecutionException} when the check is shed, and with a
+   *     {@link java.util.concurrent.TimeoutException} past the deadline.
+   *     Cancelling it withdraws the domain from a batch not sent yet.
+   */
+  public CompletableFuture<SafeBrowsingResult> check(final String domain) {
+    final SafeBrowsingCheckEvent event = new SafeBrowsingCheckEvent(domain);
+    final CompletableFuture<SafeBrowsingResult> result;
+    if (!bulkhead.tryAcquire()) {
+      shedFull.increment();
+      event.complete("bulkhead-full");
+      result = CompletableFuture.failedFuture(new RejectedExecutionException("bulkhead full"));
+    } else if (breaker.tryAcquire()) {
+      final Timer.Sample sample = Timer.start(registry);
+      final CompletableFuture<SafeBrowsingResult> call =
+          batcher.check(domain).orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+      // Callers see the result only once the breaker has recorded it. They get a copy,
+      // so that cancelling it still runs the bookkeeping attached to the call.
+      final CompletableFuture<SafeBrowsingResult> settled =
+          call.whenComplete((answer, ex) -> settle(domain, sample, event, answer, ex)).copy();
+      settled.whenComplete(
+          (answer, ex) -> {
+            if (settled.isCancelled()) {
+              call.cancel(true);
+            }
+          });
+      result = settled;
+    } else {
+      bulkhead.release();
+      shedOpen.increment();
+      event.complete("circuit-open");
+      result = CompletableFuture.failedFuture(new RejectedExecutionException("circuit open"));
+    }
+    return result;
+  }
+
+  private void settle(
+      final String domain,
+      final Timer.Sample sample,
+      final SafeBrowsingCheckEvent event,
+      final SafeBrowsingResult answer,
+      final Throwable ex) {
+    bulkhead.release();
+    final String outcome;
+    if (ex == null) {
+      breaker.onSuccess();
+      if (outagePolicy == OutagePolicy.LAST_KNOWN) {
+        lastKnown.put(domain, answer.safe());
+      }
+      outcome = answer.safe() ? "safe" : "unsafe";
+    } else if (ex instanceof CancellationException) {
+      breaker.onIgnored();
+      outcome = "cancelled";
+    } else {
+      breaker.onFailure();
+      outcome = ex instanceof TimeoutException ? "timeout" : "error";
+    }
+    event.complete(outcome);
+    sample.stop(
+        Timer.builder(CHECK_METRIC)
+            .description("Safe Browsing checks that went through the guard")
+            .tag("outcome", outcome)
+            .register(registry));
+  }
+
+  /**
+   * Returns what {@code isSafe} reports for a domain whose check failed or was shed.
+   *
+   * @param domain the domain checked
+   * @return {@code null} for unknown, or the value given by the outage policy
+   */
+  public Boolean fallback(final String domain) {
+    return switch (outagePolicy) {
+      case UNKNOWN -> null;
+      case LAST_KNOWN -> lastKnown.getIfPresent(domain);
+      case ASSUME_SAFE -> Boolean.TRUE;
+    };
+  }
+
+  /**
+   * Returns the state of the breaker.
+   *
+   * @return the breaker state
+   */
+  public CircuitBreaker.State circuitState() {
+    return breaker.state();
+  }
+}
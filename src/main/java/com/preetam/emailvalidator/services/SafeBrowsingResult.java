@@ -0,0 +1,16 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.time.Duration;
+
+/**
+ * Result of a Safe Browsing check for one domain.
+ *
+ * @param safe {@code true} if no threat matched the domain
+ * @param cacheDuration how long Safe Browsing allows the result to be cached, or
+ *     {@code null} if the response did not say
+ */
+public record SafeBrowsingResult(boolean safe, Duration cacheDuration) {}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent calls for the same key into a single upstream call.
+ *
+ * <p>The first caller for a key becomes the leader and runs the call; every
+ * caller arriving while it is in flight waits on the leader's result instead
+ * of starting its own. The key is released as soon as the call settles, so
+ * results are never served from here once they are stale: longer-lived reuse
+ * is the caches' job.
+ *
+ * <p>Leader and coalesced calls are counted in
+ * {@code email.validator.singleflight.calls}, tagged with the flight name and
+ * the outcome.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+  /** Name of the counter reporting leader and coalesced calls. */
+  public static final String METRIC_NAME = "email.validator.singleflight.calls";
+
+  /** Calls currently in flight, by key. */
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /** Calls that started an upstream call. */
+  private final Counter leaders;
+
+  /** Calls that waited on another caller's upstream call. */
+  private final Counter coalesced;
+
+  /**
+   * Constructs a SingleFlight registering its counters under the given name.
+   *
+   * @param name the flight name, used as the {@code flight} tag
+   * @param registry the registry receiving the counters
+   */
+  public SingleFlight(final String name, final MeterRegistry registry) {
+    this.leaders = counter(name, "leader", registry);
+    this.coalesced = counter(name, "coalesced", registry);
+  }
+
+  private static Counter counter(
+      final String name, final String outcome, final MeterRegistry registry) {
+    return Counter.builder(METRIC_NAME)
+        .description("Lookups that started an upstream call or joined one already in flight")
+        .tag("flight", name)
+        .tag("outcome", outcome)
+        .register(registry);
+  }
+
+  /**
+   * Runs the call for a key, or joins the one already in flight for it.
+   *
+   * <p>Each caller gets its own view of the shared result, so cancelling it
+   * does not affect the other waiters.
+   *
+   * @param key the key to coalesce on
+   * @param call starts the upstream call; invoked only by the leader
+   * @return a future completed with the upstream call's result
+   */
+  public CompletableFuture<V> execute(
+      final K key, final Function<? super K, CompletableFuture<V>> call) {
+    final CompletableFuture<V> promise = new CompletableFuture<>();
+    final CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+    CompletableFuture<V> shared;
+    if (existing == null) {
+      leaders.increment();
+      start(key, promise, call);
+      shared = promise;
+    } else {
+      coalesced.increment();
+      shared = existing;
+    }
+    return shared.copy();
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void start(
+      final K key,
+      final CompletableFuture<V> promise,
+      final Function<? super K, CompletableFuture<V>> call) {
+    try {
+      call.apply(key)
+          .whenComplete(
+              (value, ex) -> {
+                inFlight.remove(key, promise);
+                if (ex == null) {
+                  promise.complete(value);
+                } else {
+                  promise.completeExceptionally(ex);
+                }
+              });
+    } catch (RuntimeException e) {
+      inFlight.remove(key, promise);
+      promise.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Returns the number of keys with a call in flight.
+   *
+   * @return the number of in-flight keys
+   */
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+}
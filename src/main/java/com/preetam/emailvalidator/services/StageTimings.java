@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Time spent in each stage of a single validation.
+ *
+ * <p>The Safe Browsing and MX stages are recorded by the threads completing
+ * those checks, so the times are kept in an atomic array. A stage the
+ * validation did not go through, such as the domain checks on a cache hit,
+ * stays at zero.
+ */
+public final class StageTimings {
+
+  /** Nanoseconds per millisecond. */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /** The stages of a validation. */
+  public enum Stage {
+    /** Reading the response cache. */
+    CACHE,
+    /** Parsing the address. */
+    SYNTAX,
+    /** Extracting the domain from the parsed address. */
+    DOMAIN,
+    /** Checking the domain against Google Safe Browsing. */
+    SAFE_BROWSING,
+    /** Looking up the domain's MX records. */
+    MX,
+    /** Checking the domain against the disposable domain index. */
+    DISPOSABLE;
+
+    /**
+     * Returns the name of the stage in metrics and logs.
+     *
+     * @return the lowercase stage name
+     */
+    public String tag() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  /** Nanoseconds spent per stage, indexed by ordinal. */
+  private final AtomicLongArray nanos = new AtomicLongArray(Stage.values().length);
+
+  /**
+   * Adds time spent in a stage.
+   *
+   * @param stage the stage
+   * @param elapsed the time spent, in nanoseconds
+   */
+  public void add(final Stage stage, final long elapsed) {
+    nanos.addAndGet(stage.ordinal(), elapsed);
+  }
+
+  /**
+   * Returns the time spent in a stage.
+   *
+   * @param stage the stage
+   * @return the time spent, in nanoseconds
+   */
+  public long nanos(final Stage stage) {
+    return nanos.get(stage.ordinal());
+  }
+
+  /**
+   * Returns the time spent in every stage, in stage order.
+   *
+   * @return the time spent per stage name, in milliseconds
+   */
+  public Map<String, Double> millis() {
+    final Map<String, Double> millis = new LinkedHashMap<>();
+    for (final Stage stage : Stage.values()) {
+      millis.put(stage.tag(), nanos(stage) / NANOS_PER_MILLI);
+    }
+    return millis;
+  }
+
+  @Override
+  public String toString() {
+    return millis().toString();
+  }
+}
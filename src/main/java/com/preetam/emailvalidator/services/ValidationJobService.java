@@ -0,0 +1,482 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import com.preetam.emailvalidator.models.ValidationJob;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs bulk validation jobs in the background with progress checkpointed to disk.
+ *
+ * <p>Each job lives in its own directory under {@code email.validator.jobs.dir}:
+ * the submitted addresses ({@code input.txt}, one per line), the NDJSON results
+ * written so far ({@code results.ndjson}) and a checkpoint recording how many
+ * lines and bytes of results are durable. On startup, unfinished jobs are
+ * resumed from their last checkpoint instead of being re-resolved from scratch.
+ *
+ * <p>Finished jobs are kept for {@code email.validator.jobs.retention} after
+ * they complete or fail, then forgotten and their directory deleted. Expired
+ * jobs are looked for every retention period, at least every hour and at
+ * most every second.
+ */
+@Service
+public class ValidationJobService {
+
+  /** Logger for ValidationJobService. */
+  public static final Logger LOGGER = LoggerFactory.getLogger(ValidationJobService.class);
+
+  /** File holding the submitted addresses, one per line. */
+  private static final String INPUT_FILE = "input.txt";
+
+  /** File holding the NDJSON results written so far. */
+  private static final String RESULTS_FILE = "results.ndjson";
+
+  /** File holding the last durable checkpoint. */
+  private static final String CHECKPOINT_FILE = "checkpoint.properties";
+
+  /** Longest time between two looks for expired jobs. */
+  private static final Duration MAX_CLEANUP_INTERVAL = Duration.ofHours(1);
+
+  /** Shortest time between two looks for expired jobs. */
+  private static final Duration MIN_CLEANUP_INTERVAL = Duration.ofSeconds(1);
+
+  /** Service validating the job's lines with bounded concurrency. */
+  private final EmailStreamService streamService;
+
+  /** Directory under which job directories are created. */
+  private final Path jobsDir;
+
+  /** Number of result lines between two durable checkpoints. */
+  private final long checkpointInterval;
+
+  /** Executor running jobs; each job occupies one thread. */
+  private final ExecutorService jobExecutor;
+
+  /** How long finished jobs are kept. */
+  private final Duration retention;
+
+  /** Known jobs by identifier. */
+  private final Map<String, JobRecord> jobs = new ConcurrentHashMap<>();
+
+  /** Removes expired jobs in the background. */
+  private final ScheduledExecutorService cleaner =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("validation-job-cleanup").daemon().factory());
+
+  /**
+   * Constructs a ValidationJobService with the given dependencies.
+   *
+   * @param streamService service validating newline-delimited input
+   * @param jobsDir directory storing job inputs, results and checkpoints
+   * @param concurrency maximum number of jobs running at once
+   * @param checkpointInterval number of results between checkpoints
+   * @param retention how long a job is kept after it finished
+   */
+  public ValidationJobService(
+      final EmailStreamService streamService,
+      @Value("${email.validator.jobs.dir:jobs}") final String jobsDir,
+      @Value("${email.validator.jobs.concurrency:2}") final int concurrency,
+      @Value("${email.validator.jobs.checkpoint-interval:1000}") final long checkpointInterval,
+      @Value("${email.validator.jobs.retention:24h}") final Duration retention) {
+    this.streamService = streamService;
+    this.jobsDir = Paths.get(jobsDir);
+    this.checkpointInterval = checkpointInterval;
+    this.retention = retention;
+    this.jobExecutor = Executors.newFixedThreadPool(concurrency);
+  }
+
+  /**
+   * Stores the submitted addresses on disk and queues a job to validate them.
+   *
+   * @param body newline-delimited addresses, plain or as JSON objects
+   * @return the queued job
+   * @throws IOException if the input cannot be stored
+   */
+  public ValidationJob submit(final InputStream body) throws IOException {
+    final String id = UUID.randomUUID().toString();
+    final Path dir = Files.createDirectories(jobsDir.resolve(id));
+    long total = 0;
+    try (BufferedReader reader =
+            new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        BufferedWriter writer =
+            Files.newBufferedWriter(dir.resolve(INPUT_FILE), StandardCharsets.UTF_8)) {
+      for (String line = streamService.readLine(reader);
+          line != null;
+          line = streamService.readLine(reader)) {
+        // A line cut for being too long is kept cut, so that the job reports it as such.
+        final String email =
+            streamService.isTooLong(line) ? line : streamService.extractAddress(line);
+        if (email != null) {
+          writer.write(email.replace('\n', ' ').replace('\r', ' '));
+          writer.newLine();
+          total++;
+        }
+      }
+    }
+    final JobRecord job = new JobRecord(id, dir, total);
+    job.persist();
+    jobs.put(id, job);
+    jobExecutor.execute(() -> run(job));
+    getLogger().info("Queued validation job {} with {} addresses", id, total);
+    return job.toModel();
+  }
+
+  /**
+   * Returns the current progress of a job.
+   *
+   * @param id the job identifier
+   * @return the job, or empty if unknown
+   */
+  public Optional<ValidationJob> status(final String id) {
+    return Optional.ofNullable(jobs.get(id)).map(JobRecord::toModel);
+  }
+
+  /**
+   * Returns the results file of a job; it holds every result validated so far.
+   *
+   * @param id the job identifier
+   * @return path to the NDJSON results, or empty if the job is unknown
+   */
+  public Optional<Path> results(final String id) {
+    return Optional.ofNullable(jobs.get(id)).map(job -> job.dir.resolve(RESULTS_FILE));
+  }
+
+  /**
+   * Reloads jobs found on disk and resumes those that had not finished.
+   *
+   * @throws IOException if the jobs directory cannot be read
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void resumeJobs() throws IOException {
+    if (!Files.isDirectory(jobsDir)) {
+      return;
+    }
+    try (DirectoryStream<Path> dirs = Files.newDirectoryStream(jobsDir, Files::isDirectory)) {
+      for (final Path dir : dirs) {
+        if (Files.exists(dir.resolve(CHECKPOINT_FILE))) {
+          final JobRecord job = JobRecord.load(dir);
+          if (jobs.putIfAbsent(job.id, job) == null && !job.isFinished()) {
+            getLogger().info("Resuming validation job {} at {}", job.id, job.checkpointLines);
+            jobExecutor.execute(() -> run(job));
+          }
+        }
+      }
+    }
+  }
+
+  /** Starts looking for expired jobs once the application is ready. */
+  @EventListener(ApplicationReadyEvent.class)
+  public void startCleanup() {
+    final long interval =
+        Math.clamp(
+            retention.toNanos(), MIN_CLEANUP_INTERVAL.toNanos(), MAX_CLEANUP_INTERVAL.toNanos());
+    cleaner.scheduleWithFixedDelay(
+        this::removeExpiredJobs, interval, interval, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Forgets the jobs that finished more than the retention period ago and
+   * deletes their directories. A directory that cannot be deleted is left for
+   * the next run after a restart, when the job is loaded again.
+   */
+  public void removeExpiredJobs() {
+    final long cutoff = System.currentTimeMillis() - retention.toMillis();
+    for (final JobRecord job : jobs.values()) {
+      if (job.finishedAtMillis != 0 && job.finishedAtMillis <= cutoff) {
+        jobs.remove(job.id);
+        try {
+          deleteDirectory(job.dir);
+          getLogger().info("Removed expired validation job {}", job.id);
+        } catch (IOException | UncheckedIOException e) {
+          getLogger().warn("Could not delete the files of expired job {}", job.id, e);
+        }
+      }
+    }
+  }
+
+  private static void deleteDirectory(final Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      for (final Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  /** Stops running jobs; they resume from their last checkpoint on the next start. */
+  @PreDestroy
+  public void shutdown() {
+    jobExecutor.shutdownNow();
+    cleaner.shutdownNow();
+  }
+
+  @SuppressWarnings("PMD.AvoidCatchingGenericException")
+  private void run(final JobRecord job) {
+    try {
+      job.state = ValidationJob.State.RUNNING;
+      job.persist();
+      try (FileChannel channel =
+              FileChannel.open(
+                  job.dir.resolve(RESULTS_FILE),
+                  StandardOpenOption.CREATE,
+                  StandardOpenOption.WRITE);
+          BufferedReader reader =
+              Files.newBufferedReader(job.dir.resolve(INPUT_FILE), StandardCharsets.UTF_8)) {
+        channel.truncate(job.checkpointBytes);
+        channel.position(job.checkpointBytes);
+        skipLines(reader, job.checkpointLines);
+
+        final CheckpointingOutputStream output = new CheckpointingOutputStream(channel, job);
+        streamService.validateStream(reader, output);
+        output.checkpoint();
+      }
+      job.finish(ValidationJob.State.COMPLETED);
+      getLogger().info("Completed validation job {}", job.id);
+    } catch (InterruptedIOException | ClosedByInterruptException e) {
+      getLogger().info("Validation job {} interrupted at {}", job.id, job.checkpointLines);
+    } catch (IOException | RuntimeException e) {
+      getLogger().error("Validation job {} failed", job.id, e);
+      try {
+        job.finish(ValidationJob.State.FAILED);
+      } catch (IOException persistError) {
+        getLogger().error("Could not record failure of job {}", job.id, persistError);
+      }
+    }
+  }
+
+  private static void skipLines(final BufferedReader reader, final long lines) throws IOException {
+    for (long i = 0; i < lines; i++) {
+      reader.readLine();
+    }
+  }
+
+  /**
+   *
+   * @return LOGGER instance
+   */
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+
+  /** Mutable state of one job, shared between its worker and status readers. */
+  private static final class JobRecord {
+
+    /** Job identifier, also the name of its directory. */
+    private final String id;
+
+    /** Directory holding the job's files. */
+    private final Path dir;
+
+    /** Number of addresses submitted. */
+    private final long total;
+
+    /** Current lifecycle state. */
+    private volatile ValidationJob.State state = ValidationJob.State.QUEUED;
+
+    /** Number of results written, including those not yet checkpointed. */
+    private volatile long processed;
+
+    /** Number of results covered by the last durable checkpoint. */
+    private long checkpointLines;
+
+    /** Size in bytes of the results covered by the last durable checkpoint. */
+    private long checkpointBytes;
+
+    /** When the job finished, in epoch milliseconds, or 0 while it has not. */
+    private volatile long finishedAtMillis;
+
+    private JobRecord(final String id, final Path dir, final long total) {
+      this.id = id;
+      this.dir = dir;
+      this.total = total;
+    }
+
+    private static JobRecord load(final Path dir) throws IOException {
+      final Properties props = new Properties();
+      try (Reader reader =
+          Files.newBufferedReader(dir.resolve(CHECKPOINT_FILE), StandardCharsets.UTF_8)) {
+        props.load(reader);
+      }
+      final JobRecord job =
+          new JobRecord(
+              dir.getFileName().toString(), dir, Long.parseLong(props.getProperty("total")));
+      job.state = ValidationJob.State.valueOf(props.getProperty("state"));
+      job.checkpointLines = Long.parseLong(props.getProperty("lines"));
+      job.checkpointBytes = Long.parseLong(props.getProperty("bytes"));
+      job.processed = job.checkpointLines;
+      final String finished = props.getProperty("finished");
+      if (finished != null) {
+        job.finishedAtMillis = Long.parseLong(finished);
+      } else if (job.isFinished()) {
+        // Written before finishing times were recorded: the last checkpoint is close enough.
+        job.finishedAtMillis =
+            Files.getLastModifiedTime(dir.resolve(CHECKPOINT_FILE)).toMillis();
+      }
+      return job;
+    }
+
+    private boolean isFinished() {
+      return state == ValidationJob.State.COMPLETED || state == ValidationJob.State.FAILED;
+    }
+
+    /**
+     * Records the final state of the job. The job becomes eligible for removal
+     * only once that has been attempted, so its files are not deleted while
+     * they are still being written.
+     */
+    private void finish(final ValidationJob.State finalState) throws IOException {
+      final long now = System.currentTimeMillis();
+      state = finalState;
+      try {
+        persist(now);
+      } finally {
+        finishedAtMillis = now;
+      }
+    }
+
+    private void persist() throws IOException {
+      persist(finishedAtMillis);
+    }
+
+    private void persist(final long finishedAt) throws IOException {
+      final Properties props = new Properties();
+      props.setProperty("state", state.name());
+      props.setProperty("total", Long.toString(total));
+      props.setProperty("lines", Long.toString(checkpointLines));
+      props.setProperty("bytes", Long.toString(checkpointBytes));
+      if (finishedAt != 0) {
+        props.setProperty("finished", Long.toString(finishedAt));
+      }
+
+      final Path tmp = dir.resolve(CHECKPOINT_FILE + ".tmp");
+      try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+        props.store(writer, null);
+      }
+      Files.move(
+          tmp,
+          dir.resolve(CHECKPOINT_FILE),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private ValidationJob toModel() {
+      final ValidationJob job = new ValidationJob();
+      job.setId(id);
+      job.setState(state);
+      job.setTotal(total);
+      job.setProcessed(processed);
+      return job;
+    }
+  }
+
+  /**
+   * Output stream over the results file that counts complete lines and periodically
+   * forces them to disk before recording a checkpoint. The stream service only flushes
+   * at line boundaries, so every flush is a safe place to checkpoint.
+   */
+  private final class CheckpointingOutputStream extends OutputStream {
+
+    /** Channel of the results file, used to force written data to disk. */
+    private final FileChannel channel;
+
+    /** Stream writing to {@link #channel}. */
+    private final OutputStream out;
+
+    /** Job whose progress is tracked. */
+    private final JobRecord job;
+
+    /** Total results written, including those from previous runs. */
+    private long lines;
+
+    /** Total bytes of results written, including those from previous runs. */
+    private long bytes;
+
+    private CheckpointingOutputStream(final FileChannel channel, final JobRecord job) {
+      super();
+      this.channel = channel;
+      this.out = Channels.newOutputStream(channel);
+      this.job = job;
+      this.lines = job.checkpointLines;
+      this.bytes = job.checkpointBytes;
+    }
+
+    @Override
+    public void write(final int value) throws IOException {
+      out.write(value);
+      bytes++;
+      if (value == '\n') {
+        lines++;
+      }
+    }
+
+    @Override
+    public void write(final byte[] buffer, final int offset, final int length)
+        throws IOException {
+      out.write(buffer, offset, length);
+      bytes += length;
+      for (int i = offset; i < offset + length; i++) {
+        if (buffer[i] == '\n') {
+          lines++;
+        }
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+      job.processed = lines;
+      if (lines - job.checkpointLines >= checkpointInterval) {
+        checkpoint();
+      }
+      if (Thread.currentThread().isInterrupted()) {
+        throw new InterruptedIOException("Validation job " + job.id + " interrupted");
+      }
+    }
+
+    private void checkpoint() throws IOException {
+      channel.force(false);
+      job.checkpointLines = lines;
+      job.checkpointBytes = bytes;
+      job.persist();
+    }
+  }
+}
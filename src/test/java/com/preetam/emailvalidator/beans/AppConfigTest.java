@@ -6,10 +6,16 @@ package com.preetam.emailvalidator.beans;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.preetam.emailvalidator.configurations.OutboundBulkhead;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
 /** Tests for the application configuration. */
@@ -26,4 +32,37 @@ class AppConfigTest {
   void restTemplateBeanShouldBeAvailable() {
     assertThat(restTemplate).isNotNull();
   }
+
+  /** Verifies that the RestTemplate uses the pooled JDK client and the bulkhead. */
+  @Test
+  void restTemplateUsesPooledClientAndBulkhead() {
+    // getRequestFactory() wraps the configured factory once interceptors are registered.
+    assertThat(ReflectionTestUtils.getField(restTemplate, "requestFactory"))
+        .isInstanceOf(JdkClientHttpRequestFactory.class);
+    assertThat(restTemplate.getInterceptors()).hasAtLeastOneElementOfType(OutboundBulkhead.class);
+  }
+
+  /** Verifies that the outbound client prefers HTTP/2 and bounds connection setup. */
+  @Test
+  void outboundHttpClientUsesHttp2AndConnectTimeout() {
+    try (HttpClient client = new AppConfig().outboundHttpClient(Duration.ofSeconds(3))) {
+      assertThat(client.version()).isEqualTo(HttpClient.Version.HTTP_2);
+      assertThat(client.connectTimeout()).contains(Duration.ofSeconds(3));
+      assertThat(client.followRedirects()).isEqualTo(HttpClient.Redirect.NEVER);
+    }
+  }
+
+  /** Verifies that the Safe Browsing executor follows the virtual-thread setting. */
+  @Test
+  void safeBrowsingExecutorFollowsVirtualThreadSetting() throws Exception {
+    final ExecutorService platform = new AppConfig().safeBrowsingExecutor(2, false);
+    final ExecutorService virtual = new AppConfig().safeBrowsingExecutor(2, true);
+    try {
+      assertThat(platform.submit(() -> Thread.currentThread().isVirtual()).get()).isFalse();
+      assertThat(virtual.submit(() -> Thread.currentThread().isVirtual()).get()).isTrue();
+    } finally {
+      platform.shutdown();
+      virtual.shutdown();
+    }
+  }
 }
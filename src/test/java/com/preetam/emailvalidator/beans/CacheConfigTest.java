@@ -4,10 +4,16 @@
 
 package com.preetam.emailvalidator.beans;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cache.CacheManager;
@@ -21,6 +27,9 @@ import org.springframework.cache.caffeine.CaffeineCacheManager;
 @SpringBootTest(classes = CacheConfig.class)
 class CacheConfigTest {
 
+  /** Directory holding the verdict store opened by the tiered configuration test. */
+  @TempDir private Path dir;
+
   /** Injected cache manager used for cache configuration validation. */
   @Autowired private CacheManager cacheManager;
 
@@ -52,4 +61,34 @@ class CacheConfigTest {
         manager.getCache("emailValidationCache"),
         "emailValidationCache should be present in CacheManager");
   }
+
+  /** Test that the cache manager contains a cache named 'domainVerdictCache'. */
+  @Test
+  void cacheManagerContainsDomainVerdictCache() {
+    final CaffeineCacheManager manager = (CaffeineCacheManager) cacheManager;
+    assertNotNull(
+        manager.getCache("domainVerdictCache"),
+        "domainVerdictCache should be present in CacheManager");
+  }
+
+  /** Test that both caches are backed by the verdict store when one is configured. */
+  @Test
+  void cacheManagerBacksBothCachesWithTheVerdictStore() throws IOException {
+    final CacheConfig config = new CacheConfig();
+    final MappedVerdictStore store =
+        config.verdictStore(dir.resolve("verdicts.l2").toString(), 1024);
+    final VerdictExpiry expiry =
+        config.verdictExpiry(Duration.ofMinutes(1), Duration.ofHours(6), Duration.ofMinutes(30));
+    final CacheManager manager = config.cacheManager(expiry, Optional.of(store));
+
+    assertEquals(1024, store.capacity(), "Verdict store should have the configured capacity");
+    assertInstanceOf(
+        TieredCaffeineCache.class,
+        manager.getCache("emailValidationCache"),
+        "emailValidationCache should be backed by the verdict store");
+    assertInstanceOf(
+        TieredCaffeineCache.class,
+        manager.getCache("domainVerdictCache"),
+        "domainVerdictCache should be backed by the verdict store");
+  }
 }
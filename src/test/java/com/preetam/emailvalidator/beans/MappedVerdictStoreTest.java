@@ -0,0 +1,405 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.beans;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedStatic;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/** Unit tests for {@link MappedVerdictStore}. */
+@SuppressWarnings("PMD")
+class MappedVerdictStoreTest {
+
+  private static final long NOW = 1_000_000L;
+
+  private static final long LATER = NOW + 60_000;
+
+  @TempDir Path dir;
+
+  private Path file;
+
+  private final Clock clock = mock(Clock.class);
+
+  @BeforeEach
+  void setUp() {
+    file = dir.resolve("nested").resolve("verdicts.l2");
+    when(clock.millis()).thenReturn(NOW);
+  }
+
+  private MappedVerdictStore store(int capacity) throws IOException {
+    return new MappedVerdictStore(file, capacity, clock);
+  }
+
+  /** Maps the store file as another process would, to tamper with its slots. */
+  private MappedByteBuffer raw() throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+      mapped.order(ByteOrder.nativeOrder());
+      return mapped;
+    }
+  }
+
+  private static void setSequences(MappedByteBuffer raw, int capacity, long sequence) {
+    for (int slot = 0; slot < capacity; slot++) {
+      raw.putLong(64 + slot * 40, sequence);
+    }
+  }
+
+  @Test
+  void storesAndReadsEntries() throws IOException {
+    MappedVerdictStore store = store(64);
+
+    store.put("gmail.com", 42, LATER);
+    store.put("yahoo.com", 7, LATER + 1);
+
+    assertThat(store.capacity()).isEqualTo(64);
+    assertThat(store.get("gmail.com")).isEqualTo(new MappedVerdictStore.Entry(42, LATER));
+    assertThat(store.get("yahoo.com")).isEqualTo(new MappedVerdictStore.Entry(7, LATER + 1));
+    assertThat(store.get("absent.com")).isNull();
+  }
+
+  @Test
+  void publicConstructorUsesTheSystemClock() throws IOException {
+    MappedVerdictStore store = new MappedVerdictStore(file, 8);
+
+    store.put("gmail.com", 1, System.currentTimeMillis() + 60_000);
+
+    assertThat(store.get("gmail.com").value()).isEqualTo(1);
+  }
+
+  @Test
+  void overwritesAnExistingEntry() throws IOException {
+    MappedVerdictStore store = store(8);
+
+    store.put("gmail.com", 1, LATER);
+    store.put("gmail.com", 2, LATER + 5);
+    store.remove("gmail.com");
+
+    // A stale second copy would surface once the first is removed.
+    assertThat(store.get("gmail.com")).isNull();
+  }
+
+  @Test
+  void entriesSurviveReopening() throws IOException {
+    store(16).put("gmail.com", 42, LATER);
+    store(16).close();
+
+    assertThat(store(16).get("gmail.com")).isEqualTo(new MappedVerdictStore.Entry(42, LATER));
+  }
+
+  @Test
+  void instancesSharingAFileSeeEachOthersWrites() throws IOException {
+    MappedVerdictStore first = store(16);
+    MappedVerdictStore second = store(16);
+
+    first.put("gmail.com", 42, LATER);
+    second.remove("gmail.com");
+    second.put("yahoo.com", 7, LATER);
+
+    assertThat(first.get("gmail.com")).isNull();
+    assertThat(first.get("yahoo.com").value()).isEqualTo(7);
+  }
+
+  @Test
+  void expiredEntriesAreNotReturnedOrRemoved() throws IOException {
+    MappedVerdictStore store = store(8);
+    store.put("gmail.com", 42, LATER);
+
+    when(clock.millis()).thenReturn(LATER);
+
+    assertThat(store.get("gmail.com")).isNull();
+    assertThat(store.remove("gmail.com")).isFalse();
+    assertThat(store.removeIf(value -> true)).isZero();
+  }
+
+  @Test
+  void expiredEntriesAreReplacedFirst() throws IOException {
+    MappedVerdictStore store = store(8);
+    for (int index = 0; index < 8; index++) {
+      store.put("domain" + index + ".com", index, index == 5 ? NOW + 10 : LATER);
+    }
+
+    when(clock.millis()).thenReturn(NOW + 10);
+    store.put("new.com", 99, LATER);
+
+    assertThat(store.get("new.com").value()).isEqualTo(99);
+    for (int index = 0; index < 8; index++) {
+      assertThat(store.get("domain" + index + ".com")).isEqualTo(
+          index == 5 ? null : new MappedVerdictStore.Entry(index, LATER));
+    }
+  }
+
+  @Test
+  void fullChainReplacesTheEntryClosestToExpiry() throws IOException {
+    MappedVerdictStore store = store(8);
+    for (int index = 0; index < 8; index++) {
+      store.put("domain" + index + ".com", index, LATER + (index + 3) % 8);
+    }
+
+    assertThat(store.get("absent.com")).isNull();
+    store.put("new.com", 99, LATER);
+
+    assertThat(store.get("new.com").value()).isEqualTo(99);
+    // domain5.com expired soonest, at LATER + 0.
+    assertThat(store.get("domain5.com")).isNull();
+    assertThat(store.get("domain4.com").value()).isEqualTo(4);
+  }
+
+  @Test
+  void removedEntriesKeepLaterKeysOnTheirChainReachable() throws IOException {
+    MappedVerdictStore store = store(8);
+    List<String> keys = new ArrayList<>();
+    for (int index = 0; index < 8; index++) {
+      keys.add("domain" + index + ".com");
+      store.put(keys.get(index), index, LATER);
+    }
+
+    for (int index = 0; index < 8; index += 2) {
+      assertThat(store.remove(keys.get(index))).isTrue();
+    }
+
+    for (int index = 0; index < 8; index++) {
+      assertThat(store.get(keys.get(index)))
+          .isEqualTo(index % 2 == 0 ? null : new MappedVerdictStore.Entry(index, LATER));
+    }
+    assertThat(store.remove(keys.get(0))).isFalse();
+  }
+
+  @Test
+  void removeIfRemovesMatchingValues() throws IOException {
+    MappedVerdictStore store = store(32);
+    for (int index = 0; index < 10; index++) {
+      store.put("domain" + index + ".com", index, LATER);
+    }
+
+    assertThat(store.removeIf(value -> value % 2 == 0)).isEqualTo(5);
+
+    for (int index = 0; index < 10; index++) {
+      assertThat(store.get("domain" + index + ".com") == null).isEqualTo(index % 2 == 0);
+    }
+  }
+
+  @Test
+  void removeIfKeepsAnEntryRewrittenWhileItWasTested() throws IOException {
+    MappedVerdictStore store = store(8);
+    MappedVerdictStore other = store(8);
+    store.put("gmail.com", 1, LATER);
+
+    int removed =
+        store.removeIf(
+            value -> {
+              other.put("gmail.com", 2, LATER);
+              return true;
+            });
+
+    assertThat(removed).isZero();
+    assertThat(store.get("gmail.com").value()).isEqualTo(2);
+  }
+
+  @Test
+  void slotsBeingWrittenAreSkipped() throws IOException {
+    MappedVerdictStore store = store(8);
+    store.put("gmail.com", 42, LATER);
+    MappedByteBuffer raw = raw();
+    int written = 0;
+    for (int slot = 0; slot < 8; slot++) {
+      written = raw.getLong(64 + slot * 40) == 2 ? slot : written;
+    }
+    // Every slot looks mid-write, as if its writer had died.
+    setSequences(raw, 8, 1);
+    raw.putLong(64 + written * 40, 3);
+
+    store.put("yahoo.com", 7, LATER);
+
+    assertThat(store.get("gmail.com")).isNull();
+    assertThat(store.get("yahoo.com")).isNull();
+    assertThat(store.remove("gmail.com")).isFalse();
+    assertThat(store.removeIf(value -> true)).isZero();
+
+    raw.putLong(64 + written * 40, 4);
+
+    assertThat(store.get("gmail.com").value()).isEqualTo(42);
+  }
+
+  /** Returns the indexes of the slots that have ever been written. */
+  private static List<Integer> writtenSlots(MappedByteBuffer raw, int capacity) {
+    List<Integer> written = new ArrayList<>();
+    for (int slot = 0; slot < capacity; slot++) {
+      if (raw.getLong(64 + slot * 40) != 0) {
+        written.add(slot);
+      }
+    }
+    return written;
+  }
+
+  @Test
+  void keyWhoseSlotStaysBusyIsNotWrittenElsewhere() throws IOException {
+    MappedVerdictStore store = store(8);
+    store.put("gmail.com", 42, LATER);
+    MappedByteBuffer raw = raw();
+    int slot = writtenSlots(raw, 8).get(0);
+    // The key's slot looks mid-write, as if another writer were updating it.
+    raw.putLong(64 + slot * 40, 3);
+
+    store.put("gmail.com", 43, LATER);
+
+    assertThat(writtenSlots(raw, 8)).containsExactly(slot);
+    raw.putLong(64 + slot * 40, 4);
+    assertThat(store.get("gmail.com").value()).isEqualTo(42);
+  }
+
+  @Test
+  void busySlotOfAnotherKeyIsProbedPast() throws IOException {
+    MappedVerdictStore store = store(8);
+    store.put("gmail.com", 42, LATER);
+    MappedByteBuffer raw = raw();
+    int slot = writtenSlots(raw, 8).get(0);
+    // A key sharing the first half of the fingerprint is being written to the slot.
+    raw.putLong(64 + slot * 40 + 16, raw.getLong(64 + slot * 40 + 16) ^ 1);
+    raw.putLong(64 + slot * 40, 3);
+
+    store.put("gmail.com", 43, LATER);
+
+    assertThat(writtenSlots(raw, 8)).hasSize(2).contains(slot);
+    assertThat(store.get("gmail.com").value()).isEqualTo(43);
+  }
+
+  @Test
+  void concurrentWritersOfAKeyShareItsSlot() throws Exception {
+    MappedVerdictStore first = store(8);
+    MappedVerdictStore second = store(8);
+    AtomicBoolean running = new AtomicBoolean(true);
+    Thread thread =
+        new Thread(
+            () -> {
+              for (long value = 1; running.get(); value++) {
+                first.put("gmail.com", value, LATER);
+              }
+            });
+    thread.start();
+    try {
+      for (long value = 1; value <= 10_000; value++) {
+        second.put("gmail.com", -value, LATER);
+      }
+    } finally {
+      running.set(false);
+      thread.join();
+    }
+
+    assertThat(writtenSlots(raw(), 8)).hasSize(1);
+  }
+
+  @Test
+  void readersNeverSeeAHalfWrittenEntry() throws Exception {
+    MappedVerdictStore writer = store(8);
+    MappedVerdictStore reader = store(8);
+    writer.put("gmail.com", 0, LATER);
+    AtomicBoolean running = new AtomicBoolean(true);
+    Thread thread =
+        new Thread(
+            () -> {
+              for (long value = 1; running.get(); value++) {
+                writer.put("gmail.com", value, LATER + value);
+              }
+            });
+    thread.start();
+    try {
+      for (int read = 0; read < 10_000; read++) {
+        MappedVerdictStore.Entry entry = reader.get("gmail.com");
+        if (entry != null) {
+          assertThat(entry.expiresAtMillis()).isEqualTo(LATER + entry.value());
+        }
+      }
+    } finally {
+      running.set(false);
+      thread.join();
+    }
+  }
+
+  @Test
+  void rejectsCapacitiesOutOfRange() {
+    assertThatThrownBy(() -> store(7)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> store(MappedVerdictStore.MAX_CAPACITY + 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void rejectsAFileOfAnotherSize() throws IOException {
+    store(8);
+
+    assertThatThrownBy(() -> store(16))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("16 slots");
+  }
+
+  @Test
+  void rejectsAFileWithAnotherHeader() throws IOException {
+    store(8);
+    MappedByteBuffer raw = raw();
+
+    raw.putLong(8, 9);
+    assertThatThrownBy(() -> store(8)).isInstanceOf(IllegalStateException.class);
+
+    raw.putLong(8, 8);
+    raw.putInt(16, 48);
+    assertThatThrownBy(() -> store(8)).isInstanceOf(IllegalStateException.class);
+
+    raw.putInt(16, 40);
+    raw.putLong(0, 1);
+    assertThatThrownBy(() -> store(8)).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void initializesAFileWithoutAHeader() throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[64 + 8 * 40]);
+
+    MappedVerdictStore store = store(8);
+    store.put("gmail.com", 42, LATER);
+
+    assertThat(store(8).get("gmail.com").value()).isEqualTo(42);
+  }
+
+  @Test
+  void missingSha256IsReported() throws IOException {
+    MappedVerdictStore store = store(8);
+    // Digests are kept per thread, so drop the one earlier tests left on this thread.
+    ThreadLocal<?> digests =
+        (ThreadLocal<?>) ReflectionTestUtils.getField(MappedVerdictStore.class, "SHA_256");
+    digests.remove();
+    try (MockedStatic<MessageDigest> digest = mockStatic(MessageDigest.class)) {
+      digest
+          .when(() -> MessageDigest.getInstance(anyString()))
+          .thenThrow(new NoSuchAlgorithmException("missing"));
+
+      assertThatThrownBy(() -> store.get("gmail.com"))
+          .isInstanceOf(IllegalStateException.class)
+          .hasMessageContaining("SHA-256");
+    }
+  }
+}
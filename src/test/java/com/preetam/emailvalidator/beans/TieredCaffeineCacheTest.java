@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.beans;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.preetam.emailvalidator.models.DomainVerdict;
+import com.preetam.emailvalidator.models.MxResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link TieredCaffeineCache}. */
+@SuppressWarnings("PMD")
+class TieredCaffeineCacheTest {
+
+  private static final long NOW = 1_000_000_000L;
+
+  @TempDir Path dir;
+
+  private final Clock clock = mock(Clock.class);
+
+  private final VerdictExpiry expiry =
+      new VerdictExpiry(Duration.ofMinutes(1), Duration.ofHours(6), Duration.ofMinutes(30));
+
+  private MappedVerdictStore store;
+
+  private TieredCaffeineCache cache;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    when(clock.millis()).thenReturn(NOW);
+    store = new MappedVerdictStore(dir.resolve("verdicts.l2"), 64, clock);
+    cache = cache("domainVerdictCache");
+  }
+
+  private TieredCaffeineCache cache(String name) {
+    return new TieredCaffeineCache(
+        name, Caffeine.newBuilder().expireAfter(expiry).build(), true, store, expiry, clock);
+  }
+
+  private static DomainVerdict verdict(String domain, long ttlSeconds) {
+    MxResponse mxResponse = new MxResponse();
+    mxResponse.setHasMx(true);
+    DomainVerdict verdict = new DomainVerdict();
+    verdict.setDomain(domain);
+    verdict.setIsSafe(true);
+    verdict.setIsDisposable(false);
+    verdict.setMxResponse(mxResponse);
+    verdict.setTtlSeconds(ttlSeconds);
+    return verdict;
+  }
+
+  @Test
+  void publicConstructorUsesTheSystemClock() {
+    TieredCaffeineCache systemCache =
+        new TieredCaffeineCache(
+            "emailValidationCache", Caffeine.newBuilder().build(), true, store, expiry);
+
+    systemCache.put("gmail.com", verdict("gmail.com", 300));
+
+    assertThat(systemCache.getName()).isEqualTo("emailValidationCache");
+    assertThat(systemCache.get("gmail.com").get()).isEqualTo(verdict("gmail.com", 300));
+  }
+
+  @Test
+  void storedValuesAreFoundAfterARestartWithTheirRemainingTtl() {
+    cache.put("gmail.com", verdict("gmail.com", 300));
+
+    when(clock.millis()).thenReturn(NOW + 100_000);
+    TieredCaffeineCache restarted = cache("domainVerdictCache");
+
+    assertThat(restarted.get("gmail.com").get()).isEqualTo(verdict("gmail.com", 200));
+    // The value was promoted to the first level.
+    assertThat(restarted.getNativeCache().getIfPresent("gmail.com"))
+        .isEqualTo(verdict("gmail.com", 200));
+    assertThat(restarted.get("gmail.com").get()).isEqualTo(verdict("gmail.com", 200));
+  }
+
+  @Test
+  void storedValuesWithLessThanASecondLeftAreMisses() {
+    cache.put("gmail.com", verdict("gmail.com", 300));
+
+    when(clock.millis()).thenReturn(NOW + 299_001);
+
+    assertThat(cache("domainVerdictCache").get("gmail.com")).isNull();
+  }
+
+  @Test
+  void missesInBothLevelsReturnNull() {
+    assertThat(cache.get("absent.com")).isNull();
+    assertThat(cache.get(42)).isNull();
+  }
+
+  @Test
+  void loaderRunsOnlyWhenBothLevelsMiss() throws Exception {
+    AtomicInteger calls = new AtomicInteger();
+    cache.put("gmail.com", verdict("gmail.com", 300));
+    TieredCaffeineCache restarted = cache("domainVerdictCache");
+
+    DomainVerdict stored =
+        restarted.get("gmail.com", () -> verdict("gmail.com", calls.incrementAndGet()));
+    DomainVerdict loaded =
+        restarted.get("yahoo.com", () -> verdict("yahoo.com", 100 + calls.incrementAndGet()));
+    DomainVerdict cached =
+        restarted.get("yahoo.com", () -> verdict("yahoo.com", calls.incrementAndGet()));
+
+    assertThat(stored).isEqualTo(verdict("gmail.com", 300));
+    assertThat(loaded).isEqualTo(verdict("yahoo.com", 101));
+    assertThat(cached).isEqualTo(loaded);
+    assertThat(calls).hasValue(1);
+    assertThat(store.get("domainVerdictCache:yahoo.com")).isNotNull();
+  }
+
+  @Test
+  void valuesTheStoreCannotHoldStayInTheFirstLevel() {
+    cache.put("gmail.com", "not a verdict");
+    cache.put(42, verdict("gmail.com", 300));
+
+    assertThat(cache.get("gmail.com").get()).isEqualTo("not a verdict");
+    assertThat(cache.get(42).get()).isEqualTo(verdict("gmail.com", 300));
+    assertThat(store.get("domainVerdictCache:gmail.com")).isNull();
+  }
+
+  @Test
+  void putIfAbsentWritesThroughOnlyWhenAbsent() {
+    assertThat(cache.putIfAbsent("gmail.com", verdict("gmail.com", 300))).isNull();
+    assertThat(cache.putIfAbsent("gmail.com", verdict("gmail.com", 600)).get())
+        .isEqualTo(verdict("gmail.com", 300));
+
+    assertThat(cache("domainVerdictCache").get("gmail.com").get())
+        .isEqualTo(verdict("gmail.com", 300));
+  }
+
+  @Test
+  void evictRemovesFromBothLevels() {
+    cache.put("gmail.com", verdict("gmail.com", 300));
+    cache.put("yahoo.com", verdict("yahoo.com", 300));
+    TieredCaffeineCache other = cache("domainVerdictCache");
+
+    cache.evict("gmail.com");
+    cache.evict(42);
+
+    assertThat(cache.get("gmail.com")).isNull();
+    assertThat(other.evictIfPresent("yahoo.com")).isTrue();
+    assertThat(other.get("yahoo.com")).isNull();
+    assertThat(cache.evictIfPresent("yahoo.com")).isTrue();
+    assertThat(cache.evictIfPresent("yahoo.com")).isFalse();
+    assertThat(cache.evictIfPresent(42)).isFalse();
+  }
+
+  @Test
+  void clearRemovesOnlyThisCachesStoredEntries() {
+    TieredCaffeineCache responses = cache("emailValidationCache");
+    cache.put("gmail.com", verdict("gmail.com", 300));
+    responses.put("gmail.com", verdict("gmail.com", 300));
+
+    cache.clear();
+
+    assertThat(cache("domainVerdictCache").get("gmail.com")).isNull();
+    assertThat(cache("emailValidationCache").get("gmail.com")).isNotNull();
+  }
+
+  @Test
+  void invalidateReportsEntriesInEitherLevel() {
+    cache.put("gmail.com", verdict("gmail.com", 300));
+
+    assertThat(cache("domainVerdictCache").invalidate()).isTrue();
+    assertThat(cache.invalidate()).isTrue();
+    assertThat(cache.invalidate()).isFalse();
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.beans;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.preetam.emailvalidator.models.DomainVerdict;
+import com.preetam.emailvalidator.models.EmailResponse;
+import com.preetam.emailvalidator.models.MxResponse;
+import com.preetam.emailvalidator.services.DomainVerdictService;
+import com.preetam.emailvalidator.services.EmailValidatorService;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link VerdictCodec}. */
+@SuppressWarnings("PMD")
+class VerdictCodecTest {
+
+  private static final Boolean[] TRI_STATES = {null, false, true};
+
+  private static MxResponse mx(Boolean hasMx, String reason) {
+    MxResponse mxResponse = new MxResponse();
+    mxResponse.setHasMx(hasMx);
+    mxResponse.setMxFailureReason(reason);
+    return mxResponse;
+  }
+
+  private static DomainVerdict verdict(
+      String domain, Boolean safe, Boolean disposable, MxResponse mxResponse) {
+    DomainVerdict verdict = new DomainVerdict();
+    verdict.setDomain(domain);
+    verdict.setIsSafe(safe);
+    verdict.setIsDisposable(disposable);
+    verdict.setMxResponse(mxResponse);
+    verdict.setTtlSeconds(300L);
+    return verdict;
+  }
+
+  private static EmailResponse response(
+      String email, Boolean validSyntax, Boolean safe, Boolean disposable, MxResponse mx) {
+    EmailResponse response = new EmailResponse();
+    response.setEmail(email);
+    response.setValidSyntax(validSyntax);
+    response.setIsSafe(safe);
+    response.setIsDisposable(disposable);
+    response.setMxResponse(mx);
+    response.setTtlSeconds(300L);
+    return response;
+  }
+
+  private static Object roundTrip(String key, Object value) {
+    long packed = VerdictCodec.encode(key, value);
+    assertThat(packed).isNotEqualTo(VerdictCodec.UNENCODABLE);
+    assertThat(packed & ~VerdictCodec.VERDICT_MASK).isZero();
+    // Bits above the verdict belong to the caller and are ignored.
+    return VerdictCodec.decode(key, packed | 0x1234_5678_0000_0000L, 300);
+  }
+
+  @Test
+  void domainVerdictsRoundTripForEveryFlag() {
+    for (Boolean safe : TRI_STATES) {
+      for (Boolean disposable : TRI_STATES) {
+        for (Boolean hasMx : TRI_STATES) {
+          DomainVerdict verdict = verdict("gmail.com", safe, disposable, mx(hasMx, null));
+
+          assertThat(roundTrip("gmail.com", verdict)).isEqualTo(verdict);
+        }
+      }
+    }
+    DomainVerdict withoutMx = verdict("gmail.com", true, false, null);
+    assertThat(roundTrip("gmail.com", withoutMx)).isEqualTo(withoutMx);
+  }
+
+  @Test
+  void emailResponsesRoundTripForEveryFlag() {
+    for (Boolean validSyntax : TRI_STATES) {
+      for (Boolean safe : TRI_STATES) {
+        EmailResponse response =
+            response("a@gmail.com", validSyntax, safe, !Boolean.TRUE.equals(safe), mx(true, null));
+
+        assertThat(roundTrip("a@gmail.com", response)).isEqualTo(response);
+      }
+    }
+  }
+
+  @Test
+  void domainReasonsRoundTripWithTheKeysDomain() {
+    for (String prefix :
+        Arrays.asList(
+            DomainVerdictService.NO_MX_RECORDS_REASON,
+            DomainVerdictService.MX_LOOKUP_FAILED_REASON,
+            DomainVerdictService.DOMAIN_PARSE_ERROR_REASON)) {
+      DomainVerdict verdict = verdict("bad.test", true, false, mx(false, prefix + "bad.test"));
+      EmailResponse response =
+          response("A@Bad.Test", true, true, false, mx(false, prefix + "bad.test"));
+
+      assertThat(roundTrip("bad.test", verdict)).isEqualTo(verdict);
+      assertThat(roundTrip("A@Bad.Test", response)).isEqualTo(response);
+    }
+  }
+
+  @Test
+  void domainNotExtractedRoundTrips() {
+    EmailResponse response =
+        response(
+            "nodomain",
+            false,
+            null,
+            null,
+            mx(false, EmailValidatorService.DOMAIN_NOT_EXTRACTED_REASON));
+
+    assertThat(roundTrip("nodomain", response)).isEqualTo(response);
+  }
+
+  @Test
+  void valuesThatCannotBeRebuiltAreNotEncoded() {
+    assertThat(VerdictCodec.encode("gmail.com", verdict("other.com", true, false, null)))
+        .isEqualTo(VerdictCodec.UNENCODABLE);
+    assertThat(VerdictCodec.encode("a@gmail.com", response("b@gmail.com", true, true, false, null)))
+        .isEqualTo(VerdictCodec.UNENCODABLE);
+    assertThat(VerdictCodec.encode("gmail.com", "verdict")).isEqualTo(VerdictCodec.UNENCODABLE);
+    assertThat(
+            VerdictCodec.encode(
+                "gmail.com",
+                verdict(
+                    "gmail.com",
+                    true,
+                    false,
+                    mx(false, DomainVerdictService.NO_MX_RECORDS_REASON + "other.com"))))
+        .isEqualTo(VerdictCodec.UNENCODABLE);
+    assertThat(
+            VerdictCodec.encode(
+                "nodomain",
+                response("nodomain", false, null, null, mx(false, "No domain at all"))))
+        .isEqualTo(VerdictCodec.UNENCODABLE);
+  }
+
+  @Test
+  void valuesWithoutAKnownKindDecodeToNull() {
+    assertThat(VerdictCodec.decode("gmail.com", VerdictCodec.UNENCODABLE, 300)).isNull();
+    assertThat(VerdictCodec.decode("gmail.com", 3, 300)).isNull();
+  }
+}
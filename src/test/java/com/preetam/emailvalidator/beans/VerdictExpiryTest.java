@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.beans;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.preetam.emailvalidator.models.DomainVerdict;
+import com.preetam.emailvalidator.models.EmailResponse;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link VerdictExpiry}. */
+@SuppressWarnings("PMD")
+class VerdictExpiryTest {
+
+  private final VerdictExpiry expiry =
+      new VerdictExpiry(Duration.ofMinutes(1), Duration.ofHours(6), Duration.ofMinutes(30));
+
+  private static DomainVerdict verdict(Long ttlSeconds) {
+    DomainVerdict verdict = new DomainVerdict();
+    verdict.setTtlSeconds(ttlSeconds);
+    return verdict;
+  }
+
+  @Test
+  void domainVerdictUsesItsTtl() {
+    assertThat(expiry.expireAfterCreate("gmail.com", verdict(3600L), 0))
+        .isEqualTo(Duration.ofHours(1).toNanos());
+  }
+
+  @Test
+  void emailResponseUsesItsTtl() {
+    EmailResponse response = new EmailResponse();
+    response.setTtlSeconds(600L);
+
+    assertThat(expiry.expireAfterUpdate("a@gmail.com", response, 0, 1))
+        .isEqualTo(Duration.ofMinutes(10).toNanos());
+  }
+
+  @Test
+  void shortTtlIsRaisedToMinimum() {
+    assertThat(expiry.lifetimeOf(verdict(5L))).isEqualTo(Duration.ofMinutes(1));
+  }
+
+  @Test
+  void longTtlIsCappedAtMaximum() {
+    assertThat(expiry.lifetimeOf(verdict(Long.MAX_VALUE))).isEqualTo(Duration.ofHours(6));
+  }
+
+  @Test
+  void missingTtlUsesDefault() {
+    assertThat(expiry.lifetimeOf(verdict(null))).isEqualTo(Duration.ofMinutes(30));
+    assertThat(expiry.lifetimeOf(new EmailResponse())).isEqualTo(Duration.ofMinutes(30));
+    assertThat(expiry.lifetimeOf("other")).isEqualTo(Duration.ofMinutes(30));
+  }
+
+  @Test
+  void defaultAboveMaximumIsCapped() {
+    VerdictExpiry capped =
+        new VerdictExpiry(Duration.ofMinutes(1), Duration.ofMinutes(10), Duration.ofMinutes(30));
+
+    assertThat(capped.lifetimeOf("other")).isEqualTo(Duration.ofMinutes(10));
+  }
+
+  @Test
+  void readKeepsCurrentDuration() {
+    assertThat(expiry.expireAfterRead("k", verdict(3600L), 0, 42)).isEqualTo(42);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.configurations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Unit tests for {@link ClientKey}. */
+@SuppressWarnings("PMD")
+class ClientKeyTest {
+
+  @Test
+  void ipv4AddressesAreMappedIntoIpv6() {
+    assertThat(ClientKey.parse("192.168.0.1")).isEqualTo(new ClientKey(0, 0xFFFF_C0A8_0001L));
+    assertThat(ClientKey.parse("255.255.255.255"))
+        .isEqualTo(new ClientKey(0, 0xFFFF_FFFF_FFFFL));
+    assertThat(ClientKey.parse("0.0.0.0")).isEqualTo(new ClientKey(0, 0xFFFF_0000_0000L));
+    assertThat(ClientKey.parse("::ffff:192.168.0.1")).isEqualTo(ClientKey.parse("192.168.0.1"));
+  }
+
+  @Test
+  void ipv6AddressesAreKeyedByTheirBits() {
+    assertThat(ClientKey.parse("2001:db8::1"))
+        .isEqualTo(new ClientKey(0x2001_0DB8_0000_0000L, 1));
+    assertThat(ClientKey.parse("[2001:DB8:0:0:0:0:0:1]"))
+        .isEqualTo(ClientKey.parse("2001:db8::1"));
+    assertThat(ClientKey.parse("::1")).isEqualTo(new ClientKey(0, 1));
+    assertThat(ClientKey.parse("fe80::1%1")).isEqualTo(new ClientKey(0xFE80_0000_0000_0000L, 1));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "localhost",
+        "1.2.3",
+        "1.2.3.",
+        "1.2.3.4.5",
+        "1..2.3",
+        ".1.2.3",
+        "256.1.1.1",
+        "1.2.3.4a",
+        "1.2.3.4/8",
+        "2001:db8::zz",
+        "12345::1",
+        "1:2:3:4:5:6:7:8:9",
+        "g::1",
+        "example.com:8080",
+        ".::1",
+        "[example.com]",
+        "unix:/var/run/app.sock"
+      })
+  void nonLiteralsAreNotParsed(String address) {
+    assertThat(ClientKey.parse(address)).isNull();
+  }
+
+  @Test
+  void nonLiteralsAreKeyedByTheirText() {
+    assertThat(ClientKey.of("unix:/var/run/app.sock"))
+        .isEqualTo(ClientKey.of("unix:/var/run/app.sock"))
+        .isNotEqualTo(ClientKey.of("unix:/var/run/other.sock"))
+        .isNotNull();
+    assertThat(ClientKey.of("10.0.0.1")).isEqualTo(ClientKey.parse("10.0.0.1"));
+  }
+
+  @Test
+  void addressesLieInTheirNetworks() {
+    ClientKey address = ClientKey.parse("2001:db8:1:2::42");
+
+    assertThat(address.within(ClientKey.parse("::"), 0)).isTrue();
+    assertThat(address.within(ClientKey.parse("2001:db8::"), 32)).isTrue();
+    assertThat(address.within(ClientKey.parse("2001:db9::"), 32)).isFalse();
+    assertThat(address.within(ClientKey.parse("2001:db8:1:2::"), 64)).isTrue();
+    assertThat(address.within(ClientKey.parse("2001:db8:1:2::40"), 126)).isTrue();
+    assertThat(address.within(ClientKey.parse("2001:db8:1:2::40"), 127)).isFalse();
+    assertThat(address.within(address, 128)).isTrue();
+
+    ClientKey ipv4 = ClientKey.parse("10.1.2.3");
+    assertThat(ipv4.within(ClientKey.parse("10.0.0.0"), 96 + 8)).isTrue();
+    assertThat(ipv4.within(ClientKey.parse("11.0.0.0"), 96 + 8)).isFalse();
+  }
+}
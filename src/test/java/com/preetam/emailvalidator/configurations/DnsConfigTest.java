@@ -5,34 +5,36 @@
 package com.preetam.emailvalidator.configurations;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 import com.preetam.emailvalidator.health.DnsHealthIndicator;
-import com.preetam.emailvalidator.services.LookupFactory;
+import java.io.IOException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.health.contributor.Health;
 import org.springframework.boot.health.contributor.Status;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
-import org.xbill.DNS.Lookup;
+import org.xbill.DNS.DClass;
 import org.xbill.DNS.MXRecord;
-import org.xbill.DNS.Record;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.Resolver;
+import org.xbill.DNS.Section;
 import org.xbill.DNS.TextParseException;
-import org.xbill.DNS.Type;
 
 /**
  * Unit tests for {@link DnsHealthIndicator}.
  * Tests DNS health check scenarios with mocked DNS
- * lookups.
+ * queries.
  */
 @SpringBootTest
 @SuppressWarnings("PMD.AtLeastOneConstructor")
 class DnsConfigTest {
 
-  /** Mocked factory to create DNS Lookup instances. */
-  @MockitoBean private LookupFactory lookupFactory;
+  /** Mocked resolver answering the DNS queries. */
+  @MockitoBean private Resolver resolver;
 
   /** Constant for Google domain. */
   private static final String GOOGLE = "google.com";
@@ -40,16 +42,22 @@ class DnsConfigTest {
   /** DNS health indicator to test DNS MX record health. */
   @Autowired private DnsHealthIndicator healthIndicator;
 
+  private static Message withMx() throws TextParseException {
+    final Message response = new Message();
+    final Name name = Name.fromString(GOOGLE, Name.root);
+    response.addRecord(
+        new MXRecord(name, DClass.IN, 300, 10, Name.fromString("smtp.google.com.")),
+        Section.ANSWER);
+    return response;
+  }
+
   /** When MX records are found, health status should be UP. */
   @Test
   @SuppressWarnings("PMD.LawOfDemeter")
   void healthWhenRecordsFoundShouldReturnUpStatus() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-    final Record[] records = {mock(MXRecord.class)};
-
-    when(lookupFactory.create(GOOGLE, Type.MX)).thenReturn(mockLookup);
-    when(mockLookup.run()).thenReturn(records);
+    when(resolver.send(any(Message.class))).thenReturn(withMx());
 
+    healthIndicator.refresh();
     final Health health = healthIndicator.health();
 
     final Status status = health.getStatus();
@@ -60,26 +68,21 @@ class DnsConfigTest {
   /** When MX records are found, health details should include record count. */
   @Test
   void healthWhenRecordsFoundShouldContainRecordCountInDetails() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-    final Record[] records = {mock(MXRecord.class)};
-
-    when(lookupFactory.create(GOOGLE, Type.MX)).thenReturn(mockLookup);
-    when(mockLookup.run()).thenReturn(records);
+    when(resolver.send(any(Message.class))).thenReturn(withMx());
 
+    healthIndicator.refresh();
     final Health health = healthIndicator.health();
 
-    assertThat(health.getDetails()).containsEntry("recordsFound", records.length);
+    assertThat(health.getDetails()).containsEntry("recordsFound", 1);
   }
 
   /** When no MX records are found, health status should be DOWN. */
   @Test
   @SuppressWarnings("PMD.LawOfDemeter")
   void healthWhenNoRecordsShouldReturnDownStatus() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-
-    when(lookupFactory.create(GOOGLE, Type.MX)).thenReturn(mockLookup);
-    when(mockLookup.run()).thenReturn(null);
+    when(resolver.send(any(Message.class))).thenReturn(new Message());
 
+    healthIndicator.refresh();
     final Health health = healthIndicator.health();
 
     final Status status = health.getStatus();
@@ -90,22 +93,21 @@ class DnsConfigTest {
   /** When no MX records are found, health details should include reason. */
   @Test
   void healthWhenNoRecordsShouldContainReasonInDetails() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-
-    when(lookupFactory.create(GOOGLE, Type.MX)).thenReturn(mockLookup);
-    when(mockLookup.run()).thenReturn(null);
+    when(resolver.send(any(Message.class))).thenReturn(new Message());
 
+    healthIndicator.refresh();
     final Health health = healthIndicator.health();
 
     assertThat(health.getDetails()).containsEntry("reason", "No MX records found");
   }
 
-  /** When a DNS lookup exception occurs, health status should be DOWN. */
+  /** When the DNS query fails, health status should be DOWN. */
   @Test
   @SuppressWarnings("PMD.LawOfDemeter")
-  void healthWhenTextParseExceptionThrownShouldReturnDownStatus() throws Exception {
-    when(lookupFactory.create(GOOGLE, Type.MX)).thenThrow(new TextParseException("DNS failure"));
+  void healthWhenQueryFailsShouldReturnDownStatus() throws Exception {
+    when(resolver.send(any(Message.class))).thenThrow(new IOException("DNS failure"));
 
+    healthIndicator.refresh();
     final Health health = healthIndicator.health();
 
     final Status status = health.getStatus();
@@ -113,11 +115,12 @@ class DnsConfigTest {
     assertThat(statusCode).isEqualTo("DOWN");
   }
 
-  /** When a DNS lookup exception occurs, health details should include error message. */
+  /** When the DNS query fails, health details should include error message. */
   @Test
-  void healthWhenTextParseExceptionThrownShouldContainErrorInDetails() throws Exception {
-    when(lookupFactory.create(GOOGLE, Type.MX)).thenThrow(new TextParseException("DNS failure"));
+  void healthWhenQueryFailsShouldContainErrorInDetails() throws Exception {
+    when(resolver.send(any(Message.class))).thenThrow(new IOException("DNS failure"));
 
+    healthIndicator.refresh();
     final Health health = healthIndicator.health();
 
     assertThat(health.getDetails()).containsEntry("error", "DNS lookup failed");
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.configurations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+
+/** Unit tests for {@link OutboundBulkhead}. */
+@SuppressWarnings("PMD")
+class OutboundBulkheadTest {
+
+  private static final byte[] BODY = new byte[0];
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private final HttpRequest request = mock(HttpRequest.class);
+
+  private final ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+
+  private OutboundBulkhead bulkhead(int maxConcurrent, Duration acquireTimeout) {
+    when(request.getURI()).thenReturn(URI.create("https://safebrowsing.googleapis.com/v4/x"));
+    return new OutboundBulkhead(registry, maxConcurrent, acquireTimeout);
+  }
+
+  private double inFlightGauge() {
+    return registry.get(OutboundBulkhead.IN_FLIGHT_METRIC).gauge().value();
+  }
+
+  private double requests(String status) {
+    return registry
+        .get(OutboundBulkhead.REQUESTS_METRIC)
+        .tags("host", "safebrowsing.googleapis.com", "status", status)
+        .timer()
+        .count();
+  }
+
+  @Test
+  void timesSuccessfulCallsByHostAndStatusOnceClosed() throws IOException {
+    OutboundBulkhead bulkhead = bulkhead(2, Duration.ofMillis(10));
+    ClientHttpResponse response = mock(ClientHttpResponse.class);
+    when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+    when(execution.execute(request, BODY)).thenReturn(response);
+
+    ClientHttpResponse intercepted = bulkhead.intercept(request, BODY, execution);
+    assertThat(registry.find(OutboundBulkhead.REQUESTS_METRIC).timer()).isNull();
+    intercepted.close();
+    intercepted.close();
+
+    assertThat(requests("200")).isEqualTo(1);
+    assertThat(bulkhead.inFlight()).isZero();
+    verify(response, times(1)).close();
+  }
+
+  @Test
+  void holdsTheSlotWhileTheBodyIsRead() throws IOException {
+    OutboundBulkhead bulkhead = bulkhead(1, Duration.ofMillis(10));
+    ClientHttpResponse response = mock(ClientHttpResponse.class);
+    HttpHeaders headers = new HttpHeaders();
+    when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+    when(response.getStatusText()).thenReturn("OK");
+    when(response.getHeaders()).thenReturn(headers);
+    when(response.getBody()).thenReturn(new ByteArrayInputStream(new byte[] {1}));
+    when(execution.execute(request, BODY)).thenReturn(response);
+
+    try (ClientHttpResponse intercepted = bulkhead.intercept(request, BODY, execution)) {
+      assertThat(intercepted.getStatusCode()).isEqualTo(HttpStatus.OK);
+      assertThat(intercepted.getStatusText()).isEqualTo("OK");
+      assertThat(intercepted.getHeaders()).isSameAs(headers);
+      assertThat(intercepted.getBody().read()).isEqualTo(1);
+      assertThat(bulkhead.inFlight()).isEqualTo(1);
+      assertThatThrownBy(() -> bulkhead.intercept(request, BODY, execution))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining("rejected");
+    }
+
+    assertThat(bulkhead.inFlight()).isZero();
+  }
+
+  @Test
+  void closesTheResponseWhenItsStatusCannotBeRead() throws IOException {
+    OutboundBulkhead bulkhead = bulkhead(1, Duration.ofMillis(10));
+    ClientHttpResponse response = mock(ClientHttpResponse.class);
+    when(response.getStatusCode()).thenThrow(new IOException("truncated"));
+    when(execution.execute(request, BODY)).thenReturn(response);
+
+    assertThatThrownBy(() -> bulkhead.intercept(request, BODY, execution))
+        .isInstanceOf(IOException.class)
+        .hasMessage("truncated");
+
+    verify(response).close();
+    assertThat(bulkhead.inFlight()).isZero();
+    assertThat(requests("IO_ERROR")).isEqualTo(1);
+  }
+
+  @Test
+  void releasesSlotAndRecordsIoErrors() throws IOException {
+    OutboundBulkhead bulkhead = bulkhead(1, Duration.ofMillis(10));
+    when(execution.execute(request, BODY)).thenThrow(new IOException("reset"));
+
+    assertThatThrownBy(() -> bulkhead.intercept(request, BODY, execution))
+        .isInstanceOf(IOException.class)
+        .hasMessage("reset");
+
+    assertThat(bulkhead.inFlight()).isZero();
+    assertThat(
+            registry
+                .get(OutboundBulkhead.REQUESTS_METRIC)
+                .tags("status", "IO_ERROR")
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void rejectsCallsBeyondTheLimit() throws Exception {
+    OutboundBulkhead bulkhead = bulkhead(1, Duration.ofMillis(50));
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ClientHttpResponse response = mock(ClientHttpResponse.class);
+    when(response.getStatusCode()).thenReturn(HttpStatus.OK);
+    when(execution.execute(request, BODY))
+        .thenAnswer(
+            invocation -> {
+              started.countDown();
+              release.await(2, TimeUnit.SECONDS);
+              return response;
+            });
+    CompletableFuture<ClientHttpResponse> first =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return bulkhead.intercept(request, BODY, execution);
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+    assertThat(inFlightGauge()).isEqualTo(1.0);
+
+    assertThatThrownBy(() -> bulkhead.intercept(request, BODY, execution))
+        .isInstanceOf(IOException.class)
+        .hasMessageContaining("rejected");
+    release.countDown();
+
+    assertThat(first).succeedsWithin(Duration.ofSeconds(2));
+    first.join().close();
+    assertThat(bulkhead.inFlight()).isZero();
+    assertThat(registry.get(OutboundBulkhead.REJECTED_METRIC).counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void interruptedWaitFailsWithInterruptedIo() throws IOException {
+    OutboundBulkhead bulkhead = bulkhead(1, Duration.ofSeconds(1));
+    Thread.currentThread().interrupt();
+    try {
+      assertThatThrownBy(() -> bulkhead.intercept(request, BODY, execution))
+          .isInstanceOf(InterruptedIOException.class);
+      assertThat(Thread.currentThread().isInterrupted()).isTrue();
+    } finally {
+      Thread.interrupted();
+    }
+    verify(execution, never()).execute(any(), any());
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.configurations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.preetam.emailvalidator.configurations.RateLimitTiers.Limit;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/** Unit tests for {@link RateLimitTiers}. */
+@SuppressWarnings("PMD")
+class RateLimitTiersTest {
+
+  private static final Limit DEFAULT = new Limit(10, Duration.ofMinutes(1));
+
+  @Test
+  void addressesWithoutTierGetTheDefaultLimit() {
+    RateLimitTiers tiers = RateLimitTiers.parse("10/1m", "");
+
+    assertThat(tiers.forAddress(ClientKey.parse("203.0.113.7"))).isEqualTo(DEFAULT);
+    assertThat(tiers.apiKeys()).isEmpty();
+    assertThat(tiers.longestPeriod()).isEqualTo(Duration.ofMinutes(1));
+  }
+
+  @Test
+  void apiKeysAndNetworksGetTheirTier() {
+    RateLimitTiers tiers =
+        RateLimitTiers.parse(
+            "10/1m",
+            " key:partner-1=1000/1m ; cidr:10.0.0.0/8=100/1m;;"
+                + "cidr:10.1.0.0/16=50/1h;cidr:2001:db8::/32=20/30s");
+
+    assertThat(tiers.apiKeys()).containsEntry("partner-1", new Limit(1000, Duration.ofMinutes(1)));
+    assertThat(tiers.forAddress(ClientKey.parse("10.2.0.1")))
+        .isEqualTo(new Limit(100, Duration.ofMinutes(1)));
+    assertThat(tiers.forAddress(ClientKey.parse("10.1.0.1")))
+        .isEqualTo(new Limit(50, Duration.ofHours(1)));
+    assertThat(tiers.forAddress(ClientKey.parse("2001:db8::1")))
+        .isEqualTo(new Limit(20, Duration.ofSeconds(30)));
+    assertThat(tiers.forAddress(ClientKey.parse("2001:db9::1"))).isEqualTo(DEFAULT);
+    assertThat(tiers.longestPeriod()).isEqualTo(Duration.ofHours(1));
+  }
+
+  @Test
+  void bucketsHoldTheCapacityOfTheirLimit() {
+    var bucket = new Limit(3, Duration.ofMinutes(1)).newBucket();
+
+    assertThat(bucket.tryConsume(3)).isTrue();
+    assertThat(bucket.tryConsume(1)).isFalse();
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "key:partner-1",
+        "ip:10.0.0.0/8=5/1m",
+        "cidr:10.0.0.0=5/1m",
+        "cidr:example.com/8=5/1m",
+        "cidr:10.0.0.0/33=5/1m",
+        "cidr:10.0.0.0/-1=5/1m",
+        "cidr:2001:db8::/129=5/1m",
+        "key:partner-1=5",
+        "key:partner-1=five/1m"
+      })
+  void invalidTiersAreRejected(String tier) {
+    assertThatThrownBy(() -> RateLimitTiers.parse("10/1m", tier))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void invalidDefaultLimitIsRejected() {
+    assertThatThrownBy(() -> RateLimitTiers.parse("10", ""))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("without period");
+  }
+}
@@ -5,16 +5,21 @@
 package com.preetam.emailvalidator.configurations;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -33,6 +38,8 @@ public class RateLimitingFilterTest {
 
   @Autowired private RateLimitingFilter filter;
 
+  @Autowired private MeterRegistry registry;
+
   /**
    * Tests that the filter allows a request to proceed when the rate limit bucket has tokens.
    */
@@ -72,9 +79,12 @@ public class RateLimitingFilterTest {
       assertTrue(bucket.tryConsume(1));
     }
 
+    double rejectedBefore = registry.get(RateLimitingFilter.REJECTED_METRIC).counter().count();
     FilterChain chain = mock(FilterChain.class);
     filter.doFilter(request, response, chain);
 
+    assertEquals(
+        rejectedBefore + 1, registry.get(RateLimitingFilter.REJECTED_METRIC).counter().count());
     verify(response, times(1)).setStatus(429);
     verify(response, times(1)).getWriter();
     verify(chain, never()).doFilter(request, response);
@@ -82,4 +92,50 @@ public class RateLimitingFilterTest {
     printWriter.flush();
     assertEquals("Too many requests. Please try again later.", stringWriter.toString());
   }
+
+  /** Tests that a known API key draws from its own bucket, whatever the address. */
+  @Test
+  public void doFilterUsesTheBucketOfAKnownApiKey() throws IOException, ServletException {
+    RateLimitingFilter tiered =
+        new RateLimitingFilter(new SimpleMeterRegistry(), "1/1m", "key:partner-1=3/1m", 100);
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+    FilterChain chain = mock(FilterChain.class);
+
+    for (int i = 0; i < 4; i++) {
+      HttpServletRequest request = mock(HttpServletRequest.class);
+      when(request.getRemoteAddr()).thenReturn("198.51.100." + i);
+      when(request.getHeader(RateLimitingFilter.API_KEY_HEADER)).thenReturn("partner-1");
+      tiered.doFilter(request, response, chain);
+    }
+    HttpServletRequest unknownKey = mock(HttpServletRequest.class);
+    when(unknownKey.getRemoteAddr()).thenReturn("198.51.100.9");
+    when(unknownKey.getHeader(RateLimitingFilter.API_KEY_HEADER)).thenReturn("guessed");
+    tiered.doFilter(unknownKey, response, chain);
+    HttpServletRequest noKey = mock(HttpServletRequest.class);
+    when(noKey.getRemoteAddr()).thenReturn("198.51.100.9");
+    tiered.doFilter(noKey, response, chain);
+
+    verify(chain, times(4)).doFilter(any(), any());
+    verify(response, times(2)).setStatus(429);
+    assertEquals(1, tiered.trackedClients());
+  }
+
+  /** Tests that IPv4 and IPv6 clients get separate buckets and that idle clients are bounded. */
+  @Test
+  public void bucketsAreKeptPerAddressUpToTheBound() throws InterruptedException {
+    RateLimitingFilter bounded = new RateLimitingFilter(new SimpleMeterRegistry(), "1/1m", "", 50);
+
+    assertTrue(bounded.resolveBucket("2001:db8::1").tryConsume(1));
+    assertTrue(bounded.resolveBucket("192.0.2.1").tryConsume(1));
+    assertSame(bounded.resolveBucket("2001:db8:0::1"), bounded.resolveBucket("2001:db8::1"));
+
+    for (int i = 0; i < 10_000; i++) {
+      bounded.resolveBucket("2001:db8::" + Integer.toHexString(i + 2));
+    }
+    for (int i = 0; i < 200 && bounded.trackedClients() > 50; i++) {
+      Thread.sleep(10);
+    }
+    assertTrue(bounded.trackedClients() <= 50);
+  }
 }
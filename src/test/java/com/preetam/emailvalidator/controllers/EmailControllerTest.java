@@ -4,24 +4,41 @@
 
 package com.preetam.emailvalidator.controllers;
 
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import tools.jackson.databind.json.JsonMapper;
+import com.preetam.emailvalidator.models.EmailBatchRequest;
 import com.preetam.emailvalidator.models.EmailRequest;
 import com.preetam.emailvalidator.models.EmailResponse;
 import com.preetam.emailvalidator.models.MxResponse;
+import com.preetam.emailvalidator.services.EmailStreamService;
 import com.preetam.emailvalidator.services.EmailValidatorService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.cache.test.autoconfigure.AutoConfigureCache;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 /**Unit tests for {@link EmailController}, focusing on the web layer.
  *
@@ -29,6 +46,7 @@ import org.springframework.test.web.servlet.MockMvc;
  * and related MVC components, excluding full application context.
  */
 @WebMvcTest(EmailController.class)
+@Import(SimpleMeterRegistry.class)
 @AutoConfigureCache
 @SuppressWarnings("PMD")
 public class EmailControllerTest {
@@ -36,6 +54,7 @@ public class EmailControllerTest {
   private final JsonMapper objectMapper = new JsonMapper();
   @Autowired private MockMvc mockMvc;
   @MockitoBean private EmailValidatorService validatorService;
+  @MockitoBean private EmailStreamService streamService;
 
   @Test
   void validateEmailReturnsExpectedResponse() throws Exception {
@@ -49,16 +68,23 @@ public class EmailControllerTest {
     mockResponse.setMxResponse(mxResponse);
     mockResponse.setIsDisposable(false);
 
-    when(validatorService.validateEmail(anyString())).thenReturn(mockResponse);
+    when(validatorService.validateEmailAsync(anyString()))
+        .thenReturn(CompletableFuture.completedFuture(mockResponse));
 
-    EmailRequest request = new EmailRequest();
-    request.setEmail("test@example.com");
+    EmailRequest emailRequest = new EmailRequest();
+    emailRequest.setEmail("test@example.com");
+
+    MvcResult pending =
+        mockMvc
+            .perform(
+                post("/api/v1/email/validate")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(emailRequest)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
 
     mockMvc
-        .perform(
-            post("/api/v1/email/validate")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(request)))
+        .perform(asyncDispatch(pending))
         .andExpect(status().isOk())
         .andExpect(jsonPath("$.email").value("test@example.com"))
         .andExpect(jsonPath("$.validSyntax").value(true))
@@ -66,4 +92,60 @@ public class EmailControllerTest {
         .andExpect(jsonPath("$.mxResponse.mxFailureReason").doesNotExist())
         .andExpect(jsonPath("$.isDisposable").value(false));
   }
+
+  @Test
+  void validateEmailsReturnsResponsesInInputOrder() throws Exception {
+    EmailResponse first = new EmailResponse();
+    first.setEmail("a@example.com");
+    EmailResponse second = new EmailResponse();
+    second.setEmail("b@example.com");
+
+    when(validatorService.validateEmails(anyList())).thenReturn(List.of(first, second));
+
+    EmailBatchRequest request = new EmailBatchRequest();
+    request.setEmails(List.of("a@example.com", "b@example.com"));
+
+    mockMvc
+        .perform(
+            post("/api/v1/email/validate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].email").value("a@example.com"))
+        .andExpect(jsonPath("$[1].email").value("b@example.com"));
+  }
+
+  @Test
+  void validateEmailsRejectsEmptyBatch() throws Exception {
+    EmailBatchRequest request = new EmailBatchRequest();
+    request.setEmails(Collections.emptyList());
+
+    mockMvc
+        .perform(
+            post("/api/v1/email/validate/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void validateStreamWritesNdjsonResponse() throws Exception {
+    doAnswer(
+            invocation -> {
+              OutputStream output = invocation.getArgument(1);
+              output.write("{\"email\":\"a@example.com\"}\n".getBytes(StandardCharsets.UTF_8));
+              return null;
+            })
+        .when(streamService)
+        .validateStream(any(InputStream.class), any());
+
+    mockMvc
+        .perform(
+            post("/api/v1/email/validate/stream")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("a@example.com\n"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string("{\"email\":\"a@example.com\"}\n"));
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.preetam.emailvalidator.models.ValidationJob;
+import com.preetam.emailvalidator.services.ValidationJobService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.cache.test.autoconfigure.AutoConfigureCache;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/** Unit tests for {@link ValidationJobController}, focusing on the web layer. */
+@WebMvcTest(ValidationJobController.class)
+@Import(SimpleMeterRegistry.class)
+@AutoConfigureCache
+@SuppressWarnings("PMD")
+public class ValidationJobControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+  @MockitoBean private ValidationJobService jobService;
+
+  @TempDir Path tempDir;
+
+  private static ValidationJob job(ValidationJob.State state) {
+    ValidationJob job = new ValidationJob();
+    job.setId("job-1");
+    job.setState(state);
+    job.setTotal(2);
+    return job;
+  }
+
+  @Test
+  void submitReturnsAcceptedWithLocation() throws Exception {
+    when(jobService.submit(any())).thenReturn(job(ValidationJob.State.QUEUED));
+
+    mockMvc
+        .perform(
+            post("/api/v1/email/jobs")
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("a@example.com\nb@example.com\n"))
+        .andExpect(status().isAccepted())
+        .andExpect(header().string("Location", "/api/v1/email/jobs/job-1"))
+        .andExpect(jsonPath("$.state").value("QUEUED"))
+        .andExpect(jsonPath("$.total").value(2));
+  }
+
+  @Test
+  void statusReturnsJob() throws Exception {
+    when(jobService.status("job-1")).thenReturn(Optional.of(job(ValidationJob.State.RUNNING)));
+
+    mockMvc
+        .perform(get("/api/v1/email/jobs/job-1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.state").value("RUNNING"));
+  }
+
+  @Test
+  void statusOfUnknownJobIsNotFound() throws Exception {
+    when(jobService.status("missing")).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/v1/email/jobs/missing")).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void resultsStreamsResultsFile() throws Exception {
+    Path results = Files.writeString(tempDir.resolve("results.ndjson"), "{\"email\":\"a\"}\n");
+    when(jobService.results("job-1")).thenReturn(Optional.of(results));
+
+    mockMvc
+        .perform(get("/api/v1/email/jobs/job-1/results"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andExpect(content().string("{\"email\":\"a\"}\n"));
+  }
+
+  @Test
+  void resultsOfUnknownJobIsNotFound() throws Exception {
+    when(jobService.results("missing")).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/v1/email/jobs/missing/results")).andExpect(status().isNotFound());
+  }
+}
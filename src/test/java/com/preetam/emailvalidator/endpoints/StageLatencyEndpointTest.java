@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.endpoints;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.preetam.emailvalidator.services.LatencyProfiler;
+import com.preetam.emailvalidator.services.StageTimings;
+import com.preetam.emailvalidator.services.StageTimings.Stage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link StageLatencyEndpoint}. */
+@SuppressWarnings("PMD")
+class StageLatencyEndpointTest {
+
+  private final LatencyProfiler profiler =
+      new LatencyProfiler(new SimpleMeterRegistry(), Duration.ZERO, 5, Duration.ofMinutes(1));
+
+  private final StageLatencyEndpoint endpoint = new StageLatencyEndpoint(profiler);
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reportsPercentilesPerStage() {
+    StageTimings timings = new StageTimings();
+    profiler.recordSince(Stage.MX, timings, System.nanoTime() - Duration.ofMillis(40).toNanos());
+
+    Map<String, Object> stages = (Map<String, Object>) endpoint.stages().get("stages");
+
+    assertThat(stages)
+        .containsOnlyKeys("cache", "syntax", "domain", "safe_browsing", "mx", "disposable");
+    Map<String, Object> mx = (Map<String, Object>) stages.get("mx");
+    assertThat(mx).containsOnlyKeys("count", "p50", "p99", "p999", "max");
+    assertThat(mx).containsEntry("count", 1L);
+    assertThat((Double) mx.get("max")).isGreaterThanOrEqualTo(40.0);
+    assertThat((Double) mx.get("p99")).isGreaterThan(30.0);
+    assertThat(((Map<String, Object>) stages.get("cache"))).containsEntry("count", 0L);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void reportsTheSlowestValidationsOfTheLastInterval() {
+    StageTimings timings = new StageTimings();
+    timings.add(Stage.SAFE_BROWSING, Duration.ofMillis(300).toNanos());
+    profiler.finish(
+        "slow@example.com", timings, System.nanoTime() - Duration.ofMillis(320).toNanos());
+    assertThat((List<Object>) endpoint.stages().get("slowest")).isEmpty();
+
+    profiler.flush();
+
+    List<Map<String, Object>> slowest =
+        (List<Map<String, Object>>) endpoint.stages().get("slowest");
+    assertThat(slowest).hasSize(1);
+    assertThat(slowest.get(0)).containsEntry("domain", "example.com").doesNotContainKey("email");
+    assertThat(slowest.get(0).toString()).doesNotContain("slow@");
+    assertThat((Double) slowest.get(0).get("totalMillis")).isGreaterThanOrEqualTo(320.0);
+    assertThat((Map<String, Double>) slowest.get(0).get("stages"))
+        .containsEntry("safe_browsing", 300.0);
+  }
+}
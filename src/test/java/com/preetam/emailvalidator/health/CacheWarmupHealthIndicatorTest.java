@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.preetam.emailvalidator.services.CacheSnapshotService;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+
+/** Unit tests for {@link CacheWarmupHealthIndicator}. */
+@SuppressWarnings("PMD")
+class CacheWarmupHealthIndicatorTest {
+
+  private final CacheSnapshotService snapshotService = mock(CacheSnapshotService.class);
+
+  private final CacheWarmupHealthIndicator indicator =
+      new CacheWarmupHealthIndicator(Optional.of(snapshotService));
+
+  @Test
+  void upWithoutSnapshots() {
+    Health health = new CacheWarmupHealthIndicator(Optional.empty()).health();
+
+    assertThat(health.getStatus()).isEqualTo(Status.UP);
+    assertThat(health.getDetails()).containsEntry("snapshot", "disabled");
+  }
+
+  @Test
+  void outOfServiceWhileWarmingUp() {
+    when(snapshotService.loaded()).thenReturn(10L);
+    when(snapshotService.total()).thenReturn(100L);
+
+    Health health = indicator.health();
+
+    assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+    assertThat(health.getDetails()).containsEntry("loaded", 10L).containsEntry("total", 100L);
+  }
+
+  @Test
+  void upOnceWarm() {
+    when(snapshotService.isWarm()).thenReturn(true);
+    when(snapshotService.loaded()).thenReturn(95L);
+    when(snapshotService.total()).thenReturn(100L);
+
+    assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+  }
+}
@@ -78,6 +78,25 @@ class CaffeineCacheHealthIndicatorTest {
     assertThat(health.getDetails().get("entries")).isEqualTo(1L);
   }
 
+  @Test
+  void healthDetailsContainHitStatisticsWhenCachePresent() {
+    final Cache<Object, Object> cache = Caffeine.newBuilder().recordStats().build();
+    cache.put("key", "value");
+    cache.getIfPresent("key");
+    cache.getIfPresent("missing");
+    final CaffeineCache caffeineCache = new CaffeineCache(CACHE_NAME, cache);
+
+    when(cacheManager.getCache(CACHE_NAME)).thenReturn(caffeineCache);
+
+    final Health health = healthIndicator.health();
+
+    assertThat(health.getDetails())
+        .containsEntry("hits", 1L)
+        .containsEntry("misses", 1L)
+        .containsEntry("hitRate", 0.5)
+        .containsEntry("evictions", 0L);
+  }
+
   @Test
   @SuppressWarnings("PMD.LawOfDemeter")
   void healthReturnsDownStatusWhenCacheMissing() {
@@ -5,19 +5,33 @@
 package com.preetam.emailvalidator.health;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import com.preetam.emailvalidator.services.LookupFactory;
+import com.preetam.emailvalidator.services.DnsLookupServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.health.contributor.Health;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
-import org.xbill.DNS.Lookup;
+import org.xbill.DNS.ARecord;
+import org.xbill.DNS.DClass;
 import org.xbill.DNS.MXRecord;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.Rcode;
 import org.xbill.DNS.Record;
-import org.xbill.DNS.TextParseException;
+import org.xbill.DNS.Resolver;
+import org.xbill.DNS.Section;
 import org.xbill.DNS.Type;
 
 /**
@@ -25,108 +39,124 @@ import org.xbill.DNS.Type;
  * which verifies DNS MX record availability for a given
  * domain.
  */
-@SpringBootTest(classes = DnsHealthIndicator.class)
-@SuppressWarnings({"PMD.AtLeastOneConstructor", "PMD.LawOfDemeter"})
+@SpringBootTest(classes = {DnsHealthIndicator.class, SimpleMeterRegistry.class})
+@SuppressWarnings("PMD")
 class DnsHealthIndicatorTest {
 
   /** Google domain. */
   private static final String TEST_DOMAIN = "google.com";
 
-  /** Mocked factory to provide DNS Lookup instances. */
-  @MockitoBean private LookupFactory lookupFactory;
+  /** Mocked resolver answering the MX query. */
+  @MockitoBean private Resolver resolver;
 
   /** System under test: the DNS health indicator. */
   @Autowired private DnsHealthIndicator indicator;
 
+  /** Registry timing the MX queries of validations. */
+  @Autowired private MeterRegistry registry;
+
+  private static Message answer(final int rcode, final Record... records) {
+    final Message response = new Message();
+    response.getHeader().setRcode(rcode);
+    for (final Record record : records) {
+      response.addRecord(record, Section.ANSWER);
+    }
+    return response;
+  }
+
+  private static Record mx() throws IOException {
+    final Name name = Name.fromString(TEST_DOMAIN, Name.root);
+    return new MXRecord(name, DClass.IN, 300, 10, Name.fromString("smtp.google.com."));
+  }
+
+  private Health probe(final Message response) throws IOException {
+    when(resolver.send(any(Message.class))).thenReturn(response);
+    indicator.refresh();
+    return indicator.health();
+  }
+
   @Test
   void healthReturnsUpWhenMxRecordsFound() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-    when(mockLookup.run()).thenReturn(new Record[] {mock(MXRecord.class)});
-    when(lookupFactory.create(TEST_DOMAIN, Type.MX)).thenReturn(mockLookup);
-
-    final Health health = indicator.health();
-    final String status = health.getStatus().getCode();
+    final Health health = probe(answer(Rcode.NOERROR, mx()));
 
-    assertThat(status).isEqualTo("UP");
+    assertThat(health.getStatus().getCode()).isEqualTo("UP");
   }
 
   @Test
   void healthIncludesRecordCountWhenMxRecordsFound() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-    when(mockLookup.run()).thenReturn(new Record[] {mock(MXRecord.class)});
-    when(lookupFactory.create(TEST_DOMAIN, Type.MX)).thenReturn(mockLookup);
-
-    final Health health = indicator.health();
+    final Health health = probe(answer(Rcode.NOERROR, mx()));
 
     assertThat(health.getDetails()).containsEntry("recordsFound", 1);
   }
 
   @Test
-  void healthReturnsDownWhenNoMxRecords() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-    when(mockLookup.run()).thenReturn(null);
-    when(lookupFactory.create(TEST_DOMAIN, Type.MX)).thenReturn(mockLookup);
-
-    final Health result = indicator.health();
-    final String status = result.getStatus().getCode();
-
-    assertThat(status).isEqualTo("DOWN");
+  void probeQueriesTheMxRecordsOfTheTargetThroughTheResolver() throws Exception {
+    probe(answer(Rcode.NOERROR, mx()));
+
+    final ArgumentCaptor<Message> query = ArgumentCaptor.forClass(Message.class);
+    verify(resolver).send(query.capture());
+    final Record question = query.getValue().getQuestion();
+    assertThat(question.getName()).isEqualTo(Name.fromString(TEST_DOMAIN, Name.root));
+    assertThat(question.getType()).isEqualTo(Type.MX);
   }
 
   @Test
-  void healthIncludesReasonWhenNoMxRecords() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-    when(mockLookup.run()).thenReturn(null);
-    when(lookupFactory.create(TEST_DOMAIN, Type.MX)).thenReturn(mockLookup);
-
-    final Health result = indicator.health();
+  void healthReturnsDownWhenNoMxRecords() throws Exception {
+    final Health health = probe(answer(Rcode.NOERROR));
 
-    assertThat(result.getDetails()).containsEntry("reason", "No MX records found");
+    assertThat(health.getStatus().getCode()).isEqualTo("DOWN");
+    assertThat(health.getDetails()).containsEntry("reason", "No MX records found");
   }
 
   @Test
-  void healthReturnsDownOnTextParseException() throws Exception {
-    when(lookupFactory.create(TEST_DOMAIN, Type.MX)).thenThrow(new TextParseException("Invalid"));
+  void recordsOfOtherTypesAreNotCounted() throws Exception {
+    final Record address =
+        new ARecord(
+            Name.fromString(TEST_DOMAIN, Name.root),
+            DClass.IN,
+            300,
+            InetAddress.getByAddress(new byte[] {127, 0, 0, 1}));
 
-    final Health result = indicator.health();
-    final String status = result.getStatus().getCode();
+    final Health health = probe(answer(Rcode.NOERROR, address));
 
-    assertThat(status).isEqualTo("DOWN");
+    assertThat(health.getDetails()).containsEntry("reason", "No MX records found");
   }
 
   @Test
-  void healthIncludesErrorDetailsOnTextParseException() throws Exception {
-    when(lookupFactory.create(TEST_DOMAIN, Type.MX)).thenThrow(new TextParseException("Invalid"));
+  void healthReturnsDownWhenTheServerFails() throws Exception {
+    final Health health = probe(answer(Rcode.SERVFAIL));
 
-    final Health result = indicator.health();
-
-    assertThat(result.getDetails()).containsEntry("error", "DNS lookup failed");
+    assertThat(health.getStatus().getCode()).isEqualTo("DOWN");
+    assertThat(health.getDetails()).containsEntry("reason", "MX query answered SERVFAIL");
   }
 
   @Test
-  void healthReturnsDownWhenRecordsEmpty() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-    final Record[] emptyRecords = new Record[0];
-
-    when(lookupFactory.create(TEST_DOMAIN, Type.MX)).thenReturn(mockLookup);
-    when(mockLookup.run()).thenReturn(emptyRecords);
+  void healthReturnsDownWhenTheResolverIsUnreachable() throws Exception {
+    when(resolver.send(any(Message.class))).thenThrow(new SocketTimeoutException("timed out"));
 
+    indicator.refresh();
     final Health health = indicator.health();
-    final String status = health.getStatus().getCode();
 
-    assertThat(status).isEqualTo("DOWN");
+    assertThat(health.getStatus().getCode()).isEqualTo("DOWN");
+    assertThat(health.getDetails()).containsEntry("error", "DNS lookup failed");
   }
 
   @Test
-  void healthIncludesReasonWhenRecordsEmpty() throws Exception {
-    final Lookup mockLookup = mock(Lookup.class);
-    final Record[] emptyRecords = new Record[0];
-
-    when(lookupFactory.create(TEST_DOMAIN, Type.MX)).thenReturn(mockLookup);
-    when(mockLookup.run()).thenReturn(emptyRecords);
-
+  void healthIncludesErrorRateOfValidationQueries() throws Exception {
+    probe(answer(Rcode.NOERROR, mx()));
+    for (final String outcome : new String[] {"found", "none", "error", "error"}) {
+      Timer.builder(DnsLookupServiceImpl.LOOKUP_METRIC)
+          .tag("outcome", outcome)
+          .register(registry)
+          .record(Duration.ofMillis(1));
+    }
+
+    indicator.refresh();
     final Health health = indicator.health();
 
-    assertThat(health.getDetails()).containsEntry("reason", "No MX records found");
+    assertThat(health.getDetails())
+        .containsEntry("requests", 4L)
+        .containsEntry("errors", 2L)
+        .containsEntry("errorRate", 0.5);
   }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+
+/** Unit tests for {@link ProbedHealthIndicator}. */
+@SuppressWarnings("PMD")
+class ProbedHealthIndicatorTest {
+
+  private static final String METRIC = "test.calls";
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  private final AtomicInteger probes = new AtomicInteger();
+
+  private ProbedHealthIndicator indicator(Duration interval, Supplier<Health> check) {
+    return new ProbedHealthIndicator(
+        "test-health-probe", interval, new TrafficErrorRate(registry, METRIC, Set.of("error"))) {
+      @Override
+      protected Health probe() {
+        probes.incrementAndGet();
+        return check.get();
+      }
+    };
+  }
+
+  private ProbedHealthIndicator indicator(Supplier<Health> check) {
+    return indicator(Duration.ofMinutes(1), check);
+  }
+
+  private void call(String outcome, int times) {
+    Timer timer = Timer.builder(METRIC).tag("outcome", outcome).register(registry);
+    for (int i = 0; i < times; i++) {
+      timer.record(1, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Test
+  void healthIsUnknownBeforeTheFirstProbe() {
+    Health health = indicator(() -> Health.up().build()).health();
+
+    assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+    assertThat(health.getDetails()).containsEntry("reason", "No probe has completed yet");
+    assertThat(probes).hasValue(0);
+  }
+
+  @Test
+  void healthReportsTheLatestProbeWithoutRunningIt() {
+    ProbedHealthIndicator indicator =
+        indicator(
+            () -> {
+              try {
+                Thread.sleep(5);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return Health.up().withDetail("recordsFound", 2).build();
+            });
+
+    indicator.refresh();
+    Health health = indicator.health();
+    indicator.health();
+
+    assertThat(probes).hasValue(1);
+    assertThat(health.getStatus()).isEqualTo(Status.UP);
+    assertThat(health.getDetails())
+        .containsEntry("recordsFound", 2)
+        .containsEntry("requests", 0L)
+        .containsEntry("errors", 0L)
+        .containsEntry("errorRate", 0.0)
+        .doesNotContainKey("reason");
+    assertThat((Double) health.getDetails().get("latencyMillis")).isGreaterThanOrEqualTo(5.0);
+    assertThat((Double) health.getDetails().get("ageMillis")).isGreaterThanOrEqualTo(0.0);
+  }
+
+  @Test
+  void failingProbeIsReportedDown() {
+    ProbedHealthIndicator indicator =
+        indicator(
+            () -> {
+              throw new IllegalStateException("resolver unreachable");
+            });
+
+    indicator.refresh();
+    Health health = indicator.health();
+
+    assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+    assertThat((String) health.getDetails().get("error")).contains("resolver unreachable");
+  }
+
+  @Test
+  void overdueProbeIsReportedDown() throws InterruptedException {
+    ProbedHealthIndicator indicator =
+        indicator(Duration.ofMillis(1), () -> Health.up().withDetail("recordsFound", 1).build());
+
+    indicator.refresh();
+    Thread.sleep(10);
+    Health health = indicator.health();
+
+    assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+    assertThat(health.getDetails())
+        .containsEntry("reason", "Probe overdue")
+        .containsEntry("recordsFound", 1);
+  }
+
+  @Test
+  void errorRateCoversLiveCallsSinceThePreviousProbe() {
+    ProbedHealthIndicator indicator = indicator(() -> Health.up().build());
+    call("found", 3);
+    call("error", 1);
+
+    indicator.refresh();
+    assertThat(indicator.health().getDetails())
+        .containsEntry("requests", 4L)
+        .containsEntry("errors", 1L)
+        .containsEntry("errorRate", 0.25);
+
+    call("found", 2);
+    indicator.refresh();
+    assertThat(indicator.health().getDetails())
+        .containsEntry("requests", 2L)
+        .containsEntry("errors", 0L)
+        .containsEntry("errorRate", 0.0);
+  }
+
+  @Test
+  void probesRunInTheBackgroundOnceStarted() throws InterruptedException {
+    ProbedHealthIndicator indicator =
+        indicator(Duration.ofMillis(10), () -> Health.up().build());
+
+    indicator.start();
+    for (int i = 0; i < 200 && probes.get() < 2; i++) {
+      Thread.sleep(10);
+    }
+    indicator.shutdown();
+
+    assertThat(probes.get()).isGreaterThanOrEqualTo(2);
+    assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.health;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.preetam.emailvalidator.services.CircuitBreaker;
+import com.preetam.emailvalidator.services.GoogleSafeBrowsingService;
+import com.preetam.emailvalidator.services.SafeBrowsingGuard;
+import com.preetam.emailvalidator.services.SafeBrowsingResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.web.client.ResourceAccessException;
+
+/** Unit tests for {@link SafeBrowsingHealthIndicator}. */
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("PMD")
+class SafeBrowsingHealthIndicatorTest {
+
+  private static final String TARGET = "google.com";
+
+  @Mock private GoogleSafeBrowsingService googleService;
+
+  @Mock private SafeBrowsingGuard guard;
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  private SafeBrowsingHealthIndicator indicator() {
+    return new SafeBrowsingHealthIndicator(
+        googleService, guard, registry, TARGET, Duration.ofMinutes(1));
+  }
+
+  @Test
+  void healthIsUpWhenTheApiAnswers() {
+    when(googleService.checkDomainRemotely(TARGET)).thenReturn(new SafeBrowsingResult(true, null));
+    when(guard.circuitState()).thenReturn(CircuitBreaker.State.OPEN);
+    SafeBrowsingHealthIndicator indicator = indicator();
+
+    indicator.refresh();
+    Health health = indicator.health();
+
+    assertThat(health.getStatus()).isEqualTo(Status.UP);
+    assertThat(health.getDetails())
+        .containsEntry("target", TARGET)
+        .containsEntry("safe", true)
+        .containsEntry("circuit", CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void healthIsDownWhenTheApiFails() {
+    when(googleService.checkDomainRemotely(TARGET))
+        .thenThrow(new ResourceAccessException("connect timed out"));
+    SafeBrowsingHealthIndicator indicator = indicator();
+
+    indicator.refresh();
+    Health health = indicator.health();
+
+    assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+    assertThat((String) health.getDetails().get("error")).contains("connect timed out");
+    verify(guard, never()).check(TARGET);
+  }
+
+  @Test
+  void errorRateCountsTimeoutsAndErrorsOfLiveChecks() {
+    when(googleService.checkDomainRemotely(TARGET)).thenReturn(new SafeBrowsingResult(true, null));
+    when(guard.circuitState()).thenReturn(CircuitBreaker.State.CLOSED);
+    for (String outcome : new String[] {"safe", "unsafe", "timeout", "error", "cancelled"}) {
+      Timer.builder(SafeBrowsingGuard.CHECK_METRIC)
+          .tag("outcome", outcome)
+          .register(registry)
+          .record(Duration.ofMillis(1));
+    }
+    SafeBrowsingHealthIndicator indicator = indicator();
+
+    indicator.refresh();
+
+    assertThat(indicator.health().getDetails())
+        .containsEntry("requests", 5L)
+        .containsEntry("errors", 2L)
+        .containsEntry("errorRate", 0.4);
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.preetam.emailvalidator.configurations.RateLimitingFilter;
+import com.preetam.emailvalidator.services.DnsLookupServiceImpl;
+import com.preetam.emailvalidator.services.GoogleSafeBrowsingService;
+import com.preetam.emailvalidator.services.SafeBrowsingBatcher;
+import com.preetam.emailvalidator.services.SafeBrowsingGuard;
+import com.preetam.emailvalidator.services.SafeBrowsingResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Resolver;
+
+/**
+ * Verifies that the Flight Recorder events are off by default, and that the
+ * instrumented call sites record them with their domain, outcome and
+ * duration once a recording enables them.
+ */
+@SuppressWarnings("PMD")
+class FlightRecorderEventsTest {
+
+  private static final String MX_LOOKUP = "com.preetam.emailvalidator.MxLookup";
+
+  private static final String SAFE_BROWSING = "com.preetam.emailvalidator.SafeBrowsingCheck";
+
+  private static final String CACHE_LOAD = "com.preetam.emailvalidator.CacheLoad";
+
+  private static final String RATE_LIMIT = "com.preetam.emailvalidator.RateLimit";
+
+  @TempDir Path tempDir;
+
+  @FunctionalInterface
+  private interface Scenario {
+    void run() throws Exception;
+  }
+
+  /** Runs the scenario under a recording enabling the given events, and returns those events. */
+  private List<RecordedEvent> record(Scenario scenario, String... enabled) throws Exception {
+    try (Recording recording = new Recording()) {
+      for (String name : enabled) {
+        recording.enable(name).withThreshold(Duration.ZERO);
+      }
+      recording.start();
+      scenario.run();
+      recording.stop();
+      Path dump = tempDir.resolve("events.jfr");
+      recording.dump(dump);
+      return RecordingFile.readAllEvents(dump).stream()
+          .filter(event -> event.getEventType().getName().startsWith("com.preetam."))
+          .toList();
+    }
+  }
+
+  @Test
+  void eventsAreDisabledByDefault() throws Exception {
+    for (Class<? extends Event> type :
+        List.of(
+            MxLookupEvent.class,
+            SafeBrowsingCheckEvent.class,
+            CacheLoadEvent.class,
+            RateLimitEvent.class)) {
+      assertThat(EventType.getEventType(type).isEnabled()).isFalse();
+    }
+
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              MxLookupEvent lookup = new MxLookupEvent("example.com");
+              lookup.complete("found");
+              assertThat(lookup.getDomain()).isNull();
+              assertThat(lookup.getOutcome()).isNull();
+
+              CacheLoadEvent load = new CacheLoadEvent("emails", "example.com");
+              load.complete(null);
+              assertThat(load.getCache()).isNull();
+              assertThat(load.getDomain()).isNull();
+              assertThat(load.getOutcome()).isNull();
+
+              SafeBrowsingCheckEvent check = new SafeBrowsingCheckEvent("example.com");
+              check.complete("safe");
+              assertThat(check.getDomain()).isNull();
+              assertThat(check.getOutcome()).isNull();
+
+              RateLimitEvent decision = new RateLimitEvent("127.0.0.1");
+              decision.complete(true);
+              assertThat(decision.getClient()).isNull();
+              assertThat(decision.isAllowed()).isFalse();
+            });
+
+    assertThat(events).isEmpty();
+  }
+
+  @Test
+  void eventsCarryTheirFieldsAndDuration() throws Exception {
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              CacheLoadEvent loaded = new CacheLoadEvent("domains", "example.com");
+              Thread.sleep(5);
+              loaded.complete(null);
+              assertThat(loaded.getCache()).isEqualTo("domains");
+              assertThat(loaded.getDomain()).isEqualTo("example.com");
+              assertThat(loaded.getOutcome()).isEqualTo("loaded");
+
+              CacheLoadEvent failed = new CacheLoadEvent("emails", "example.com");
+              failed.complete(new IllegalStateException("boom"));
+              assertThat(failed.getOutcome()).isEqualTo("failed");
+
+              SafeBrowsingCheckEvent check = new SafeBrowsingCheckEvent("example.com");
+              check.complete("safe");
+              assertThat(check.getDomain()).isEqualTo("example.com");
+              assertThat(check.getOutcome()).isEqualTo("safe");
+
+              MxLookupEvent lookup = new MxLookupEvent("example.com");
+              lookup.complete("none");
+              assertThat(lookup.getDomain()).isEqualTo("example.com");
+              assertThat(lookup.getOutcome()).isEqualTo("none");
+
+              RateLimitEvent decision = new RateLimitEvent("127.0.0.1");
+              decision.complete(false);
+              assertThat(decision.getClient()).isEqualTo("127.0.0.1");
+              assertThat(decision.isAllowed()).isFalse();
+            },
+            MX_LOOKUP,
+            SAFE_BROWSING,
+            CACHE_LOAD,
+            RATE_LIMIT);
+
+    assertThat(events).hasSize(5);
+    RecordedEvent loaded = events.get(0);
+    assertThat(loaded.getEventType().getName()).isEqualTo(CACHE_LOAD);
+    assertThat(loaded.getString("cache")).isEqualTo("domains");
+    assertThat(loaded.getString("domain")).isEqualTo("example.com");
+    assertThat(loaded.getString("outcome")).isEqualTo("loaded");
+    assertThat(loaded.getDuration()).isGreaterThanOrEqualTo(Duration.ofMillis(5));
+    assertThat(events.get(1).getString("outcome")).isEqualTo("failed");
+    assertThat(events.get(2).getString("domain")).isEqualTo("example.com");
+    assertThat(events.get(3).getString("outcome")).isEqualTo("none");
+    assertThat(events.get(4).getString("client")).isEqualTo("127.0.0.1");
+    assertThat(events.get(4).getBoolean("allowed")).isFalse();
+  }
+
+  @Test
+  void mxQueriesAreRecorded() throws Exception {
+    Resolver resolver = mock(Resolver.class);
+    when(resolver.sendAsync(any(Message.class)))
+        .thenReturn(CompletableFuture.completedFuture(new Message()))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("timeout")));
+    DnsLookupServiceImpl dnsLookupService =
+        new DnsLookupServiceImpl(resolver, 45, new SimpleMeterRegistry());
+
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              dnsLookupService.lookupMxAsync("example.com").join();
+              assertThatThrownBy(() -> dnsLookupService.lookupMxAsync("example.org").join())
+                  .hasRootCauseInstanceOf(IOException.class);
+            },
+            MX_LOOKUP);
+
+    assertThat(events)
+        .extracting(event -> event.getString("domain"), event -> event.getString("outcome"))
+        .containsExactly(tuple("example.com", "none"), tuple("example.org", "error"));
+  }
+
+  @Test
+  void safeBrowsingChecksAreRecorded() throws Exception {
+    GoogleSafeBrowsingService googleService = mock(GoogleSafeBrowsingService.class);
+    when(googleService.checkDomain("bad.com")).thenReturn(new SafeBrowsingResult(false, null));
+    ExecutorService executor = Executors.newCachedThreadPool();
+    SafeBrowsingGuard guard =
+        new SafeBrowsingGuard(
+            new SafeBrowsingBatcher(googleService, executor, Duration.ZERO, 500),
+            Duration.ofSeconds(2),
+            2,
+            Duration.ofMinutes(1),
+            10,
+            SafeBrowsingGuard.OutagePolicy.UNKNOWN,
+            100,
+            new SimpleMeterRegistry());
+
+    try {
+      List<RecordedEvent> events = record(() -> guard.check("bad.com").get(), SAFE_BROWSING);
+
+      assertThat(events).hasSize(1);
+      assertThat(events.get(0).getString("domain")).isEqualTo("bad.com");
+      assertThat(events.get(0).getString("outcome")).isEqualTo("unsafe");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void rateLimitDecisionsAreRecorded() throws Exception {
+    RateLimitingFilter filter =
+        new RateLimitingFilter(new SimpleMeterRegistry(), "10/1m", "", 100_000);
+    ServletRequest request = mock(ServletRequest.class);
+    HttpServletResponse response = mock(HttpServletResponse.class);
+    when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+    when(response.getWriter()).thenReturn(new PrintWriter(new StringWriter()));
+    filter.resolveBucket("10.0.0.1").tryConsume(9);
+
+    List<RecordedEvent> events =
+        record(
+            () -> {
+              filter.doFilter(request, response, mock(FilterChain.class));
+              filter.doFilter(request, response, mock(FilterChain.class));
+            },
+            RATE_LIMIT);
+
+    assertThat(events)
+        .extracting(event -> event.getBoolean("allowed"))
+        .containsExactly(true, false);
+    assertThat(events).allMatch(event -> "10.0.0.1".equals(event.getString("client")));
+  }
+}
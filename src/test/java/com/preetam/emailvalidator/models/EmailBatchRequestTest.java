@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/** Unit tests for {@link EmailBatchRequest}, verifying batch field validation. */
+@SpringBootTest
+@SuppressWarnings("PMD.AtLeastOneConstructor")
+class EmailBatchRequestTest {
+
+  /** Validator used to evaluate JSR-380 (Bean Validation) constraints. */
+  @Autowired private Validator validator;
+
+  @Test
+  void batchWithinLimitPassesValidation() {
+    final EmailBatchRequest request = new EmailBatchRequest();
+    request.setEmails(List.of("a@example.com", "b@example.com"));
+
+    final Set<ConstraintViolation<EmailBatchRequest>> violations = validator.validate(request);
+
+    assertThat(violations).isEmpty();
+  }
+
+  @Test
+  void emptyBatchFailsValidation() {
+    final EmailBatchRequest request = new EmailBatchRequest();
+    request.setEmails(Collections.emptyList());
+
+    final Set<ConstraintViolation<EmailBatchRequest>> violations = validator.validate(request);
+
+    assertThat(violations).isNotEmpty();
+  }
+
+  @Test
+  void oversizedBatchFailsValidation() {
+    final EmailBatchRequest request = new EmailBatchRequest();
+    request.setEmails(
+        Collections.nCopies(EmailBatchRequest.MAX_BATCH_SIZE + 1, "a@example.com"));
+
+    final Set<ConstraintViolation<EmailBatchRequest>> violations = validator.validate(request);
+
+    assertThat(violations).isNotEmpty();
+  }
+
+  @Test
+  void blankEntryFailsValidation() {
+    final EmailBatchRequest request = new EmailBatchRequest();
+    request.setEmails(List.of("a@example.com", " "));
+
+    final Set<ConstraintViolation<EmailBatchRequest>> violations = validator.validate(request);
+
+    final boolean hasBlankViolation =
+        violations.stream().anyMatch(v -> v.getMessage().contains("must not be blank"));
+
+    assertThat(hasBlankViolation).isTrue();
+  }
+}
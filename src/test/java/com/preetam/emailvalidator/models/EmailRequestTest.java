@@ -45,17 +45,14 @@ class EmailRequestTest {
   }
 
   @Test
-  void invalidEmailFormatFailsValidation() {
+  void invalidEmailFormatPassesValidation() {
     final EmailRequest request = new EmailRequest();
     request.setEmail("invalid-email");
 
     final Set<ConstraintViolation<EmailRequest>> violations = validator.validate(request);
 
-    final boolean violation =
-        violations.stream()
-            .anyMatch(v -> v.getMessage().contains("must be a well-formed email address"));
-
-    assertThat(violation).isTrue();
+    // Malformed addresses are validated and reported with validSyntax false.
+    assertThat(violations).isEmpty();
   }
 
   @Test
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("PMD")
+class AddressCanonicalizerTest {
+
+  private final AddressCanonicalizer canonicalizer =
+      new AddressCanonicalizer(
+          " gmail.com | GoogleMail.com : fold-case,, strip-subaddress, strip-dots ;;"
+              + "outlook.com:fold-case,strip-subaddress;"
+              + "example.net:strip-subaddress=-,;"
+              + "example.org:fold-case");
+
+  @Test
+  void appliesTheProviderRuleToEveryDomainOfTheEntry() {
+    assertThat(canonicalizer.canonicalize("John.Doe+news@GoogleMail.com"))
+        .isEqualTo("johndoe@googlemail.com");
+    assertThat(canonicalizer.canonicalize("j.o.h.n.doe@gmail.com")).isEqualTo("johndoe@gmail.com");
+    assertThat(canonicalizer.canonicalize("johndoe@gmail.com")).isEqualTo("johndoe@gmail.com");
+  }
+
+  @Test
+  void appliesOnlyTheFlagsOfTheRule() {
+    assertThat(canonicalizer.canonicalize("First.Last+x@Outlook.com"))
+        .isEqualTo("first.last@outlook.com");
+    assertThat(canonicalizer.canonicalize("Base-Key+x@example.net"))
+        .isEqualTo("Base@example.net");
+    assertThat(canonicalizer.canonicalize("First.Last+x@example.org"))
+        .isEqualTo("first.last+x@example.org");
+  }
+
+  @Test
+  void onlyLowercasesTheDomainOfOtherProviders() {
+    assertThat(canonicalizer.canonicalize("John.Doe+x@Example.COM"))
+        .isEqualTo("John.Doe+x@example.com");
+    assertThat(canonicalizer.canonicalize("user@example.com")).isSameAs("user@example.com");
+    assertThat(canonicalizer.canonicalize("user@MÜNCHEN.de")).isEqualTo("user@xn--mnchen-3ya.de");
+  }
+
+  @Test
+  void leavesQuotedAndEscapedLocalPartsAlone() {
+    assertThat(canonicalizer.canonicalize("\"J.Doe+x\"@GMAIL.com"))
+        .isEqualTo("\"J.Doe+x\"@gmail.com");
+    assertThat(canonicalizer.canonicalize("J\\.Doe@gmail.com")).isEqualTo("J\\.Doe@gmail.com");
+  }
+
+  @Test
+  void skipsRewritesThatWouldInvalidateTheAddress() {
+    assertThat(canonicalizer.canonicalize("+tag@GMAIL.com")).isEqualTo("+tag@gmail.com");
+  }
+
+  @Test
+  void leavesInvalidAddressesUnchanged() {
+    assertThat(canonicalizer.canonicalize("John..Doe@GMAIL.com")).isEqualTo("John..Doe@GMAIL.com");
+    assertThat(canonicalizer.canonicalize("invalid-email")).isEqualTo("invalid-email");
+  }
+
+  @Test
+  void acceptsNoRules() {
+    AddressCanonicalizer none = new AddressCanonicalizer("");
+
+    assertThat(none.canonicalize("John.Doe+x@GMAIL.com")).isEqualTo("John.Doe+x@gmail.com");
+  }
+
+  @Test
+  void rejectsMalformedRules() {
+    assertThatThrownBy(() -> new AddressCanonicalizer("gmail.com"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("without flags");
+    assertThatThrownBy(() -> new AddressCanonicalizer("gmail.com:fold"))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("fold");
+    assertThatThrownBy(() -> new AddressCanonicalizer("gmail.com:strip-subaddress=++"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new AddressCanonicalizer("gmail.com:strip-subaddressx"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.preetam.emailvalidator.beans.CacheConfig;
+import com.preetam.emailvalidator.beans.VerdictExpiry;
+import com.preetam.emailvalidator.models.EmailResponse;
+import com.preetam.emailvalidator.models.MxResponse;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Unit tests for {@link CacheSnapshotService}. */
+@SuppressWarnings("PMD")
+class CacheSnapshotServiceTest {
+
+  private static final String CACHE_NAME = EmailValidatorService.CACHE_NAME;
+
+  @TempDir Path dir;
+
+  private final JsonMapper jsonMapper = new JsonMapper();
+
+  private static CacheManager cacheManager() {
+    CacheConfig config = new CacheConfig();
+    VerdictExpiry expiry =
+        config.verdictExpiry(Duration.ofMinutes(1), Duration.ofHours(6), Duration.ofMinutes(30));
+    return config.cacheManager(expiry, Optional.empty());
+  }
+
+  private CacheSnapshotService service(CacheManager manager, long loadRate, int readyPercent) {
+    return new CacheSnapshotService(
+        manager, jsonMapper, dir.resolve("snapshot.gz").toString(), loadRate, readyPercent);
+  }
+
+  private static EmailResponse response(String email, long ttlSeconds) {
+    MxResponse mxResponse = new MxResponse();
+    mxResponse.setHasMx(true);
+    EmailResponse response = new EmailResponse();
+    response.setEmail(email);
+    response.setValidSyntax(true);
+    response.setIsSafe(true);
+    response.setIsDisposable(false);
+    response.setMxResponse(mxResponse);
+    response.setTtlSeconds(ttlSeconds);
+    return response;
+  }
+
+  private void writeSnapshot(String... lines) throws IOException {
+    try (Writer writer =
+        new OutputStreamWriter(
+            new GZIPOutputStream(Files.newOutputStream(dir.resolve("snapshot.gz"))),
+            StandardCharsets.UTF_8)) {
+      for (String line : lines) {
+        writer.write(line + "\n");
+      }
+    }
+  }
+
+  private static String entry(String email, long expiresAtMillis) {
+    return "{\"key\":\""
+        + email
+        + "\",\"expiresAtMillis\":"
+        + expiresAtMillis
+        + ",\"value\":{\"email\":\""
+        + email
+        + "\",\"validSyntax\":true}}";
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+    for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+      Thread.sleep(10);
+    }
+    assertThat(condition.getAsBoolean()).isTrue();
+  }
+
+  @Test
+  void savedResponsesAreRestoredWithTheirRemainingLifetime() throws Exception {
+    CacheManager before = cacheManager();
+    Cache cache = before.getCache(CACHE_NAME);
+    cache.put("a@gmail.com", response("a@gmail.com", 600));
+    cache.put("b@gmail.com", response("b@gmail.com", 3600));
+    cache.put("c@gmail.com", "not a response");
+    cache.put(42, response("d@gmail.com", 600));
+
+    assertThat(service(before, 1000, 90).save()).isEqualTo(2);
+
+    CacheManager after = cacheManager();
+    CacheSnapshotService restoring = service(after, 1000, 90);
+    assertThat(restoring.load()).isEqualTo(2);
+
+    assertThat(restoring.total()).isEqualTo(2);
+    assertThat(restoring.loaded()).isEqualTo(2);
+    EmailResponse restored = after.getCache(CACHE_NAME).get("a@gmail.com", EmailResponse.class);
+    assertThat(restored.getEmail()).isEqualTo("a@gmail.com");
+    assertThat(restored.getMxResponse().getHasMx()).isTrue();
+    assertThat(restored.getTtlSeconds()).isBetween(590L, 599L);
+    long expiresAfter =
+        ((CaffeineCache) after.getCache(CACHE_NAME))
+            .getNativeCache()
+            .policy()
+            .expireVariably()
+            .orElseThrow()
+            .getExpiresAfter("b@gmail.com", TimeUnit.SECONDS)
+            .orElseThrow();
+    assertThat(expiresAfter).isBetween(3580L, 3600L);
+  }
+
+  @Test
+  void loadSkipsExpiredEntriesAndKeepsNewerResponses() throws Exception {
+    long now = System.currentTimeMillis();
+    writeSnapshot(
+        "{\"entries\":3}",
+        entry("old@gmail.com", now - 1000),
+        entry("live@gmail.com", now + 600_000),
+        entry("kept@gmail.com", now + 600_000));
+    CacheManager manager = cacheManager();
+    manager.getCache(CACHE_NAME).put("live@gmail.com", response("live@gmail.com", 60));
+
+    assertThat(service(manager, 1000, 90).load()).isEqualTo(1);
+
+    Cache cache = manager.getCache(CACHE_NAME);
+    assertThat(cache.get("old@gmail.com")).isNull();
+    assertThat(cache.get("live@gmail.com", EmailResponse.class).getIsSafe()).isTrue();
+    assertThat(cache.get("kept@gmail.com", EmailResponse.class).getValidSyntax()).isTrue();
+  }
+
+  @Test
+  void missingSnapshotLeavesTheCacheCold() throws Exception {
+    CacheSnapshotService service = service(cacheManager(), 1000, 90);
+
+    assertThat(service.isWarm()).isFalse();
+    service.start();
+    await(service::isWarm);
+
+    assertThat(service.load()).isZero();
+    assertThat(service.total()).isEqualTo(-1);
+  }
+
+  @Test
+  void unreadableSnapshotIsSkipped() throws Exception {
+    writeSnapshot();
+    CacheSnapshotService service = service(cacheManager(), 1000, 90);
+
+    service.start();
+
+    await(service::isWarm);
+    assertThat(service.loaded()).isZero();
+  }
+
+  @Test
+  void cacheIsWarmOnceTheConfiguredShareIsLoaded() throws Exception {
+    long later = System.currentTimeMillis() + 600_000;
+    writeSnapshot(
+        "{\"entries\":3}",
+        entry("a@gmail.com", later),
+        entry("b@gmail.com", later),
+        entry("c@gmail.com", later));
+    CacheSnapshotService eager = service(cacheManager(), 1, 0);
+    CacheSnapshotService patient = service(cacheManager(), 1, 100);
+
+    eager.start();
+    patient.start();
+    await(() -> eager.total() == 3 && patient.total() == 3);
+
+    // One entry per second: the first is read at once, the rest are still waiting.
+    assertThat(eager.isWarm()).isTrue();
+    assertThat(patient.isWarm()).isFalse();
+    assertThat(patient.loaded()).isLessThan(3);
+
+    eager.shutdown();
+    patient.shutdown();
+    await(patient::isWarm);
+  }
+
+  @Test
+  void shutdownSavesTheCache() throws Exception {
+    CacheManager manager = cacheManager();
+    manager.getCache(CACHE_NAME).put("a@gmail.com", response("a@gmail.com", 600));
+
+    service(manager, 1000, 90).shutdown();
+
+    assertThat(service(cacheManager(), 1000, 90).load()).isEqualTo(1);
+  }
+
+  @Test
+  void shutdownSurvivesAnUnwritableSnapshot() throws IOException {
+    Files.writeString(dir.resolve("file"), "not a directory");
+    CacheSnapshotService service =
+        new CacheSnapshotService(
+            cacheManager(), jsonMapper, dir.resolve("file/snapshot.gz").toString(), 1000, 90);
+
+    service.shutdown();
+
+    assertThat(dir.resolve("file")).hasContent("not a directory");
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CircuitBreaker}. */
+@SuppressWarnings("PMD")
+class CircuitBreakerTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private CircuitBreaker breaker(Duration openDuration) {
+    return new CircuitBreaker("test", 2, openDuration, registry);
+  }
+
+  private double gauge() {
+    return registry.get(CircuitBreaker.METRIC_NAME).tag("name", "test").gauge().value();
+  }
+
+  @Test
+  void opensAfterConsecutiveFailures() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    breaker.onFailure();
+    assertThat(breaker.tryAcquire()).isTrue();
+    breaker.onFailure();
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+    assertThat(gauge()).isEqualTo(1.0);
+  }
+
+  @Test
+  void successResetsTheFailureCount() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+    breaker.onFailure();
+    breaker.onSuccess();
+    breaker.onFailure();
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(gauge()).isZero();
+  }
+
+  @Test
+  void letsOneProbeThroughOnceOpenDurationHasPassed() {
+    CircuitBreaker breaker = breaker(Duration.ZERO);
+    breaker.onFailure();
+    breaker.onFailure();
+
+    assertThat(breaker.tryAcquire()).isTrue();
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+    assertThat(gauge()).isEqualTo(2.0);
+  }
+
+  @Test
+  void successfulProbeClosesTheBreaker() {
+    CircuitBreaker breaker = breaker(Duration.ZERO);
+    breaker.onFailure();
+    breaker.onFailure();
+    breaker.tryAcquire();
+
+    breaker.onSuccess();
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(breaker.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void failedProbeOpensTheBreakerAgain() {
+    CircuitBreaker breaker = breaker(Duration.ZERO);
+    breaker.onFailure();
+    breaker.onFailure();
+    breaker.tryAcquire();
+
+    breaker.onFailure();
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void ignoredProbeLetsTheNextCallProbe() {
+    CircuitBreaker breaker = breaker(Duration.ZERO);
+    breaker.onFailure();
+    breaker.onFailure();
+    breaker.tryAcquire();
+
+    breaker.onIgnored();
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void lateSuccessDoesNotCloseAnOpenBreaker() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+    breaker.onFailure();
+    breaker.onFailure();
+
+    breaker.onSuccess();
+    breaker.onIgnored();
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  @Test
+  void lateFailureKeepsAnOpenBreakerOpen() {
+    CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+    breaker.onFailure();
+    breaker.onFailure();
+
+    breaker.onFailure();
+
+    assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(breaker.tryAcquire()).isFalse();
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("PMD")
+class DisposableDomainIndexTest {
+
+  @Test
+  void matchesListedDomainsAndTheirSubdomains() {
+    DisposableDomainIndex index =
+        DisposableDomainIndex.of(List.of("mailinator.com", "yopmail.com", "trash.co.uk"));
+
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.contains("mailinator.com")).isTrue();
+    assertThat(index.contains("x.mailinator.com")).isTrue();
+    assertThat(index.contains("a.b.trash.co.uk")).isTrue();
+    assertThat(index.contains("yopmail.com")).isTrue();
+  }
+
+  @Test
+  void doesNotMatchParentsSiblingsOrPartialLabels() {
+    DisposableDomainIndex index = DisposableDomainIndex.of(List.of("trash.co.uk"));
+
+    assertThat(index.contains("co.uk")).isFalse();
+    assertThat(index.contains("uk")).isFalse();
+    assertThat(index.contains("other.co.uk")).isFalse();
+    assertThat(index.contains("mytrash.co.uk")).isFalse();
+    assertThat(index.contains("trash.co.ukx")).isFalse();
+    assertThat(index.contains("rash.co.uk")).isFalse();
+    assertThat(index.contains("")).isFalse();
+  }
+
+  @Test
+  void matchesCaseInsensitively() {
+    DisposableDomainIndex index = DisposableDomainIndex.of(List.of("MailInator.COM"));
+
+    assertThat(index.contains("mailinator.com")).isTrue();
+    assertThat(index.contains("X.MAILINATOR.Com")).isTrue();
+  }
+
+  @Test
+  void normalizesWildcardsAndDots() {
+    DisposableDomainIndex index =
+        DisposableDomainIndex.of(List.of("*.wild.com", ".lead.com", "trail.com.", "  ", "."));
+
+    assertThat(index.size()).isEqualTo(3);
+    assertThat(index.contains("wild.com")).isTrue();
+    assertThat(index.contains("lead.com")).isTrue();
+    assertThat(index.contains("trail.com")).isTrue();
+  }
+
+  @Test
+  void countsDuplicatesOnce() {
+    DisposableDomainIndex index =
+        DisposableDomainIndex.of(List.of("yopmail.com", "YOPMAIL.com", "com"));
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.contains("anything.com")).isTrue();
+  }
+
+  @Test
+  void readsOneDomainPerLineSkippingCommentsAndBlanks() throws IOException {
+    DisposableDomainIndex index =
+        DisposableDomainIndex.read(
+            new StringReader("# disposable\n\nmailinator.com\n  yopmail.com  \n#ignored.com\n"));
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.contains("yopmail.com")).isTrue();
+    assertThat(index.contains("ignored.com")).isFalse();
+  }
+
+  @Test
+  void emptyIndexMatchesNothing() {
+    assertThat(DisposableDomainIndex.empty().size()).isZero();
+    assertThat(DisposableDomainIndex.empty().contains("mailinator.com")).isFalse();
+  }
+
+  @Test
+  void handlesLargeLists() {
+    DisposableDomainIndex.Builder builder = DisposableDomainIndex.builder();
+    for (int i = 0; i < 20_000; i++) {
+      builder.add("d" + i + ".example" + (i % 7) + ".com");
+    }
+    DisposableDomainIndex index = builder.build();
+
+    assertThat(index.size()).isEqualTo(20_000);
+    assertThat(index.contains("mx.d19999.example0.com")).isTrue();
+    assertThat(index.contains("d19999.example4.com")).isFalse();
+  }
+
+  @Test
+  void applyFlipsDomainsAlreadyInTheTrie() {
+    DisposableDomainIndex index = DisposableDomainIndex.of(List.of("a.trash.com", "yopmail.com"));
+
+    DisposableDomainIndex updated =
+        index.apply(List.of("trash.com", "COM."), List.of("yopmail.com", "missing.org", ""));
+
+    assertThat(updated.contains("b.trash.com")).isTrue();
+    assertThat(updated.contains("yopmail.com")).isTrue();
+    assertThat(updated.overlaySize()).isZero();
+    assertThat(updated.size()).isEqualTo(3);
+    assertThat(index.contains("b.trash.com")).isFalse();
+  }
+
+  @Test
+  void applyUnlistsRemovedDomainsAndTheirSubdomains() {
+    DisposableDomainIndex index = DisposableDomainIndex.of(List.of("trash.com", "yopmail.com"));
+
+    DisposableDomainIndex updated = index.apply(List.of(), List.of("trash.com"));
+
+    assertThat(updated.contains("x.trash.com")).isFalse();
+    assertThat(updated.contains("yopmail.com")).isTrue();
+    assertThat(updated.size()).isEqualTo(1);
+    assertThat(index.contains("x.trash.com")).isTrue();
+  }
+
+  @Test
+  void applyKeepsNewDomainsInAnOverlay() {
+    DisposableDomainIndex index = DisposableDomainIndex.of(List.of("yopmail.com"));
+
+    DisposableDomainIndex updated = index.apply(List.of("new.example", " "), List.of());
+
+    assertThat(updated.overlaySize()).isEqualTo(1);
+    assertThat(updated.size()).isEqualTo(2);
+    assertThat(updated.contains("x.new.example")).isTrue();
+    assertThat(updated.contains("old.example")).isFalse();
+
+    DisposableDomainIndex reverted = updated.apply(List.of(), List.of("new.example"));
+
+    assertThat(reverted.overlaySize()).isZero();
+    assertThat(reverted.contains("x.new.example")).isFalse();
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+@SuppressWarnings("PMD")
+class DisposableDomainServiceTest {
+
+  @Test
+  void loadsTheBundledList() throws IOException {
+    DisposableDomainService service =
+        new DisposableDomainService(new ClassPathResource("disposable-domains.txt"));
+
+    assertThat(service.size()).isEqualTo(4);
+    assertThat(service.isDisposable("mailinator.com")).isTrue();
+    assertThat(service.isDisposable("inbox.guerrillamail.com")).isTrue();
+    assertThat(service.isDisposable("gmail.com")).isFalse();
+  }
+
+  @Test
+  void loadsTheConfiguredList() throws IOException {
+    DisposableDomainService service =
+        new DisposableDomainService(
+            new ByteArrayResource("temp.example\n".getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(service.size()).isEqualTo(1);
+    assertThat(service.isDisposable("a.temp.example")).isTrue();
+    assertThat(service.isDisposable("mailinator.com")).isFalse();
+  }
+
+  @Test
+  void failsWhenTheListIsMissing() {
+    assertThatThrownBy(
+            () -> new DisposableDomainService(new ClassPathResource("missing-domains.txt")))
+        .isInstanceOf(IOException.class);
+  }
+
+  @Test
+  void getLoggerReturnsLogger() throws IOException {
+    DisposableDomainService service =
+        new DisposableDomainService(new ClassPathResource("disposable-domains.txt"));
+
+    assertThat(service.getLogger()).isSameAs(DisposableDomainService.LOGGER);
+  }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import org.apache.commons.compress.archivers.ArchiveOutputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+/** Tests {@link DisposableListSync} against a local git repository and local archives. */
+@SuppressWarnings("PMD")
+class DisposableListSyncTest {
+
+  private static final String LIST = "disposable_email_blocklist.conf";
+
+  @TempDir Path dir;
+
+  private Git upstream;
+
+  private DisposableDomainService service;
+
+  private DisposableListSync sync;
+
+  @BeforeEach
+  void setup() throws IOException, GitAPIException {
+    upstream =
+        Git.init().setDirectory(dir.resolve("upstream").toFile()).setInitialBranch("main").call();
+    service = new DisposableDomainService(new ByteArrayResource(new byte[0]));
+  }
+
+  @AfterEach
+  void teardown() {
+    upstream.close();
+    if (sync != null) {
+      sync.shutdown();
+    }
+  }
+
+  private DisposableListSync sync(String source, int compactThreshold) {
+    return new DisposableListSync(
+        service,
+        new RestTemplate(),
+        source,
+        LIST,
+        "main",
+        dir.resolve("clone"),
+        Duration.ofHours(1),
+        compactThreshold);
+  }
+
+  private String upstreamUri() {
+    return dir.resolve("upstream").toUri().toString();
+  }
+
+  private void commit(String file, String content) throws IOException, GitAPIException {
+    Files.writeString(dir.resolve("upstream").resolve(file), content);
+    upstream.add().addFilepattern(file).call();
+    upstream
+        .commit()
+        .setMessage("Update " + file)
+        .setAuthor("test", "test@example.com")
+        .setCommitter("test", "test@example.com")
+        .setSign(false)
+        .call();
+  }
+
+  private static void write(ArchiveOutputStream<?> out, Map<String, String> entries, boolean zip)
+      throws IOException {
+    for (Map.Entry<String, String> entry : entries.entrySet()) {
+      byte[] content = entry.getValue().getBytes(StandardCharsets.UTF_8);
+      if (zip) {
+        ((ZipArchiveOutputStream) out).putArchiveEntry(new ZipArchiveEntry(entry.getKey()));
+      } else {
+        TarArchiveEntry tarEntry = new TarArchiveEntry(entry.getKey());
+        tarEntry.setSize(content.length);
+        ((TarArchiveOutputStream) out).putArchiveEntry(tarEntry);
+      }
+      out.write(content);
+      out.closeArchiveEntry();
+    }
+    out.finish();
+  }
+
+  private Path zip(String name, Map<String, String> entries) throws IOException {
+    Path file = dir.resolve(name);
+    try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(Files.newOutputStream(file))) {
+      write(out, entries, true);
+    }
+    return file;
+  }
+
+  private Path tar(String name, Map<String, String> entries, boolean gzip) throws IOException {
+    Path file = dir.resolve(name);
+    try (OutputStream raw = Files.newOutputStream(file);
+        OutputStream compressed = gzip ? new GzipCompressorOutputStream(raw) : raw;
+        TarArchiveOutputStream out = new TarArchiveOutputStream(compressed)) {
+      write(out, entries, false);
+    }
+    return file;
+  }
+
+  /** Entries laid out as in a GitHub archive, below a top-level directory. */
+  private static Map<String, String> githubLayout(String list) {
+    Map<String, String> entries = new LinkedHashMap<>();
+    entries.put("repo-main/", "");
+    entries.put("repo-main/README.md", "readme");
+    entries.put("repo-main/" + LIST, list);
+    return entries;
+  }
+
+  private static boolean waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    return condition.getAsBoolean();
+  }
+
+  @Test
+  void loadsTheListFromGitThenAppliesOnlyChangedLines() throws Exception {
+    commit(LIST, "# disposable\na.com\nb.com\n");
+    sync = sync(upstreamUri(), 100);
+
+    assertThat(sync.update()).isTrue();
+    assertThat(service.isDisposable("x.a.com")).isTrue();
+    assertThat(service.size()).isEqualTo(2);
+    DisposableDomainIndex loaded = service.index();
+
+    commit(LIST, "# disposable list\na.com\nc.com\n");
+
+    assertThat(sync.update()).isTrue();
+    assertThat(service.isDisposable("b.com")).isFalse();
+    assertThat(service.isDisposable("c.com")).isTrue();
+    assertThat(service.index()).isNotSameAs(loaded);
+    assertThat(service.index().overlaySize()).isEqualTo(1);
+    assertThat(sync.update()).isFalse();
+  }
+
+  @Test
+  void rebuildsTheIndexOnceTheOverlayOutgrowsTheThreshold() throws Exception {
+    commit(LIST, "a.com\n");
+    sync = sync(upstreamUri(), 0);
+    sync.update();
+
+    commit(LIST, "a.com\nb.com\n");
+
+    assertThat(sync.update()).isTrue();
+    assertThat(service.isDisposable("b.com")).isTrue();
+    assertThat(service.index().overlaySize()).isZero();
+  }
+
+  @Test
+  void ignoresCommitsThatLeaveTheListUnchanged() throws Exception {
+    commit(LIST, "a.com\n");
+    sync = sync(upstreamUri(), 100);
+    sync.update();
+    DisposableDomainIndex loaded = service.index();
+
+    commit("README.md", "readme");
+
+    assertThat(sync.update()).isFalse();
+    assertThat(service.index()).isSameAs(loaded);
+  }
+
+  @Test
+  void reusesAnExistingClone() throws Exception {
+    commit(LIST, "a.com\n");
+    sync(upstreamUri(), 100).update();
+    commit(LIST, "a.com\nb.com\n");
+    service = new DisposableDomainService(new ByteArrayResource(new byte[0]));
+    sync = sync(upstreamUri(), 100);
+
+    assertThat(sync.update()).isTrue();
+    assertThat(service.size()).isEqualTo(2);
+    assertThat(service.index().overlaySize()).isZero();
+  }
+
+  @Test
+  void failsWhenTheBranchOrListIsMissing() throws Exception {
+    commit("README.md", "readme");
+    sync = sync(upstreamUri(), 100);
+
+    assertThatThrownBy(sync::update).isInstanceOf(IOException.class).hasMessageContaining(LIST);
+
+    upstream.branchRename().setNewName("trunk").call();
+    assertThatThrownBy(sync::update).isInstanceOf(GitAPIException.class);
+  }
+
+  @Test
+  void readsTheListFromZipAndTarArchives() throws Exception {
+    Path zip = zip("list.zip", Map.of(LIST, "a.com\n"));
+    Path tar = tar("list.tar", githubLayout("b.com\n"), false);
+    Path tgz = tar("list.tgz", githubLayout("c.com\n"), true);
+
+    sync = sync(zip.toUri().toString(), 100);
+    assertThat(sync.update()).isTrue();
+    assertThat(service.isDisposable("a.com")).isTrue();
+
+    sync = sync(tar.toUri().toString(), 100);
+    assertThat(sync.update()).isTrue();
+    assertThat(service.isDisposable("b.com")).isTrue();
+
+    sync = sync(tgz.toUri().toString(), 100);
+    assertThat(sync.update()).isTrue();
+    assertThat(service.isDisposable("c.com")).isTrue();
+  }
+
+  @Test
+  void appliesChangedLinesBetweenArchiveDownloads() throws Exception {
+    Path zip = zip("list.zip", Map.of(LIST, "a.com\nb.com\n"));
+    sync = sync(zip.toUri().toString(), 100);
+    sync.update();
+
+    zip("list.zip", Map.of(LIST, "a.com\nc.com\n"));
+
+    assertThat(sync.update()).isTrue();
+    assertThat(service.isDisposable("b.com")).isFalse();
+    assertThat(service.index().overlaySize()).isEqualTo(1);
+    assertThat(sync.update()).isFalse();
+  }
+
+  @Test
+  void downloadsArchivesOverHttp() throws Exception {
+    byte[] archive = Files.readAllBytes(tar("list.tar.gz", githubLayout("a.com\n"), true));
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          exchange.sendResponseHeaders(200, archive.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(archive);
+          }
+        });
+    server.start();
+    try {
+      sync = sync("http://localhost:" + server.getAddress().getPort() + "/main.tar.gz", 100);
+
+      assertThat(sync.update()).isTrue();
+      assertThat(service.isDisposable("a.com")).isTrue();
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  void downloadsArchivesOverHttpsAndStopsAtTheList() throws Exception {
+    Map<String, String> entries = new LinkedHashMap<>();
+    entries.put(LIST, "a.com\n");
+    entries.put("sub/" + LIST, "b.com\n");
+    byte[] archive = Files.readAllBytes(zip("list.zip", entries));
+    String url = "https://example.com/main.zip";
+    RestTemplate restTemplate = mock(RestTemplate.class);
+    ClientHttpResponse response = mock(ClientHttpResponse.class);
+    doReturn(new ByteArrayInputStream(archive)).when(response).getBody();
+    doAnswer(
+            invocation ->
+                invocation.<ResponseExtractor<byte[]>>getArgument(3).extractData(response))
+        .when(restTemplate)
+        .execute(eq(url), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class));
+    sync =
+        new DisposableListSync(
+            service,
+            restTemplate,
+            url,
+            LIST,
+            "main",
+            dir.resolve("clone"),
+            Duration.ofHours(1),
+            100);
+
+    assertThat(sync.update()).isTrue();
+    assertThat(service.isDisposable("a.com")).isTrue();
+    assertThat(service.isDisposable("b.com")).isFalse();
+  }
+
+  @Test
+  void failsWhenTheArchiveHasNoList() throws Exception {
+    Path zip = zip("list.zip", Map.of("README.md", "readme"));
+    sync = sync(zip.toUri().toString(), 100);
+
+    assertThatThrownBy(sync::update).isInstanceOf(IOException.class).hasMessageContaining(LIST);
+  }
+
+  @Test
+  void startSyncsInTheBackground() throws Exception {
+    commit(LIST, "a.com\n");
+    sync = sync(upstreamUri(), 100);
+
+    sync.start();
+
+    assertThat(waitUntil(() -> service.isDisposable("a.com"))).isTrue();
+  }
+
+  @Test
+  void failedBackgroundSyncIsLoggedAndKeepsTheList() {
+    Logger logger = mock(Logger.class);
+    sync = spy(sync(dir.resolve("missing.zip").toUri().toString(), 100));
+    doReturn(logger).when(sync).getLogger();
+
+    sync.start();
+
+    verify(logger, timeout(5000))
+        .warn(anyString(), eq(dir.resolve("missing.zip").toUri().toString()), any(Throwable.class));
+    assertThat(service.size()).isZero();
+  }
+
+  @Test
+  void getLoggerReturnsLoggerInstance() {
+    assertThat(sync(upstreamUri(), 100).getLogger()).isSameAs(DisposableListSync.LOGGER);
+  }
+}
@@ -5,12 +5,31 @@
 package com.preetam.emailvalidator.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.xbill.DNS.Record;
-import org.xbill.DNS.TextParseException;
+import org.xbill.DNS.ARecord;
+import org.xbill.DNS.DClass;
+import org.xbill.DNS.MXRecord;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.NSRecord;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.Rcode;
+import org.xbill.DNS.Resolver;
+import org.xbill.DNS.SOARecord;
+import org.xbill.DNS.Section;
 
 /**
  * Unit tests for {@link DnsLookupServiceImpl}.
@@ -24,27 +43,245 @@ class DnsLookupServiceImplTest {
   /** The service under test, responsible for DNS MX record lookups. */
   @Autowired private DnsLookupServiceImpl dnsLookupService;
 
+  /** Registry receiving the query timers of services built by the tests. */
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  private long lookups(final String outcome) {
+    return registry
+        .get(DnsLookupServiceImpl.LOOKUP_METRIC)
+        .tag("outcome", outcome)
+        .timer()
+        .count();
+  }
+
   /** Test that MX records are returned for a valid domain like gmail.com. */
   @Test
-  void testMxRecordsNotNullForValidDomain() throws TextParseException {
-    final Record[] records = dnsLookupService.lookupMxRecords("gmail.com");
+  void testMxRecordsNotNullForValidDomain() throws Exception {
+    final MxResult result = dnsLookupService.lookupMxAsync("gmail.com").get();
 
-    assertThat(records).isNotNull();
+    assertThat(result.records()).isNotNull();
   }
 
   /** Test that MX records are non-empty for a valid domain like gmail.com. */
   @Test
-  void testMxRecordsNotEmptyForValidDomain() throws TextParseException {
-    final Record[] records = dnsLookupService.lookupMxRecords("gmail.com");
+  void testMxRecordsNotEmptyForValidDomain() throws Exception {
+    final MxResult result = dnsLookupService.lookupMxAsync("gmail.com").get();
 
-    assertThat(records).isNotEmpty();
+    assertThat(result.records()).isNotEmpty();
   }
 
-  /** Test that MX records are null for a non-existent domain. */
+  /** Test that no MX records are returned for a non-existent domain. */
   @Test
-  void testMxRecordsNullForNonExistentDomain() throws TextParseException {
-    final Record[] records = dnsLookupService.lookupMxRecords("nonexistentdomainforsure12345.com");
+  void testMxRecordsEmptyForNonExistentDomain() throws Exception {
+    final MxResult result =
+        dnsLookupService.lookupMxAsync("nonexistentdomainforsure12345.com").get();
+
+    assertThat(result.records()).isEmpty();
+  }
+
+  /** Test that a positive answer for gmail.com carries a TTL. */
+  @Test
+  void testLookupMxAsyncReturnsRecordsWithTtlForValidDomain() throws Exception {
+    final MxResult result = dnsLookupService.lookupMxAsync("gmail.com").get();
+
+    assertThat(result.hasRecords()).isTrue();
+    assertThat(result.ttlSeconds()).isPositive();
+  }
+
+  /** Test that a negative answer carries the SOA negative-caching TTL. */
+  @Test
+  void testLookupMxAsyncReturnsNegativeTtlForNonExistentDomain() throws Exception {
+    final MxResult result =
+        dnsLookupService.lookupMxAsync("nonexistentdomainforsure12345.com").get();
+
+    assertThat(result.hasRecords()).isFalse();
+    assertThat(result.ttlSeconds()).isPositive();
+  }
+
+  /** Test that the smallest MX TTL wins and non-MX answers are ignored. */
+  @Test
+  void testToResultUsesSmallestMxTtl() throws Exception {
+    final Name name = Name.fromString("example.com.");
+    final Message response = new Message();
+    response.addRecord(
+        new MXRecord(name, DClass.IN, 3600, 10, Name.fromString("mx1.example.com.")),
+        Section.ANSWER);
+    response.addRecord(
+        new MXRecord(name, DClass.IN, 600, 20, Name.fromString("mx2.example.com.")),
+        Section.ANSWER);
+    response.addRecord(
+        new ARecord(name, DClass.IN, 5, InetAddress.getByName("127.0.0.1")), Section.ANSWER);
+
+    final MxResult result = DnsLookupServiceImpl.toResult(response, 60);
+
+    assertThat(result.records()).hasSize(2);
+    assertThat(result.ttlSeconds()).isEqualTo(600);
+  }
+
+  /** Test that a negative answer uses min(SOA TTL, SOA minimum). */
+  @Test
+  void testToResultUsesSoaMinimumForNegativeAnswer() throws IOException {
+    final Name zone = Name.fromString("example.com.");
+    final Message response = new Message();
+    response.addRecord(
+        new SOARecord(
+            zone,
+            DClass.IN,
+            3600,
+            Name.fromString("ns.example.com."),
+            Name.fromString("admin.example.com."),
+            1,
+            7200,
+            900,
+            1_209_600,
+            300),
+        Section.AUTHORITY);
+
+    final MxResult result = DnsLookupServiceImpl.toResult(response, 60);
+
+    assertThat(result.hasRecords()).isFalse();
+    assertThat(result.ttlSeconds()).isEqualTo(300);
+  }
+
+  /** Test that an answer without MX records or SOA uses the fallback TTL. */
+  @Test
+  void testToResultFallsBackWithoutSoa() throws IOException {
+    final MxResult result = DnsLookupServiceImpl.toResult(new Message(), 60);
+
+    assertThat(result.ttlSeconds()).isEqualTo(60);
+  }
+
+  /** Test that authority records other than the SOA do not set the TTL. */
+  @Test
+  void testToResultIgnoresNonSoaAuthorityRecords() throws IOException {
+    final Message response = new Message();
+    response.addRecord(
+        new NSRecord(
+            Name.fromString("example.com."),
+            DClass.IN,
+            3600,
+            Name.fromString("ns.example.com.")),
+        Section.AUTHORITY);
+
+    final MxResult result = DnsLookupServiceImpl.toResult(response, 60);
+
+    assertThat(result.hasRecords()).isFalse();
+    assertThat(result.ttlSeconds()).isEqualTo(60);
+  }
+
+  private static Message answer(final int rcode) {
+    final Message response = new Message();
+    response.getHeader().setRcode(rcode);
+    return response;
+  }
+
+  /** Test that a server failure response code fails the query. */
+  @Test
+  void testLookupMxAsyncFailsOnServerFailure() {
+    final Resolver resolver = mock(Resolver.class);
+    when(resolver.sendAsync(any(Message.class)))
+        .thenReturn(CompletableFuture.completedFuture(answer(Rcode.SERVFAIL)));
+
+    final CompletableFuture<MxResult> future =
+        new DnsLookupServiceImpl(resolver, 45, registry).lookupMxAsync("example.com");
+
+    assertThatThrownBy(future::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasRootCauseInstanceOf(IOException.class)
+        .hasRootCauseMessage("MX query answered SERVFAIL");
+    assertThat(lookups("error")).isEqualTo(1);
+  }
+
+  /** Test that only NOERROR and NXDOMAIN responses are converted. */
+  @Test
+  void testToResultRejectsFailureResponseCodes() throws Exception {
+    assertThat(DnsLookupServiceImpl.toResult(answer(Rcode.NXDOMAIN), 60).hasRecords()).isFalse();
+    for (final int rcode : new int[] {Rcode.SERVFAIL, Rcode.REFUSED, Rcode.FORMERR}) {
+      assertThatThrownBy(() -> DnsLookupServiceImpl.toResult(answer(rcode), 60))
+          .isInstanceOf(IOException.class)
+          .hasMessageContaining(Rcode.string(rcode));
+    }
+  }
+
+  /** Test that a negative answer is timed apart from failed queries. */
+  @Test
+  void testLookupMxAsyncTimesNegativeAnswers() throws Exception {
+    final Resolver resolver = mock(Resolver.class);
+    when(resolver.sendAsync(any(Message.class)))
+        .thenReturn(CompletableFuture.completedFuture(new Message()));
+
+    final MxResult result =
+        new DnsLookupServiceImpl(resolver, 45, registry).lookupMxAsync("example.com").get();
+
+    assertThat(result.hasRecords()).isFalse();
+    assertThat(lookups("none")).isEqualTo(1);
+    assertThat(registry.find(DnsLookupServiceImpl.LOOKUP_METRIC).tag("outcome", "error").timer())
+        .isNull();
+  }
+
+  /** Test that the asynchronous lookup converts the resolver's answer. */
+  @Test
+  void testLookupMxAsyncConvertsResponse() throws Exception {
+    final Name name = Name.fromString("example.com.");
+    final Message response = new Message();
+    response.addRecord(
+        new MXRecord(name, DClass.IN, 1200, 10, Name.fromString("mx1.example.com.")),
+        Section.ANSWER);
+    final Resolver resolver = mock(Resolver.class);
+    when(resolver.sendAsync(any(Message.class)))
+        .thenReturn(CompletableFuture.completedFuture(response));
+
+    final MxResult result =
+        new DnsLookupServiceImpl(resolver, 45, registry).lookupMxAsync("example.com").get();
+
+    assertThat(result.hasRecords()).isTrue();
+    assertThat(result.ttlSeconds()).isEqualTo(1200);
+    assertThat(lookups("found")).isEqualTo(1);
+  }
+
+  /** Test that a failed asynchronous query fails the future. */
+  @Test
+  void testLookupMxAsyncFailsOnFailure() {
+    final Resolver resolver = mock(Resolver.class);
+    when(resolver.sendAsync(any(Message.class)))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("timeout")));
+
+    final CompletableFuture<MxResult> future =
+        new DnsLookupServiceImpl(resolver, 45, registry).lookupMxAsync("example.com");
+
+    assertThatThrownBy(future::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasRootCauseInstanceOf(IOException.class);
+    assertThat(lookups("error")).isEqualTo(1);
+  }
+
+  /** Test that an asynchronous query answered with REFUSED fails the future. */
+  @Test
+  void testLookupMxAsyncFailsOnRefusedAnswer() {
+    final Resolver resolver = mock(Resolver.class);
+    when(resolver.sendAsync(any(Message.class)))
+        .thenReturn(CompletableFuture.completedFuture(answer(Rcode.REFUSED)));
+
+    final CompletableFuture<MxResult> future =
+        new DnsLookupServiceImpl(resolver, 45, registry).lookupMxAsync("example.com");
+
+    assertThatThrownBy(future::get)
+        .isInstanceOf(ExecutionException.class)
+        .hasRootCauseMessage("MX query answered REFUSED");
+    assertThat(lookups("error")).isEqualTo(1);
+  }
+
+  /** Test that an unparseable domain fails the future without querying the resolver. */
+  @Test
+  void testLookupMxAsyncFailsForInvalidName() {
+    final Resolver resolver = mock(Resolver.class);
+
+    final CompletableFuture<MxResult> future =
+        new DnsLookupServiceImpl(resolver, 45, registry)
+            .lookupMxAsync("a".repeat(64) + ".com");
 
-    assertThat(records).isNull();
+    assertThat(future).isCompletedExceptionally();
+    verifyNoInteractions(resolver);
+    assertThat(registry.find(DnsLookupServiceImpl.LOOKUP_METRIC).timers()).isEmpty();
   }
 }
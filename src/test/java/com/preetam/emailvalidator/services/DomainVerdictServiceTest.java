@@ -0,0 +1,545 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.preetam.emailvalidator.beans.CacheConfig;
+import com.preetam.emailvalidator.models.DomainVerdict;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.client.ResourceAccessException;
+import org.xbill.DNS.MXRecord;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.TextParseException;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("PMD")
+class DomainVerdictServiceTest {
+
+  @Mock private DnsLookupService dnsLookupService;
+
+  @Mock private GoogleSafeBrowsingService googleSafeBrowsingService;
+
+  private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final LatencyProfiler latencyProfiler =
+      new LatencyProfiler(meterRegistry, Duration.ofMillis(500), 5, Duration.ofMinutes(1));
+
+  private DisposableDomainService disposableDomainService;
+
+  private DomainVerdictService service;
+
+  private SafeBrowsingGuard guard(Duration timeout, SafeBrowsingGuard.OutagePolicy policy) {
+    return new SafeBrowsingGuard(
+        new SafeBrowsingBatcher(googleSafeBrowsingService, executor, Duration.ZERO, 500),
+        timeout,
+        5,
+        Duration.ofMinutes(1),
+        1000,
+        policy,
+        1000,
+        meterRegistry);
+  }
+
+  @BeforeEach
+  void setup() throws IOException {
+    disposableDomainService =
+        new DisposableDomainService(new ClassPathResource("disposable-domains.txt"));
+    service =
+        new DomainVerdictService(
+            dnsLookupService,
+            guard(Duration.ofSeconds(5), SafeBrowsingGuard.OutagePolicy.UNKNOWN),
+            disposableDomainService,
+            cacheManager,
+            latencyProfiler,
+            Duration.ofSeconds(5),
+            60,
+            1.0,
+            meterRegistry);
+    lenient()
+        .when(googleSafeBrowsingService.checkDomain(anyString()))
+        .thenReturn(new SafeBrowsingResult(true, null));
+  }
+
+  @Test
+  void lookupCombinesAllDomainChecks() throws TextParseException {
+    MXRecord mxRecord = mock(MXRecord.class);
+    when(mxRecord.getTarget()).thenReturn(Name.fromString("mx.mailinator.com."));
+    when(mxRecord.getPriority()).thenReturn(5);
+    when(dnsLookupService.lookupMxAsync("mailinator.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(mxRecord), 3600)));
+
+    DomainVerdict verdict = service.lookup("mailinator.com");
+
+    assertThat(verdict.getDomain()).isEqualTo("mailinator.com");
+    assertThat(verdict.getIsSafe()).isTrue();
+    assertThat(verdict.getMxResponse().getHasMx()).isTrue();
+    assertThat(verdict.getIsDisposable()).isTrue();
+    assertThat(verdict.getTtlSeconds()).isEqualTo(3600);
+  }
+
+  @Test
+  void lookupUsesShorterSafeBrowsingCacheDuration() throws TextParseException {
+    when(dnsLookupService.lookupMxAsync("bad.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 900)));
+    when(googleSafeBrowsingService.checkDomain("bad.com"))
+        .thenReturn(new SafeBrowsingResult(false, Duration.ofSeconds(300)));
+
+    DomainVerdict verdict = service.lookup("bad.com");
+
+    assertThat(verdict.getIsSafe()).isFalse();
+    assertThat(verdict.getTtlSeconds()).isEqualTo(300);
+  }
+
+  @Test
+  void lookupKeepsMxTtlWhenShorterThanCacheDuration() throws TextParseException {
+    when(dnsLookupService.lookupMxAsync("bad.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 60)));
+    when(googleSafeBrowsingService.checkDomain("bad.com"))
+        .thenReturn(new SafeBrowsingResult(false, Duration.ofSeconds(300)));
+
+    assertThat(service.lookup("bad.com").getTtlSeconds()).isEqualTo(60);
+  }
+
+  @Test
+  void lookupNoRecords() throws TextParseException {
+    when(dnsLookupService.lookupMxAsync("nodomain.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 900)));
+
+    DomainVerdict verdict = service.lookup("nodomain.com");
+
+    assertThat(verdict.getMxResponse().getHasMx()).isFalse();
+    assertThat(verdict.getMxResponse().getMxFailureReason())
+        .isEqualTo("No MX records found for domain: nodomain.com");
+    assertThat(verdict.getTtlSeconds()).isEqualTo(900);
+  }
+
+  @Test
+  void lookupTextParseException() throws TextParseException {
+    when(dnsLookupService.lookupMxAsync("baddomain"))
+        .thenReturn(CompletableFuture.failedFuture(new TextParseException("bad domain")));
+
+    DomainVerdict verdict = service.lookup("baddomain");
+
+    assertThat(verdict.getMxResponse().getHasMx()).isFalse();
+    assertThat(verdict.getMxResponse().getMxFailureReason())
+        .isEqualTo("Error parsing domain: baddomain");
+    assertThat(verdict.getTtlSeconds()).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void lookupRunsChecksConcurrently() {
+    CountDownLatch mxStarted = new CountDownLatch(1);
+    when(googleSafeBrowsingService.checkDomain("example.com"))
+        .thenAnswer(
+            invocation -> new SafeBrowsingResult(mxStarted.await(1, TimeUnit.SECONDS), null));
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenAnswer(
+            invocation -> {
+              mxStarted.countDown();
+              return CompletableFuture.completedFuture(new MxResult(List.of(), 300));
+            });
+
+    assertThat(service.lookup("example.com").getIsSafe()).isTrue();
+  }
+
+  @Test
+  void lookupLeavesSafetyUnknownWhenSafeBrowsingFails() {
+    when(googleSafeBrowsingService.checkDomain("example.com"))
+        .thenThrow(new ResourceAccessException("connection refused"));
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new MxResult(List.of(mock(MXRecord.class)), 3600)));
+
+    DomainVerdict verdict = service.lookup("example.com");
+
+    assertThat(verdict.getIsSafe()).isNull();
+    assertThat(verdict.getMxResponse().getHasMx()).isTrue();
+    assertThat(verdict.getTtlSeconds()).isEqualTo(60);
+  }
+
+  @Test
+  void lookupReportsOutagePolicyValueUnderFailureTtl() {
+    when(googleSafeBrowsingService.checkDomain("example.com"))
+        .thenThrow(new ResourceAccessException("connection refused"));
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new MxResult(List.of(mock(MXRecord.class)), 3600)));
+    DomainVerdictService failOpen =
+        new DomainVerdictService(
+            dnsLookupService,
+            guard(Duration.ofSeconds(5), SafeBrowsingGuard.OutagePolicy.ASSUME_SAFE),
+            disposableDomainService,
+            cacheManager,
+            latencyProfiler,
+            Duration.ofSeconds(5),
+            60,
+            1.0,
+            meterRegistry);
+
+    DomainVerdict verdict = failOpen.lookup("example.com");
+
+    assertThat(verdict.getIsSafe()).isTrue();
+    assertThat(verdict.getTtlSeconds()).isEqualTo(60);
+  }
+
+  @Test
+  void lookupSkipsSafeBrowsingWhileCircuitIsOpen() {
+    when(googleSafeBrowsingService.checkDomain(anyString()))
+        .thenThrow(new ResourceAccessException("connection refused"));
+    when(dnsLookupService.lookupMxAsync(anyString()))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 300)));
+    for (int i = 0; i < 5; i++) {
+      service.lookup("down" + i + ".com");
+    }
+
+    DomainVerdict verdict = service.lookup("example.com");
+
+    assertThat(verdict.getIsSafe()).isNull();
+    assertThat(verdict.getTtlSeconds()).isEqualTo(60);
+    verify(googleSafeBrowsingService, never()).checkDomain("example.com");
+  }
+
+  @Test
+  void lookupGivesUpOnChecksPastTheirDeadline() {
+    when(googleSafeBrowsingService.checkDomain("slow.com"))
+        .thenAnswer(invocation -> sleepUntilInterrupted(new CountDownLatch(1)));
+    when(dnsLookupService.lookupMxAsync("slow.com")).thenReturn(new CompletableFuture<>());
+    DomainVerdictService impatient =
+        new DomainVerdictService(
+            dnsLookupService,
+            guard(Duration.ofMillis(50), SafeBrowsingGuard.OutagePolicy.UNKNOWN),
+            disposableDomainService,
+            cacheManager,
+            latencyProfiler,
+            Duration.ofMillis(50),
+            60,
+            1.0,
+            meterRegistry);
+
+    DomainVerdict verdict = impatient.lookup("slow.com");
+
+    assertThat(verdict.getIsSafe()).isNull();
+    assertThat(verdict.getMxResponse().getHasMx()).isFalse();
+    assertThat(verdict.getMxResponse().getMxFailureReason())
+        .isEqualTo("MX lookup failed for domain: slow.com");
+    assertThat(verdict.getTtlSeconds()).isEqualTo(60);
+  }
+
+  @Test
+  void lookupCancelsSafeBrowsingOnParseError() {
+    // Lenient: the domain may be withdrawn from its batch before the batch is sent.
+    lenient()
+        .when(googleSafeBrowsingService.checkDomain("baddomain"))
+        .thenAnswer(invocation -> sleepUntilInterrupted(new CountDownLatch(1)));
+    when(dnsLookupService.lookupMxAsync("baddomain"))
+        .thenReturn(CompletableFuture.failedFuture(new TextParseException("bad domain")));
+
+    assertThat(service.lookupAsync("baddomain"))
+        .succeedsWithin(Duration.ofSeconds(1))
+        .satisfies(
+            verdict -> {
+              assertThat(verdict.getIsSafe()).isNull();
+              assertThat(verdict.getTtlSeconds()).isEqualTo(Long.MAX_VALUE);
+            });
+  }
+
+  private static SafeBrowsingResult sleepUntilInterrupted(CountDownLatch interrupted) {
+    try {
+      Thread.sleep(10_000);
+    } catch (InterruptedException e) {
+      interrupted.countDown();
+    }
+    return new SafeBrowsingResult(true, null);
+  }
+
+  @Test
+  void lookupAsyncCombinesChecksAndCachesVerdict() throws Exception {
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new MxResult(List.of(mock(MXRecord.class)), 1800)));
+
+    DomainVerdict verdict = service.lookupAsync("example.com").get();
+
+    assertThat(verdict.getIsSafe()).isTrue();
+    assertThat(verdict.getMxResponse().getHasMx()).isTrue();
+    assertThat(verdict.getIsDisposable()).isFalse();
+    assertThat(verdict.getTtlSeconds()).isEqualTo(1800);
+    assertThat(
+            cacheManager
+                .getCache(DomainVerdictService.CACHE_NAME)
+                .get("example.com", DomainVerdict.class))
+        .isSameAs(verdict);
+    assertThat(
+            meterRegistry
+                .get(DomainVerdictService.LOAD_METRIC_NAME)
+                .tags("cache", DomainVerdictService.CACHE_NAME)
+                .timer()
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void lookupAsyncServesCachedVerdict() throws Exception {
+    DomainVerdict cached = new DomainVerdict();
+    cached.setDomain("example.com");
+    cacheManager.getCache(DomainVerdictService.CACHE_NAME).put("example.com", cached);
+
+    assertThat(service.lookupAsync("example.com").get()).isSameAs(cached);
+    verifyNoInteractions(dnsLookupService, googleSafeBrowsingService);
+  }
+
+  @Test
+  void lookupAsyncReportsParseError() throws Exception {
+    when(dnsLookupService.lookupMxAsync("baddomain"))
+        .thenReturn(CompletableFuture.failedFuture(new TextParseException("bad domain")));
+
+    DomainVerdict verdict = service.lookupAsync("baddomain").get();
+
+    assertThat(verdict.getMxResponse().getMxFailureReason())
+        .isEqualTo("Error parsing domain: baddomain");
+    assertThat(verdict.getTtlSeconds()).isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  void concurrentMissesShareOneLookup() throws Exception {
+    CompletableFuture<MxResult> pending = new CompletableFuture<>();
+    when(dnsLookupService.lookupMxAsync("example.com")).thenReturn(pending);
+
+    CompletableFuture<DomainVerdict> first = service.lookupAsync("example.com");
+    CompletableFuture<DomainVerdict> second = service.lookupAsync("example.com");
+    pending.complete(new MxResult(List.of(), 300));
+
+    assertThat(first.get().getMxResponse()).isEqualTo(second.get().getMxResponse());
+    verify(dnsLookupService, times(1)).lookupMxAsync("example.com");
+    verify(googleSafeBrowsingService, times(1)).checkDomain("example.com");
+    assertThat(
+            meterRegistry
+                .get(SingleFlight.METRIC_NAME)
+                .tags("flight", "domain", "outcome", "coalesced")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  private DomainVerdictService refreshing(CacheManager manager, double beta) {
+    return new DomainVerdictService(
+        dnsLookupService,
+        guard(Duration.ofSeconds(5), SafeBrowsingGuard.OutagePolicy.UNKNOWN),
+        disposableDomainService,
+        manager,
+        latencyProfiler,
+        Duration.ofSeconds(5),
+        60,
+        beta,
+        meterRegistry);
+  }
+
+  private static CacheManager caffeineCacheManager() {
+    CacheConfig config = new CacheConfig();
+    return config.cacheManager(
+        config.verdictExpiry(Duration.ofMinutes(1), Duration.ofHours(6), Duration.ofMinutes(30)),
+        Optional.empty());
+  }
+
+  @Test
+  void hitsRefreshVerdictsAheadOfExpiry() throws Exception {
+    CacheManager manager = caffeineCacheManager();
+    // Any recomputation time times this beta outlasts the verdict's lifetime.
+    DomainVerdictService eager = refreshing(manager, 1e15);
+    CompletableFuture<MxResult> refreshed = new CompletableFuture<>();
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 300)))
+        .thenReturn(refreshed);
+
+    DomainVerdict first = eager.lookupAsync("example.com").get();
+    DomainVerdict hit = eager.lookupAsync("example.com").get();
+    refreshed.complete(new MxResult(List.of(mock(MXRecord.class)), 600));
+
+    assertThat(hit).isSameAs(first);
+    verify(dnsLookupService, times(2)).lookupMxAsync("example.com");
+    assertThat(
+            meterRegistry
+                .get(RefreshAhead.METRIC_NAME)
+                .tags("cache", DomainVerdictService.CACHE_NAME)
+                .counter()
+                .count())
+        .isGreaterThanOrEqualTo(1.0);
+    for (int i = 0; i < 100 && eager.lookupAsync("example.com").get() == first; i++) {
+      Thread.sleep(10);
+    }
+    DomainVerdict cached =
+        manager.getCache(DomainVerdictService.CACHE_NAME).get("example.com", DomainVerdict.class);
+    assertThat(cached.getMxResponse().getHasMx()).isTrue();
+    assertThat(cached.getTtlSeconds()).isEqualTo(600);
+  }
+
+  /** Waits until the verdict cache has been loaded {@code count} times, and a little longer. */
+  private void awaitLoads(long count) throws InterruptedException {
+    for (int i = 0;
+        i < 500
+            && meterRegistry
+                    .get(DomainVerdictService.LOAD_METRIC_NAME)
+                    .tags("cache", DomainVerdictService.CACHE_NAME)
+                    .timer()
+                    .count()
+                < count;
+        i++) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(50);
+  }
+
+  @Test
+  void refreshHittingAnMxFailureKeepsTheCachedVerdict() throws Exception {
+    CacheManager manager = caffeineCacheManager();
+    DomainVerdictService eager = refreshing(manager, 1e15);
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 300)))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("SERVFAIL")));
+
+    DomainVerdict first = eager.lookupAsync("example.com").get();
+    assertThat(eager.lookupAsync("example.com").get()).isSameAs(first);
+    awaitLoads(2);
+
+    verify(dnsLookupService, times(2)).lookupMxAsync("example.com");
+    assertThat(
+            manager
+                .getCache(DomainVerdictService.CACHE_NAME)
+                .get("example.com", DomainVerdict.class))
+        .isSameAs(first);
+  }
+
+  @Test
+  void refreshHittingASafeBrowsingFailureKeepsTheCachedVerdict() throws Exception {
+    CacheManager manager = caffeineCacheManager();
+    DomainVerdictService eager = refreshing(manager, 1e15);
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 300)));
+    when(googleSafeBrowsingService.checkDomain("example.com"))
+        .thenReturn(new SafeBrowsingResult(true, null))
+        .thenThrow(new ResourceAccessException("timeout"));
+
+    DomainVerdict first = eager.lookupAsync("example.com").get();
+    assertThat(eager.lookupAsync("example.com").get()).isSameAs(first);
+    awaitLoads(2);
+
+    verify(googleSafeBrowsingService, times(2)).checkDomain("example.com");
+    assertThat(
+            manager
+                .getCache(DomainVerdictService.CACHE_NAME)
+                .get("example.com", DomainVerdict.class))
+        .isSameAs(first);
+  }
+
+  @Test
+  void blockingLookupSharesTheCacheAndRefreshesAheadOfExpiry() throws Exception {
+    CacheManager manager = caffeineCacheManager();
+    DomainVerdictService eager = refreshing(manager, 1e15);
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 300)))
+        .thenReturn(
+            CompletableFuture.completedFuture(new MxResult(List.of(mock(MXRecord.class)), 600)));
+
+    DomainVerdict first = eager.lookupAsync("example.com").get();
+    assertThat(eager.lookup("example.com")).isSameAs(first);
+    awaitLoads(2);
+
+    DomainVerdict cached = eager.lookup("example.com");
+    assertThat(cached).isNotSameAs(first);
+    assertThat(cached.getMxResponse().getHasMx()).isTrue();
+  }
+
+  @Test
+  void hitsDoNotRefreshWithRefreshAheadDisabled() throws Exception {
+    DomainVerdictService patient = refreshing(caffeineCacheManager(), 0);
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 300)));
+
+    DomainVerdict first = patient.lookupAsync("example.com").get();
+
+    assertThat(patient.lookupAsync("example.com").get()).isSameAs(first);
+    verify(dnsLookupService, times(1)).lookupMxAsync("example.com");
+  }
+
+  private static DomainVerdict verdict(Long ttlSeconds) {
+    DomainVerdict verdict = new DomainVerdict();
+    verdict.setDomain("example.com");
+    verdict.setTtlSeconds(ttlSeconds);
+    return verdict;
+  }
+
+  @Test
+  void remainingTtlFollowsTheCachedEntry() {
+    CacheManager manager = caffeineCacheManager();
+    DomainVerdictService caffeine = refreshing(manager, 0);
+    manager.getCache(DomainVerdictService.CACHE_NAME).put("example.com", verdict(600L));
+
+    assertThat(caffeine.remainingTtlSeconds("example.com", verdict(3600L))).isBetween(590L, 600L);
+    assertThat(caffeine.remainingTtlSeconds("example.com", verdict(30L))).isEqualTo(30L);
+    assertThat(caffeine.remainingTtlSeconds("example.org", verdict(3600L))).isEqualTo(3600L);
+    assertThat(caffeine.remainingTtlSeconds("example.com", verdict(null))).isNull();
+  }
+
+  @Test
+  void remainingTtlIsTheVerdictTtlWithoutPerEntryExpiry() {
+    cacheManager.getCache(DomainVerdictService.CACHE_NAME).put("example.com", verdict(600L));
+
+    assertThat(service.remainingTtlSeconds("example.com", verdict(3600L))).isEqualTo(3600L);
+  }
+
+  @Test
+  void isDisposableMatchesKnownDomainsOnly() {
+    assertThat(service.isDisposable("yopmail.com")).isTrue();
+    assertThat(service.isDisposable("mx.yopmail.com")).isTrue();
+    assertThat(service.isDisposable("example.com")).isFalse();
+  }
+
+  @AfterEach
+  void teardown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void getLoggerReturnsLoggerInstance() {
+    Logger logger = service.getLogger();
+    assertThat(logger).isSameAs(DomainVerdictService.LOGGER);
+  }
+}
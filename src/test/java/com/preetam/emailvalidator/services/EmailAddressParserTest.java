@@ -0,0 +1,231 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.apache.commons.validator.routines.EmailValidator;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("PMD")
+class EmailAddressParserTest {
+
+  /** Addresses exercising each rule of the grammar, valid or not. */
+  private static final List<String> CORPUS =
+      List.of(
+          "a@b.com",
+          "a@b",
+          "a@localhost",
+          "a@b.c",
+          "a.b@c.com",
+          ".a@b.com",
+          "a.@b.com",
+          "a..b@c.com",
+          "\"a b\"@c.com",
+          "\"a\\\"b\"@c.com",
+          "\"a\\\"@c.com",
+          "\"\"@b.com",
+          "\"a\".b@c.com",
+          "a.\"b\"@c.com",
+          "\"a\"\"b\"@c.com",
+          "a\"b\"@c.com",
+          "\"a\u0001\"@b.com",
+          "\"a\nb\"@c.com",
+          "\"\u2028\"@b.com",
+          "a\\@b@c.com",
+          "\\\\@b.com",
+          "\\@b.com",
+          "a\\ b@c.com",
+          "a\\\u0001@b.com",
+          "a\\\u0085@b.com",
+          "a\u2028@b.com",
+          "\"a\u2029\"@b.com",
+          "a\n@b.com",
+          "a\u2028@b.com",
+          "'@b.com",
+          "a'b@c.com",
+          "é@b.com",
+          "a\u0090@b.com",
+          "x".repeat(64) + "@b.com",
+          "x".repeat(65) + "@b.com",
+          "a@[1.2.3.4]",
+          "a@[1.2.3.4",
+          "a@[1.2.3]",
+          "a@[::1]",
+          "a@[IPv6:::1]",
+          "a@[ipv6:::1]",
+          "a@[IPV6:1.2.3.4]",
+          "a@[IPv6:]",
+          "a@[]",
+          "a@[",
+          "a@[1.2.3.4\n]",
+          "a@b.com.",
+          "a@-b.com",
+          "a@b-.com",
+          "a@b..com",
+          "a@.com",
+          "a@b_c.com",
+          "a@b c.com",
+          "a @b.com",
+          "a@ b.com",
+          "a@b.COM",
+          "A@B.Com",
+          "a@1.com",
+          "a@b.123",
+          "a@123",
+          "a@b.unknowntld",
+          "a@" + "b".repeat(63) + ".com",
+          "a@" + "b".repeat(64) + ".com",
+          "a@" + ("b".repeat(60) + ".").repeat(4) + "com",
+          "a@" + ("b".repeat(60) + ".").repeat(5) + "com",
+          "a@münchen.de",
+          "a@MÜNCHEN.DE",
+          "a@例え.テスト",
+          "a@xn--p1ai",
+          "a@рф",
+          "a@.рф",
+          "a@b.xn--p1ai",
+          "a@xn--.com",
+          "a@b.c\u2028",
+          "@b.com",
+          "a@",
+          "a",
+          "",
+          "a@b.com@",
+          "a@b.com\n");
+
+  /** Fragments combined into random addresses by the shadow comparison. */
+  private static final String[] FRAGMENTS = {
+    "a", "Z", "0", "9", ".", "-", "_", "@", "\"", "\\", " ", "(", ")", "[", "]", "<", ">", ",",
+    ";", ":", "'", "é", "ä", "\t", "\n", "\r", "\u0085", "\u2028", "\u00a0", "\u007f", "\u0001",
+    "!", "#", "$", "%", "&", "*", "+", "/", "=", "?", "^", "`", "{", "|", "}", "~", "com", "org",
+    "co.uk", "xn--p1ai", "localhost", "münchen.de", "例え.jp", "ＡＢ.com", "．", "。", "1.2.3.4",
+    "::1", "IPv6:", "COM", "Example", "ex-ample", "-x", "x-", "..", "@@", ".рф", "рф", "[IPv6:",
+    "ipv6:", "1.2", "\u0090"
+  };
+
+  /** Top-level domains appended to some random addresses. */
+  private static final String[] TOP_LEVEL_DOMAINS = {"com", "org", "co.uk", "xn--p1ai", "de", "Io"};
+
+  private static final EmailValidator REFERENCE = EmailValidator.getInstance(true, true);
+
+  /** Domain as extracted before the parser: text after the last '@', lowercased. */
+  private static String referenceDomain(String email) {
+    int at = email.lastIndexOf('@');
+    return at != -1 && at < email.length() - 1
+        ? email.substring(at + 1).toLowerCase(Locale.ROOT)
+        : null;
+  }
+
+  private static List<String> randomAddresses(long seed, int count) {
+    Random random = new Random(seed);
+    List<String> addresses = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      StringBuilder address = new StringBuilder();
+      int localLength = 1 + random.nextInt(8);
+      for (int j = 0; j < localLength; j++) {
+        address.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+      }
+      if (random.nextInt(3) > 0) {
+        address.append('@');
+        int domainLength = 1 + random.nextInt(4);
+        for (int j = 0; j < domainLength; j++) {
+          address.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+        }
+        if (random.nextBoolean()) {
+          address.append('.').append(TOP_LEVEL_DOMAINS[random.nextInt(TOP_LEVEL_DOMAINS.length)]);
+        }
+      }
+      addresses.add(address.toString());
+    }
+    return addresses;
+  }
+
+  private static void assertSameVerdictAsCommonsValidator(List<String> addresses) {
+    for (String address : addresses) {
+      long parsed = EmailAddressParser.parse(address);
+
+      assertThat(EmailAddressParser.isValid(parsed))
+          .as(address)
+          .isEqualTo(REFERENCE.isValid(address));
+      if (address.chars().allMatch(c -> c < 0x80)) {
+        assertThat(EmailAddressParser.domain(address, parsed))
+            .as(address)
+            .isEqualTo(referenceDomain(address));
+      }
+    }
+  }
+
+  @Test
+  void agreesWithCommonsValidatorOnTheCorpus() {
+    assertSameVerdictAsCommonsValidator(CORPUS);
+  }
+
+  @Test
+  void agreesWithCommonsValidatorOnRandomAddresses() {
+    for (long seed = 1; seed <= 4; seed++) {
+      assertSameVerdictAsCommonsValidator(randomAddresses(seed, 25_000));
+    }
+  }
+
+  @Test
+  void splitsAddressAtTheLastAt() {
+    long parsed = EmailAddressParser.parse("\"a@b\"@Example.COM");
+
+    assertThat(EmailAddressParser.isValid(parsed)).isTrue();
+    assertThat(EmailAddressParser.atIndex(parsed)).isEqualTo(5);
+    assertThat(EmailAddressParser.domain("\"a@b\"@Example.COM", parsed)).isEqualTo("example.com");
+  }
+
+  @Test
+  void returnsTheDomainUnchangedWhenAlreadyLowercaseAscii() {
+    String email = "user@example.com";
+
+    String domain = EmailAddressParser.domain(email, EmailAddressParser.parse(email));
+
+    assertThat(domain).isEqualTo("example.com");
+  }
+
+  @Test
+  void returnsNoDomainWithoutTextAfterTheAt() {
+    long parsed = EmailAddressParser.parse("userexample.com");
+
+    assertThat(EmailAddressParser.atIndex(parsed)).isEqualTo(-1);
+    assertThat(EmailAddressParser.domain("userexample.com", parsed)).isNull();
+    assertThat(EmailAddressParser.domain("user@", EmailAddressParser.parse("user@"))).isNull();
+  }
+
+  @Test
+  void treatsNullAsAnInvalidAddressWithoutAt() {
+    long parsed = EmailAddressParser.parse(null);
+
+    assertThat(EmailAddressParser.isValid(parsed)).isFalse();
+    assertThat(EmailAddressParser.atIndex(parsed)).isEqualTo(-1);
+  }
+
+  @Test
+  void convertsInternationalisedDomainsToAscii() {
+    String email = "user@MÜNCHEN.de";
+
+    long parsed = EmailAddressParser.parse(email);
+
+    assertThat(EmailAddressParser.isValid(parsed)).isTrue();
+    assertThat(EmailAddressParser.domain(email, parsed)).isEqualTo("xn--mnchen-3ya.de");
+  }
+
+  @Test
+  void keepsNonAsciiDomainsWithoutAnAsciiFormLowercased() {
+    String email = "user@" + "Ä".repeat(70) + ".de";
+
+    long parsed = EmailAddressParser.parse(email);
+
+    assertThat(EmailAddressParser.isValid(parsed)).isFalse();
+    assertThat(EmailAddressParser.domain(email, parsed)).isEqualTo("ä".repeat(70) + ".de");
+  }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.preetam.emailvalidator.models.EmailResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.SequenceInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("PMD")
+class EmailStreamServiceTest {
+
+  @Mock private EmailValidatorService validatorService;
+
+  private final JsonMapper jsonMapper = new JsonMapper();
+
+  @BeforeEach
+  void setup() {
+    lenient()
+        .when(validatorService.validateEmailAsync(anyString()))
+        .thenAnswer(
+            invocation -> CompletableFuture.completedFuture(response(invocation.getArgument(0))));
+  }
+
+  private static EmailResponse response(String email) {
+    EmailResponse response = new EmailResponse();
+    response.setEmail(email);
+    return response;
+  }
+
+  private EmailStreamService service(int windowSize) {
+    return new EmailStreamService(validatorService, jsonMapper, windowSize, 64);
+  }
+
+  private static InputStream body(String text) {
+    return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private String stream(EmailStreamService service, String body) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    service.validateStream(body(body), output);
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void writesOneResponsePerLineInInputOrder() throws IOException {
+    String output =
+        stream(
+            service(2),
+            "a@example.com\n{\"email\":\"b@example.com\"}\n\n  c@example.com  \nd@example.com\n");
+
+    assertThat(output.split("\n"))
+        .containsExactly(
+            "{\"email\":\"a@example.com\"}",
+            "{\"email\":\"b@example.com\"}",
+            "{\"email\":\"c@example.com\"}",
+            "{\"email\":\"d@example.com\"}");
+  }
+
+  @Test
+  void windowOfOneStillProcessesEveryLine() throws IOException {
+    String output = stream(service(1), "a@example.com\nb@example.com\nc@example.com");
+
+    assertThat(output.split("\n")).hasSize(3);
+  }
+
+  @Test
+  void emptyBodyProducesNoOutput() throws IOException {
+    assertThat(stream(service(4), "\n\n")).isEmpty();
+    verify(validatorService, never()).validateEmailAsync(anyString());
+  }
+
+  @Test
+  void resultsAreWrittenWhileTheUploadPauses() throws Exception {
+    PipedOutputStream upload = new PipedOutputStream();
+    PipedInputStream input = new PipedInputStream(upload);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CompletableFuture<Void> streaming =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                service(4).validateStream(input, output);
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+
+    upload.write("a@example.com\n".getBytes(StandardCharsets.UTF_8));
+    upload.flush();
+    for (int i = 0; i < 500 && output.size() == 0; i++) {
+      Thread.sleep(10);
+    }
+    assertThat(output.toString(StandardCharsets.UTF_8))
+        .isEqualTo("{\"email\":\"a@example.com\"}\n");
+
+    upload.write("b@example.com\n".getBytes(StandardCharsets.UTF_8));
+    upload.close();
+    assertThat(streaming).succeedsWithin(Duration.ofSeconds(5));
+    assertThat(output.toString(StandardCharsets.UTF_8).split("\n")).hasSize(2);
+  }
+
+  @Test
+  void slowLineHoldsBackLaterResultsUntilItResolves() throws Exception {
+    CompletableFuture<EmailResponse> slow = new CompletableFuture<>();
+    when(validatorService.validateEmailAsync("slow@example.com")).thenReturn(slow);
+    AtomicInteger flushes = new AtomicInteger();
+    ByteArrayOutputStream output =
+        new ByteArrayOutputStream() {
+          @Override
+          public void flush() {
+            flushes.incrementAndGet();
+          }
+        };
+    CompletableFuture<Void> streaming =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                service(4)
+                    .validateStream(
+                        body("slow@example.com\nb@example.com\nc@example.com\n"), output);
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+
+    verify(validatorService, timeout(5000)).validateEmailAsync("c@example.com");
+    Thread.sleep(100);
+    assertThat(output.size()).isZero();
+
+    slow.complete(response("slow@example.com"));
+    assertThat(streaming).succeedsWithin(Duration.ofSeconds(5));
+    assertThat(output.toString(StandardCharsets.UTF_8).split("\n"))
+        .containsExactly(
+            "{\"email\":\"slow@example.com\"}",
+            "{\"email\":\"b@example.com\"}",
+            "{\"email\":\"c@example.com\"}");
+    // The lines resolved while the first one waited go out with it in one flush.
+    assertThat(flushes).hasValue(1);
+  }
+
+  @Test
+  void resolvedLineIsFlushedWhileTheNextIsPending() throws Exception {
+    CompletableFuture<EmailResponse> first = new CompletableFuture<>();
+    CompletableFuture<EmailResponse> second = new CompletableFuture<>();
+    when(validatorService.validateEmailAsync("a@example.com")).thenReturn(first);
+    when(validatorService.validateEmailAsync("b@example.com")).thenReturn(second);
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    CompletableFuture<Void> streaming =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                service(4).validateStream(body("a@example.com\nb@example.com\n"), output);
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+
+    verify(validatorService, timeout(5000)).validateEmailAsync("b@example.com");
+    Thread.sleep(100);
+    first.complete(response("a@example.com"));
+    for (int i = 0; i < 500 && output.size() == 0; i++) {
+      Thread.sleep(10);
+    }
+    assertThat(output.toString(StandardCharsets.UTF_8))
+        .isEqualTo("{\"email\":\"a@example.com\"}\n");
+
+    second.complete(response("b@example.com"));
+    assertThat(streaming).succeedsWithin(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void fullWindowDelaysTheNextValidation() throws Exception {
+    CompletableFuture<EmailResponse> first = new CompletableFuture<>();
+    when(validatorService.validateEmailAsync("a@example.com")).thenReturn(first);
+    CompletableFuture<Void> streaming =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                service(1)
+                    .validateStream(
+                        body("a@example.com\nb@example.com\n"), new ByteArrayOutputStream());
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+
+    verify(validatorService, timeout(5000)).validateEmailAsync("a@example.com");
+    Thread.sleep(100);
+    verify(validatorService, never()).validateEmailAsync("b@example.com");
+
+    first.complete(response("a@example.com"));
+    assertThat(streaming).succeedsWithin(Duration.ofSeconds(5));
+    verify(validatorService).validateEmailAsync("b@example.com");
+  }
+
+  @Test
+  void failedValidationIsReportedAsAnErrorLine() throws IOException {
+    when(validatorService.validateEmailAsync("bad@example.com"))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("boom")));
+    when(validatorService.validateEmailAsync("worse@example.com"))
+        .thenThrow(new IllegalStateException("boom"));
+
+    String output = stream(service(4), "bad@example.com\nworse@example.com\nc@example.com\n");
+
+    assertThat(output.split("\n"))
+        .containsExactly(
+            "{\"email\":\"bad@example.com\",\"error\":\"Validation failed\"}",
+            "{\"email\":\"worse@example.com\",\"error\":\"Validation failed\"}",
+            "{\"email\":\"c@example.com\"}");
+  }
+
+  @Test
+  void overlongLineIsReportedAsAnErrorLine() throws IOException {
+    String output = stream(service(4), "x".repeat(10_000) + "\nb@example.com\n");
+
+    assertThat(output.split("\n"))
+        .containsExactly(
+            "{\"error\":\"Line longer than 64 characters\"}", "{\"email\":\"b@example.com\"}");
+    verify(validatorService, never()).validateEmailAsync(startsWith("x"));
+  }
+
+  @Test
+  void readLineKeepsOnlyEnoughOfALineToTellItIsTooLong() throws IOException {
+    EmailStreamService service = service(4);
+    BufferedReader reader =
+        new BufferedReader(new StringReader("x".repeat(100) + "\n" + "x".repeat(64) + "\nlast"));
+
+    String cut = service.readLine(reader);
+    String exact = service.readLine(reader);
+
+    assertThat(cut).hasSize(65);
+    assertThat(service.isTooLong(cut)).isTrue();
+    assertThat(exact).hasSize(64);
+    assertThat(service.isTooLong(exact)).isFalse();
+    assertThat(service.readLine(reader)).isEqualTo("last");
+    assertThat(service.readLine(reader)).isNull();
+  }
+
+  @Test
+  void readFailureIsRethrownAfterTheLinesReadBeforeIt() {
+    InputStream failing =
+        new InputStream() {
+          @Override
+          public int read() throws IOException {
+            throw new IOException("connection reset");
+          }
+        };
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    assertThatThrownBy(
+            () ->
+                service(4)
+                    .validateStream(
+                        new SequenceInputStream(body("a@example.com\n"), failing), output))
+        .isInstanceOf(IOException.class)
+        .hasMessage("connection reset");
+    assertThat(output.toString(StandardCharsets.UTF_8))
+        .isEqualTo("{\"email\":\"a@example.com\"}\n");
+  }
+
+  @Test
+  void unexpectedReaderFailureIsWrapped() throws IOException {
+    BufferedReader reader = mock(BufferedReader.class);
+    when(reader.read()).thenThrow(new IllegalArgumentException("broken"));
+
+    assertThatThrownBy(() -> service(4).validateStream(reader, new ByteArrayOutputStream()))
+        .isInstanceOf(IllegalStateException.class)
+        .hasRootCauseMessage("broken");
+  }
+
+  @Test
+  void interruptedWriterStopsTheStream() {
+    Thread.currentThread().interrupt();
+    try {
+      assertThatThrownBy(
+              () -> service(4).validateStream(body("a@example.com\n"), new ByteArrayOutputStream()))
+          .isInstanceOf(InterruptedIOException.class);
+      assertThat(Thread.currentThread().isInterrupted()).isTrue();
+    } finally {
+      Thread.interrupted();
+    }
+  }
+
+  @Test
+  void extractAddressFallsBackToRawLineForMalformedJson() {
+    assertThat(service(4).extractAddress("{not json")).isEqualTo("{not json");
+  }
+
+  @Test
+  void extractAddressSkipsJsonWithoutEmail() {
+    EmailStreamService service = service(4);
+
+    assertThat(service.extractAddress("{}")).isNull();
+    assertThat(service.extractAddress("{\"email\":\" \"}")).isNull();
+  }
+
+  @Test
+  void getLoggerReturnsLoggerInstance() {
+    assertThat(service(4).getLogger()).isSameAs(EmailStreamService.LOGGER);
+  }
+}
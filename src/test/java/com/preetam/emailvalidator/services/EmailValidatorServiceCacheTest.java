@@ -27,6 +27,8 @@ public class EmailValidatorServiceCacheTest {
 
   @MockitoSpyBean private EmailValidatorService validatorService;
 
+  @MockitoSpyBean private DnsLookupService dnsLookupService;
+
   @Test
   public void testValidateEmailIsCached() {
     String testEmail = "test@example.com";
@@ -35,8 +37,14 @@ public class EmailValidatorServiceCacheTest {
 
     EmailResponse response2 = validatorService.validateEmail(testEmail);
 
-    assertThat(response1).isEqualTo(response2);
+    assertThat(response2).isSameAs(response1);
+  }
+
+  @Test
+  public void testDomainVerdictIsSharedAcrossAddresses() {
+    validatorService.validateEmail("alice@example.org");
+    validatorService.validateEmail("bob@example.org");
 
-    verify(validatorService, times(1)).validateEmail(testEmail);
+    verify(dnsLookupService, times(1)).lookupMxAsync("example.org");
   }
 }
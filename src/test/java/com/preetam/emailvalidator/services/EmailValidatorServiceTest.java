@@ -5,19 +5,45 @@
 package com.preetam.emailvalidator.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import com.preetam.emailvalidator.models.EmailResponse;
-import com.preetam.emailvalidator.models.MxResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.core.io.ClassPathResource;
 import org.xbill.DNS.MXRecord;
 import org.xbill.DNS.Name;
 import org.xbill.DNS.Record;
@@ -35,9 +61,62 @@ class EmailValidatorServiceTest {
 
   @Mock private GoogleSafeBrowsingService googleSafeBrowsingService;
 
+  private final CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final LatencyProfiler latencyProfiler =
+      new LatencyProfiler(meterRegistry, Duration.ZERO, 5, Duration.ofMinutes(1));
+
   @BeforeEach
-  void setup() {
-    service = Mockito.spy(new EmailValidatorService(dnsLookupService, googleSafeBrowsingService));
+  void setup() throws IOException {
+    service =
+        Mockito.spy(
+            new EmailValidatorService(
+                new DomainVerdictService(
+                    dnsLookupService,
+                    new SafeBrowsingGuard(
+                        new SafeBrowsingBatcher(
+                            googleSafeBrowsingService, executor, Duration.ofMillis(50), 500),
+                        Duration.ofSeconds(5),
+                        5,
+                        Duration.ofMinutes(1),
+                        1000,
+                        SafeBrowsingGuard.OutagePolicy.UNKNOWN,
+                        1000,
+                        meterRegistry),
+                    new DisposableDomainService(new ClassPathResource("disposable-domains.txt")),
+                    cacheManager,
+                    latencyProfiler,
+                    Duration.ofSeconds(5),
+                    60,
+                    1.0,
+                    meterRegistry),
+                new AddressCanonicalizer(
+                    "gmail.com|googlemail.com:fold-case,strip-subaddress,strip-dots"),
+                cacheManager,
+                latencyProfiler,
+                meterRegistry));
+    lenient()
+        .when(googleSafeBrowsingService.checkDomain(anyString()))
+        .thenReturn(new SafeBrowsingResult(true, null));
+    lenient()
+        .when(googleSafeBrowsingService.checkDomains(any()))
+        .thenAnswer(
+            invocation -> {
+              Map<String, SafeBrowsingResult> results = new HashMap<>();
+              for (String domain : invocation.<Collection<String>>getArgument(0)) {
+                results.put(domain, new SafeBrowsingResult(true, null));
+              }
+              return results;
+            });
+  }
+
+  private void givenNoMxRecords() {
+    when(dnsLookupService.lookupMxAsync(anyString()))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 60)));
   }
 
   @Test
@@ -48,17 +127,40 @@ class EmailValidatorServiceTest {
     when(mxRecord.getTarget()).thenReturn(Name.fromString("mx1.example.com."));
     when(mxRecord.getPriority()).thenReturn(10);
 
-    Record[] records = new Record[] {mxRecord};
-    when(dnsLookupService.lookupMxRecords("example.com")).thenReturn(records);
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(mxRecord), 3600)));
 
     EmailResponse response = service.validateEmail(email);
 
     assertThat(response.getEmail()).isEqualTo(email);
     assertThat(response.getValidSyntax()).isTrue();
+    assertThat(response.getIsSafe()).isTrue();
     assertThat(response.getMxResponse()).isNotNull();
     assertThat(response.getMxResponse().getHasMx()).isTrue();
     assertThat(response.getIsDisposable()).isFalse();
     assertThat(response.getMxResponse().getMxFailureReason()).isNull();
+    assertThat(response.getTtlSeconds()).isEqualTo(3600);
+  }
+
+  @Test
+  void cacheLoadEventRecordsTheDomainOnly(@TempDir Path tempDir) throws Exception {
+    givenNoMxRecords();
+    Path dump = tempDir.resolve("loads.jfr");
+
+    try (Recording recording = new Recording()) {
+      recording
+          .enable("com.preetam.emailvalidator.CacheLoad")
+          .withThreshold(Duration.ZERO);
+      recording.start();
+      service.validateEmail("first.last+tag@example.com");
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    assertThat(RecordingFile.readAllEvents(dump))
+        .filteredOn(event -> EmailValidatorService.CACHE_NAME.equals(event.getString("cache")))
+        .extracting(event -> event.getString("domain"))
+        .containsExactly("example.com");
   }
 
   @Test
@@ -82,8 +184,8 @@ class EmailValidatorServiceTest {
     when(mxRecord.getTarget()).thenReturn(Name.fromString("mx.mailinator.com."));
     when(mxRecord.getPriority()).thenReturn(5);
 
-    Record[] records = new Record[] {mxRecord};
-    when(dnsLookupService.lookupMxRecords("mailinator.com")).thenReturn(records);
+    when(dnsLookupService.lookupMxAsync("mailinator.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(mxRecord), 300)));
 
     EmailResponse response = service.validateEmail(email);
 
@@ -94,57 +196,27 @@ class EmailValidatorServiceTest {
     assertThat(response.getIsDisposable()).isTrue();
   }
 
-  @Test
-  void tesHasMxNoRecords() throws TextParseException {
-    String email = "user@nodomain.com";
-
-    when(dnsLookupService.lookupMxRecords("nodomain.com")).thenReturn(null);
-
-    MxResponse mxResponse = service.mxRecord(email, "nodomain.com");
-
-    assertThat(mxResponse.getHasMx()).isFalse();
-    assertThat(mxResponse.getMxFailureReason())
-        .isEqualTo("No MX records found for domain: nodomain.com");
-  }
-
-  @Test
-  void testHasMxDomainExtractionFailure() {
-    String email = "user@";
-
-    MxResponse mxResponse = service.mxRecord(email, null);
-
-    assertThat(mxResponse.getHasMx()).isFalse();
-    assertThat(mxResponse.getMxFailureReason()).isEqualTo("Failure in extracting domain");
-  }
-
-  @Test
-  void testHasMxTextParseException() throws TextParseException {
-    String email = "user@baddomain";
-
-    when(dnsLookupService.lookupMxRecords("baddomain"))
-        .thenThrow(new TextParseException("bad domain"));
-
-    MxResponse mxResponse = service.mxRecord(email, "baddomain");
-
-    assertThat(mxResponse.getHasMx()).isFalse();
-    assertThat(mxResponse.getMxFailureReason()).isEqualTo("Error parsing domain: baddomain");
-  }
-
   @Test
   void testHasMxRecordsWithNoMxRecordInstances() throws TextParseException {
     String email = "user@example.com";
     String domain = "example.com";
 
     Record fakeRecord = mock(Record.class);
-    Record[] records = new Record[] {fakeRecord};
 
-    when(dnsLookupService.lookupMxRecords(domain)).thenReturn(records);
+    when(dnsLookupService.lookupMxAsync(domain))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(fakeRecord), 300)));
 
     var mxResponse = service.validateEmail(email).getMxResponse();
 
     assertThat(mxResponse.getHasMx()).isTrue();
   }
 
+  @Test
+  void testIsEmailSyntaxValid() {
+    assertThat(service.isEmailSyntaxValid("user@example.com")).isTrue();
+    assertThat(service.isEmailSyntaxValid("user@@example.com")).isFalse();
+  }
+
   @Test
   void testExtractDomainNullReturnedNoAtSymbol() {
     String email = "userexample.com"; // No '@'
@@ -171,6 +243,203 @@ class EmailValidatorServiceTest {
         .isEqualTo("Failure in extracting domain");
   }
 
+  @Test
+  void testValidateEmailsLooksUpEachDomainOnce() throws TextParseException {
+    MxResult result = new MxResult(List.of(mock(MXRecord.class)), 300);
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(CompletableFuture.completedFuture(result));
+    when(dnsLookupService.lookupMxAsync("other.com"))
+        .thenReturn(CompletableFuture.completedFuture(result));
+
+    List<EmailResponse> responses =
+        service.validateEmails(
+            List.of("alice@example.com", "bob@other.com", "carol@EXAMPLE.com"));
+
+    verify(dnsLookupService, times(1)).lookupMxAsync("example.com");
+    verify(dnsLookupService, times(1)).lookupMxAsync("other.com");
+    verify(googleSafeBrowsingService, times(1))
+        .checkDomains(
+            argThat(domains -> Set.copyOf(domains).equals(Set.of("example.com", "other.com"))));
+    verify(googleSafeBrowsingService, never()).checkDomain(anyString());
+    assertThat(responses)
+        .extracting(EmailResponse::getEmail)
+        .containsExactly("alice@example.com", "bob@other.com", "carol@EXAMPLE.com");
+    assertThat(responses).allMatch(r -> r.getMxResponse().getHasMx() && r.getIsSafe());
+  }
+
+  @Test
+  void testValidateEmailsSkipsSafetyCheckForInvalidSyntax() {
+    List<EmailResponse> responses = service.validateEmails(List.of("invalid-email", "user@"));
+
+    verify(googleSafeBrowsingService, never()).checkDomain(anyString());
+    assertThat(responses).hasSize(2);
+    assertThat(responses).allMatch(r -> !r.getValidSyntax() && r.getIsSafe() == null);
+    assertThat(responses.get(0).getMxResponse().getMxFailureReason())
+        .isEqualTo("Failure in extracting domain");
+  }
+
+  @Test
+  void testValidateEmailOmitsSafetyForInvalidSyntaxWithDomain() throws TextParseException {
+    givenNoMxRecords();
+
+    EmailResponse response = service.validateEmail("bad user@example.com");
+
+    assertThat(response.getValidSyntax()).isFalse();
+    assertThat(response.getIsSafe()).isNull();
+    assertThat(response.getMxResponse().getMxFailureReason())
+        .isEqualTo("No MX records found for domain: example.com");
+  }
+
+  @Test
+  void testValidateEmailAsyncComposesAndCachesResponse() throws Exception {
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new MxResult(List.of(mock(MXRecord.class)), 600)));
+
+    EmailResponse first = service.validateEmailAsync("user@example.com").get();
+    EmailResponse second = service.validateEmailAsync("user@example.com").get();
+
+    assertThat(first.getValidSyntax()).isTrue();
+    assertThat(first.getIsSafe()).isTrue();
+    assertThat(first.getMxResponse().getHasMx()).isTrue();
+    assertThat(first.getTtlSeconds()).isEqualTo(600);
+    assertThat(second).isSameAs(first);
+    verify(dnsLookupService, times(1)).lookupMxAsync("example.com");
+    assertThat(loads()).isEqualTo(1);
+  }
+
+  @Test
+  void testConcurrentAsyncMissesShareOneValidation() throws Exception {
+    CompletableFuture<MxResult> pending = new CompletableFuture<>();
+    when(dnsLookupService.lookupMxAsync("example.com")).thenReturn(pending);
+
+    CompletableFuture<EmailResponse> first = service.validateEmailAsync("user@example.com");
+    CompletableFuture<EmailResponse> second = service.validateEmailAsync("user@example.com");
+    pending.complete(new MxResult(List.of(), 300));
+
+    assertThat(second.get()).isSameAs(first.get());
+    verify(dnsLookupService, times(1)).lookupMxAsync("example.com");
+    assertThat(
+            meterRegistry
+                .get(SingleFlight.METRIC_NAME)
+                .tags("flight", "email", "outcome", "coalesced")
+                .counter()
+                .count())
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  void testCanonicalVariantsShareOneCachedResponse() {
+    when(dnsLookupService.lookupMxAsync("gmail.com"))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new MxResult(List.of(mock(MXRecord.class)), 600)));
+
+    EmailResponse first = service.validateEmail("john.doe+news@GMail.com");
+    EmailResponse second = service.validateEmail("JohnDoe@gmail.com");
+    EmailResponse third = service.validateEmail("johndoe@gmail.com");
+
+    assertThat(first.getEmail()).isEqualTo("john.doe+news@GMail.com");
+    assertThat(second.getEmail()).isEqualTo("JohnDoe@gmail.com");
+    assertThat(third.getEmail()).isEqualTo("johndoe@gmail.com");
+    assertThat(second.getMxResponse()).isSameAs(first.getMxResponse());
+    assertThat(second.getTtlSeconds()).isEqualTo(600);
+    verify(dnsLookupService, times(1)).lookupMxAsync("gmail.com");
+    assertThat(lookups("miss")).isEqualTo(1.0);
+    assertThat(lookups("canonical_hit")).isEqualTo(1.0);
+    assertThat(lookups("hit")).isEqualTo(1.0);
+    assertThat(loads()).isEqualTo(1);
+  }
+
+  @Test
+  void testAliasDomainsAreValidatedAgainstTheirOwnDomain() {
+    givenNoMxRecords();
+    when(dnsLookupService.lookupMxAsync("gmail.com"))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new MxResult(List.of(mock(MXRecord.class)), 600)));
+
+    EmailResponse main = service.validateEmail("john.doe@gmail.com");
+    EmailResponse alias = service.validateEmail("john.doe@googlemail.com");
+
+    assertThat(main.getMxResponse().getHasMx()).isTrue();
+    assertThat(alias.getMxResponse().getHasMx()).isFalse();
+    verify(dnsLookupService).lookupMxAsync("gmail.com");
+    verify(dnsLookupService).lookupMxAsync("googlemail.com");
+    assertThat(lookups("miss")).isEqualTo(2.0);
+  }
+
+  @Test
+  void testValidateEmailAsyncEchoesSubmittedAddress() throws Exception {
+    when(dnsLookupService.lookupMxAsync("gmail.com"))
+        .thenReturn(CompletableFuture.completedFuture(new MxResult(List.of(), 300)));
+
+    EmailResponse first = service.validateEmailAsync("Jane+a@gmail.com").get();
+    EmailResponse second = service.validateEmailAsync("jane+b@gmail.com").get();
+
+    assertThat(first.getEmail()).isEqualTo("Jane+a@gmail.com");
+    assertThat(second.getEmail()).isEqualTo("jane+b@gmail.com");
+    assertThat(second.getMxResponse()).isSameAs(first.getMxResponse());
+    verify(dnsLookupService, times(1)).lookupMxAsync("gmail.com");
+    assertThat(lookups("canonical_hit")).isEqualTo(1.0);
+  }
+
+  private double lookups(String outcome) {
+    return meterRegistry
+        .get(EmailValidatorService.LOOKUP_METRIC_NAME)
+        .tags("outcome", outcome)
+        .counter()
+        .count();
+  }
+
+  private long loads() {
+    return meterRegistry
+        .get(DomainVerdictService.LOAD_METRIC_NAME)
+        .tags("cache", EmailValidatorService.CACHE_NAME)
+        .timer()
+        .count();
+  }
+
+  @Test
+  void testValidationsAreBrokenDownByStage() throws Exception {
+    when(dnsLookupService.lookupMxAsync("example.com"))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                new MxResult(List.of(mock(MXRecord.class)), 600)));
+
+    service.validateEmailAsync("async@example.com").get();
+    service.validateEmail("sync@example.com");
+    service.validateEmail("sync@example.com");
+
+    List<LatencyProfiler.SlowRequest> validations = latencyProfiler.flush();
+    assertThat(validations)
+        .extracting(LatencyProfiler.SlowRequest::domain)
+        .containsExactly("example.com", "example.com", "example.com");
+    // The second domain lookup is served from the verdict cache, so it runs no checks.
+    for (StageTimings.Stage stage : StageTimings.Stage.values()) {
+      long expected =
+          switch (stage) {
+            case CACHE -> 3;
+            case SYNTAX, DOMAIN -> 2;
+            default -> 1;
+          };
+      assertThat(latencyProfiler.timer(stage).count()).as(stage.tag()).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  void testValidateEmailAsyncWithoutDomain() throws Exception {
+    EmailResponse response = service.validateEmailAsync("user@").get();
+
+    assertThat(response.getValidSyntax()).isFalse();
+    assertThat(response.getMxResponse().getMxFailureReason())
+        .isEqualTo("Failure in extracting domain");
+    verifyNoInteractions(dnsLookupService);
+  }
+
   @AfterEach
-  void teardown() {}
+  void teardown() {
+    executor.shutdownNow();
+  }
 }
@@ -5,6 +5,7 @@
 package com.preetam.emailvalidator.services;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -13,19 +14,24 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,12 +42,19 @@ class GoogleSafeBrowsingServiceTest {
 
   @Mock private Logger mockLogger;
 
+  @Mock private LocalThreatDatabase localDatabase;
+
   private GoogleSafeBrowsingService service;
 
   @BeforeEach
   void setup() {
-    service = Mockito.spy(new GoogleSafeBrowsingService(restTemplate));
-    service.apiKey = "dummy-api-key";
+    service =
+        Mockito.spy(
+            new GoogleSafeBrowsingService(
+                restTemplate,
+                "dummy-api-key",
+                "https://safebrowsing.googleapis.com",
+                Optional.empty()));
   }
 
   @Test
@@ -66,7 +79,7 @@ class GoogleSafeBrowsingServiceTest {
   }
 
   @Test
-  void isDomainSafe_whenHttpClientErrorException_shouldLogWarning_andReturnFalse() {
+  void isDomainSafe_whenHttpClientErrorException_shouldLogWarning_andRethrow() {
     // Simulate logger enabled
     doReturn(mockLogger).when(service).getLogger();
     when(mockLogger.isWarnEnabled()).thenReturn(true);
@@ -74,14 +87,14 @@ class GoogleSafeBrowsingServiceTest {
     when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
         .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
 
-    final boolean result = service.isDomainSafe("bad.com");
+    assertThatThrownBy(() -> service.isDomainSafe("bad.com"))
+        .isInstanceOf(HttpClientErrorException.class);
 
     verify(mockLogger).warn(anyString(), any(Throwable.class));
-    assertThat(result).isFalse();
   }
 
   @Test
-  void isDomainSafe_whenHttpClientErrorException_andLoggerDisabled_shouldNotLog_butReturnFalse() {
+  void isDomainSafe_whenHttpClientErrorException_andLoggerDisabled_shouldNotLog_butRethrow() {
     // Simulate logger disabled
     doReturn(mockLogger).when(service).getLogger();
     when(mockLogger.isWarnEnabled()).thenReturn(false);
@@ -89,10 +102,10 @@ class GoogleSafeBrowsingServiceTest {
     when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
         .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
 
-    final boolean result = service.isDomainSafe("bad.com");
+    assertThatThrownBy(() -> service.isDomainSafe("bad.com"))
+        .isInstanceOf(HttpClientErrorException.class);
 
     verify(mockLogger, never()).warn(anyString(), any(Throwable.class));
-    assertThat(result).isFalse();
   }
 
   @Test
@@ -126,6 +139,181 @@ class GoogleSafeBrowsingServiceTest {
     assertThat(result).isFalse(); // because body is not empty
   }
 
+  @Test
+  void checkDomainReportsShortestCacheDurationOfMatches() {
+    Map<String, Object> body =
+        Map.of(
+            "matches",
+            List.of(
+                Map.of("threatType", "MALWARE", "cacheDuration", "300s"),
+                Map.of("threatType", "SOCIAL_ENGINEERING", "cacheDuration", "12.5s"),
+                Map.of("threatType", "UNWANTED_SOFTWARE"),
+                Map.of("threatType", "POTENTIALLY_HARMFUL_APPLICATION", "cacheDuration", "600s"),
+                "unexpected"));
+    when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+        .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+    SafeBrowsingResult result = service.checkDomain("malicious.com");
+
+    assertThat(result.safe()).isFalse();
+    assertThat(result.cacheDuration()).isEqualTo(Duration.ofMillis(12_500));
+  }
+
+  @Test
+  void checkDomainHasNoCacheDurationWhenSafe() {
+    when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+        .thenReturn(new ResponseEntity<>(Collections.emptyMap(), HttpStatus.OK));
+
+    SafeBrowsingResult result = service.checkDomain("safedomain.com");
+
+    assertThat(result.safe()).isTrue();
+    assertThat(result.cacheDuration()).isNull();
+  }
+
+  @Test
+  void shortestCacheDurationIgnoresMalformedValues() {
+    assertThat(
+            GoogleSafeBrowsingService.shortestCacheDuration(
+                Map.of("matches", List.of(Map.of("cacheDuration", "5m")))))
+        .isNull();
+    assertThat(GoogleSafeBrowsingService.shortestCacheDuration(Map.of("matches", "none")))
+        .isNull();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void checkDomainsSendsOneRequestAndAttributesMatches() {
+    Map<String, Object> body =
+        Map.of(
+            "matches",
+            List.of(
+                Map.of("threat", Map.of("url", "http://bad.com"), "cacheDuration", "300s"),
+                Map.of("threat", Map.of("url", "http://bad.com"), "cacheDuration", "60s"),
+                Map.of("threat", Map.of("url", "http://unrequested.com")),
+                Map.of("threat", "malformed"),
+                Map.of("threat", Map.of("platformType", "ANY_PLATFORM")),
+                "unexpected"));
+    when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+        .thenReturn(new ResponseEntity<>(body, HttpStatus.OK));
+
+    Map<String, SafeBrowsingResult> results =
+        service.checkDomains(List.of("good.com", "bad.com"));
+
+    assertThat(results)
+        .containsEntry("good.com", new SafeBrowsingResult(true, null))
+        .containsEntry("bad.com", new SafeBrowsingResult(false, Duration.ofSeconds(60)));
+    ArgumentCaptor<HttpEntity<Map<String, Object>>> request =
+        ArgumentCaptor.forClass(HttpEntity.class);
+    verify(restTemplate)
+        .postForEntity(
+            eq("https://safebrowsing.googleapis.com/v4/threatMatches:find?key=dummy-api-key"),
+            request.capture(),
+            eq(Map.class));
+    Map<String, Object> threatInfo =
+        (Map<String, Object>) request.getValue().getBody().get("threatInfo");
+    assertThat((List<Map<String, String>>) threatInfo.get("threatEntries"))
+        .containsExactly(Map.of("url", "http://good.com"), Map.of("url", "http://bad.com"));
+    assertThat(threatInfo)
+        .containsAllEntriesOf(GoogleSafeBrowsingService.THREAT_CRITERIA)
+        .hasSize(GoogleSafeBrowsingService.THREAT_CRITERIA.size() + 1);
+    assertThat(threatInfo.get("platformTypes"))
+        .isSameAs(GoogleSafeBrowsingService.THREAT_CRITERIA.get("platformTypes"));
+  }
+
+  @Test
+  void checkDomainsTreatsMissingBodyAsSafe() {
+    when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+        .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+    assertThat(service.checkDomains(List.of("a.com", "b.com")))
+        .containsOnlyKeys("a.com", "b.com")
+        .allSatisfy((domain, result) -> assertThat(result.safe()).isTrue());
+  }
+
+  @Test
+  void checkDomainsIgnoresBodyWithoutMatches() {
+    when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+        .thenReturn(new ResponseEntity<>(Map.of("unexpected", "field"), HttpStatus.OK));
+
+    assertThat(service.checkDomains(List.of("a.com")).get("a.com").safe()).isTrue();
+  }
+
+  @Test
+  void checkDomainsRethrowsApiError() {
+    when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+        .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+    assertThatThrownBy(() -> service.checkDomains(List.of("a.com", "b.com")))
+        .isInstanceOf(HttpServerErrorException.class);
+  }
+
+  private GoogleSafeBrowsingService localService() {
+    return new GoogleSafeBrowsingService(
+        restTemplate, "dummy-api-key", "http://localhost", Optional.of(localDatabase));
+  }
+
+  @Test
+  void checkDomainUsesReadyLocalDatabase() {
+    SafeBrowsingResult unsafe = new SafeBrowsingResult(false, Duration.ofSeconds(300));
+    when(localDatabase.isReady()).thenReturn(true);
+    when(localDatabase.check(List.of("bad.com"))).thenReturn(Map.of("bad.com", unsafe));
+
+    assertThat(localService().checkDomain("bad.com")).isEqualTo(unsafe);
+    verify(restTemplate, never()).postForEntity(anyString(), any(), eq(Map.class));
+  }
+
+  @Test
+  void checkDomainsUsesReadyLocalDatabase() {
+    SafeBrowsingResult safe = new SafeBrowsingResult(true, null);
+    when(localDatabase.isReady()).thenReturn(true);
+    when(localDatabase.check(List.of("a.com", "b.com")))
+        .thenReturn(Map.of("a.com", safe, "b.com", safe));
+
+    assertThat(localService().checkDomains(List.of("a.com", "b.com")))
+        .containsOnlyKeys("a.com", "b.com");
+    verify(restTemplate, never()).postForEntity(anyString(), any(), eq(Map.class));
+  }
+
+  @Test
+  void checkDomainFallsBackToLookupApiUntilLocalDatabaseIsReady() {
+    when(localDatabase.isReady()).thenReturn(false);
+    when(restTemplate.postForEntity(
+            eq("http://localhost/v4/threatMatches:find?key=dummy-api-key"), any(), eq(Map.class)))
+        .thenReturn(ResponseEntity.ok(Collections.emptyMap()));
+
+    assertThat(localService().checkDomain("good.com").safe()).isTrue();
+    verify(localDatabase, never()).check(any());
+  }
+
+  @Test
+  void checkDomainRemotelyCallsLookupApiEvenWithReadyLocalDatabase() {
+    when(restTemplate.postForEntity(
+            eq("http://localhost/v4/threatMatches:find?key=dummy-api-key"), any(), eq(Map.class)))
+        .thenReturn(ResponseEntity.ok(Collections.emptyMap()));
+
+    assertThat(localService().checkDomainRemotely("good.com").safe()).isTrue();
+    verify(localDatabase, never()).check(any());
+  }
+
+  @Test
+  void checkDomainRemotelyRethrowsApiError() {
+    when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+        .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+    assertThatThrownBy(() -> localService().checkDomainRemotely("a.com"))
+        .isInstanceOf(HttpServerErrorException.class);
+  }
+
+  @Test
+  void checkDomainRethrowsWhenLocalFullHashRequestFails() {
+    when(localDatabase.isReady()).thenReturn(true);
+    when(localDatabase.check(any()))
+        .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+    assertThatThrownBy(() -> localService().checkDomain("a.com"))
+        .isInstanceOf(HttpServerErrorException.class);
+  }
+
   @Test
   void getLoggerReturnsLoggerInstance() {
     Logger logger = service.getLogger();
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+/** Unit tests for {@link HashPrefixSet}. */
+@SuppressWarnings("PMD")
+class HashPrefixSetTest {
+
+  private static byte[] bytes(int... values) {
+    byte[] result = new byte[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = (byte) values[i];
+    }
+    return result;
+  }
+
+  private static byte[] hashStartingWith(byte[] prefix) {
+    byte[] hash = new byte[32];
+    System.arraycopy(prefix, 0, hash, 0, prefix.length);
+    return hash;
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    for (byte[] part : parts) {
+      out.writeBytes(part);
+    }
+    return out.toByteArray();
+  }
+
+  @Test
+  void emptySetMatchesNothing() {
+    assertThat(HashPrefixSet.empty().size()).isZero();
+    assertThat(HashPrefixSet.empty().matchingPrefix(new byte[32])).isNull();
+  }
+
+  @Test
+  void matchesShortAndLongPrefixes() {
+    byte[] high = bytes(0xff, 0x00, 0x00, 0x01);
+    byte[] low = bytes(0x01, 0x02, 0x03, 0x04);
+    byte[] longPrefix = bytes(0x80, 0x00, 0x00, 0x00, 0x05);
+    HashPrefixSet set = HashPrefixSet.of(List.of(high, low, longPrefix));
+
+    assertThat(set.size()).isEqualTo(3);
+    assertThat(set.matchingPrefix(hashStartingWith(high))).isEqualTo(high);
+    assertThat(set.matchingPrefix(hashStartingWith(low))).isEqualTo(low);
+    assertThat(set.matchingPrefix(hashStartingWith(longPrefix))).isEqualTo(longPrefix);
+    assertThat(set.matchingPrefix(hashStartingWith(bytes(0x80, 0x00, 0x00, 0x00, 0x06))))
+        .isNull();
+    assertThat(set.matchingPrefix(hashStartingWith(bytes(0x01, 0x02, 0x03, 0x05)))).isNull();
+  }
+
+  @Test
+  void checksumCoversPrefixesInUnsignedOrder() {
+    byte[] a = bytes(0x01, 0x00, 0x00, 0x00);
+    byte[] b = bytes(0x80, 0x00, 0x00, 0x00);
+    byte[] c = bytes(0x80, 0x00, 0x00, 0x00, 0x01);
+    byte[] d = bytes(0xf0, 0x00, 0x00, 0x00);
+    HashPrefixSet set = HashPrefixSet.of(List.of(d, c, b, a));
+
+    assertThat(set.checksum()).isEqualTo(HashPrefixSet.sha256(concat(a, b, c, d)));
+  }
+
+  @Test
+  void checksumIncludesLongPrefixesAfterTheLastShortOne() {
+    byte[] a = bytes(0x01, 0x00, 0x00, 0x00);
+    byte[] b = bytes(0x01, 0x00, 0x00, 0x00, 0x01);
+    byte[] c = bytes(0xf0, 0x00, 0x00, 0x00, 0x00);
+    HashPrefixSet set = HashPrefixSet.of(List.of(c, b, a));
+
+    assertThat(set.checksum()).isEqualTo(HashPrefixSet.sha256(concat(a, b, c)));
+  }
+
+  @Test
+  void applyRemovesBySortedIndexThenAdds() {
+    byte[] a = bytes(0x01, 0x00, 0x00, 0x00);
+    byte[] b = bytes(0x02, 0x00, 0x00, 0x00, 0x00);
+    byte[] c = bytes(0x03, 0x00, 0x00, 0x00);
+    byte[] added = bytes(0x00, 0x00, 0x00, 0x09);
+    HashPrefixSet set = HashPrefixSet.of(List.of(c, a, b));
+
+    HashPrefixSet updated = set.apply(new int[] {1}, List.of(added));
+
+    assertThat(updated.size()).isEqualTo(3);
+    assertThat(updated.matchingPrefix(hashStartingWith(b))).isNull();
+    assertThat(updated.matchingPrefix(hashStartingWith(added))).isEqualTo(added);
+    assertThat(updated.checksum()).isEqualTo(HashPrefixSet.sha256(concat(added, a, c)));
+    assertThat(set.size()).isEqualTo(3);
+  }
+
+  @Test
+  void splitCutsRawHashesIntoPrefixes() {
+    List<byte[]> prefixes = HashPrefixSet.split(bytes(1, 2, 3, 4, 5, 6, 7, 8, 9), 4);
+
+    assertThat(prefixes).containsExactly(bytes(1, 2, 3, 4), bytes(5, 6, 7, 8));
+  }
+
+  @Test
+  void sha256HashesValue() {
+    assertThat(HashPrefixSet.sha256("abc".getBytes(StandardCharsets.UTF_8)))
+        .startsWith(bytes(0xba, 0x78, 0x16, 0xbf));
+  }
+
+  @Test
+  void missingSha256IsReportedAsIllegalState() {
+    try (MockedStatic<MessageDigest> digest = mockStatic(MessageDigest.class)) {
+      digest
+          .when(() -> MessageDigest.getInstance("SHA-256"))
+          .thenThrow(new NoSuchAlgorithmException("SHA-256"));
+
+      assertThatThrownBy(() -> HashPrefixSet.sha256(new byte[0]))
+          .isInstanceOf(IllegalStateException.class)
+          .hasCauseInstanceOf(NoSuchAlgorithmException.class);
+    }
+  }
+}
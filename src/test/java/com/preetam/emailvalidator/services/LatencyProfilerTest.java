@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.preetam.emailvalidator.services.LatencyProfiler.SlowRequest;
+import com.preetam.emailvalidator.services.StageTimings.Stage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link LatencyProfiler}. */
+@SuppressWarnings("PMD")
+class LatencyProfilerTest {
+
+  private static final long MILLI = Duration.ofMillis(1).toNanos();
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  private final LatencyProfiler profiler =
+      new LatencyProfiler(registry, Duration.ofMillis(100), 2, Duration.ofMinutes(1));
+
+  /** Returns a start time lying the given number of milliseconds in the past. */
+  private static long ago(long millis) {
+    return System.nanoTime() - millis * MILLI;
+  }
+
+  @Test
+  void stagesAreTimedAndAddedToTheValidation() {
+    StageTimings timings = new StageTimings();
+
+    profiler.recordSince(Stage.MX, timings, ago(30));
+    profiler.recordSince(Stage.MX, timings, ago(20));
+
+    assertThat(timings.nanos(Stage.MX)).isGreaterThanOrEqualTo(50 * MILLI);
+    assertThat(
+            registry
+                .get(LatencyProfiler.METRIC_NAME)
+                .tag("stage", "mx")
+                .timer()
+                .count())
+        .isEqualTo(2);
+    assertThat(profiler.timer(Stage.MX).takeSnapshot().percentileValues()).hasSize(3);
+    assertThat(profiler.timer(Stage.SAFE_BROWSING).count()).isZero();
+  }
+
+  @Test
+  void flushReturnsTheSlowestValidationsSlowestFirst() {
+    profiler.finish("a@fast.example", new StageTimings(), ago(10));
+    profiler.finish("a@slowish.example", new StageTimings(), ago(150));
+    profiler.finish("a@slow.example", new StageTimings(), ago(200));
+    profiler.finish("a@slower.example", new StageTimings(), ago(400));
+    profiler.finish("a@slowish-too.example", new StageTimings(), ago(120));
+
+    assertThat(profiler.slowest()).isEmpty();
+    assertThat(profiler.flush())
+        .extracting(SlowRequest::domain)
+        .containsExactly("slower.example", "slow.example");
+    assertThat(profiler.slowest()).hasSize(2);
+    assertThat(profiler.slowest().get(0).totalNanos()).isGreaterThanOrEqualTo(400 * MILLI);
+
+    assertThat(profiler.flush()).isEmpty();
+    assertThat(profiler.slowest()).isEmpty();
+  }
+
+  @Test
+  void zeroSampleSizeKeepsNothing() {
+    LatencyProfiler silent =
+        new LatencyProfiler(registry, Duration.ZERO, 0, Duration.ofMinutes(1));
+
+    silent.finish("slow@example.com", new StageTimings(), ago(200));
+
+    assertThat(silent.flush()).isEmpty();
+  }
+
+  @Test
+  void slowValidationsAreLoggedEveryInterval() throws InterruptedException {
+    LatencyProfiler periodic =
+        new LatencyProfiler(registry, Duration.ZERO, 5, Duration.ofMillis(10));
+    periodic.finish("slow@example.com", new StageTimings(), ago(200));
+
+    periodic.start();
+    for (int i = 0; i < 200 && periodic.slowest().isEmpty(); i++) {
+      Thread.sleep(10);
+    }
+    periodic.shutdown();
+
+    assertThat(periodic.slowest()).extracting(SlowRequest::domain).contains("example.com");
+  }
+
+  @Test
+  void slowValidationsKeepOnlyTheDomain() {
+    LatencyProfiler keeping =
+        new LatencyProfiler(registry, Duration.ZERO, 5, Duration.ofMinutes(1));
+
+    keeping.finish("first.last@Example.COM", new StageTimings(), ago(200));
+    keeping.finish("no-domain", new StageTimings(), ago(100));
+    keeping.finish(null, new StageTimings(), ago(50));
+
+    assertThat(keeping.flush())
+        .extracting(SlowRequest::domain)
+        .containsExactly("Example.COM", null, null);
+  }
+
+  @Test
+  void getLoggerReturnsLoggerInstance() {
+    assertThat(profiler.getLogger()).isSameAs(LatencyProfiler.LOGGER);
+  }
+}
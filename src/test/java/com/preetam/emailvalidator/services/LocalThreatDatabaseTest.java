@@ -0,0 +1,568 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Tests {@link LocalThreatDatabase} against a local stub of the Safe Browsing API. */
+@SuppressWarnings("PMD")
+class LocalThreatDatabaseTest {
+
+  private static final String UPDATE_PATH = "/v4/threatListUpdates:fetch";
+
+  private static final String FULL_HASHES_PATH = "/v4/fullHashes:find";
+
+  private final JsonMapper mapper = new JsonMapper();
+
+  /**
+   * Response served for each path, as JSON unless given as raw bytes; a missing entry
+   * answers 500.
+   */
+  private final Map<String, Object> responses = new ConcurrentHashMap<>();
+
+  /** Request bodies received for each path. */
+  private final Map<String, List<Map<?, ?>>> requests = new ConcurrentHashMap<>();
+
+  private HttpServer server;
+
+  private LocalThreatDatabase database;
+
+  @BeforeEach
+  void startStubServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          String path = exchange.getRequestURI().getPath();
+          requests
+              .computeIfAbsent(path, key -> new CopyOnWriteArrayList<>())
+              .add(mapper.readValue(exchange.getRequestBody(), Map.class));
+          Object response = responses.get(path);
+          byte[] body =
+              response instanceof byte[] raw
+                  ? raw
+                  : response == null ? new byte[0] : mapper.writeValueAsBytes(response);
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(response == null ? 500 : 200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    server.start();
+    database = database(Duration.ofMinutes(30));
+  }
+
+  private LocalThreatDatabase database(Duration updateInterval) {
+    return new LocalThreatDatabase(
+        new RestTemplate(),
+        "test-key",
+        "http://localhost:" + server.getAddress().getPort(),
+        updateInterval);
+  }
+
+  @AfterEach
+  void stopStubServer() {
+    database.shutdown();
+    server.stop(0);
+  }
+
+  private static byte[] hash(String expression) {
+    return HashPrefixSet.sha256(expression.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String base64(byte[] value) {
+    return Base64.getEncoder().encodeToString(value);
+  }
+
+  private static byte[] prefix(String expression) {
+    return Arrays.copyOf(hash(expression), 4);
+  }
+
+  private static Map<String, Object> listResponse(
+      String threatType, String responseType, List<byte[]> prefixes, String state) {
+    Map<String, Object> response = new HashMap<>();
+    response.put("threatType", threatType);
+    response.put("platformType", "ANY_PLATFORM");
+    response.put("threatEntryType", "URL");
+    response.put("responseType", responseType);
+    response.put("newClientState", state);
+    if (!prefixes.isEmpty()) {
+      byte[] raw = new byte[prefixes.size() * 4];
+      for (int i = 0; i < prefixes.size(); i++) {
+        System.arraycopy(prefixes.get(i), 0, raw, i * 4, 4);
+      }
+      response.put(
+          "additions",
+          List.of(
+              Map.of(
+                  "compressionType",
+                  "RAW",
+                  "rawHashes",
+                  Map.of("prefixSize", 4, "rawHashes", base64(raw)))));
+    }
+    response.put("checksum", Map.of("sha256", base64(HashPrefixSet.of(prefixes).checksum())));
+    return response;
+  }
+
+  /** Serves a full update listing the given prefixes as malware and nothing else. */
+  private void serveFullUpdate(List<byte[]> malware) {
+    List<Object> lists = new ArrayList<>();
+    for (String threatType : GoogleSafeBrowsingService.THREAT_TYPES) {
+      lists.add(
+          listResponse(
+              threatType,
+              "FULL_UPDATE",
+              "MALWARE".equals(threatType) ? malware : List.of(),
+              threatType + "-1"));
+    }
+    responses.put(
+        UPDATE_PATH, Map.of("listUpdateResponses", lists, "minimumWaitDuration", "600.5s"));
+  }
+
+  private static boolean waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    return condition.getAsBoolean();
+  }
+
+  private List<Map<?, ?>> requests(String path) {
+    return requests.getOrDefault(path, List.of());
+  }
+
+  @Test
+  void isNotReadyBeforeTheFirstUpdate() {
+    assertThat(database.isReady()).isFalse();
+  }
+
+  @Test
+  void fullUpdateMakesTheDatabaseReady() {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+
+    Duration minimumWait = database.update();
+
+    assertThat(minimumWait).isEqualTo(Duration.ofMillis(600_500));
+    assertThat(database.isReady()).isTrue();
+    Map<?, ?> request = requests(UPDATE_PATH).getFirst();
+    assertThat((List<?>) request.get("listUpdateRequests"))
+        .hasSize(GoogleSafeBrowsingService.THREAT_TYPES.size())
+        .allSatisfy(entry -> assertThat(((Map<?, ?>) entry).get("state")).isEqualTo(""));
+  }
+
+  @Test
+  void domainWithoutPrefixMatchIsClearedWithoutNetworkCall() {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+    database.update();
+
+    Map<String, SafeBrowsingResult> results = database.check(List.of("good.com", "example.org"));
+
+    assertThat(results)
+        .containsEntry("good.com", new SafeBrowsingResult(true, null))
+        .containsEntry("example.org", new SafeBrowsingResult(true, null));
+    assertThat(requests(FULL_HASHES_PATH)).isEmpty();
+  }
+
+  @Test
+  void prefixMatchIsConfirmedWithFullHashes() {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+    database.update();
+    responses.put(
+        FULL_HASHES_PATH,
+        Map.of(
+            "matches",
+            List.of(
+                Map.of(
+                    "threatType", "MALWARE",
+                    "threat", Map.of("hash", base64(hash("evil.com/"))),
+                    "cacheDuration", "300s")),
+            "negativeCacheDuration", "300s"));
+
+    Map<String, SafeBrowsingResult> results =
+        database.check(List.of("evil.com", "www.EVIL.com", "good.com"));
+
+    assertThat(results)
+        .containsEntry("evil.com", new SafeBrowsingResult(false, Duration.ofSeconds(300)))
+        .containsEntry("www.EVIL.com", new SafeBrowsingResult(false, Duration.ofSeconds(300)))
+        .containsEntry("good.com", new SafeBrowsingResult(true, null));
+    assertThat(requests(FULL_HASHES_PATH)).hasSize(1);
+    Map<?, ?> threatInfo = (Map<?, ?>) requests(FULL_HASHES_PATH).getFirst().get("threatInfo");
+    assertThat((List<Object>) threatInfo.get("threatEntries"))
+        .containsExactly(Map.of("hash", base64(prefix("evil.com/"))));
+  }
+
+  @Test
+  void prefixMatchWithoutFullHashMatchIsSafe() {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+    database.update();
+    responses.put(FULL_HASHES_PATH, Map.of("negativeCacheDuration", "300s"));
+
+    assertThat(database.check(List.of("evil.com")))
+        .containsEntry("evil.com", new SafeBrowsingResult(true, null));
+  }
+
+  @Test
+  void fullHashMatchWithoutCacheDurationHasNoDuration() {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+    database.update();
+    responses.put(
+        FULL_HASHES_PATH,
+        Map.of(
+            "matches",
+            List.of(
+                Map.of("threat", Map.of("hash", base64(hash("evil.com/")))),
+                Map.of("threat", "malformed"),
+                Map.of("threat", Map.of()),
+                "unexpected")));
+
+    assertThat(database.check(List.of("evil.com")))
+        .containsEntry("evil.com", new SafeBrowsingResult(false, null));
+  }
+
+  @Test
+  void domainMatchingSeveralHashesTakesTheShortestCacheDuration() {
+    List<String> domains = List.of("www.evil.com", "www.bad.com", "www.ugly.com");
+    List<byte[]> prefixes = new ArrayList<>();
+    List<Object> matches = new ArrayList<>();
+    // Durations by position in each domain's lookup order: shortest first, last, and unknown.
+    List<List<String>> durations =
+        List.of(List.of("100s", "300s"), List.of("300s", "100s"), List.of("300s"));
+    for (int i = 0; i < domains.size(); i++) {
+      List<String> expressions = new ArrayList<>(LocalThreatDatabase.expressions(domains.get(i)));
+      for (int j = 0; j < expressions.size(); j++) {
+        prefixes.add(prefix(expressions.get(j)));
+        Map<String, Object> match = new HashMap<>();
+        match.put("threat", Map.of("hash", base64(hash(expressions.get(j)))));
+        if (j < durations.get(i).size()) {
+          match.put("cacheDuration", durations.get(i).get(j));
+        }
+        matches.add(match);
+      }
+    }
+    serveFullUpdate(prefixes);
+    database.update();
+    responses.put(FULL_HASHES_PATH, Map.of("matches", matches));
+
+    assertThat(database.check(domains))
+        .containsEntry("www.evil.com", new SafeBrowsingResult(false, Duration.ofSeconds(100)))
+        .containsEntry("www.bad.com", new SafeBrowsingResult(false, Duration.ofSeconds(100)))
+        .containsEntry("www.ugly.com", new SafeBrowsingResult(false, Duration.ofSeconds(300)));
+  }
+
+  @Test
+  void fullHashesWithoutBodyFindNoMatch() {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+    database.update();
+    responses.put(FULL_HASHES_PATH, new byte[0]);
+
+    assertThat(database.check(List.of("evil.com")))
+        .containsEntry("evil.com", new SafeBrowsingResult(true, null));
+  }
+
+  @Test
+  void failedFullHashRequestPropagates() {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+    database.update();
+
+    assertThatThrownBy(() -> database.check(List.of("evil.com")))
+        .isInstanceOf(HttpServerErrorException.class);
+  }
+
+  @Test
+  void partialUpdateAppliesRemovalsAndAdditions() {
+    byte[] kept = prefix("kept.com/");
+    byte[] removed = prefix("removed.com/");
+    serveFullUpdate(List.of(kept, removed));
+    database.update();
+
+    List<byte[]> sorted = new ArrayList<>(List.of(kept, removed));
+    sorted.sort(Arrays::compareUnsigned);
+    int removedIndex = sorted.indexOf(removed);
+    byte[] added = prefix("added.com/");
+    List<Object> lists = new ArrayList<>();
+    for (String threatType : GoogleSafeBrowsingService.THREAT_TYPES) {
+      Map<String, Object> response =
+          "MALWARE".equals(threatType)
+              ? listResponse(threatType, "PARTIAL_UPDATE", List.of(added), "MALWARE-2")
+              : listResponse(threatType, "PARTIAL_UPDATE", List.of(), threatType + "-2");
+      if ("MALWARE".equals(threatType)) {
+        byte[] checksum = HashPrefixSet.of(List.of(kept, added)).checksum();
+        response.put("checksum", Map.of("sha256", base64(checksum)));
+        response.put(
+            "removals",
+            List.of(
+                Map.of(
+                    "compressionType",
+                    "RAW",
+                    "rawIndices",
+                    Map.of("indices", List.of(removedIndex)))));
+      }
+      lists.add(response);
+    }
+    responses.put(UPDATE_PATH, Map.of("listUpdateResponses", lists));
+
+    assertThat(database.update()).isNull();
+
+    assertThat(database.isReady()).isTrue();
+    Map<?, ?> request = requests(UPDATE_PATH).get(1);
+    assertThat((List<?>) request.get("listUpdateRequests"))
+        .anySatisfy(entry -> assertThat(((Map<?, ?>) entry).get("state")).isEqualTo("MALWARE-1"));
+    responses.put(FULL_HASHES_PATH, Map.of());
+    database.check(List.of("removed.com", "added.com", "kept.com"));
+    Map<?, ?> threatInfo = (Map<?, ?>) requests(FULL_HASHES_PATH).getFirst().get("threatInfo");
+    assertThat((List<Object>) threatInfo.get("threatEntries"))
+        .containsExactlyInAnyOrder(
+            Map.of("hash", base64(added)), Map.of("hash", base64(kept)));
+  }
+
+  @Test
+  void checksumMismatchKeepsTheLastGoodListUntilAFullUpdate() {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+    database.update();
+    List<Object> lists = new ArrayList<>();
+    for (String threatType : GoogleSafeBrowsingService.THREAT_TYPES) {
+      Map<String, Object> response =
+          listResponse(threatType, "PARTIAL_UPDATE", List.of(), threatType + "-2");
+      if ("MALWARE".equals(threatType)) {
+        response.put("checksum", Map.of("sha256", base64(new byte[32])));
+      }
+      lists.add(response);
+    }
+    responses.put(UPDATE_PATH, Map.of("listUpdateResponses", lists));
+
+    database.update();
+
+    assertThat(database.isReady()).isTrue();
+    responses.put(FULL_HASHES_PATH, Map.of());
+    database.check(List.of("evil.com"));
+    assertThat(requests(FULL_HASHES_PATH)).hasSize(1);
+
+    serveFullUpdate(List.of());
+    database.update();
+
+    Map<?, ?> request = requests(UPDATE_PATH).get(2);
+    assertThat((List<?>) request.get("listUpdateRequests"))
+        .extracting(
+            entry -> ((Map<?, ?>) entry).get("threatType"),
+            entry -> ((Map<?, ?>) entry).get("state"))
+        .contains(tuple("MALWARE", ""), tuple("SOCIAL_ENGINEERING", "SOCIAL_ENGINEERING-2"));
+    assertThat(database.check(List.of("evil.com")).get("evil.com").safe()).isTrue();
+    assertThat(requests(FULL_HASHES_PATH)).hasSize(1);
+  }
+
+  @Test
+  void confirmedFullHashesAreCachedForTheirCacheDuration() throws InterruptedException {
+    serveFullUpdate(List.of(prefix("evil.com/"), prefix("good.com/")));
+    database.update();
+    responses.put(
+        FULL_HASHES_PATH,
+        Map.of(
+            "matches",
+            List.of(
+                Map.of(
+                    "threat", Map.of("hash", base64(hash("evil.com/"))),
+                    "cacheDuration", "0.3s")),
+            "negativeCacheDuration", "300s"));
+
+    assertThat(database.check(List.of("evil.com", "good.com")))
+        .containsEntry("evil.com", new SafeBrowsingResult(false, Duration.ofMillis(300)))
+        .containsEntry("good.com", new SafeBrowsingResult(true, null));
+    SafeBrowsingResult cached = database.check(List.of("evil.com", "good.com")).get("evil.com");
+
+    assertThat(cached.safe()).isFalse();
+    assertThat(cached.cacheDuration()).isPositive().isLessThanOrEqualTo(Duration.ofMillis(300));
+    assertThat(requests(FULL_HASHES_PATH)).hasSize(1);
+    // A prefix with a match is never cleared, so the expired match is asked for again.
+    Thread.sleep(400);
+    database.check(List.of("evil.com", "good.com"));
+    assertThat(requests(FULL_HASHES_PATH)).hasSize(2);
+    Map<?, ?> threatInfo = (Map<?, ?>) requests(FULL_HASHES_PATH).get(1).get("threatInfo");
+    assertThat((List<Object>) threatInfo.get("threatEntries"))
+        .containsExactly(Map.of("hash", base64(prefix("evil.com/"))));
+  }
+
+  @Test
+  void prefixesWithoutMatchAreCachedForTheNegativeCacheDuration() throws InterruptedException {
+    serveFullUpdate(List.of(prefix("evil.com/"), prefix("bad.com/")));
+    database.update();
+    responses.put(FULL_HASHES_PATH, Map.of("negativeCacheDuration", "0.3s"));
+
+    database.check(List.of("evil.com"));
+    assertThat(database.check(List.of("evil.com")).get("evil.com").safe()).isTrue();
+    assertThat(requests(FULL_HASHES_PATH)).hasSize(1);
+
+    database.check(List.of("evil.com", "bad.com"));
+    Map<?, ?> threatInfo = (Map<?, ?>) requests(FULL_HASHES_PATH).get(1).get("threatInfo");
+    assertThat((List<Object>) threatInfo.get("threatEntries"))
+        .containsExactly(Map.of("hash", base64(prefix("bad.com/"))));
+
+    Thread.sleep(400);
+    database.check(List.of("evil.com"));
+    assertThat(requests(FULL_HASHES_PATH)).hasSize(3);
+  }
+
+  @Test
+  void ignoresUnknownAndMalformedListResponses() {
+    Map<String, Object> withoutState =
+        listResponse("MALWARE", "FULL_UPDATE", List.of(), "ignored");
+    withoutState.remove("newClientState");
+    withoutState.remove("checksum");
+    withoutState.put(
+        "additions",
+        List.of(
+            "unexpected",
+            Map.of("rawHashes", "malformed"),
+            Map.of("rawHashes", Map.of("prefixSize", 4))));
+    withoutState.put(
+        "removals",
+        List.of("unexpected", Map.of("rawIndices", "malformed"), Map.of("rawIndices", Map.of())));
+    Map<String, Object> withoutChecksum =
+        listResponse("SOCIAL_ENGINEERING", "FULL_UPDATE", List.of(), "SOCIAL_ENGINEERING-1");
+    withoutChecksum.put("checksum", Map.of());
+    responses.put(
+        UPDATE_PATH,
+        Map.of(
+            "listUpdateResponses",
+            List.of(
+                withoutState,
+                withoutChecksum,
+                listResponse("UNKNOWN", "FULL_UPDATE", List.of(), "x"),
+                Map.of("threatType", 1),
+                "unexpected")));
+
+    assertThat(database.update()).isNull();
+
+    assertThat(database.isReady()).isFalse();
+  }
+
+  @Test
+  void updateWithEmptyBodyKeepsTheLists() {
+    responses.put(UPDATE_PATH, Map.of());
+
+    assertThat(database.update()).isNull();
+    assertThat(database.isReady()).isFalse();
+  }
+
+  @Test
+  void updateWithoutBodyKeepsTheLists() {
+    responses.put(UPDATE_PATH, new byte[0]);
+
+    assertThat(database.update()).isNull();
+    assertThat(database.isReady()).isFalse();
+  }
+
+  @Test
+  void startDownloadsTheListsInTheBackground() throws InterruptedException {
+    serveFullUpdate(List.of(prefix("evil.com/")));
+
+    database.start();
+
+    assertThat(waitUntil(database::isReady)).isTrue();
+  }
+
+  @Test
+  void failedScheduledUpdateIsRetriedLater() throws InterruptedException {
+    database.start();
+
+    assertThat(waitUntil(() -> !requests(UPDATE_PATH).isEmpty())).isTrue();
+    assertThat(database.isReady()).isFalse();
+  }
+
+  @Test
+  void scheduledUpdatesWaitAtLeastTheMinimumWaitDuration() throws InterruptedException {
+    LocalThreatDatabase frequent = database(Duration.ofMillis(10));
+    responses.put(UPDATE_PATH, Map.of());
+    try {
+      frequent.start();
+
+      assertThat(waitUntil(() -> requests(UPDATE_PATH).size() >= 2)).isTrue();
+      serveFullUpdate(List.of(prefix("evil.com/")));
+      assertThat(waitUntil(frequent::isReady)).isTrue();
+      int updates = requests(UPDATE_PATH).size();
+      Thread.sleep(100);
+      assertThat(requests(UPDATE_PATH)).hasSize(updates);
+    } finally {
+      frequent.shutdown();
+    }
+  }
+
+  @Test
+  void warningsAreSkippedWhenDisabled() {
+    Logger logger = mock(Logger.class);
+    LocalThreatDatabase quiet = spy(database);
+    doReturn(logger).when(quiet).getLogger();
+    serveFullUpdate(List.of(prefix("evil.com/")));
+    quiet.update();
+    List<Object> lists = new ArrayList<>();
+    for (String threatType : GoogleSafeBrowsingService.THREAT_TYPES) {
+      Map<String, Object> response =
+          listResponse(threatType, "PARTIAL_UPDATE", List.of(), threatType + "-2");
+      response.put("checksum", Map.of("sha256", base64(new byte[32])));
+      lists.add(response);
+    }
+    responses.put(UPDATE_PATH, Map.of("listUpdateResponses", lists));
+
+    quiet.update();
+    responses.remove(UPDATE_PATH);
+    quiet.start();
+
+    verify(logger, timeout(5000).times(GoogleSafeBrowsingService.THREAT_TYPES.size() + 1))
+        .isWarnEnabled();
+    verify(logger, never()).warn(anyString(), any(Object.class));
+    verify(logger, never()).warn(anyString(), any(Throwable.class));
+  }
+
+  @Test
+  void expressionsCoverHostAndItsSuffixes() {
+    assertThat(LocalThreatDatabase.expressions("a.b.c.d.e.f.example.com"))
+        .containsExactlyInAnyOrder(
+            "a.b.c.d.e.f.example.com/",
+            "d.e.f.example.com/",
+            "e.f.example.com/",
+            "f.example.com/",
+            "example.com/");
+    assertThat(LocalThreatDatabase.expressions("Example.com"))
+        .containsExactly("example.com/");
+  }
+
+  @Test
+  void getLoggerReturnsLoggerInstance() {
+    assertThat(database.getLogger()).isSameAs(LocalThreatDatabase.LOGGER);
+  }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.xbill.DNS.Record;
+
+/** Unit tests for {@link MxResult}. */
+@SuppressWarnings("PMD")
+class MxResultTest {
+
+  @Test
+  void recordsAreCopied() {
+    List<Record> records = new ArrayList<>(List.of(mock(Record.class)));
+
+    MxResult result = new MxResult(records, 300);
+    records.clear();
+
+    assertThat(result.hasRecords()).isTrue();
+    assertThat(result.ttlSeconds()).isEqualTo(300);
+    assertThatThrownBy(() -> result.records().clear())
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void negativeAnswerHasNoRecords() {
+    assertThat(new MxResult(List.of(), 60).hasRecords()).isFalse();
+  }
+}
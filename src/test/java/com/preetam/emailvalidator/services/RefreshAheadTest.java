@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+/** Unit tests for {@link RefreshAhead}. */
+@SuppressWarnings("PMD")
+class RefreshAheadTest {
+
+  private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+  private final MeterRegistry registry = new SimpleMeterRegistry();
+
+  /** Draw giving {@code -ln(1 - draw) == 2}. */
+  private double draw = 1 - Math.exp(-2);
+
+  private final RefreshAhead refreshAhead =
+      new RefreshAhead("domainVerdictCache", 1.5, registry, () -> draw);
+
+  /** A cache whose entries live for 10 seconds. */
+  private final CaffeineCache cache =
+      new CaffeineCache(
+          "domainVerdictCache",
+          Caffeine.newBuilder()
+              .expireAfter(Expiry.creating((key, value) -> Duration.ofSeconds(10)))
+              .build());
+
+  private double refreshes() {
+    return registry
+        .get(RefreshAhead.METRIC_NAME)
+        .tags("cache", "domainVerdictCache")
+        .counter()
+        .count();
+  }
+
+  @Test
+  void movingAverageStartsAtTheFirstRecomputation() {
+    refreshAhead.recordRecompute(800);
+    assertThat(refreshAhead.deltaNanos()).isEqualTo(800);
+
+    refreshAhead.recordRecompute(1600);
+    assertThat(refreshAhead.deltaNanos()).isEqualTo(900);
+
+    refreshAhead.recordRecompute(0);
+    assertThat(refreshAhead.deltaNanos()).isEqualTo(787);
+  }
+
+  @Test
+  void entryIsDueOnceTheScaledDrawReachesItsRemainingLifetime() {
+    cache.put("gmail.com", "verdict");
+
+    // 3.3s * 1.5 * 2 = 9.9s is still short of the ~10s left.
+    refreshAhead.recordRecompute(33 * SECOND / 10);
+    assertThat(refreshAhead.isDue(cache, "gmail.com")).isFalse();
+
+    // 3.4s * 1.5 * 2 = 10.2s is past it.
+    draw = 1 - Math.exp(-2 * 34.0 / 33);
+    assertThat(refreshAhead.isDue(cache, "gmail.com")).isTrue();
+    assertThat(refreshes()).isEqualTo(1.0);
+  }
+
+  @Test
+  void nothingIsDueBeforeARecomputationIsTimed() {
+    cache.put("gmail.com", "verdict");
+    draw = 0.999_999;
+
+    assertThat(refreshAhead.isDue(cache, "gmail.com")).isFalse();
+  }
+
+  @Test
+  void entriesWithoutAKnownLifetimeAreNeverDue() {
+    refreshAhead.recordRecompute(Duration.ofHours(1).toNanos());
+    ConcurrentMapCache plain = new ConcurrentMapCache("domainVerdictCache");
+    plain.put("gmail.com", "verdict");
+    CaffeineCache unbounded = new CaffeineCache("domainVerdictCache", Caffeine.newBuilder().build());
+    unbounded.put("gmail.com", "verdict");
+
+    assertThat(refreshAhead.isDue(plain, "gmail.com")).isFalse();
+    assertThat(refreshAhead.isDue(unbounded, "gmail.com")).isFalse();
+    assertThat(refreshAhead.isDue(cache, "absent.com")).isFalse();
+    assertThat(refreshes()).isZero();
+  }
+
+  @Test
+  void zeroBetaDisablesRefreshAhead() {
+    RefreshAhead disabled = new RefreshAhead("domainVerdictCache", 0, registry);
+    disabled.recordRecompute(Duration.ofHours(1).toNanos());
+    cache.put("gmail.com", "verdict");
+
+    assertThat(disabled.isDue(cache, "gmail.com")).isFalse();
+  }
+}
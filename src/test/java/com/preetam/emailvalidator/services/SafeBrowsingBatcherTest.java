@@ -0,0 +1,274 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("PMD")
+class SafeBrowsingBatcherTest {
+
+  private static final SafeBrowsingResult SAFE = new SafeBrowsingResult(true, null);
+
+  private static final SafeBrowsingResult UNSAFE =
+      new SafeBrowsingResult(false, Duration.ofSeconds(300));
+
+  @Mock private GoogleSafeBrowsingService googleService;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private SafeBrowsingBatcher batcher(Duration window, int maxBatchSize) {
+    return new SafeBrowsingBatcher(googleService, executor, window, maxBatchSize);
+  }
+
+  @AfterEach
+  void teardown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void concurrentChecksShareOneRequest() {
+    when(googleService.checkDomains(any()))
+        .thenReturn(Map.of("good.com", SAFE, "bad.com", UNSAFE));
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(200), 500);
+
+    CompletableFuture<SafeBrowsingResult> good = batcher.check("good.com");
+    CompletableFuture<SafeBrowsingResult> bad = batcher.check("bad.com");
+    CompletableFuture<SafeBrowsingResult> goodAgain = batcher.check("good.com");
+
+    assertThat(good).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+    assertThat(bad).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(UNSAFE);
+    assertThat(goodAgain).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+    verify(googleService)
+        .checkDomains(
+            argThat(domains -> List.copyOf(domains).equals(List.of("good.com", "bad.com"))));
+    verify(googleService, never()).checkDomain(anyString());
+  }
+
+  @Test
+  void singleDomainBatchIsSentAsSingleCheck() {
+    when(googleService.checkDomain("good.com")).thenReturn(SAFE);
+
+    assertThat(batcher(Duration.ZERO, 500).check("good.com"))
+        .succeedsWithin(Duration.ofSeconds(2))
+        .isEqualTo(SAFE);
+    verify(googleService, never()).checkDomains(any());
+  }
+
+  @Test
+  void fullBatchIsSentBeforeTheWindowEnds() {
+    when(googleService.checkDomains(any()))
+        .thenReturn(Map.of("a.com", SAFE, "b.com", SAFE));
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMinutes(1), 2);
+
+    CompletableFuture<SafeBrowsingResult> first = batcher.check("a.com");
+    CompletableFuture<SafeBrowsingResult> second = batcher.check("b.com");
+
+    assertThat(first).succeedsWithin(Duration.ofSeconds(2));
+    assertThat(second).succeedsWithin(Duration.ofSeconds(2));
+  }
+
+  @Test
+  void windowTimerRunsApartFromTheDispatchExecutor() throws InterruptedException {
+    when(googleService.checkDomain("a.com")).thenReturn(SAFE);
+    ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+    CountDownLatch release = new CountDownLatch(1);
+    dispatcher.execute(
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    SafeBrowsingBatcher batcher =
+        new SafeBrowsingBatcher(googleService, dispatcher, Duration.ofMillis(20), 500);
+
+    try {
+      CompletableFuture<SafeBrowsingResult> result = batcher.check("a.com");
+      // The window ends while the dispatch executor is busy; the batch still goes once it frees up.
+      Thread.sleep(100);
+      assertThat(result).isNotDone();
+      release.countDown();
+      assertThat(result).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+    } finally {
+      batcher.shutdown();
+      dispatcher.shutdownNow();
+    }
+  }
+
+  @Test
+  void shutdownStopsTheWindowTimer() {
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(50), 500);
+
+    batcher.shutdown();
+
+    assertThatThrownBy(() -> batcher.check("a.com"))
+        .isInstanceOf(RejectedExecutionException.class);
+    verifyNoInteractions(googleService);
+  }
+
+  @Test
+  void windowEndingAfterTheBatchFilledUpSendsNothingMore() throws InterruptedException {
+    when(googleService.checkDomain("a.com")).thenReturn(SAFE);
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(50), 1);
+
+    assertThat(batcher.check("a.com")).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+    Thread.sleep(200);
+
+    verify(googleService).checkDomain("a.com");
+    verifyNoMoreInteractions(googleService);
+  }
+
+  @Test
+  void cancelledDomainIsWithdrawnFromPendingBatch() {
+    when(googleService.checkDomain("b.com")).thenReturn(SAFE);
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(200), 500);
+
+    CompletableFuture<SafeBrowsingResult> first = batcher.check("a.com");
+    CompletableFuture<SafeBrowsingResult> second = batcher.check("b.com");
+    first.cancel(true);
+
+    assertThat(second).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+    verify(googleService, never()).checkDomain("a.com");
+  }
+
+  @Test
+  void timedOutDomainIsWithdrawnFromPendingBatch() throws InterruptedException {
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(200), 500);
+
+    assertThat(batcher.check("a.com").orTimeout(10, TimeUnit.MILLISECONDS))
+        .failsWithin(Duration.ofSeconds(1));
+    Thread.sleep(400);
+
+    verifyNoInteractions(googleService);
+  }
+
+  @Test
+  void domainStaysQueuedWhileAnotherCallerWaits() {
+    when(googleService.checkDomain("a.com")).thenReturn(SAFE);
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(100), 500);
+
+    CompletableFuture<SafeBrowsingResult> first = batcher.check("a.com");
+    CompletableFuture<SafeBrowsingResult> second = batcher.check("a.com");
+    first.cancel(true);
+
+    assertThat(second).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+  }
+
+  @Test
+  void batchWithEveryDomainWithdrawnIsNotSent() throws InterruptedException {
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(50), 500);
+
+    batcher.check("a.com").cancel(true);
+    Thread.sleep(200);
+
+    verifyNoInteractions(googleService);
+  }
+
+  @Test
+  void cancellingAfterTheBatchWasSentLeavesItRunning() throws InterruptedException {
+    CountDownLatch sent = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(googleService.checkDomain("a.com"))
+        .thenAnswer(
+            invocation -> {
+              sent.countDown();
+              release.await(2, TimeUnit.SECONDS);
+              return SAFE;
+            });
+    SafeBrowsingBatcher batcher = batcher(Duration.ZERO, 500);
+
+    CompletableFuture<SafeBrowsingResult> first = batcher.check("a.com");
+    assertThat(sent.await(2, TimeUnit.SECONDS)).isTrue();
+    first.cancel(true);
+    CompletableFuture<SafeBrowsingResult> next = batcher.check("a.com");
+    release.countDown();
+
+    assertThat(next).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+    verify(googleService, timeout(2000).times(2)).checkDomain("a.com");
+  }
+
+  @Test
+  void failedRequestFailsEveryCaller() {
+    when(googleService.checkDomains(any()))
+        .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(100), 500);
+
+    CompletableFuture<SafeBrowsingResult> first = batcher.check("a.com");
+    CompletableFuture<SafeBrowsingResult> second = batcher.check("b.com");
+
+    assertThat(first).failsWithin(Duration.ofSeconds(2));
+    assertThat(second).failsWithin(Duration.ofSeconds(2));
+  }
+
+  @Test
+  void domainMissingFromTheAnswerFailsOnlyItsCallers() {
+    when(googleService.checkDomains(any())).thenReturn(Map.of("a.com", SAFE));
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMillis(100), 500);
+
+    CompletableFuture<SafeBrowsingResult> answered = batcher.check("a.com");
+    CompletableFuture<SafeBrowsingResult> missing = batcher.check("b.com");
+
+    assertThat(answered).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+    assertThat(missing)
+        .failsWithin(Duration.ofSeconds(2))
+        .withThrowableOfType(ExecutionException.class)
+        .withCauseInstanceOf(IllegalStateException.class)
+        .withMessageContaining("b.com");
+  }
+
+  @Test
+  void maxBatchSizeIsCappedAtApiLimit() {
+    when(googleService.checkDomains(any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<String> domains = invocation.getArgument(0);
+              assertThat(domains).hasSizeLessThanOrEqualTo(500);
+              return Map.of();
+            });
+    SafeBrowsingBatcher batcher = batcher(Duration.ofMinutes(1), 10_000);
+
+    for (int i = 0; i < 500; i++) {
+      batcher.check("domain" + i + ".com");
+    }
+
+    verify(googleService, timeout(2000)).checkDomains(any());
+  }
+
+  @Test
+  void getLoggerReturnsLoggerInstance() {
+    assertThat(batcher(Duration.ZERO, 1).getLogger()).isSameAs(SafeBrowsingBatcher.LOGGER);
+  }
+}
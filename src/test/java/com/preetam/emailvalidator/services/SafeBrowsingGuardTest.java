@@ -0,0 +1,199 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("PMD")
+class SafeBrowsingGuardTest {
+
+  private static final SafeBrowsingResult SAFE = new SafeBrowsingResult(true, null);
+
+  private static final SafeBrowsingResult UNSAFE = new SafeBrowsingResult(false, null);
+
+  @Mock private GoogleSafeBrowsingService googleService;
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private SafeBrowsingGuard guard(
+      Duration timeout, int maxPending, SafeBrowsingGuard.OutagePolicy policy) {
+    return new SafeBrowsingGuard(
+        new SafeBrowsingBatcher(googleService, executor, Duration.ZERO, 500),
+        timeout,
+        2,
+        Duration.ofMinutes(1),
+        maxPending,
+        policy,
+        100,
+        registry);
+  }
+
+  private SafeBrowsingGuard guard(SafeBrowsingGuard.OutagePolicy policy) {
+    return guard(Duration.ofSeconds(2), 10, policy);
+  }
+
+  private double shed(String reason) {
+    return registry.get(SafeBrowsingGuard.SHED_METRIC).tag("reason", reason).counter().count();
+  }
+
+  private long checks(String outcome) {
+    return registry.get(SafeBrowsingGuard.CHECK_METRIC).tag("outcome", outcome).timer().count();
+  }
+
+  private static Throwable causeOf(CompletableFuture<?> future) {
+    try {
+      future.get(2, TimeUnit.SECONDS);
+      throw new AssertionError("expected failure");
+    } catch (ExecutionException e) {
+      return e.getCause();
+    } catch (Exception e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  @AfterEach
+  void teardown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void passesResultsThrough() {
+    when(googleService.checkDomain("good.com")).thenReturn(SAFE);
+
+    assertThat(guard(SafeBrowsingGuard.OutagePolicy.UNKNOWN).check("good.com"))
+        .succeedsWithin(Duration.ofSeconds(2))
+        .isEqualTo(SAFE);
+    assertThat(checks("safe")).isEqualTo(1);
+  }
+
+  @Test
+  void opensAfterFailuresAndShedsChecks() {
+    when(googleService.checkDomain("down.com"))
+        .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+    SafeBrowsingGuard guard = guard(SafeBrowsingGuard.OutagePolicy.UNKNOWN);
+
+    assertThat(guard.check("down.com")).failsWithin(Duration.ofSeconds(2));
+    assertThat(guard.check("down.com")).failsWithin(Duration.ofSeconds(2));
+
+    assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(causeOf(guard.check("good.com"))).isInstanceOf(RejectedExecutionException.class);
+    verify(googleService, never()).checkDomain("good.com");
+    assertThat(shed("circuit-open")).isEqualTo(1.0);
+    assertThat(checks("error")).isEqualTo(2);
+  }
+
+  @Test
+  void timeoutsCountAsFailures() {
+    CountDownLatch release = new CountDownLatch(1);
+    when(googleService.checkDomain("slow.com"))
+        .thenAnswer(
+            invocation -> {
+              release.await(2, TimeUnit.SECONDS);
+              return SAFE;
+            });
+    SafeBrowsingGuard guard =
+        guard(Duration.ofMillis(20), 10, SafeBrowsingGuard.OutagePolicy.UNKNOWN);
+
+    assertThat(guard.check("slow.com")).failsWithin(Duration.ofSeconds(2));
+    assertThat(guard.check("slow.com")).failsWithin(Duration.ofSeconds(2));
+    release.countDown();
+
+    assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+    assertThat(checks("timeout")).isEqualTo(2);
+  }
+
+  @Test
+  void shedsChecksBeyondTheBulkhead() {
+    CountDownLatch release = new CountDownLatch(1);
+    when(googleService.checkDomain("slow.com"))
+        .thenAnswer(
+            invocation -> {
+              release.await(2, TimeUnit.SECONDS);
+              return SAFE;
+            });
+    SafeBrowsingGuard guard =
+        guard(Duration.ofSeconds(2), 1, SafeBrowsingGuard.OutagePolicy.UNKNOWN);
+
+    CompletableFuture<SafeBrowsingResult> first = guard.check("slow.com");
+    CompletableFuture<SafeBrowsingResult> second = guard.check("other.com");
+    release.countDown();
+
+    assertThat(causeOf(second)).isInstanceOf(RejectedExecutionException.class);
+    assertThat(first).succeedsWithin(Duration.ofSeconds(2));
+    assertThat(shed("bulkhead-full")).isEqualTo(1.0);
+  }
+
+  @Test
+  void cancelledCheckDoesNotTripTheBreaker() {
+    CountDownLatch release = new CountDownLatch(1);
+    // Whether a check is cancelled before or after its batch is sent, it must not answer first.
+    lenient()
+        .when(googleService.checkDomain(anyString()))
+        .thenAnswer(
+            invocation -> {
+              release.await(2, TimeUnit.SECONDS);
+              return SAFE;
+            });
+    SafeBrowsingGuard guard = guard(SafeBrowsingGuard.OutagePolicy.UNKNOWN);
+
+    for (int i = 0; i < 3; i++) {
+      guard.check("cancelled.com").cancel(true);
+    }
+    release.countDown();
+
+    assertThat(guard.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    assertThat(checks("cancelled")).isEqualTo(3);
+  }
+
+  @Test
+  void cancelledCheckFreesItsBulkheadSlot() {
+    when(googleService.checkDomain(anyString())).thenReturn(SAFE);
+    SafeBrowsingGuard guard =
+        guard(Duration.ofSeconds(2), 1, SafeBrowsingGuard.OutagePolicy.UNKNOWN);
+
+    guard.check("cancelled.com").cancel(true);
+
+    assertThat(guard.check("good.com")).succeedsWithin(Duration.ofSeconds(2)).isEqualTo(SAFE);
+    assertThat(shed("bulkhead-full")).isZero();
+  }
+
+  @Test
+  void fallbackFollowsTheOutagePolicy() {
+    when(googleService.checkDomain("bad.com")).thenReturn(UNSAFE);
+    SafeBrowsingGuard lastKnown = guard(SafeBrowsingGuard.OutagePolicy.LAST_KNOWN);
+    assertThat(lastKnown.check("bad.com")).succeedsWithin(Duration.ofSeconds(2));
+
+    assertThat(checks("unsafe")).isEqualTo(1);
+    assertThat(lastKnown.fallback("bad.com")).isFalse();
+    assertThat(lastKnown.fallback("unseen.com")).isNull();
+    assertThat(guard(SafeBrowsingGuard.OutagePolicy.UNKNOWN).fallback("bad.com")).isNull();
+    assertThat(guard(SafeBrowsingGuard.OutagePolicy.ASSUME_SAFE).fallback("bad.com")).isTrue();
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link SingleFlight}. */
+@SuppressWarnings("PMD")
+class SingleFlightTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private final SingleFlight<String, String> flight = new SingleFlight<>("test", registry);
+
+  private double count(String outcome) {
+    return registry
+        .get(SingleFlight.METRIC_NAME)
+        .tags("flight", "test", "outcome", outcome)
+        .counter()
+        .count();
+  }
+
+  @Test
+  void concurrentCallsForSameKeyShareOneUpstreamCall() {
+    AtomicInteger calls = new AtomicInteger();
+    CompletableFuture<String> upstream = new CompletableFuture<>();
+
+    CompletableFuture<String> first =
+        flight.execute(
+            "key",
+            key -> {
+              calls.incrementAndGet();
+              return upstream;
+            });
+    CompletableFuture<String> second =
+        flight.execute(
+            "key",
+            key -> {
+              calls.incrementAndGet();
+              return upstream;
+            });
+    assertThat(flight.inFlightCount()).isEqualTo(1);
+    upstream.complete("value");
+
+    assertThat(first).isCompletedWithValue("value");
+    assertThat(second).isCompletedWithValue("value");
+    assertThat(calls).hasValue(1);
+    assertThat(count("leader")).isEqualTo(1.0);
+    assertThat(count("coalesced")).isEqualTo(1.0);
+    assertThat(flight.inFlightCount()).isZero();
+  }
+
+  @Test
+  void keyIsReleasedOnceTheCallSettles() {
+    flight.execute("key", key -> CompletableFuture.completedFuture("first"));
+
+    assertThat(flight.execute("key", key -> CompletableFuture.completedFuture("second")))
+        .isCompletedWithValue("second");
+    assertThat(count("leader")).isEqualTo(2.0);
+    assertThat(count("coalesced")).isZero();
+  }
+
+  @Test
+  void differentKeysDoNotCoalesce() {
+    CompletableFuture<String> pending = new CompletableFuture<>();
+
+    flight.execute("a", key -> pending);
+    flight.execute("b", key -> pending);
+
+    assertThat(flight.inFlightCount()).isEqualTo(2);
+    assertThat(count("coalesced")).isZero();
+  }
+
+  @Test
+  void failureIsSharedAndReleasesTheKey() {
+    CompletableFuture<String> upstream = new CompletableFuture<>();
+    CompletableFuture<String> first = flight.execute("key", key -> upstream);
+    CompletableFuture<String> second = flight.execute("key", key -> upstream);
+
+    upstream.completeExceptionally(new IllegalStateException("boom"));
+
+    assertThat(first).failsWithin(Duration.ZERO);
+    assertThat(second).failsWithin(Duration.ZERO);
+    assertThat(flight.inFlightCount()).isZero();
+  }
+
+  @Test
+  void callThrowingSynchronouslyFailsTheFuture() {
+    CompletableFuture<String> result =
+        flight.execute(
+            "key",
+            key -> {
+              throw new IllegalArgumentException(key);
+            });
+
+    assertThat(result).isCompletedExceptionally();
+    assertThat(flight.inFlightCount()).isZero();
+  }
+
+  @Test
+  void cancellingOneWaiterDoesNotAffectOthers() {
+    CompletableFuture<String> upstream = new CompletableFuture<>();
+    CompletableFuture<String> first = flight.execute("key", key -> upstream);
+    CompletableFuture<String> second = flight.execute("key", key -> upstream);
+
+    first.cancel(true);
+    upstream.complete("value");
+
+    assertThat(first).isCancelled();
+    assertThat(second).isCompletedWithValue("value");
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.preetam.emailvalidator.services.StageTimings.Stage;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link StageTimings}. */
+@SuppressWarnings("PMD")
+class StageTimingsTest {
+
+  @Test
+  void timesAddUpPerStage() {
+    StageTimings timings = new StageTimings();
+
+    timings.add(Stage.SAFE_BROWSING, 1_500_000);
+    timings.add(Stage.SAFE_BROWSING, 500_000);
+
+    assertThat(timings.nanos(Stage.SAFE_BROWSING)).isEqualTo(2_000_000);
+    assertThat(timings.nanos(Stage.MX)).isZero();
+  }
+
+  @Test
+  void millisListsEveryStageInOrder() {
+    StageTimings timings = new StageTimings();
+    timings.add(Stage.MX, 2_500_000);
+
+    assertThat(timings.millis())
+        .containsExactly(
+            entry("cache", 0.0),
+            entry("syntax", 0.0),
+            entry("domain", 0.0),
+            entry("safe_browsing", 0.0),
+            entry("mx", 2.5),
+            entry("disposable", 0.0));
+    assertThat(timings).hasToString(timings.millis().toString());
+  }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.preetam.emailvalidator.models.EmailResponse;
+import com.preetam.emailvalidator.models.ValidationJob;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.slf4j.Logger;
+import tools.jackson.databind.json.JsonMapper;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("PMD")
+class ValidationJobServiceTest {
+
+  @Mock private EmailValidatorService validatorService;
+
+  @TempDir Path jobsDir;
+
+  private ValidationJobService jobService;
+
+  @BeforeEach
+  void setup() {
+    lenient()
+        .when(validatorService.validateEmailAsync(anyString()))
+        .thenAnswer(
+            invocation -> {
+              EmailResponse response = new EmailResponse();
+              response.setEmail(invocation.getArgument(0));
+              return CompletableFuture.completedFuture(response);
+            });
+    EmailStreamService streamService =
+        new EmailStreamService(validatorService, new JsonMapper(), 4, 4096);
+    jobService =
+        new ValidationJobService(streamService, jobsDir.toString(), 1, 2, Duration.ofHours(1));
+  }
+
+  @AfterEach
+  void teardown() {
+    jobService.shutdown();
+  }
+
+  private ValidationJob awaitFinished(String id) throws InterruptedException {
+    return awaitFinished(jobService, id);
+  }
+
+  private static ValidationJob awaitFinished(ValidationJobService service, String id)
+      throws InterruptedException {
+    for (int i = 0; i < 500; i++) {
+      ValidationJob job = service.status(id).orElseThrow();
+      if (job.getState() == ValidationJob.State.COMPLETED
+          || job.getState() == ValidationJob.State.FAILED) {
+        return job;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Job did not finish: " + id);
+  }
+
+  @Test
+  void submittedJobCompletesAndWritesResultsInOrder() throws Exception {
+    ValidationJob submitted =
+        jobService.submit(
+            new ByteArrayInputStream(
+                "a@example.com\n\n{\"email\":\"b@example.com\"}\nc@example.com\n"
+                    .getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(submitted.getTotal()).isEqualTo(3);
+
+    ValidationJob finished = awaitFinished(submitted.getId());
+
+    assertThat(finished.getState()).isEqualTo(ValidationJob.State.COMPLETED);
+    assertThat(finished.getProcessed()).isEqualTo(3);
+    assertThat(Files.readAllLines(jobService.results(submitted.getId()).orElseThrow()))
+        .containsExactly(
+            "{\"email\":\"a@example.com\"}",
+            "{\"email\":\"b@example.com\"}",
+            "{\"email\":\"c@example.com\"}");
+  }
+
+  @Test
+  void overlongSubmittedLineIsReportedInTheResults() throws Exception {
+    ValidationJob submitted =
+        jobService.submit(
+            new ByteArrayInputStream(
+                ("x".repeat(10_000) + "\na@example.com\n").getBytes(StandardCharsets.UTF_8)));
+
+    assertThat(submitted.getTotal()).isEqualTo(2);
+    assertThat(awaitFinished(submitted.getId()).getState())
+        .isEqualTo(ValidationJob.State.COMPLETED);
+    assertThat(Files.readAllLines(jobService.results(submitted.getId()).orElseThrow()))
+        .containsExactly(
+            "{\"error\":\"Line longer than 4096 characters\"}", "{\"email\":\"a@example.com\"}");
+  }
+
+  @Test
+  void resumeJobsContinuesFromCheckpoint() throws Exception {
+    Path dir = Files.createDirectories(jobsDir.resolve("job-1"));
+    Files.write(dir.resolve("input.txt"), List.of("a@example.com", "b@example.com"));
+    String done = "{\"email\":\"a@example.com\"}\n";
+    // A partially written line after the checkpoint must be discarded on resume.
+    Files.writeString(dir.resolve("results.ndjson"), done + "{\"email\":\"b@exa");
+    Files.writeString(
+        dir.resolve("checkpoint.properties"),
+        "state=RUNNING\ntotal=2\nlines=1\nbytes=" + done.length() + "\n");
+
+    jobService.resumeJobs();
+    ValidationJob finished = awaitFinished("job-1");
+
+    assertThat(finished.getState()).isEqualTo(ValidationJob.State.COMPLETED);
+    assertThat(Files.readAllLines(dir.resolve("results.ndjson")))
+        .containsExactly("{\"email\":\"a@example.com\"}", "{\"email\":\"b@example.com\"}");
+    verify(validatorService, never()).validateEmailAsync("a@example.com");
+  }
+
+  @Test
+  void resumeJobsLoadsFinishedJobsWithoutRerunning() throws Exception {
+    Path dir = Files.createDirectories(jobsDir.resolve("job-2"));
+    Files.writeString(
+        dir.resolve("checkpoint.properties"), "state=COMPLETED\ntotal=1\nlines=1\nbytes=10\n");
+
+    jobService.resumeJobs();
+
+    assertThat(jobService.status("job-2").orElseThrow().getProcessed()).isEqualTo(1);
+    verify(validatorService, never()).validateEmailAsync(anyString());
+  }
+
+  @Test
+  void jobWithMissingInputFails() throws Exception {
+    Path dir = Files.createDirectories(jobsDir.resolve("job-3"));
+    Files.writeString(
+        dir.resolve("checkpoint.properties"), "state=QUEUED\ntotal=1\nlines=0\nbytes=0\n");
+
+    jobService.resumeJobs();
+
+    assertThat(awaitFinished("job-3").getState()).isEqualTo(ValidationJob.State.FAILED);
+    // The state is published before the checkpoint records it; wait for the file too.
+    Path checkpoint = dir.resolve("checkpoint.properties");
+    for (int i = 0; i < 500 && !Files.readString(checkpoint).contains("state=FAILED"); i++) {
+      Thread.sleep(10);
+    }
+    assertThat(Files.readString(checkpoint)).contains("state=FAILED");
+  }
+
+  @Test
+  void resumeJobsSkipsStrayDirectoriesAndKnownJobs() throws Exception {
+    Files.createDirectories(jobsDir.resolve("stray"));
+    Path dir = Files.createDirectories(jobsDir.resolve("job-4"));
+    Files.writeString(
+        dir.resolve("checkpoint.properties"), "state=FAILED\ntotal=1\nlines=0\nbytes=0\n");
+
+    jobService.resumeJobs();
+    jobService.resumeJobs();
+
+    assertThat(jobService.status("stray")).isEmpty();
+    assertThat(jobService.status("job-4").orElseThrow().getState())
+        .isEqualTo(ValidationJob.State.FAILED);
+    verify(validatorService, never()).validateEmailAsync(anyString());
+  }
+
+  /** Returns a job service whose stream validation is replaced by {@code answer}. */
+  private ValidationJobService withStream(Answer<Void> answer) throws IOException {
+    EmailStreamService streamService = mock(EmailStreamService.class);
+    doAnswer(answer).when(streamService).validateStream(any(BufferedReader.class), any());
+    return new ValidationJobService(streamService, jobsDir.toString(), 1, 1, Duration.ofHours(1));
+  }
+
+  private static ByteArrayInputStream input() {
+    return new ByteArrayInputStream("a@example.com\n".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void countsResultsWrittenByteByByte() throws Exception {
+    ValidationJobService service =
+        withStream(
+            invocation -> {
+              OutputStream output = invocation.getArgument(1);
+              output.write('x');
+              output.write('\n');
+              output.flush();
+              return null;
+            });
+    try {
+      String id = service.submit(input()).getId();
+      ValidationJob finished = awaitFinished(service, id);
+
+      assertThat(finished.getState()).isEqualTo(ValidationJob.State.COMPLETED);
+      assertThat(finished.getProcessed()).isEqualTo(1);
+      assertThat(Files.readAllLines(service.results(id).orElseThrow())).containsExactly("x");
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  void interruptedJobStaysResumable() throws Exception {
+    Logger logger = mock(Logger.class);
+    ValidationJobService service =
+        spy(
+            withStream(
+                invocation -> {
+                  Thread.currentThread().interrupt();
+                  invocation.<OutputStream>getArgument(1).flush();
+                  return null;
+                }));
+    doReturn(logger).when(service).getLogger();
+    try {
+      String id = service.submit(input()).getId();
+
+      verify(logger, timeout(5000)).info("Validation job {} interrupted at {}", id, 0L);
+      assertThat(service.status(id).orElseThrow().getState())
+          .isEqualTo(ValidationJob.State.RUNNING);
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  void failureThatCannotBeRecordedIsLogged() throws Exception {
+    Logger logger = mock(Logger.class);
+    ValidationJobService service =
+        spy(
+            withStream(
+                invocation -> {
+                  // Block the checkpoint file with a non-empty directory so it cannot be replaced.
+                  Path checkpoint;
+                  try (Stream<Path> jobs = Files.list(jobsDir)) {
+                    checkpoint = jobs.findFirst().orElseThrow().resolve("checkpoint.properties");
+                  }
+                  Files.delete(checkpoint);
+                  Files.createDirectories(checkpoint.resolve("blocked"));
+                  throw new IllegalStateException("boom");
+                }));
+    doReturn(logger).when(service).getLogger();
+    try {
+      String id = service.submit(input()).getId();
+
+      verify(logger, timeout(5000))
+          .error(eq("Could not record failure of job {}"), eq(id), any(IOException.class));
+      assertThat(service.status(id).orElseThrow().getState())
+          .isEqualTo(ValidationJob.State.FAILED);
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  void resumeJobsIgnoresMissingDirectory() throws IOException {
+    EmailStreamService streamService =
+        new EmailStreamService(validatorService, new JsonMapper(), 4, 4096);
+    ValidationJobService missing =
+        new ValidationJobService(
+            streamService, jobsDir.resolve("absent").toString(), 1, 2, Duration.ofHours(1));
+
+    missing.resumeJobs();
+
+    assertThat(missing.status("anything")).isEmpty();
+    assertThat(missing.results("anything")).isEmpty();
+    missing.shutdown();
+  }
+
+  private ValidationJobService expiringImmediately() {
+    EmailStreamService streamService =
+        new EmailStreamService(validatorService, new JsonMapper(), 4, 4096);
+    return new ValidationJobService(streamService, jobsDir.toString(), 1, 2, Duration.ZERO);
+  }
+
+  @Test
+  void finishedJobsAreRemovedAfterTheRetentionPeriod() throws Exception {
+    ValidationJobService service = expiringImmediately();
+    try {
+      String id = service.submit(input()).getId();
+      awaitFinished(service, id);
+      assertThat(Files.readString(jobsDir.resolve(id).resolve("checkpoint.properties")))
+          .contains("finished=");
+
+      // The finish time is recorded just after the final state, once the checkpoint is written.
+      for (int i = 0; i < 500 && service.status(id).isPresent(); i++) {
+        service.removeExpiredJobs();
+        Thread.sleep(10);
+      }
+
+      assertThat(service.status(id)).isEmpty();
+      assertThat(service.results(id)).isEmpty();
+      assertThat(jobsDir.resolve(id)).doesNotExist();
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  void finishedJobsAreKeptWithinTheRetentionPeriod() throws Exception {
+    String id = jobService.submit(input()).getId();
+    awaitFinished(id);
+
+    jobService.removeExpiredJobs();
+
+    assertThat(jobService.status(id)).isPresent();
+    assertThat(jobsDir.resolve(id).resolve("results.ndjson")).exists();
+  }
+
+  @Test
+  void unfinishedJobsAreNeverRemoved() throws Exception {
+    Path dir = Files.createDirectories(jobsDir.resolve("job-5"));
+    Files.writeString(dir.resolve("input.txt"), "a@example.com\n");
+    Files.writeString(
+        dir.resolve("checkpoint.properties"), "state=QUEUED\ntotal=1\nlines=0\nbytes=0\n");
+    EmailStreamService streamService = mock(EmailStreamService.class);
+    CountDownLatch running = new CountDownLatch(1);
+    doAnswer(
+            invocation -> {
+              running.countDown();
+              Thread.sleep(60_000);
+              return null;
+            })
+        .when(streamService)
+        .validateStream(any(BufferedReader.class), any());
+    ValidationJobService service =
+        new ValidationJobService(streamService, jobsDir.toString(), 1, 1, Duration.ZERO);
+    try {
+      service.resumeJobs();
+      assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+      service.removeExpiredJobs();
+
+      assertThat(service.status("job-5")).isPresent();
+      assertThat(dir).exists();
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  void loadedJobsExpireFromWhenTheyFinished() throws Exception {
+    Path recorded = Files.createDirectories(jobsDir.resolve("job-6"));
+    Files.writeString(
+        recorded.resolve("checkpoint.properties"),
+        "state=COMPLETED\ntotal=1\nlines=1\nbytes=10\nfinished="
+            + Instant.now().minus(Duration.ofHours(2)).toEpochMilli()
+            + "\n");
+    Path legacy = Files.createDirectories(jobsDir.resolve("job-7"));
+    Path legacyCheckpoint = legacy.resolve("checkpoint.properties");
+    Files.writeString(legacyCheckpoint, "state=FAILED\ntotal=1\nlines=0\nbytes=0\n");
+    Files.setLastModifiedTime(
+        legacyCheckpoint, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+    Path recent = Files.createDirectories(jobsDir.resolve("job-8"));
+    Files.writeString(
+        recent.resolve("checkpoint.properties"), "state=COMPLETED\ntotal=1\nlines=1\nbytes=10\n");
+
+    jobService.resumeJobs();
+    jobService.removeExpiredJobs();
+
+    assertThat(jobService.status("job-6")).isEmpty();
+    assertThat(recorded).doesNotExist();
+    assertThat(jobService.status("job-7")).isEmpty();
+    assertThat(legacy).doesNotExist();
+    assertThat(jobService.status("job-8")).isPresent();
+    assertThat(recent).exists();
+  }
+
+  @Test
+  void jobWhoseFilesCannotBeDeletedIsStillForgotten() throws Exception {
+    Logger logger = mock(Logger.class);
+    ValidationJobService service = spy(expiringImmediately());
+    doReturn(logger).when(service).getLogger();
+    Path dir = Files.createDirectories(jobsDir.resolve("job-9"));
+    Files.writeString(
+        dir.resolve("checkpoint.properties"), "state=COMPLETED\ntotal=1\nlines=1\nbytes=10\n");
+    try {
+      service.resumeJobs();
+      Files.delete(dir.resolve("checkpoint.properties"));
+      Files.delete(dir);
+
+      service.removeExpiredJobs();
+
+      assertThat(service.status("job-9")).isEmpty();
+      verify(logger)
+          .warn(
+              eq("Could not delete the files of expired job {}"),
+              eq("job-9"),
+              any(IOException.class));
+    } finally {
+      service.shutdown();
+    }
+  }
+
+  @Test
+  void cleanupRunsInTheBackground() throws Exception {
+    ValidationJobService service = expiringImmediately();
+    try {
+      String id = service.submit(input()).getId();
+      awaitFinished(service, id);
+
+      service.startCleanup();
+      for (int i = 0; i < 500 && Files.exists(jobsDir.resolve(id)); i++) {
+        Thread.sleep(10);
+      }
+
+      assertThat(service.status(id)).isEmpty();
+      assertThat(jobsDir.resolve(id)).doesNotExist();
+    } finally {
+      service.shutdown();
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 Preetam Potdar
+ */
+
+package com.preetam.emailvalidator.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.preetam.emailvalidator.beans.AppConfig;
+import com.preetam.emailvalidator.configurations.OutboundBulkhead;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.RestTemplate;
+import org.xbill.DNS.DClass;
+import org.xbill.DNS.Flags;
+import org.xbill.DNS.Lookup;
+import org.xbill.DNS.MXRecord;
+import org.xbill.DNS.Message;
+import org.xbill.DNS.Name;
+import org.xbill.DNS.Record;
+import org.xbill.DNS.Section;
+import org.xbill.DNS.SimpleResolver;
+import org.xbill.DNS.Type;
+
+/**
+ * Verifies that the blocking I/O on the validation path does not pin carrier
+ * threads when run on virtual threads.
+ *
+ * <p>Many virtual threads query a local stub DNS server through dnsjava and a
+ * local stub HTTP server through the application's {@link RestTemplate} while
+ * JFR records {@code jdk.VirtualThreadPinned} events.
+ */
+@SuppressWarnings("PMD")
+class VirtualThreadPinningTest {
+
+  private static final int TASKS = 200;
+
+  private static final int CALLS_PER_TASK = 5;
+
+  private static DatagramSocket dnsSocket;
+
+  private static Thread dnsServer;
+
+  private static HttpServer httpServer;
+
+  @BeforeAll
+  static void startStubServers() throws IOException {
+    dnsSocket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+    dnsServer = Thread.ofPlatform().daemon().name("stub-dns").start(() -> serveDns(dnsSocket));
+
+    httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    httpServer.createContext(
+        "/",
+        exchange -> {
+          exchange.getRequestBody().readAllBytes();
+          byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().add("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    httpServer.setExecutor(Executors.newCachedThreadPool());
+    httpServer.start();
+  }
+
+  @AfterAll
+  static void stopStubServers() throws InterruptedException {
+    httpServer.stop(0);
+    dnsSocket.close();
+    dnsServer.join(1000);
+  }
+
+  @Test
+  void dnsAndHttpCallsDoNotPinCarrierThreads(@TempDir Path tempDir) throws Exception {
+    SimpleResolver resolver =
+        new SimpleResolver(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), dnsSocket.getLocalPort()));
+    resolver.setTimeout(Duration.ofSeconds(5));
+    DnsLookupServiceImpl dnsLookupService =
+        new DnsLookupServiceImpl(resolver, 60, new SimpleMeterRegistry());
+    AppConfig appConfig = new AppConfig();
+    RestTemplate restTemplate =
+        appConfig.restTemplate(
+            appConfig.outboundHttpClient(Duration.ofSeconds(5)),
+            new OutboundBulkhead(new SimpleMeterRegistry(), 64, Duration.ofSeconds(5)),
+            Duration.ofSeconds(5));
+    String url = "http://localhost:" + httpServer.getAddress().getPort() + "/v4/threatMatches:find";
+
+    Callable<Boolean> calls =
+        () -> {
+          boolean answered = true;
+          for (int i = 0; i < CALLS_PER_TASK; i++) {
+            answered &= dnsLookupService.lookupMxAsync("example.com").join().hasRecords();
+            Lookup lookup = new Lookup("example.com.", Type.MX);
+            lookup.setResolver(resolver);
+            lookup.setCache(null);
+            Record[] records = lookup.run();
+            answered &= records != null && records.length == 1;
+            answered &=
+                restTemplate.postForEntity(url, Map.of("client", "test"), Map.class).getBody()
+                    != null;
+          }
+          return answered;
+        };
+    // Load classes and initialise both stacks outside the recording.
+    assertThat(calls.call()).isTrue();
+
+    List<RecordedEvent> pinned;
+    try (Recording recording = new Recording()) {
+      recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+      recording.start();
+
+      List<Future<Boolean>> results = new ArrayList<>();
+      try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        for (int i = 0; i < TASKS; i++) {
+          results.add(executor.submit(calls));
+        }
+        for (Future<Boolean> result : results) {
+          assertThat(result.get()).isTrue();
+        }
+      }
+
+      recording.stop();
+      Path dump = tempDir.resolve("pinning.jfr");
+      recording.dump(dump);
+      pinned =
+          RecordingFile.readAllEvents(dump).stream()
+              .filter(event -> "jdk.VirtualThreadPinned".equals(event.getEventType().getName()))
+              .filter(VirtualThreadPinningTest::onValidationPath)
+              .toList();
+    }
+
+    assertThat(pinned).isEmpty();
+  }
+
+  private static boolean onValidationPath(RecordedEvent event) {
+    return event.getStackTrace() != null
+        && event.getStackTrace().getFrames().stream()
+            .map(RecordedFrame::getMethod)
+            .map(method -> method.getType().getName())
+            .anyMatch(
+                type ->
+                    type.startsWith("org.xbill.DNS.") || type.startsWith("org.springframework."));
+  }
+
+  private static void serveDns(DatagramSocket socket) {
+    byte[] buffer = new byte[512];
+    while (!socket.isClosed()) {
+      try {
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        socket.receive(packet);
+        Message query = new Message(Arrays.copyOf(packet.getData(), packet.getLength()));
+        Record question = query.getQuestion();
+
+        Message response = new Message(query.getHeader().getID());
+        response.getHeader().setFlag(Flags.QR);
+        response.getHeader().setFlag(Flags.AA);
+        response.addRecord(question, Section.QUESTION);
+        response.addRecord(
+            new MXRecord(
+                question.getName(), DClass.IN, 300, 10, Name.fromString("mx.example.com.")),
+            Section.ANSWER);
+
+        byte[] wire = response.toWire();
+        socket.send(new DatagramPacket(wire, wire.length, packet.getSocketAddress()));
+      } catch (IOException e) {
+        // Socket closed on shutdown, or a malformed packet: keep serving until closed.
+      }
+    }
+  }
+}